@@ -20,6 +20,7 @@
 package org.neo4j.bolt.dbapi;
 
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 
 /**
  * A representation of a query execution result.
@@ -28,6 +29,12 @@ public interface BoltQueryExecution
 {
     QueryExecution getQueryExecution();
 
+    /**
+     * @return the tracker of the memory held on behalf of the query, e.g. by records produced before the client asks for them,
+     * or {@code null} if that memory can't be accounted for, in which case no records are produced before the client asks for them.
+     */
+    MemoryTracker memoryTracker();
+
     /**
      * This should be called once the query is finished, either successfully or not.
      * Should be called from the same thread the query was executing in.
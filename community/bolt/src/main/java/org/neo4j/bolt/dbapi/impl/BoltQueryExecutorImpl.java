@@ -28,6 +28,7 @@ import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
 import org.neo4j.kernel.impl.query.QuerySubscriber;
 import org.neo4j.kernel.impl.query.TransactionalContext;
 import org.neo4j.kernel.impl.query.TransactionalContextFactory;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.virtual.MapValue;
 
 public class BoltQueryExecutorImpl implements BoltQueryExecutor
@@ -70,6 +71,12 @@ public class BoltQueryExecutorImpl implements BoltQueryExecutor
             return queryExecution;
         }
 
+        @Override
+        public MemoryTracker memoryTracker()
+        {
+            return transactionalContext.kernelTransaction().memoryTracker();
+        }
+
         @Override
         public void close()
         {
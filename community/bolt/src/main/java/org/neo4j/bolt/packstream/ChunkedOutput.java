@@ -211,7 +211,19 @@ public class ChunkedOutput implements PackOutput
         {
             throw new IOException( "Asked to write " + length + " bytes, but there is only " + (data.length - offset) + " bytes available in data provided." );
         }
-        return writeBytes( ByteBuffer.wrap( data, offset, length ) );
+        // Copy straight from the array into the chunks, e.g. the UTF-8 bytes of a string value read from the store,
+        // without wrapping it in a ByteBuffer first
+        while ( length > 0 )
+        {
+            // Ensure there is an open chunk, and that it has at least one byte of space left
+            ensure( 1 );
+
+            int bytesToWrite = Math.min( availableBytesInCurrentChunk(), length );
+            buffer.writeBytes( data, offset, bytesToWrite );
+            offset += bytesToWrite;
+            length -= bytesToWrite;
+        }
+        return this;
     }
 
     @Override
@@ -19,7 +19,9 @@
  */
 package org.neo4j.bolt.runtime;
 
+import java.io.IOException;
 import java.time.Clock;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 
 import org.neo4j.bolt.runtime.statemachine.impl.BoltAdapterSubscriber;
@@ -29,6 +31,7 @@ import org.neo4j.graphdb.Notification;
 import org.neo4j.graphdb.QueryExecutionType;
 import org.neo4j.graphdb.QueryStatistics;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.util.Preconditions;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.TextValue;
@@ -61,19 +64,32 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     private final BoltAdapterSubscriber querySubscriber;
 
     private static final Long STREAM_UNLIMITED_BATCH_SIZE = Long.MAX_VALUE;
+    /**
+     * Records are prefetched in batches of at most this size, so that a PULL arriving while prefetching isn't kept waiting long.
+     */
+    private static final long PREFETCH_BATCH_SIZE = 100;
+
+    private final PrefetchBuffer prefetchBuffer;
+    /**
+     * Number of records asked for by the last PULL, records are prefetched up to this amount. The client is expected to keep asking
+     * for batches of the same size, and a client which asks for larger batches is consuming faster.
+     */
+    private long prefetchSize;
 
     public AbstractCypherAdapterStream( QueryExecution queryExecution,
-            BoltAdapterSubscriber querySubscriber, Clock clock )
+            BoltAdapterSubscriber querySubscriber, Clock clock, MemoryTracker memoryTracker )
     {
         this.queryExecution = queryExecution;
         this.fieldNames = queryExecution.fieldNames();
         this.querySubscriber = querySubscriber;
         this.clock = clock;
+        this.prefetchBuffer = new PrefetchBuffer( memoryTracker );
     }
 
     @Override
     public void close()
     {
+        prefetchBuffer.clear();
         queryExecution.cancel();
     }
 
@@ -87,25 +103,38 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     public boolean handleRecords( RecordConsumer recordConsumer, long size ) throws Throwable
     {
         long start = clock.millis();
-        this.querySubscriber.setRecordConsumer( recordConsumer );
+        if ( size != STREAM_LIMIT_UNLIMITED )
+        {
+            prefetchSize = size;
+        }
+        long remaining = size == STREAM_LIMIT_UNLIMITED ? STREAM_UNLIMITED_BATCH_SIZE : size;
+        remaining -= prefetchBuffer.drain( recordConsumer, remaining );
 
         boolean hasMore = true;
-        if ( size == STREAM_LIMIT_UNLIMITED )
+        if ( prefetchBuffer.isEmpty() )
         {
-            while ( hasMore )
+            prefetchBuffer.rethrowFailure();
+            // a query that failed while prefetching has its error reported by the query subscriber below
+            hasMore = !prefetchBuffer.exhausted && !prefetchBuffer.failed;
+            this.querySubscriber.setRecordConsumer( recordConsumer );
+            if ( size == STREAM_LIMIT_UNLIMITED )
+            {
+                while ( hasMore )
+                {
+                    // Continuously pull until the whole stream is done
+                    queryExecution.request( STREAM_UNLIMITED_BATCH_SIZE );
+                    hasMore = queryExecution.await();
+                }
+            }
+            else if ( hasMore && remaining > 0 )
             {
-                // Continuously pull until the whole stream is done
-                queryExecution.request( STREAM_UNLIMITED_BATCH_SIZE );
+                queryExecution.request( remaining );
                 hasMore = queryExecution.await();
             }
+            querySubscriber.assertSucceeded();
         }
-        else
-        {
-            queryExecution.request( size );
-            hasMore = queryExecution.await();
-        }
+        // else the records produced ahead covered the whole request, any failure after them is reported by the next one
 
-        querySubscriber.assertSucceeded();
         if ( !hasMore )
         {
             addRecordStreamingTime( clock.millis() - start, recordConsumer );
@@ -115,6 +144,27 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         return hasMore;
     }
 
+    @Override
+    public long prefetchRecords( long maxBytes )
+    {
+        if ( !prefetchBuffer.canPrefetch( prefetchSize, maxBytes ) )
+        {
+            return 0;
+        }
+        int before = prefetchBuffer.records.size();
+        querySubscriber.setRecordConsumer( prefetchBuffer );
+        try
+        {
+            queryExecution.request( Math.min( PREFETCH_BATCH_SIZE, prefetchSize - before ) );
+            prefetchBuffer.exhausted = !queryExecution.await();
+        }
+        catch ( Throwable t )
+        {
+            prefetchBuffer.failure = t;
+        }
+        return prefetchBuffer.records.size() - before;
+    }
+
     @Override
     public boolean discardRecords( DiscardingRecordConsumer consumer, long size ) throws Throwable
     {
@@ -124,6 +174,7 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         if ( queryExecution.executionType().queryType() == QueryExecutionType.QueryType.READ_ONLY )
         {
             long start = clock.millis();
+            prefetchBuffer.clear();
             queryExecution.cancel();
             queryExecution.await();
             addRecordStreamingTime( clock.millis() - start, consumer );
@@ -141,6 +192,126 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
 
     protected abstract void addDatabaseName( RecordConsumer recordConsumer );
 
+    /**
+     * Heap-accounted records produced by {@link #prefetchRecords(long)} that the client has yet to ask for. The records are charged
+     * to the memory tracker of the query, so that they count towards the memory limit of its transaction. Nothing is prefetched
+     * for a query without a memory tracker.
+     */
+    private static class PrefetchBuffer implements RecordConsumer
+    {
+        private final ArrayDeque<AnyValue[]> records = new ArrayDeque<>();
+        private final MemoryTracker memoryTracker;
+        private long estimatedHeapUsage;
+        private AnyValue[] current;
+        private int currentOffset;
+        private boolean exhausted;
+        private boolean failed;
+        private Throwable failure;
+
+        PrefetchBuffer( MemoryTracker memoryTracker )
+        {
+            this.memoryTracker = memoryTracker;
+        }
+
+        boolean canPrefetch( long prefetchSize, long maxBytes )
+        {
+            return memoryTracker != null && !exhausted && !failed && failure == null && records.size() < prefetchSize && estimatedHeapUsage < maxBytes;
+        }
+
+        boolean isEmpty()
+        {
+            return records.isEmpty();
+        }
+
+        long drain( RecordConsumer recordConsumer, long size ) throws IOException
+        {
+            long drained = 0;
+            while ( drained < size && !records.isEmpty() )
+            {
+                AnyValue[] record = records.poll();
+                recordConsumer.beginRecord( record.length );
+                for ( AnyValue value : record )
+                {
+                    release( value.estimatedHeapUsage() );
+                    recordConsumer.consumeField( value );
+                }
+                recordConsumer.endRecord();
+                drained++;
+            }
+            return drained;
+        }
+
+        void rethrowFailure() throws Throwable
+        {
+            if ( failure != null )
+            {
+                Throwable t = failure;
+                failure = null;
+                throw t;
+            }
+        }
+
+        void clear()
+        {
+            if ( !records.isEmpty() )
+            {
+                records.clear();
+                release( estimatedHeapUsage );
+            }
+        }
+
+        private void release( long heap )
+        {
+            memoryTracker.releaseHeap( heap );
+            estimatedHeapUsage -= heap;
+        }
+
+        @Override
+        public void beginRecord( int numberOfFields )
+        {
+            current = new AnyValue[numberOfFields];
+            currentOffset = 0;
+        }
+
+        @Override
+        public void consumeField( AnyValue value )
+        {
+            long heap = value.estimatedHeapUsage();
+            memoryTracker.allocateHeap( heap );
+            estimatedHeapUsage += heap;
+            current[currentOffset++] = value;
+        }
+
+        @Override
+        public void endRecord()
+        {
+            records.add( current );
+            current = null;
+        }
+
+        @Override
+        public void onError()
+        {
+            // the query subscriber keeps the error and reports it once the records produced before it are handled
+            if ( current != null )
+            {
+                for ( int i = 0; i < currentOffset; i++ )
+                {
+                    release( current[i].estimatedHeapUsage() );
+                }
+                current = null;
+            }
+            failed = true;
+        }
+
+        @Override
+        public void addMetadata( String key, AnyValue value )
+        {
+            // metadata is only added once the query has no more records, to the consumer of the last records
+            assert false : "Metadata " + key + " added to records produced ahead";
+        }
+    }
+
     protected abstract void addRecordStreamingTime( long time, RecordConsumer recordConsumer );
 
     private void addMetadata( QueryStatistics statistics, RecordConsumer recordConsumer )
@@ -35,6 +35,22 @@ public interface BoltConnectionMetricsMonitor
 
     void messageProcessingFailed();
 
+    /**
+     * Called when records of a result were produced ahead of the PULL asking for them.
+     *
+     * @param connectionId the connection streaming the result.
+     * @param records the number of records produced.
+     * @param prefetchTime the time it took to produce them, in nanoseconds.
+     */
+    void resultsPrefetched( String connectionId, long records, long prefetchTime );
+
+    /**
+     * Called when no records were produced ahead of the next PULL since the client isn't reading the records already sent.
+     *
+     * @param connectionId the connection streaming the result.
+     */
+    void resultPrefetchThrottled( String connectionId );
+
     void connectionClosed();
 
 }
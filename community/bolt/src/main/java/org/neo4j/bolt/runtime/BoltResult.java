@@ -43,6 +43,19 @@ public interface BoltResult extends AutoCloseable
      */
     boolean discardRecords( DiscardingRecordConsumer recordConsumer, long size ) throws Throwable;
 
+    /**
+     * Produce records ahead of the next {@link #handleRecords(RecordConsumer, long)}, while the client has yet to ask for them.
+     * Prefetched records are kept until they are handled or discarded, and errors raised while producing them are reported when
+     * they are handled.
+     *
+     * @param maxBytes estimated heap the prefetched records of this result may take up.
+     * @return the number of records that were prefetched by this call, {@code 0} if no more records should be produced ahead.
+     */
+    default long prefetchRecords( long maxBytes )
+    {
+        return 0;
+    }
+
     @Override
     void close();
 
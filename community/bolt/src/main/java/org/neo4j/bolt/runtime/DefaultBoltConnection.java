@@ -36,6 +36,7 @@ import org.neo4j.bolt.messaging.BoltResponseMessageWriter;
 import org.neo4j.bolt.runtime.scheduling.BoltConnectionLifetimeListener;
 import org.neo4j.bolt.runtime.scheduling.BoltConnectionQueueMonitor;
 import org.neo4j.bolt.runtime.statemachine.BoltStateMachine;
+import org.neo4j.bolt.transport.TransportWriteThrottle;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.internal.LogService;
@@ -70,10 +71,20 @@ public class DefaultBoltConnection implements BoltConnection
     private final Clock clock;
     private final BoltResponseMessageWriter messageWriter;
 
+    private final long resultPrefetchMaxSize;
+
     DefaultBoltConnection( BoltChannel channel, BoltResponseMessageWriter messageWriter, BoltStateMachine machine,
             LogService logService, BoltConnectionLifetimeListener listener,
             BoltConnectionQueueMonitor queueMonitor, int maxBatchSize, BoltConnectionMetricsMonitor metricsMonitor,
             Clock clock )
+    {
+        this( channel, messageWriter, machine, logService, listener, queueMonitor, maxBatchSize, metricsMonitor, clock, 0 );
+    }
+
+    DefaultBoltConnection( BoltChannel channel, BoltResponseMessageWriter messageWriter, BoltStateMachine machine,
+            LogService logService, BoltConnectionLifetimeListener listener,
+            BoltConnectionQueueMonitor queueMonitor, int maxBatchSize, BoltConnectionMetricsMonitor metricsMonitor,
+            Clock clock, long resultPrefetchMaxSize )
     {
         this.id = channel.id();
         this.channel = channel;
@@ -87,6 +98,7 @@ public class DefaultBoltConnection implements BoltConnection
         this.metricsMonitor = metricsMonitor;
         this.clock = clock;
         this.messageWriter = messageWriter;
+        this.resultPrefetchMaxSize = resultPrefetchMaxSize;
     }
 
     @Override
@@ -162,6 +174,37 @@ public class DefaultBoltConnection implements BoltConnection
         return processNextBatch( maxBatchSize, false );
     }
 
+    /**
+     * Produce a batch of the open result ahead of the next PULL. Nothing is produced while the channel isn't writable, i.e. while
+     * the client isn't reading the records already sent, see {@link TransportWriteThrottle}.
+     * <p>
+     * Records are produced by the thread processing the jobs of this connection, in between jobs. Nothing binds the transaction
+     * to that thread, it can be continued by any thread, but it must only be used by one thread at a time. Producing the records
+     * on the same thread that processes the next PULL keeps it that way without any coordination between the two.
+     *
+     * @return {@code true} if any records were produced, and there may be more to produce.
+     */
+    private boolean prefetchResults()
+    {
+        if ( resultPrefetchMaxSize <= 0 || !machine.hasOpenStatement() )
+        {
+            return false;
+        }
+        if ( !channel.rawChannel().isWritable() )
+        {
+            metricsMonitor.resultPrefetchThrottled( id );
+            return false;
+        }
+        long start = System.nanoTime();
+        long records = machine.prefetchResults( resultPrefetchMaxSize );
+        if ( records > 0 )
+        {
+            metricsMonitor.resultsPrefetched( id, records, System.nanoTime() - start );
+            return true;
+        }
+        return false;
+    }
+
     private boolean processNextBatch( int batchCount, boolean exitIfNoJobsAvailable )
     {
         idle.set( false );
@@ -211,17 +254,19 @@ public class DefaultBoltConnection implements BoltConnection
                     {
                         // loop until we get a new job, if we cannot then validate
                         // transaction to check for termination condition. We'll
-                        // break loop if we'll close the connection
+                        // break loop if we'll close the connection. While waiting,
+                        // the open result is produced ahead of the client asking for it.
                         while ( !willClose() )
                         {
-                            Job nextJob = queue.poll( 10, SECONDS );
+                            boolean prefetched = prefetchResults();
+                            Job nextJob = prefetched ? queue.poll() : queue.poll( 10, SECONDS );
                             if ( nextJob != null )
                             {
                                 batch.add( nextJob );
 
                                 break;
                             }
-                            else
+                            else if ( !prefetched )
                             {
                                 machine.validateTransaction();
                             }
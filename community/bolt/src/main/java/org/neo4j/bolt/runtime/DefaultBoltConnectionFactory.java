@@ -31,6 +31,7 @@ import org.neo4j.bolt.runtime.scheduling.BoltSchedulerProvider;
 import org.neo4j.bolt.runtime.statemachine.BoltStateMachine;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.configuration.connectors.BoltConnector;
 import org.neo4j.logging.internal.LogService;
 import org.neo4j.monitoring.Monitors;
 
@@ -44,6 +45,7 @@ public class DefaultBoltConnectionFactory implements BoltConnectionFactory
     private final Clock clock;
     private final Config config;
     private final BoltConnectionMetricsMonitor metricsMonitor;
+    private final long resultPrefetchMaxSize;
 
     public DefaultBoltConnectionFactory( BoltSchedulerProvider schedulerProvider, Config config, LogService logService,
             Clock clock, Monitors monitors )
@@ -53,6 +55,7 @@ public class DefaultBoltConnectionFactory implements BoltConnectionFactory
         this.logService = logService;
         this.clock = clock;
         this.metricsMonitor = monitors.newMonitor( BoltConnectionMetricsMonitor.class );
+        this.resultPrefetchMaxSize = config.get( BoltConnector.unsupported_result_prefetch_max_size );
     }
 
     @Override
@@ -67,7 +70,7 @@ public class DefaultBoltConnectionFactory implements BoltConnectionFactory
         BoltConnectionQueueMonitor connectionQueueMonitor = new BoltConnectionQueueMonitorAggregate( scheduler, readLimiter );
 
         BoltConnection connection = new DefaultBoltConnection( channel, messageWriter, stateMachine, logService, scheduler,
-                connectionQueueMonitor, DEFAULT_MAX_BATCH_SIZE, metricsMonitor, clock );
+                connectionQueueMonitor, DEFAULT_MAX_BATCH_SIZE, metricsMonitor, clock, resultPrefetchMaxSize );
         connection.start();
 
         return connection;
@@ -35,6 +35,8 @@ public interface BoltStateMachine extends AutoCloseable
 
     boolean hasOpenStatement();
 
+    long prefetchResults( long maxBytes );
+
     void interrupt();
 
     boolean reset() throws BoltConnectionFatality;
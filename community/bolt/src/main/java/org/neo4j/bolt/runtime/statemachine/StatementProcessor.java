@@ -25,6 +25,7 @@ import java.util.Map;
 
 import org.neo4j.bolt.messaging.ResultConsumer;
 import org.neo4j.bolt.runtime.AccessMode;
+import org.neo4j.bolt.runtime.BoltResult;
 import org.neo4j.bolt.runtime.Bookmark;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
@@ -54,6 +55,13 @@ public interface StatementProcessor
 
     boolean hasOpenStatement();
 
+    /**
+     * Produce records of the open statement ahead of the next request for them, see {@link BoltResult#prefetchRecords(long)}.
+     *
+     * @return the number of records that were prefetched.
+     */
+    long prefetchResults( long maxBytes );
+
     Status validateTransaction() throws KernelException;
 
     String databaseName();
@@ -119,6 +127,12 @@ public interface StatementProcessor
             return false;
         }
 
+        @Override
+        public long prefetchResults( long maxBytes )
+        {
+            return 0;
+        }
+
         @Override
         public Status validateTransaction()
         {
@@ -265,6 +265,22 @@ public abstract class AbstractBoltStateMachine implements BoltStateMachine
         return statementProcessor().hasOpenStatement();
     }
 
+    /**
+     * Produce records of the open statement ahead of the client asking for them. Nothing is produced once the connection
+     * has failed, been interrupted or closed, since the records would never be sent.
+     * <p>
+     * <b>Warning:</b>This method should only be called by the bolt worker thread the connection is stuck on.
+     */
+    @Override
+    public long prefetchResults( long maxBytes )
+    {
+        if ( !connectionState.canProcessMessage() || connectionState.isInterrupted() )
+        {
+            return 0;
+        }
+        return statementProcessor().prefetchResults( maxBytes );
+    }
+
     @Override
     public boolean reset() throws BoltConnectionFatality
     {
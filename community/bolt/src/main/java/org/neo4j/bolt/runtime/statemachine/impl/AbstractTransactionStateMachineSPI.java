@@ -41,6 +41,7 @@ import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.security.LoginContext;
 import org.neo4j.kernel.impl.query.QueryExecution;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.time.SystemNanoClock;
 import org.neo4j.values.virtual.MapValue;
 
@@ -135,7 +136,7 @@ public abstract class AbstractTransactionStateMachineSPI implements TransactionS
                 boltQueryExecution = boltQueryExecutor.executeQuery( statement, params, true, subscriber );
                 QueryExecution result = boltQueryExecution.getQueryExecution();
                 subscriber.assertSucceeded();
-                return newBoltResult( result, subscriber, clock );
+                return newBoltResult( result, subscriber, clock, boltQueryExecution.memoryTracker() );
             }
             catch ( KernelException e )
             {
@@ -150,7 +151,7 @@ public abstract class AbstractTransactionStateMachineSPI implements TransactionS
         }
 
         protected abstract BoltResult newBoltResult( QueryExecution result,
-                BoltAdapterSubscriber subscriber, Clock clock );
+                BoltAdapterSubscriber subscriber, Clock clock, MemoryTracker memoryTracker );
 
         @Override
         public void close( boolean success )
@@ -122,6 +122,14 @@ public class TransactionStateMachine implements StatementProcessor
         return !ctx.statementOutcomes.isEmpty();
     }
 
+    @Override
+    public long prefetchResults( long maxBytes )
+    {
+        // only the last statement is prefetched, it is the one a client streaming a result pulls from next
+        StatementOutcome outcome = ctx.statementOutcomes.get( ctx.lastStatementId );
+        return outcome == null ? 0 : outcome.result.prefetchRecords( maxBytes );
+    }
+
     /**
      * Rollback and close transaction. Move back to {@link State#AUTO_COMMIT}.
      * <p>
@@ -24,6 +24,7 @@ import java.time.Clock;
 import org.neo4j.bolt.runtime.statemachine.impl.BoltAdapterSubscriber;
 import org.neo4j.bolt.runtime.AbstractCypherAdapterStream;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 
 import static org.neo4j.values.storable.Values.longValue;
 
@@ -31,9 +32,9 @@ public class CypherAdapterStreamV3 extends AbstractCypherAdapterStream
 {
     private static final String LAST_RESULT_CONSUMED_KEY = "t_last";
 
-    public CypherAdapterStreamV3( QueryExecution delegate, BoltAdapterSubscriber subscriber,  Clock clock )
+    public CypherAdapterStreamV3( QueryExecution delegate, BoltAdapterSubscriber subscriber, Clock clock, MemoryTracker memoryTracker )
     {
-        super( delegate, subscriber, clock );
+        super( delegate, subscriber, clock, memoryTracker );
     }
 
     @Override
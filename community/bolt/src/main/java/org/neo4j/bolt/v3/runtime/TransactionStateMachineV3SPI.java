@@ -38,6 +38,7 @@ import org.neo4j.bolt.runtime.statemachine.impl.BoltAdapterSubscriber;
 import org.neo4j.bolt.v41.messaging.RoutingContext;
 import org.neo4j.internal.kernel.api.security.LoginContext;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.time.SystemNanoClock;
 import org.neo4j.values.virtual.MapValue;
 
@@ -88,9 +89,9 @@ public class TransactionStateMachineV3SPI extends AbstractTransactionStateMachin
 
         @Override
         protected BoltResult newBoltResult( QueryExecution result,
-                BoltAdapterSubscriber subscriber, Clock clock )
+                BoltAdapterSubscriber subscriber, Clock clock, MemoryTracker memoryTracker )
         {
-            return new CypherAdapterStreamV3( result, subscriber, clock );
+            return new CypherAdapterStreamV3( result, subscriber, clock, memoryTracker );
         }
     }
 }
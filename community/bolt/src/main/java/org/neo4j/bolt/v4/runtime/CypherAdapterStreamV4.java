@@ -24,6 +24,7 @@ import java.time.Clock;
 import org.neo4j.bolt.runtime.statemachine.impl.BoltAdapterSubscriber;
 import org.neo4j.bolt.v3.runtime.CypherAdapterStreamV3;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 
 import static org.neo4j.bolt.v4.messaging.MessageMetadataParser.DB_NAME_KEY;
 import static org.neo4j.values.storable.Values.utf8Value;
@@ -32,9 +33,10 @@ public class CypherAdapterStreamV4 extends CypherAdapterStreamV3
 {
     private final String databaseName;
 
-    public CypherAdapterStreamV4( QueryExecution delegate, BoltAdapterSubscriber subscriber, Clock clock, String databaseName )
+    public CypherAdapterStreamV4( QueryExecution delegate, BoltAdapterSubscriber subscriber, Clock clock, MemoryTracker memoryTracker,
+            String databaseName )
     {
-        super( delegate, subscriber, clock );
+        super( delegate, subscriber, clock, memoryTracker );
         this.databaseName = databaseName;
     }
 
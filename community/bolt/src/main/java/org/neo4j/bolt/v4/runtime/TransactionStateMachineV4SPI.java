@@ -34,6 +34,7 @@ import org.neo4j.bolt.runtime.statemachine.impl.BoltAdapterSubscriber;
 import org.neo4j.bolt.v4.runtime.bookmarking.BookmarkWithDatabaseId;
 import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.time.SystemNanoClock;
 import org.neo4j.values.virtual.MapValue;
 
@@ -76,9 +77,9 @@ public class TransactionStateMachineV4SPI extends AbstractTransactionStateMachin
         }
 
         @Override
-        protected BoltResult newBoltResult( QueryExecution result, BoltAdapterSubscriber subscriber, Clock clock )
+        protected BoltResult newBoltResult( QueryExecution result, BoltAdapterSubscriber subscriber, Clock clock, MemoryTracker memoryTracker )
         {
-            return new CypherAdapterStreamV4( result, subscriber, clock, namedDatabaseId.name() );
+            return new CypherAdapterStreamV4( result, subscriber, clock, memoryTracker, namedDatabaseId.name() );
         }
     }
 }
@@ -36,16 +36,22 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.TextValue;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.neo4j.bolt.packstream.ChunkedOutput.CHUNK_HEADER_SIZE;
 import static org.neo4j.bolt.transport.TransportThrottleGroup.NO_THROTTLE;
+import static org.neo4j.resources.HeapAllocation.HEAP_ALLOCATION;
+import static org.neo4j.values.storable.Values.utf8Value;
 
 public class ChunkedOutputTest
 {
@@ -181,6 +187,55 @@ public class ChunkedOutputTest
         assertEquals( "Asked to write 5 bytes, but there is only 2 bytes available in data provided.", e.getMessage() );
     }
 
+    @Test
+    void shouldPackUtf8StringValuesWithoutAllocating() throws Exception
+    {
+        assumeTrue( HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() ) != -1, "Allocation can't be measured on this JVM" );
+
+        // given a value with the UTF-8 bytes of a string, as read from the store
+        TextValue value = utf8Value( "Ärligt talat, nästan alla tecken i den här strängen är ASCII men inte riktigt alla €".getBytes( UTF_8 ) );
+        ChunkedOutput output = new ChunkedOutput( channel, 1024 * 1024, NO_THROTTLE );
+        Neo4jPack.Packer packer = new Neo4jPackV2().newPacker( output );
+        int valuesPerMessage = 1_000;
+        try
+        {
+            // warm up, so that the code packing the values has been compiled
+            for ( int i = 0; i < 100; i++ )
+            {
+                packMessage( output, packer, value, valuesPerMessage );
+            }
+
+            // when
+            output.beginMessage();
+            long allocatedBefore = HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() );
+            for ( int i = 0; i < valuesPerMessage; i++ )
+            {
+                packer.pack( value );
+            }
+            long allocated = HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() ) - allocatedBefore;
+            output.messageSucceeded();
+
+            // then the bytes were copied straight into the buffer of the output
+            assertThat( allocated ).isLessThan( valuesPerMessage );
+        }
+        finally
+        {
+            output.close();
+        }
+    }
+
+    private void packMessage( ChunkedOutput output, Neo4jPack.Packer packer, AnyValue value, int count ) throws IOException
+    {
+        output.beginMessage();
+        for ( int i = 0; i < count; i++ )
+        {
+            packer.pack( value );
+        }
+        output.messageSucceeded();
+        output.flush();
+        channel.releaseOutbound();
+    }
+
     @Test
     void shouldFlushOnClose() throws Exception
     {
@@ -19,9 +19,11 @@
  */
 package org.neo4j.bolt.runtime;
 
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.jupiter.api.Test;
 
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -35,6 +37,9 @@ import org.neo4j.graphdb.InputPosition;
 import org.neo4j.graphdb.QueryStatistics;
 import org.neo4j.graphdb.impl.notification.NotificationCode;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.DoubleValue;
 import org.neo4j.values.virtual.MapValue;
@@ -44,7 +49,10 @@ import org.neo4j.values.virtual.VirtualValues;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.data.Offset.offset;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -384,6 +392,164 @@ class AbstractCypherAdapterStreamTest
         assertThat( meta.get( "notifications" ) ).isEqualTo( list( msg1, msg2 ) );
     }
 
+    @Test
+    void shouldHandlePrefetchedRecordsBeforeRequestingMore() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = recordProducingExecution( subscriber, 10 );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC() );
+        RecordCollector consumer = new RecordCollector();
+        assertThat( stream.prefetchRecords( Long.MAX_VALUE ) ).isZero();
+        stream.handleRecords( consumer, 3 );
+
+        // When
+        long prefetched = stream.prefetchRecords( Long.MAX_VALUE );
+        long prefetchedWhenFull = stream.prefetchRecords( Long.MAX_VALUE );
+        boolean hasMore = stream.handleRecords( consumer, 5 );
+
+        // Then
+        assertThat( prefetched ).isEqualTo( 3 );
+        assertThat( prefetchedWhenFull ).isZero();
+        assertThat( hasMore ).isTrue();
+        assertThat( consumer.fields ).containsExactly( longValue( 0 ), longValue( 1 ), longValue( 2 ), longValue( 3 ), longValue( 4 ),
+                longValue( 5 ), longValue( 6 ), longValue( 7 ) );
+        verify( queryExecution, times( 2 ) ).request( 3 );
+        verify( queryExecution ).request( 2 );
+    }
+
+    @Test
+    void shouldCompleteResultFromPrefetchedRecords() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = recordProducingExecution( subscriber, 4 );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC() );
+        RecordCollector consumer = new RecordCollector();
+        stream.handleRecords( consumer, 2 );
+        assertThat( stream.prefetchRecords( Long.MAX_VALUE ) ).isEqualTo( 2 );
+
+        // When
+        boolean hasMore = stream.handleRecords( consumer, 2 );
+
+        // Then
+        assertThat( hasMore ).isFalse();
+        assertThat( consumer.fields ).containsExactly( longValue( 0 ), longValue( 1 ), longValue( 2 ), longValue( 3 ) );
+        assertThat( consumer.metadata ).contains( "type" );
+        assertThat( stream.prefetchRecords( Long.MAX_VALUE ) ).isZero();
+        verify( queryExecution, times( 2 ) ).request( 2 );
+    }
+
+    @Test
+    void shouldNotPrefetchBeyondMaxSize() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = recordProducingExecution( subscriber, 1000 );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC() );
+        stream.handleRecords( new RecordCollector(), 500 );
+
+        // When
+        long prefetched = stream.prefetchRecords( 1 );
+        long prefetchedWhenFull = stream.prefetchRecords( 1 );
+
+        // Then
+        assertThat( prefetched ).isEqualTo( 100 );
+        assertThat( prefetchedWhenFull ).isZero();
+    }
+
+    @Test
+    void shouldReportPrefetchFailureAfterPrefetchedRecords() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = recordProducingExecution( subscriber, 10 );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC() );
+        RecordCollector consumer = new RecordCollector();
+        stream.handleRecords( consumer, 2 );
+        RuntimeException failure = new RuntimeException( "Prefetch failed" );
+        when( queryExecution.await() ).thenThrow( failure );
+        assertThat( stream.prefetchRecords( Long.MAX_VALUE ) ).isEqualTo( 2 );
+
+        // When
+        assertThatThrownBy( () -> stream.handleRecords( consumer, 2 ) ).isSameAs( failure );
+
+        // Then
+        assertThat( consumer.fields ).containsExactly( longValue( 0 ), longValue( 1 ), longValue( 2 ), longValue( 3 ) );
+    }
+
+    @Test
+    void shouldChargePrefetchedRecordsToMemoryTracker() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = recordProducingExecution( subscriber, 10 );
+        MemoryTracker memoryTracker = new LocalMemoryTracker();
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC(), memoryTracker );
+        RecordCollector consumer = new RecordCollector();
+        stream.handleRecords( consumer, 2 );
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+
+        // When
+        stream.prefetchRecords( Long.MAX_VALUE );
+        long chargedWhilePrefetched = memoryTracker.estimatedHeapMemory();
+        stream.handleRecords( consumer, 1 );
+        long chargedAfterDrain = memoryTracker.estimatedHeapMemory();
+        stream.close();
+
+        // Then
+        assertThat( chargedWhilePrefetched ).isEqualTo( 2 * longValue( 0 ).estimatedHeapUsage() );
+        assertThat( chargedAfterDrain ).isEqualTo( longValue( 0 ).estimatedHeapUsage() );
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+    }
+
+    @Test
+    void shouldNotPrefetchRecordsWithoutMemoryTracker() throws Throwable
+    {
+        // Given
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        QueryExecution queryExecution = recordProducingExecution( subscriber, 10 );
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC(), null );
+        RecordCollector consumer = new RecordCollector();
+        stream.handleRecords( consumer, 2 );
+
+        // When
+        long prefetched = stream.prefetchRecords( Long.MAX_VALUE );
+        stream.handleRecords( consumer, 1 );
+        stream.close();
+
+        // Then
+        assertThat( prefetched ).isZero();
+        verify( queryExecution, times( 2 ) ).request( anyLong() );
+    }
+
+    private static QueryExecution recordProducingExecution( BoltAdapterSubscriber subscriber, int records ) throws Exception
+    {
+        QueryExecution queryExecution = mock( QueryExecution.class );
+        when( queryExecution.fieldNames() ).thenReturn( new String[]{"n"} );
+        when( queryExecution.executionType() ).thenReturn( query( READ_ONLY ) );
+        when( queryExecution.getNotifications() ).thenReturn( Collections.emptyList() );
+        MutableInt produced = new MutableInt();
+        subscriber.onResult( 1 );
+        doAnswer( invocation ->
+        {
+            long requested = invocation.getArgument( 0 );
+            for ( long i = 0; i < requested && produced.intValue() < records; i++ )
+            {
+                subscriber.onRecord();
+                subscriber.onField( 0, longValue( produced.getAndIncrement() ) );
+                subscriber.onRecordCompleted();
+            }
+            if ( produced.intValue() == records )
+            {
+                subscriber.onResultCompleted( QueryStatistics.EMPTY );
+            }
+            return null;
+        } ).when( queryExecution ).request( anyLong() );
+        when( queryExecution.await() ).thenAnswer( invocation -> produced.intValue() < records );
+        return queryExecution;
+    }
+
     private MapValue metadataOf( AbstractCypherAdapterStream stream ) throws Throwable
     {
         final MapValueBuilder meta = new MapValueBuilder();
@@ -540,11 +706,35 @@ class AbstractCypherAdapterStreamTest
         };
     }
 
+    private static class RecordCollector extends BoltResult.DiscardingRecordConsumer
+    {
+        private final List<AnyValue> fields = new ArrayList<>();
+        private final Set<String> metadata = new HashSet<>();
+
+        @Override
+        public void consumeField( AnyValue value )
+        {
+            fields.add( value );
+        }
+
+        @Override
+        public void addMetadata( String key, AnyValue value )
+        {
+            metadata.add( key );
+        }
+    }
+
     private static class TestAbstractCypherAdapterStream extends AbstractCypherAdapterStream
     {
         TestAbstractCypherAdapterStream( QueryExecution queryExecution, BoltAdapterSubscriber querySubscriber, Clock clock )
         {
-            super( queryExecution, querySubscriber, clock );
+            this( queryExecution, querySubscriber, clock, EmptyMemoryTracker.INSTANCE );
+        }
+
+        TestAbstractCypherAdapterStream( QueryExecution queryExecution, BoltAdapterSubscriber querySubscriber, Clock clock,
+                MemoryTracker memoryTracker )
+        {
+            super( queryExecution, querySubscriber, clock, memoryTracker );
         }
 
         @Override
@@ -31,6 +31,8 @@ import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.messaging.BoltResponseMessageWriter;
@@ -53,6 +55,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
@@ -418,6 +421,63 @@ class DefaultBoltConnectionTest
         verify( writer ).flush();
     }
 
+    @Test
+    void shouldPrefetchResultsWhileWaitingForNextMessage() throws Throwable
+    {
+        // Given
+        AtomicBoolean stick = new AtomicBoolean( true );
+        when( stateMachine.hasOpenStatement() ).thenAnswer( inv -> stick.get() );
+        when( stateMachine.shouldStickOnThread() ).thenAnswer( inv -> stick.get() );
+        BoltConnectionMetricsMonitor metricsMonitor = mock( BoltConnectionMetricsMonitor.class );
+        DefaultBoltConnection connection = newConnection( metricsMonitor, 1024 );
+        AtomicInteger prefetches = new AtomicInteger();
+        when( stateMachine.prefetchResults( anyLong() ) ).thenAnswer( inv ->
+        {
+            if ( prefetches.incrementAndGet() < 3 )
+            {
+                return 10L;
+            }
+            // the next PULL arrives once there is nothing more to prefetch
+            connection.enqueue( machine -> stick.set( false ) );
+            return 0L;
+        } );
+        connection.enqueue( Jobs.noop() );
+
+        // When
+        connection.processNextBatch();
+
+        // Then
+        verify( stateMachine, times( 3 ) ).prefetchResults( 1024 );
+        verify( metricsMonitor, times( 2 ) ).resultsPrefetched( eq( connection.id() ), eq( 10L ), anyLong() );
+        verify( metricsMonitor, never() ).resultPrefetchThrottled( any() );
+        assertFalse( connection.hasPendingJobs() );
+    }
+
+    @Test
+    void shouldNotPrefetchResultsWhileChannelIsNotWritable() throws Throwable
+    {
+        // Given
+        AtomicBoolean stick = new AtomicBoolean( true );
+        when( stateMachine.hasOpenStatement() ).thenAnswer( inv -> stick.get() );
+        when( stateMachine.shouldStickOnThread() ).thenAnswer( inv -> stick.get() );
+        BoltConnectionMetricsMonitor metricsMonitor = mock( BoltConnectionMetricsMonitor.class );
+        DefaultBoltConnection connection = newConnection( metricsMonitor, 1024 );
+        doAnswer( inv ->
+        {
+            connection.enqueue( machine -> stick.set( false ) );
+            return null;
+        } ).when( metricsMonitor ).resultPrefetchThrottled( any() );
+        channel.unsafe().outboundBuffer().setUserDefinedWritability( 1, false );
+        connection.enqueue( Jobs.noop() );
+
+        // When
+        connection.processNextBatch();
+
+        // Then
+        verify( metricsMonitor ).resultPrefetchThrottled( connection.id() );
+        verify( stateMachine, never() ).prefetchResults( anyLong() );
+    }
+
     private DefaultBoltConnection newConnection()
     {
         return newConnection( 10 );
@@ -428,4 +488,10 @@ class DefaultBoltConnectionTest
         return new DefaultBoltConnection( boltChannel, writer, stateMachine, logService, connectionListener, queueMonitor, maxBatchSize,
                 mock( BoltConnectionMetricsMonitor.class ), Clock.systemUTC() );
     }
+
+    private DefaultBoltConnection newConnection( BoltConnectionMetricsMonitor metricsMonitor, long resultPrefetchMaxSize )
+    {
+        return new DefaultBoltConnection( boltChannel, writer, stateMachine, logService, connectionListener, queueMonitor, 1,
+                metricsMonitor, Clock.systemUTC(), resultPrefetchMaxSize );
+    }
 }
@@ -48,12 +48,16 @@ public enum Group
     INDEX_CLEANUP( "IndexCleanup" ),
     /** Index recovery cleanup work. */
     INDEX_CLEANUP_WORK( "IndexCleanupWork" ),
+    /** Parallel application of recovered transactions. */
+    RECOVERY_WORK( "RecoveryWork" ),
     /** Terminates kernel transactions that have timed out. */
     TRANSACTION_TIMEOUT_MONITOR( "TransactionTimeoutMonitor" ),
     /** Background index population. */
     INDEX_POPULATION( "IndexPopulationMain" ),
     /** Background index population work. */
     INDEX_POPULATION_WORK( "IndexPopulationWork", ExecutorServiceFactory.fixedWithBackPressure() ),
+    /** Store scan workers feeding background index population. */
+    INDEX_POPULATION_SCAN( "IndexPopulationScan" ),
     /** Background index sampling */
     INDEX_SAMPLING( "IndexSampling" ),
     /** Background index update applier, for eventually consistent indexes. */
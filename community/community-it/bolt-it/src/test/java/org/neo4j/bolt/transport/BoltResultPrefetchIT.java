@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.transport;
+
+import org.assertj.core.api.Condition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.neo4j.bolt.runtime.BoltConnectionMetricsMonitor;
+import org.neo4j.bolt.testing.TransportTestUtil;
+import org.neo4j.bolt.testing.client.SocketConnection;
+import org.neo4j.bolt.testing.client.TransportConnection;
+import org.neo4j.bolt.v3.messaging.request.CommitMessage;
+import org.neo4j.bolt.v3.messaging.request.HelloMessage;
+import org.neo4j.bolt.v4.messaging.BeginMessage;
+import org.neo4j.bolt.v4.messaging.PullMessage;
+import org.neo4j.bolt.v4.messaging.RunMessage;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.configuration.connectors.BoltConnector;
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.internal.helpers.HostnamePort;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.monitoring.Monitors;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.values.AnyValue;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.bolt.testing.MessageConditions.msgRecord;
+import static org.neo4j.bolt.testing.MessageConditions.msgSuccess;
+import static org.neo4j.bolt.testing.StreamConditions.eqRecord;
+import static org.neo4j.bolt.testing.TransportTestUtil.eventuallyReceives;
+import static org.neo4j.bolt.v4.BoltProtocolV4ComponentFactory.newMessageEncoder;
+import static org.neo4j.internal.helpers.collection.MapUtil.map;
+import static org.neo4j.kernel.impl.util.ValueUtils.asMapValue;
+import static org.neo4j.test.assertion.Assert.assertEventually;
+import static org.neo4j.values.storable.Values.longValue;
+
+public class BoltResultPrefetchIT
+{
+    private static final String QUERY = "UNWIND range(1, 10) AS x RETURN x";
+
+    private final Monitors monitors = new Monitors();
+
+    @Rule
+    public final Neo4jWithSocket server =
+            new Neo4jWithSocket( getClass(), new TestDatabaseManagementServiceBuilder().setMonitors( monitors ), getSettingsFunction() );
+
+    private final AtomicLong recordsPrefetched = new AtomicLong();
+    private HostnamePort address;
+    private TransportConnection connection;
+    private TransportTestUtil util;
+
+    protected Consumer<Map<Setting<?>,Object>> getSettingsFunction()
+    {
+        return settings ->
+        {
+            settings.put( GraphDatabaseSettings.auth_enabled, false );
+            settings.put( BoltConnector.unsupported_result_prefetch_max_size, ByteUnit.mebiBytes( 1 ) );
+        };
+    }
+
+    @Before
+    public void setup() throws Exception
+    {
+        monitors.addMonitorListener( new PrefetchedRecordCounter() );
+        address = server.lookupDefaultConnector();
+        connection = new SocketConnection();
+        util = new TransportTestUtil( newMessageEncoder() );
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if ( connection != null )
+        {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void shouldStreamPrefetchedRecordsInOrder() throws Exception
+    {
+        negotiateBoltV4();
+
+        connection.send( util.chunk( new RunMessage( QUERY ), pull( 3 ) ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives(
+                msgSuccess(),
+                msgRecord( eqRecord( longValueCondition( 1 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 2 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 3 ) ) ),
+                msgSuccess( message -> assertThat( message ).containsEntry( "has_more", true ) ) ) );
+
+        // as many records as the last PULL asked for are produced ahead of the next one
+        assertEventually( recordsPrefetched::get, prefetched -> prefetched == 3, 1, MINUTES );
+
+        connection.send( util.chunk( pull( 3 ) ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives(
+                msgRecord( eqRecord( longValueCondition( 4 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 5 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 6 ) ) ),
+                msgSuccess( message -> assertThat( message ).containsEntry( "has_more", true ) ) ) );
+
+        connection.send( util.chunk( pull( -1 ) ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives(
+                msgRecord( eqRecord( longValueCondition( 7 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 8 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 9 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 10 ) ) ),
+                msgSuccess( message -> assertThat( message ).doesNotContainKey( "has_more" ) ) ) );
+    }
+
+    @Test
+    public void shouldCommitTransactionAfterStreamingPrefetchedRecords() throws Exception
+    {
+        negotiateBoltV4();
+
+        connection.send( util.chunk( new BeginMessage() ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+        connection.send( util.chunk( new RunMessage( "UNWIND range(1, 4) AS x CREATE (n {x: x}) RETURN n.x" ), pull( 2 ) ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives(
+                msgSuccess(),
+                msgRecord( eqRecord( longValueCondition( 1 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 2 ) ) ),
+                msgSuccess( message -> assertThat( message ).containsEntry( "has_more", true ) ) ) );
+        assertEventually( recordsPrefetched::get, prefetched -> prefetched == 2, 1, MINUTES );
+
+        connection.send( util.chunk( pull( 2 ), CommitMessage.COMMIT_MESSAGE ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives(
+                msgRecord( eqRecord( longValueCondition( 3 ) ) ),
+                msgRecord( eqRecord( longValueCondition( 4 ) ) ),
+                msgSuccess( message -> assertThat( message ).containsKey( "stats" ).doesNotContainKey( "has_more" ) ),
+                msgSuccess() ) );
+
+        connection.send( util.chunk( new RunMessage( "MATCH (n) RETURN count(n)" ), pull( -1 ) ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives(
+                msgSuccess(),
+                msgRecord( eqRecord( longValueCondition( 4 ) ) ),
+                msgSuccess() ) );
+    }
+
+    private static PullMessage pull( long n ) throws Exception
+    {
+        return new PullMessage( asMapValue( map( "n", n ) ) );
+    }
+
+    private void negotiateBoltV4() throws Exception
+    {
+        connection.connect( address ).send( util.acceptedVersions( 4, 0, 0, 0 ) );
+        assertThat( connection ).satisfies( eventuallyReceives( new byte[]{0, 0, 0, 4} ) );
+
+        connection.send( util.chunk( new HelloMessage( map( "user_agent", "TestClient/4.0" ) ) ) );
+        assertThat( connection ).satisfies( util.eventuallyReceives( msgSuccess() ) );
+    }
+
+    private static Condition<AnyValue> longValueCondition( long expected )
+    {
+        return new Condition<>( value -> value.equals( longValue( expected ) ), "equals" );
+    }
+
+    private class PrefetchedRecordCounter implements BoltConnectionMetricsMonitor
+    {
+        @Override
+        public void connectionOpened()
+        {
+        }
+
+        @Override
+        public void connectionActivated()
+        {
+        }
+
+        @Override
+        public void connectionWaiting()
+        {
+        }
+
+        @Override
+        public void messageReceived()
+        {
+        }
+
+        @Override
+        public void messageProcessingStarted( long queueTime )
+        {
+        }
+
+        @Override
+        public void messageProcessingCompleted( long processingTime )
+        {
+        }
+
+        @Override
+        public void messageProcessingFailed()
+        {
+        }
+
+        @Override
+        public void resultsPrefetched( String connectionId, long records, long prefetchTime )
+        {
+            recordsPrefetched.addAndGet( records );
+        }
+
+        @Override
+        public void resultPrefetchThrottled( String connectionId )
+        {
+        }
+
+        @Override
+        public void connectionClosed()
+        {
+        }
+    }
+}
@@ -19,10 +19,12 @@
  */
 package org.neo4j.io.pagecache.impl;
 
+import com.sun.nio.file.ExtendedOpenOption;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.function.ThrowingSupplier;
 
@@ -34,8 +36,11 @@ import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileSystemException;
 import java.nio.file.OpenOption;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -493,6 +498,85 @@ public class SingleFilePageSwapperTest extends PageSwapperTest
         assertThat( openFilesCounter.get() ).isEqualTo( 0 );
     }
 
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void mustFallBackToBufferedIOWhenFileSystemRejectsDirectIO() throws Exception
+    {
+        List<Set<OpenOption>> openOptions = new CopyOnWriteArrayList<>();
+        PageSwapperFactory factory = createSwapperFactory( new DelegatingFileSystemAbstraction( getEphemeralFileSystem() )
+        {
+            @Override
+            public StoreChannel open( File fileName, Set<OpenOption> options ) throws IOException
+            {
+                openOptions.add( options );
+                if ( options.contains( ExtendedOpenOption.DIRECT ) )
+                {
+                    throw new FileSystemException( fileName.getPath(), null, "Invalid argument" );
+                }
+                return super.open( fileName, options );
+            }
+        } );
+        int pageSize = 4096;
+        long page = createPage( pageSize );
+        UnsafeUtil.putLong( page, 42 );
+
+        PageSwapper swapper = createSwapper( factory, file, pageSize, NO_CALLBACK, true, true );
+        swapper.write( 0, page );
+        UnsafeUtil.putLong( page, 0 );
+        swapper.read( 0, page );
+
+        assertThat( UnsafeUtil.getLong( page ) ).isEqualTo( 42 );
+        assertThat( openOptions ).hasSize( 2 );
+        assertThat( openOptions.get( 0 ) ).contains( ExtendedOpenOption.DIRECT );
+        assertThat( openOptions.get( 1 ) ).doesNotContain( ExtendedOpenOption.DIRECT );
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void mustNotifyListenerOncePerFileWhenFallingBackToBufferedIO() throws Exception
+    {
+        List<File> fallbackFiles = new CopyOnWriteArrayList<>();
+        PageSwapperFactory factory = new SingleFilePageSwapperFactory( new DelegatingFileSystemAbstraction( getEphemeralFileSystem() )
+        {
+            @Override
+            public StoreChannel open( File fileName, Set<OpenOption> options ) throws IOException
+            {
+                if ( options.contains( ExtendedOpenOption.DIRECT ) )
+                {
+                    throw new FileSystemException( fileName.getPath(), null, "Invalid argument" );
+                }
+                return super.open( fileName, options );
+            }
+        }, ( fallbackFile, cause ) -> fallbackFiles.add( fallbackFile ) );
+
+        createSwapper( factory, file, 4096, NO_CALLBACK, true, true ).close();
+        createSwapper( factory, file, 4096, NO_CALLBACK, false, true ).close();
+
+        assertThat( fallbackFiles ).containsExactly( file );
+    }
+
+    @Test
+    @EnabledOnOs( OS.LINUX )
+    void mustNotFallBackToBufferedIOWhenDirectOpenFailsForOtherReasons()
+    {
+        IOException failure = new IOException( "Boom" );
+        PageSwapperFactory factory = createSwapperFactory( new DelegatingFileSystemAbstraction( getEphemeralFileSystem() )
+        {
+            @Override
+            public StoreChannel open( File fileName, Set<OpenOption> options ) throws IOException
+            {
+                if ( options.contains( ExtendedOpenOption.DIRECT ) )
+                {
+                    throw failure;
+                }
+                return super.open( fileName, options );
+            }
+        } );
+
+        IOException e = assertThrows( IOException.class, () -> createSwapper( factory, file, 4096, NO_CALLBACK, true, true ) );
+        assertThat( e ).isSameAs( failure );
+    }
+
     private byte[] array( long page )
     {
         int size = sizeOfAsInt( page );
@@ -55,6 +55,7 @@ import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
+import org.neo4j.util.FeatureToggles;
 
 import static java.time.Duration.ofMillis;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -64,9 +65,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
 
@@ -754,6 +758,294 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void touchMustLoadPagesWithoutPinningThem() throws IOException
+    {
+        DefaultPageCacheTracer cacheTracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, cacheTracer );
+              PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( long i = 0; i < 20; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+            pagedFile.flushAndForce();
+            evictAllPages( pageCache );
+
+            try ( var cursorTracer = cacheTracer.createPageCursorTracer( "touchMustLoadPagesWithoutPinningThem" ) )
+            {
+                assertEquals( 10, pagedFile.touch( 5, 10, cursorTracer ) );
+                assertEquals( 10, cursorTracer.faults() );
+                assertEquals( 10, cursorTracer.pins() );
+                assertEquals( 10 * 8, cursorTracer.bytesRead() );
+
+                // Touching pages that are already in memory must not fault them in again.
+                assertEquals( 10, pagedFile.touch( 5, 10, cursorTracer ) );
+                assertEquals( 10, cursorTracer.faults() );
+            }
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+            {
+                for ( long i = 0; i < 20; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    boolean inMemory = cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID;
+                    assertEquals( i >= 5 && i < 15, inMemory, "page " + i );
+                    if ( inMemory )
+                    {
+                        assertEquals( i, cursor.getLong() );
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void touchMustNotGrowFile() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, PageCacheTracer.NULL );
+              PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < 4; i++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+            assertEquals( 2, pagedFile.touch( 2, 10, NULL ) );
+            assertEquals( 0, pagedFile.touch( 10, 10, NULL ) );
+            assertEquals( 3, pagedFile.getLastPageId() );
+        }
+    }
+
+    @Test
+    void prefetchMustLoadPageInTheBackground()
+    {
+        assertTimeoutPreemptively( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+        {
+            DefaultPageCacheTracer cacheTracer = new DefaultPageCacheTracer();
+            try ( MuninnPageCache pageCache = createPageCache( fs, 40, cacheTracer );
+                  PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+                {
+                    for ( long i = 0; i < 20; i++ )
+                    {
+                        assertTrue( cursor.next() );
+                        cursor.putLong( i );
+                    }
+                }
+                pagedFile.flushAndForce();
+                evictAllPages( pageCache );
+
+                try ( var cursorTracer = cacheTracer.createPageCursorTracer( "prefetchMustLoadPageInTheBackground" ) )
+                {
+                    pagedFile.prefetch( 7, cursorTracer );
+                    assertEquals( 1, cursorTracer.prefetches() );
+                    assertEquals( 0, cursorTracer.faults() );
+
+                    // Pages beyond the end of the file are ignored
+                    pagedFile.prefetch( 20, cursorTracer );
+                    assertEquals( 1, cursorTracer.prefetches() );
+                }
+                assertEquals( 1, cacheTracer.prefetches() );
+
+                try ( PageCursor cursor = pagedFile.io( 7, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+                {
+                    do
+                    {
+                        assertTrue( cursor.next( 7 ) );
+                    }
+                    while ( cursor.getCurrentPageId() == PageCursor.UNBOUND_PAGE_ID );
+                    assertEquals( 7, cursor.getLong() );
+                }
+
+                // Prefetching a page that is already in memory is a no-op
+                try ( var cursorTracer = cacheTracer.createPageCursorTracer( "prefetchMustLoadPageInTheBackground" ) )
+                {
+                    pagedFile.prefetch( 7, cursorTracer );
+                    assertEquals( 0, cursorTracer.prefetches() );
+                }
+            }
+        } );
+    }
+
+    @Test
+    void mustCountCooperativeEvictionsAndActiveEvictionThreads() throws IOException
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 4, tracer );
+              PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            assertEquals( 1, tracer.activeEvictionThreads() );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < 1000; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+            assertThat( tracer.cooperativeEvictions() ).isPositive();
+            // A cache this small only gets a single eviction partition.
+            assertEquals( 1, tracer.activeEvictionThreads() );
+        }
+    }
+
+    @Test
+    void scanResistantEvictionMustKeepFrequentlyUsedPagesThroughReadAheadScans() throws IOException
+    {
+        int hotPages = 16;
+        writeZeroPages( file( "hot" ), hotPages );
+        writeZeroPages( file( "scan" ), 500 );
+
+        assertEquals( hotPages, residentHotPagesAfterScan( true, hotPages ) );
+        assertThat( residentHotPagesAfterScan( false, hotPages ) ).isLessThan( hotPages );
+    }
+
+    @Test
+    void transientAccessesMustOnlyKeepPagesProbationaryWithScanResistantEviction() throws IOException
+    {
+        writeZeroPages( file( "a" ), 4 );
+
+        assertEquals( 4, probationaryPagesAfterTransientAccess( true ) );
+        assertEquals( 0, probationaryPagesAfterTransientAccess( false ) );
+    }
+
+    private int probationaryPagesAfterTransientAccess( boolean scanResistant ) throws IOException
+    {
+        FeatureToggles.set( MuninnPageCache.class, "scanResistantEviction", scanResistant );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 64, PageCacheTracer.NULL );
+              PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor transientCursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_TRANSIENT, NULL );
+                  PageCursor readAheadCursor = pagedFile.io( 2, PF_SHARED_READ_LOCK | PF_READ_AHEAD, NULL ) )
+            {
+                assertTrue( transientCursor.next() );
+                assertTrue( transientCursor.next() );
+                assertTrue( readAheadCursor.next() );
+                assertTrue( readAheadCursor.next() );
+            }
+
+            PageList pages = pageCache.pages;
+            int probationary = 0;
+            for ( int pageId = 0; pageId < pages.getPageCount(); pageId++ )
+            {
+                long pageReference = pages.deref( pageId );
+                if ( pages.isLoaded( pageReference ) && pages.isProbationary( pageReference ) )
+                {
+                    probationary++;
+                }
+            }
+            return probationary;
+        }
+        finally
+        {
+            FeatureToggles.clear( MuninnPageCache.class, "scanResistantEviction" );
+        }
+    }
+
+    private int residentHotPagesAfterScan( boolean scanResistant, int hotPages ) throws IOException
+    {
+        FeatureToggles.set( MuninnPageCache.class, "scanResistantEviction", scanResistant );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 64, PageCacheTracer.NULL );
+              PagedFile hot = map( pageCache, file( "hot" ), 8 );
+              PagedFile scan = map( pageCache, file( "scan" ), 8 ) )
+        {
+            for ( int round = 0; round < 4; round++ )
+            {
+                try ( PageCursor cursor = hot.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        cursor.getLong();
+                    }
+                }
+            }
+            try ( PageCursor cursor = scan.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, NULL ) )
+            {
+                while ( cursor.next() )
+                {
+                    cursor.getLong();
+                }
+            }
+
+            int resident = 0;
+            try ( PageCursor cursor = hot.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+            {
+                while ( cursor.next() )
+                {
+                    if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                    {
+                        resident++;
+                    }
+                }
+            }
+            return resident;
+        }
+        finally
+        {
+            FeatureToggles.clear( MuninnPageCache.class, "scanResistantEviction" );
+        }
+    }
+
+    @Test
+    void asynchronousFlushMustWriteAllDirtyPagesBeforeForcing() throws IOException
+    {
+        int pageCount = 30;
+        writeZeroPages( file( "a" ), pageCount );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        FeatureToggles.set( MuninnPagedFile.class, "flushQueueDepth", 4 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, tracer );
+              PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            // Dirty every other page, so every dirty page becomes its own flush vector.
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( long pageId = 1; pageId < pageCount; pageId += 2 )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                    cursor.putLong( pageId );
+                }
+            }
+            long flushesBefore = tracer.flushes();
+            pagedFile.flushAndForce();
+            assertEquals( pageCount / 2, tracer.flushes() - flushesBefore );
+
+            // Nothing is left dirty, so a second flush has nothing to write.
+            pagedFile.flushAndForce();
+            assertEquals( pageCount / 2, tracer.flushes() - flushesBefore );
+        }
+        finally
+        {
+            FeatureToggles.clear( MuninnPagedFile.class, "flushQueueDepth" );
+        }
+
+        ByteBuffer buffer = ByteBuffers.allocate( pageCount * 8 );
+        try ( StoreChannel channel = fs.read( file( "a" ) ) )
+        {
+            channel.readAll( buffer );
+        }
+        buffer.flip();
+        for ( long pageId = 0; pageId < pageCount; pageId++ )
+        {
+            assertEquals( pageId % 2 == 1 ? pageId : 0, buffer.getLong(), "page " + pageId );
+        }
+    }
+
+    private void writeZeroPages( File file, int pageCount ) throws IOException
+    {
+        try ( StoreChannel channel = fs.write( file ) )
+        {
+            channel.writeAll( ByteBuffers.allocate( pageCount * 8 ) );
+        }
+    }
+
     private void evictAllPages( MuninnPageCache pageCache ) throws IOException
     {
         PageList pages = pageCache.pages;
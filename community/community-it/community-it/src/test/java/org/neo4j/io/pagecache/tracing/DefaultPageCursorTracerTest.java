@@ -23,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageSwapper;
@@ -30,6 +31,7 @@ import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DefaultPageCursorTracerTest
 {
@@ -114,6 +116,45 @@ class DefaultPageCursorTracerTest
         assertEquals( 84, pageCursorTracer.bytesRead() );
     }
 
+    @Test
+    void reportTimeSpentOnPageFaults() throws InterruptedException
+    {
+        PinEvent pinEvent = pageCursorTracer.beginPin( true, 0, swapper );
+        PageFaultEvent pageFaultEvent = pinEvent.beginPageFault();
+        Thread.sleep( 1 );
+        pageFaultEvent.done();
+        pinEvent.done();
+        pageCursorTracer.reportEvents();
+
+        assertEquals( 1, cacheTracer.faults() );
+        assertTrue( cacheTracer.faultNanos() >= TimeUnit.MILLISECONDS.toNanos( 1 ) );
+    }
+
+    @Test
+    void mergeEventsOfOtherTracer()
+    {
+        pinAndHit();
+        PageCursorTracer otherTracer = createTracer();
+        PinEvent pinEvent = otherTracer.beginPin( true, 0, swapper );
+        PageFaultEvent pageFaultEvent = pinEvent.beginPageFault();
+        pageFaultEvent.addBytesRead( 42 );
+        pageFaultEvent.done();
+        pinEvent.done();
+        otherTracer.beginPin( true, 1, swapper ).hit();
+
+        pageCursorTracer.merge( otherTracer );
+
+        assertEquals( 3, pageCursorTracer.pins() );
+        assertEquals( 2, pageCursorTracer.unpins() );
+        assertEquals( 2, pageCursorTracer.hits() );
+        assertEquals( 1, pageCursorTracer.faults() );
+        assertEquals( 42, pageCursorTracer.bytesRead() );
+
+        pageCursorTracer.reportEvents();
+        assertEquals( 3, cacheTracer.pins() );
+        assertEquals( 1, cacheTracer.faults() );
+    }
+
     @Test
     void countPageEvictions()
     {
@@ -116,6 +116,30 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return delegate.faultNanos();
+    }
+
+    @Override
+    public long prefetches()
+    {
+        return delegate.prefetches();
+    }
+
+    @Override
+    public long cooperativeEvictions()
+    {
+        return delegate.cooperativeEvictions();
+    }
+
+    @Override
+    public long activeEvictionThreads()
+    {
+        return delegate.activeEvictionThreads();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -170,6 +194,30 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.evictionExceptions( evictionExceptions );
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+        delegate.faultNanos( faultNanos );
+    }
+
+    @Override
+    public void prefetches( long prefetches )
+    {
+        delegate.prefetches( prefetches );
+    }
+
+    @Override
+    public void cooperativeEvictions( long cooperativeEvictions )
+    {
+        delegate.cooperativeEvictions( cooperativeEvictions );
+    }
+
+    @Override
+    public void activeEvictionThreads( long activeEvictionThreads )
+    {
+        delegate.activeEvictionThreads( activeEvictionThreads );
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -151,6 +151,30 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return 0;
+    }
+
+    @Override
+    public long prefetches()
+    {
+        return 0;
+    }
+
+    @Override
+    public long cooperativeEvictions()
+    {
+        return 0;
+    }
+
+    @Override
+    public long activeEvictionThreads()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -198,6 +222,26 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+    }
+
+    @Override
+    public void prefetches( long prefetches )
+    {
+    }
+
+    @Override
+    public void cooperativeEvictions( long cooperativeEvictions )
+    {
+    }
+
+    @Override
+    public void activeEvictionThreads( long activeEvictionThreads )
+    {
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -96,6 +96,12 @@ public class LinearHistoryPageCursorTracer implements PageCursorTracer
         return 0;
     }
 
+    @Override
+    public long prefetches()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -108,6 +114,17 @@ public class LinearHistoryPageCursorTracer implements PageCursorTracer
         return tracer.add( new HEvents.PinHEvent( tracer, writeLock, filePageId, swapper ) );
     }
 
+    @Override
+    public void prefetch()
+    {
+    }
+
+    @Override
+    public void merge( PageCursorTracer cursorTracer )
+    {
+        // nothing to do
+    }
+
     @Override
     public void reportEvents()
     {
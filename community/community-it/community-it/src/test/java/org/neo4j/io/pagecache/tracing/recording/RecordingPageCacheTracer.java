@@ -156,6 +156,30 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return 0;
+    }
+
+    @Override
+    public long prefetches()
+    {
+        return 0;
+    }
+
+    @Override
+    public long cooperativeEvictions()
+    {
+        return 0;
+    }
+
+    @Override
+    public long activeEvictionThreads()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -206,6 +230,26 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+    }
+
+    @Override
+    public void prefetches( long prefetches )
+    {
+    }
+
+    @Override
+    public void cooperativeEvictions( long cooperativeEvictions )
+    {
+    }
+
+    @Override
+    public void activeEvictionThreads( long activeEvictionThreads )
+    {
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
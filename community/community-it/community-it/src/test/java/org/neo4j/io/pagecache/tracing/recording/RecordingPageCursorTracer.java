@@ -110,6 +110,12 @@ public class RecordingPageCursorTracer extends RecordingTracer implements PageCu
         return 0;
     }
 
+    @Override
+    public long prefetches()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -176,6 +182,18 @@ public class RecordingPageCursorTracer extends RecordingTracer implements PageCu
         };
     }
 
+    @Override
+    public void prefetch()
+    {
+    }
+
+    @Override
+    public void merge( PageCursorTracer cursorTracer )
+    {
+        pins += cursorTracer.pins();
+        faults += cursorTracer.faults();
+    }
+
     @Override
     public void reportEvents()
     {
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.integration;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+
+import org.neo4j.server.http.cypher.format.output.columnar.ColumnarMessageBodyWriter;
+import org.neo4j.server.rest.AbstractRestFunctionalTestBase;
+import org.neo4j.test.server.HTTP;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.HttpHeaders.ACCEPT;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.test.server.HTTP.RawPayload.quotedJson;
+
+public class ColumnarResultIT extends AbstractRestFunctionalTestBase
+{
+    private static final String QUERY = quotedJson( "{'statements': [{'statement': 'UNWIND range(1, 3000) AS i RETURN i, toString(i % 2) AS s'}]}" ).get();
+
+    @Test
+    public void shouldWriteColumnarResultWhenAccepted() throws Exception
+    {
+        // when
+        HttpResponse<byte[]> response = post( ColumnarMessageBodyWriter.MEDIA_TYPE );
+
+        // then
+        assertThat( response.statusCode() ).isEqualTo( 200 );
+        assertThat( response.headers().firstValue( CONTENT_TYPE ) ).hasValueSatisfying( type -> assertThat( type ).startsWith(
+                ColumnarMessageBodyWriter.MEDIA_TYPE ) );
+
+        DataInputStream in = new DataInputStream( new ByteArrayInputStream( response.body() ) );
+        in.skipBytes( 9 ); // magic and version
+        assertThat( in.readByte() ).isEqualTo( (byte) 1 ); // statement start
+        assertThat( in.readInt() ).isEqualTo( 2 );
+        assertThat( readString( in ) ).isEqualTo( "i" );
+        assertThat( readString( in ) ).isEqualTo( "s" );
+
+        long sum = 0;
+        int rows = 0;
+        byte frame;
+        while ( (frame = in.readByte()) == 2 ) // row group
+        {
+            int groupRows = in.readInt();
+            assertThat( in.readByte() ).isEqualTo( (byte) 1 ); // long vector
+            in.skipBytes( (groupRows + 7) / 8 );
+            for ( int i = 0; i < groupRows; i++ )
+            {
+                sum += in.readLong();
+            }
+            assertThat( in.readByte() ).isEqualTo( (byte) 4 ); // string vector
+            in.skipBytes( (groupRows + 7) / 8 );
+            int dictionarySize = in.readInt();
+            assertThat( dictionarySize ).isEqualTo( 2 );
+            for ( int i = 0; i < dictionarySize; i++ )
+            {
+                readString( in );
+            }
+            in.skipBytes( groupRows * Integer.BYTES );
+            rows += groupRows;
+        }
+        assertThat( frame ).isEqualTo( (byte) 3 ); // statement end
+        readString( in );
+        assertThat( in.readByte() ).isEqualTo( (byte) 4 ); // transaction info
+        assertThat( readString( in ) ).contains( "\"errors\":[]" );
+
+        assertThat( rows ).isEqualTo( 3000 );
+        assertThat( sum ).isEqualTo( 3000L * 3001 / 2 );
+    }
+
+    @Test
+    public void shouldWriteJsonByDefault() throws Exception
+    {
+        for ( String accept : new String[]{null, "*/*", APPLICATION_JSON} )
+        {
+            // when
+            HttpResponse<byte[]> response = post( accept );
+
+            // then
+            assertThat( response.statusCode() ).isEqualTo( 200 );
+            assertThat( response.headers().firstValue( CONTENT_TYPE ) ).hasValueSatisfying( type -> assertThat( type ).startsWith( APPLICATION_JSON ) );
+            assertThat( new String( response.body(), UTF_8 ) ).startsWith( "{\"results\":[{\"columns\":[\"i\",\"s\"]" );
+        }
+    }
+
+    private static HttpResponse<byte[]> post( String accept ) throws Exception
+    {
+        HttpRequest.Builder request = HttpRequest.newBuilder( URI.create( txCommitUri() ) )
+                .POST( HttpRequest.BodyPublishers.ofString( QUERY ) )
+                .header( CONTENT_TYPE, APPLICATION_JSON );
+        if ( accept != null )
+        {
+            request.header( ACCEPT, accept );
+        }
+        return HTTP.newClient().send( request.build(), BodyHandlers.ofByteArray() );
+    }
+
+    private static String readString( DataInputStream in ) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return new String( bytes, UTF_8 );
+    }
+}
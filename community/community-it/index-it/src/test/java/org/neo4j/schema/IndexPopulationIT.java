@@ -32,13 +32,16 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.dbms.api.DatabaseManagementService;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Result;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.IndexType;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.kernel.impl.api.index.IndexPopulationJob;
@@ -171,6 +174,55 @@ class IndexPopulationIT
         assertThat( assertableLogProvider ).forClass( IndexPopulationJob.class ).forLevel( ERROR ).doesNotHaveAnyLogs();
     }
 
+    @Test
+    void populateRelationshipIndexWithParallelStoreScan()
+    {
+        File storeDir = directory.directory( "parallelScanTest" );
+        RelationshipType type = RelationshipType.withName( "TYPE" );
+        String propertyName = "testProperty";
+        int relationships = 30_000;
+        DatabaseManagementService managementService =
+                new TestDatabaseManagementServiceBuilder( storeDir )
+                        .setConfig( GraphDatabaseSettings.index_population_parallel_scan, true )
+                        .setConfig( GraphDatabaseSettings.index_population_workers, 4 )
+                        .build();
+        try
+        {
+            GraphDatabaseService db = managementService.database( DEFAULT_DATABASE_NAME );
+            try ( Transaction tx = db.beginTx() )
+            {
+                Node node = tx.createNode();
+                for ( int i = 0; i < relationships; i++ )
+                {
+                    node.createRelationshipTo( node, type ).setProperty( propertyName, "value" );
+                }
+                tx.commit();
+            }
+
+            // when
+            try ( Transaction tx = db.beginTx() )
+            {
+                tx.schema().indexFor( type ).on( propertyName ).withIndexType( IndexType.FULLTEXT ).withName( "rels" ).create();
+                tx.commit();
+            }
+            try ( Transaction tx = db.beginTx() )
+            {
+                tx.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            }
+
+            // then
+            try ( Transaction tx = db.beginTx();
+                  Result result = tx.execute( "CALL db.index.fulltext.queryRelationships('rels', 'value') YIELD relationship RETURN count(*) AS count" ) )
+            {
+                assertEquals( relationships, ((Number) Iterators.single( result.columnAs( "count" ) )).intValue() );
+            }
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
     @Test
     void mustLogPhaseTracker()
     {
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.internal.kernel.api.Write;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.values.storable.Values;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.kernel.impl.newapi.TestUtils.assertDistinct;
+import static org.neo4j.kernel.impl.newapi.TestUtils.concat;
+
+public abstract class ParallelNodeIndexSeekTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final int NUMBER_OF_NODES = 10_000;
+    private static final String INDEX_NAME = "parallel";
+    private static LongSet ALL_NODES;
+    private static LongSet EVEN_NODES;
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().indexFor( label( "Node" ) ).on( "prop" ).withName( INDEX_NAME ).create();
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 5, MINUTES );
+            tx.commit();
+        }
+        MutableLongSet allNodes = LongSets.mutable.empty();
+        MutableLongSet evenNodes = LongSets.mutable.empty();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( int i = 0; i < NUMBER_OF_NODES; i++ )
+            {
+                Node node = tx.createNode( label( "Node" ) );
+                node.setProperty( "prop", i % 2 == 0 ? "even-" + i : "odd-" + i );
+                allNodes.add( node.getId() );
+                if ( i % 2 == 0 )
+                {
+                    evenNodes.add( node.getId() );
+                }
+            }
+            tx.commit();
+        }
+        ALL_NODES = allNodes;
+        EVEN_NODES = evenNodes;
+    }
+
+    @Test
+    void shouldSeekAllNodesInPartitions() throws Exception
+    {
+        // given
+        int prop = token.propertyKey( "prop" );
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( INDEX_NAME ) );
+        try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( NULL ) )
+        {
+            // when
+            PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexSeek( index, 4, unconstrained(), IndexQuery.stringPrefix( prop, Values.stringValue(
+                    "even-" ) ) );
+            MutableLongList ids = LongLists.mutable.empty();
+            int partitions = 0;
+            while ( scan.reservePartition( nodes, NULL ) )
+            {
+                partitions++;
+                while ( nodes.next() )
+                {
+                    ids.add( nodes.nodeReference() );
+                }
+            }
+
+            // then
+            assertThat( scan.getNumberOfPartitions() ).isGreaterThan( 1 ).isLessThanOrEqualTo( 4 );
+            assertEquals( scan.getNumberOfPartitions(), partitions );
+            assertEquals( EVEN_NODES.size(), ids.size() );
+            assertEquals( EVEN_NODES, LongSets.immutable.withAll( ids ) );
+        }
+    }
+
+    @Test
+    void shouldScanAllNodesFromMultipleThreads() throws Exception
+    {
+        // given
+        ExecutorService service = Executors.newFixedThreadPool( 4 );
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( INDEX_NAME ) );
+        PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( index, 4, unconstrained() );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+        try
+        {
+            // when
+            List<Future<LongList>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                futures.add( service.submit( partitionWorker( scan, cursors ) ) );
+            }
+
+            // then
+            List<LongList> lists = futures.stream().map( TestUtils::unsafeGet ).collect( Collectors.toList() );
+            assertDistinct( lists );
+            assertEquals( ALL_NODES, LongSets.immutable.withAll( concat( lists ) ) );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    @Test
+    void shouldTracePartitionsWithTracerOfThreadReadingThem() throws Exception
+    {
+        // given
+        ExecutorService service = Executors.newFixedThreadPool( 4 );
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( INDEX_NAME ) );
+        PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( index, 4, unconstrained() );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+        List<PageCursorTracer> cursorTracers = new ArrayList<>();
+
+        try
+        {
+            // when
+            List<Future<LongList>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                PageCursorTracer cursorTracer = new DefaultPageCursorTracer( PageCacheTracer.NULL, "partition-" + i );
+                cursorTracers.add( cursorTracer );
+                futures.add( service.submit( partitionWorker( scan, cursors, cursorTracer ) ) );
+            }
+            List<LongList> lists = futures.stream().map( TestUtils::unsafeGet ).collect( Collectors.toList() );
+            PageCursorTracer mergedCursorTracer = new DefaultPageCursorTracer( PageCacheTracer.NULL, "merged" );
+            cursorTracers.forEach( mergedCursorTracer::merge );
+
+            // then every partition was traced by the thread that read it, with every page it pinned also unpinned
+            assertEquals( ALL_NODES, LongSets.immutable.withAll( concat( lists ) ) );
+            for ( int i = 0; i < lists.size(); i++ )
+            {
+                assertThat( cursorTracers.get( i ).pins() ).isEqualTo( cursorTracers.get( i ).unpins() );
+                assertThat( cursorTracers.get( i ).pins() > 0 ).isEqualTo( !lists.get( i ).isEmpty() );
+            }
+            assertThat( mergedCursorTracer.pins() ).isGreaterThan( 0 ).isEqualTo( mergedCursorTracer.unpins() );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    @Test
+    void shouldSeekInSinglePartitionWithTransactionState() throws Exception
+    {
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            // given
+            int label = tx.tokenRead().nodeLabel( "Node" );
+            int prop = tx.tokenRead().propertyKey( "prop" );
+            Write write = tx.dataWrite();
+            long added = write.nodeCreate();
+            write.nodeAddLabel( added, label );
+            write.nodeSetProperty( added, prop, Values.stringValue( "even-added" ) );
+            IndexReadSession index = tx.dataRead().indexReadSession( tx.schemaRead().indexGetForName( INDEX_NAME ) );
+
+            try ( NodeValueIndexCursor nodes = tx.cursors().allocateNodeValueIndexCursor( NULL ) )
+            {
+                // when
+                PartitionedScan<NodeValueIndexCursor> scan =
+                        tx.dataRead().nodeIndexSeek( index, 4, unconstrained(), IndexQuery.stringPrefix( prop, Values.stringValue( "even-" ) ) );
+                MutableLongList ids = LongLists.mutable.empty();
+                while ( scan.reservePartition( nodes, NULL ) )
+                {
+                    while ( nodes.next() )
+                    {
+                        ids.add( nodes.nodeReference() );
+                    }
+                }
+
+                // then
+                assertEquals( 1, scan.getNumberOfPartitions() );
+                assertEquals( EVEN_NODES.size() + 1, ids.size() );
+                assertThat( ids.contains( added ) ).isTrue();
+                assertFalse( scan.reservePartition( nodes, NULL ) );
+            }
+        }
+    }
+
+    private static Callable<LongList> partitionWorker( PartitionedScan<NodeValueIndexCursor> scan, CursorFactory cursors )
+    {
+        return partitionWorker( scan, cursors, NULL );
+    }
+
+    private static Callable<LongList> partitionWorker( PartitionedScan<NodeValueIndexCursor> scan, CursorFactory cursors, PageCursorTracer cursorTracer )
+    {
+        return () ->
+        {
+            try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( cursorTracer ) )
+            {
+                MutableLongList ids = LongLists.mutable.empty();
+                while ( scan.reservePartition( nodes, cursorTracer ) )
+                {
+                    while ( nodes.next() )
+                    {
+                        ids.add( nodes.nodeReference() );
+                    }
+                }
+                return ids;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.extension.ImpermanentDbmsExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.values.storable.UTF8StringValue;
+import org.neo4j.values.virtual.MapValue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+@ImpermanentDbmsExtension
+class EntityWrappingValueTest
+{
+    private static final String LONG_TEXT = "a string long enough to not be stored as a short string, with some non-ascii characters: åäö €";
+
+    @Inject
+    private GraphDatabaseService db;
+
+    @Test
+    void nodeValueShouldKeepStringPropertiesAsReadFromStore()
+    {
+        // given
+        long nodeId;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = tx.createNode();
+            node.setProperty( "text", LONG_TEXT );
+            node.setProperty( "number", 42 );
+            nodeId = node.getId();
+            tx.commit();
+        }
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            // when
+            MapValue properties = ValueUtils.fromNodeEntity( tx.getNodeById( nodeId ) ).properties();
+
+            // then
+            assertThat( properties.get( "text" ) ).isInstanceOf( UTF8StringValue.class ).isEqualTo( stringValue( LONG_TEXT ) );
+            assertThat( properties.get( "number" ) ).isEqualTo( intValue( 42 ) );
+            assertThat( properties.size() ).isEqualTo( 2 );
+        }
+    }
+
+    @Test
+    void relationshipValueShouldKeepStringPropertiesAsReadFromStore()
+    {
+        // given
+        long relationshipId;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Relationship relationship = tx.createNode().createRelationshipTo( tx.createNode(), RelationshipType.withName( "R" ) );
+            relationship.setProperty( "text", LONG_TEXT );
+            relationship.setProperty( "number", 42 );
+            relationshipId = relationship.getId();
+            tx.commit();
+        }
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            // when
+            MapValue properties = ValueUtils.fromRelationshipEntity( tx.getRelationshipById( relationshipId ) ).properties();
+
+            // then
+            assertThat( properties.get( "text" ) ).isInstanceOf( UTF8StringValue.class ).isEqualTo( stringValue( LONG_TEXT ) );
+            assertThat( properties.get( "number" ) ).isEqualTo( intValue( 42 ) );
+            assertThat( properties.size() ).isEqualTo( 2 );
+        }
+    }
+}
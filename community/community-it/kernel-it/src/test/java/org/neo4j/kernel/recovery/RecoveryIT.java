@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.dbms.DatabaseStateService;
 import org.neo4j.dbms.api.DatabaseManagementService;
 import org.neo4j.dbms.database.DatabaseStartAbortedException;
@@ -86,6 +87,7 @@ import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAM
 import static org.neo4j.configuration.GraphDatabaseSettings.fail_on_missing_files;
 import static org.neo4j.configuration.GraphDatabaseSettings.logical_log_rotation_threshold;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_logical_logs;
+import static org.neo4j.graphdb.Direction.OUTGOING;
 import static org.neo4j.graphdb.RelationshipType.withName;
 import static org.neo4j.internal.helpers.collection.Iterables.count;
 import static org.neo4j.internal.index.label.RelationshipTypeScanStoreSettings.enable_relationship_type_scan_store;
@@ -277,6 +279,72 @@ class RecoveryIT
         }
     }
 
+    @Test
+    void recoverDatabaseUsingParallelRecovery() throws Throwable
+    {
+        GraphDatabaseService database = createDatabase();
+
+        int numberOfHubs = 5;
+        int numberOfTransactions = 200;
+        Label marker = Label.label( "marker" );
+        String property = "value";
+        try ( Transaction transaction = database.beginTx() )
+        {
+            transaction.schema().indexFor( marker ).on( property ).create();
+            transaction.commit();
+        }
+        awaitIndexesOnline( database );
+
+        long[] hubs = new long[numberOfHubs];
+        try ( Transaction transaction = database.beginTx() )
+        {
+            for ( int i = 0; i < numberOfHubs; i++ )
+            {
+                hubs[i] = transaction.createNode().getId();
+            }
+            transaction.commit();
+        }
+        for ( int i = 0; i < numberOfTransactions; i++ )
+        {
+            try ( Transaction transaction = database.beginTx() )
+            {
+                // Every transaction touches one of the hubs, so that some of them change the same records
+                Node node = transaction.createNode( marker );
+                node.setProperty( property, i );
+                node.createRelationshipTo( transaction.getNodeById( hubs[i % numberOfHubs] ), withName( "HUB" ) );
+                transaction.commit();
+            }
+        }
+        managementService.shutdown();
+        removeLastCheckpointRecordFromLastLogFile();
+
+        recoverDatabase( EMPTY, Config.newBuilder()
+                .set( enable_relationship_type_scan_store, enableRelationshipTypeScanStore() )
+                .set( GraphDatabaseSettings.recovery_parallelism, 4 )
+                .build() );
+
+        GraphDatabaseService recoveredDatabase = createDatabase();
+        try ( Transaction transaction = recoveredDatabase.beginTx() )
+        {
+            assertEquals( numberOfHubs + numberOfTransactions, count( transaction.getAllNodes() ) );
+            assertEquals( numberOfTransactions, count( transaction.getAllRelationships() ) );
+            for ( long hub : hubs )
+            {
+                assertEquals( numberOfTransactions / numberOfHubs, transaction.getNodeById( hub ).getDegree() );
+            }
+            for ( int i = 0; i < numberOfTransactions; i++ )
+            {
+                Node node = transaction.findNode( marker, property, i );
+                assertNotNull( node );
+                assertEquals( hubs[i % numberOfHubs], node.getSingleRelationship( withName( "HUB" ), OUTGOING ).getEndNodeId() );
+            }
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
     @Test
     void recoverDatabaseWithIndex() throws Throwable
     {
@@ -702,7 +770,11 @@ class RecoveryIT
 
     private void recoverDatabase( DatabaseTracers databaseTracers ) throws Exception
     {
-        Config config = Config.newBuilder().set( enable_relationship_type_scan_store, enableRelationshipTypeScanStore() ).build();
+        recoverDatabase( databaseTracers, Config.newBuilder().set( enable_relationship_type_scan_store, enableRelationshipTypeScanStore() ).build() );
+    }
+
+    private void recoverDatabase( DatabaseTracers databaseTracers, Config config ) throws Exception
+    {
         assertTrue( isRecoveryRequired( databaseLayout, config ) );
         performRecovery( fileSystem, pageCache, databaseTracers, config, databaseLayout, INSTANCE );
         assertFalse( isRecoveryRequired( databaseLayout, config ) );
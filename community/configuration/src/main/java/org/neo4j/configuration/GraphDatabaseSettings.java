@@ -138,6 +138,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     @Internal
     public static final Setting<String> tracer = newBuilder( "unsupported.dbms.tracer", STRING, null ).build();
 
+    @Internal
+    @Description( "Apply the transactions of concurrently committing threads to the store together, in one pass over the storage engine, " +
+            "when there are more committing threads than available processors. Up to as many threads as there are available processors " +
+            "apply to the store concurrently, each applying the transactions queued by the committers waiting for it." )
+    public static final Setting<Boolean> pipelined_transaction_apply =
+            newBuilder( "unsupported.dbms.transaction.pipelined_apply", BOOL, false ).build();
+
     @Description( "Print out the effective Neo4j configuration after startup." )
     @Internal
     public static final Setting<Boolean> dump_configuration = newBuilder( "unsupported.dbms.report_configuration", BOOL, false )
@@ -454,6 +461,18 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Boolean> cypher_read_properties_from_cursor =
             newBuilder( "unsupported.cypher.read_properties_from_cursor", BOOL, false).build();
 
+    @Description( "The number of partitions the interpreted runtime splits an index seek or scan into when only counting its rows. " +
+                  "The partitions are counted in parallel by the Cypher worker threads. A value of 1 disables parallel counting." )
+    @Internal
+    public static final Setting<Integer> cypher_interpreted_index_seek_partitions =
+            newBuilder( "unsupported.cypher.interpreted.index_seek_partitions", INT, 1 ).addConstraint( min( 1 ) ).build();
+
+    @Description( "Let the interpreted runtime aggregate the rows of an all nodes scan or a label scan, optionally filtered, " +
+                  "by reading batches of the scan in parallel. The number of workers is given by `unsupported.cypher.number_of_workers`." )
+    @Internal
+    public static final Setting<Boolean> cypher_interpreted_parallel_scan_aggregation =
+            newBuilder( "unsupported.cypher.interpreted.parallel_scan_aggregation", BOOL, false ).build();
+
     @Description( "Max number of recent queries to collect in the data collector module. Will round down to the" +
             " nearest power of two. The default number (8192 query invocations) " +
             " was chosen as a trade-off between getting a useful amount of queries, and not" +
@@ -656,6 +675,28 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> index_sampling_parallelism =
             newBuilder( "unsupported.dbms.index_sampling.parallelism", INT, 4 ).addConstraint( min( 0 ) ).build();
 
+    @Description( "Let native indexes keep an estimate of their size and number of distinct values up to date as they are updated, " +
+            "and sample from that estimate instead of scanning the whole index. The index is still scanned the first time it is sampled, " +
+            "after recovery and when removed entries make up more than half of the index." )
+    @Internal
+    public static final Setting<Boolean> index_sampling_incremental =
+            newBuilder( "unsupported.dbms.index_sampling.incremental", BOOL, false ).build();
+
+    @Description( "Let concurrently committing transactions update native indexes concurrently. Each committing transaction applies its own " +
+            "index updates, and native indexes give every online updater its own tree writer, which changes leaves in parallel with the " +
+            "writers of other transactions. By default the index updates of all committing transactions are applied by one thread at a time, " +
+            "through the single writer of each index." )
+    @Internal
+    public static final Setting<Boolean> index_concurrent_writers =
+            newBuilder( "unsupported.dbms.index.concurrent_writers", BOOL, false ).build();
+
+    @Description( "Size of the Bloom filter kept in memory for each online native unique index. The filter lets exact lookups, " +
+            "e.g. MERGE on a uniquely constrained property, skip the index for values that are definitely not in it. " +
+            "The filter is built by scanning the index when it is opened. Zero disables the filter." )
+    @Internal
+    public static final Setting<Long> index_unique_lookup_filter_size =
+            newBuilder( "unsupported.dbms.index.unique_lookup_filter_size", BYTES, 0L ).addConstraint( range( 0L, mebiBytes( 1024 ) ) ).build();
+
     @Description( "Set the maximum number of concurrent index populations across system. " +
             "This also limit the number of threads used to scan store. " +
             "Note that multiple indexes can be populated by a single index population if they were created in the same transaction. " +
@@ -671,6 +712,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> index_population_workers =
             newBuilder( "unsupported.dbms.index_population.workers", INT, 8 ).addConstraint( min( 0 ) ).build();
 
+    @Description( "Let index population scan the node or relationship store with as many threads as there are index population workers, " +
+            "see unsupported.dbms.index_population.workers, each scanning its own range of entity ids. " +
+            "Populations of indexes driven by the label or relationship type index always scan sequentially." )
+    @Internal
+    public static final Setting<Boolean> index_population_parallel_scan =
+            newBuilder( "unsupported.dbms.index_population.parallel_scan", BOOL, false ).build();
+
     // Lucene settings
     @Deprecated( since = "4.0.0", forRemoval = true )
     @Description( "The maximum number of open Lucene index searchers." )
@@ -776,6 +824,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Boolean> fail_on_corrupted_log_files =
             newBuilder("unsupported.dbms.tx_log.fail_on_corrupted_log_files", BOOL, true ).build();
 
+    @Description( "Number of threads applying recovered transactions to the store. Transactions that change disjoint sets of records are applied " +
+            "in parallel, while transactions changing the same records, or schema and tokens, are applied in log order. " +
+            "A value of 1 applies all transactions in log order on a single thread." )
+    @Internal
+    public static final Setting<Integer> recovery_parallelism =
+            newBuilder( "unsupported.dbms.recovery.parallelism", INT, 1 ).addConstraint( min( 1 ) ).build();
+
     @Description( "If `true`, Neo4j will abort recovery if logical log files are missing. Setting " +
             "this to `false` will allow Neo4j to create new empty missing files for already existing database, but, " +
             "the integrity of the database might be compromised." )
@@ -811,14 +866,13 @@ public class GraphDatabaseSettings implements SettingsDeclaration
 
     @Description( "The profiling frequency for the page cache. Accurate profiles allow the page cache to do active " +
             "warmup after a restart, reducing the mean time to performance. " +
-            "This feature available in Neo4j Enterprise Edition." )
+            "A profile is also written when the database is stopped." )
     public static final Setting<Duration> pagecache_warmup_profiling_interval =
             newBuilder( "dbms.memory.pagecache.warmup.profile.interval", DURATION, ofMinutes( 1 ) ).build();
 
     @Description( "Page cache can be configured to perform usage sampling of loaded pages that can be used to construct active load profile. " +
             "According to that profile pages can be reloaded on the restart, replication, etc. " +
-            "This setting allows disabling that behavior. " +
-            "This feature available in Neo4j Enterprise Edition." )
+            "This setting allows disabling that behavior." )
     public static final Setting<Boolean> pagecache_warmup_enabled =
             newBuilder( "dbms.memory.pagecache.warmup.enable", BOOL, true ).build();
 
@@ -833,10 +887,17 @@ public class GraphDatabaseSettings implements SettingsDeclaration
             newBuilder( "dbms.memory.pagecache.warmup.preload.whitelist", STRING, ".*" ).build();
 
     @Description( "Use direct I/O for page cache. Setting is supported only on Linux and only for a subset of record formats" +
-            " that use platform aligned page size." )
+            " that use platform aligned page size. Files on file systems that do not support direct I/O will be accessed through" +
+            " the operating system file cache instead." )
     public static final Setting<Boolean> pagecache_direct_io =
             newBuilder( "dbms.memory.pagecache.directio", BOOL, false ).build();
 
+    @Description( "Allocate the page cache memory in regions that are aligned to, and sized in multiples of, the 2 MiB huge page size. " +
+            "This lets the operating system back the page cache with transparent huge pages, which reduces TLB pressure for large page caches. " +
+            "Only has an effect on Linux when transparent huge pages are enabled in the 'always' mode." )
+    public static final Setting<Boolean> pagecache_huge_pages =
+            newBuilder( "dbms.memory.pagecache.huge_pages", BOOL, false ).build();
+
     @Description( "Allows the enabling or disabling of the file watcher service." +
             " This is an auxiliary service but should be left enabled in almost all cases." )
     public static final Setting<Boolean> filewatcher_enabled = newBuilder( "dbms.filewatcher.enabled", BOOL, true ).build();
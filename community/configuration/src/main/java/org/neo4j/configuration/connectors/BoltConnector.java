@@ -127,6 +127,15 @@ public final class BoltConnector implements SettingsDeclaration
             newBuilder( "dbms.connector.bolt.unsupported_unauth_max_inbound_bytes", BYTES, ByteUnit.kibiBytes( 8 ) )
                     .build();
 
+    @Description( "The estimated heap that records may take up when they are produced ahead of the client pulling them, per connection. " +
+                  "While a connection waits for the next PULL of a result, up to as many records as the previous PULL asked for are " +
+                  "produced ahead, unless the client isn't reading the records already sent. The limit applies to each connection, so the heap " +
+                  "taken up by prefetched records on the whole server can be as large as this times the number of connections. " +
+                  "Prefetched records count towards the memory limit of the transaction producing them. Zero disables result prefetching." )
+    @Internal
+    public static final Setting<Long> unsupported_result_prefetch_max_size =
+            newBuilder( "dbms.connector.bolt.unsupported_result_prefetch_max_size", BYTES, 0L ).build();
+
     public enum EncryptionLevel
     {
         REQUIRED,
@@ -65,10 +65,24 @@ object CypherConfiguration {
       CypherOperatorEngineOption(config.get(GraphDatabaseSettings.cypher_operator_engine).toString),
       CypherInterpretedPipesFallbackOption(config.get(GraphDatabaseSettings.cypher_pipelined_interpreted_pipes_fallback).toString),
       new ConfigMemoryTrackingController(config),
-      config.get(GraphDatabaseSettings.cypher_enable_runtime_monitors)
+      config.get(GraphDatabaseSettings.cypher_enable_runtime_monitors),
+      config.get(GraphDatabaseSettings.cypher_interpreted_index_seek_partitions).toInt,
+      scanAggregationWorkersFromConfig(config)
     )
   }
 
+  /**
+   * The number of workers aggregating a node scan in the interpreted runtime, where 1 means no parallelism.
+   */
+  def scanAggregationWorkersFromConfig(config: Config): Int = {
+    if (!config.get(GraphDatabaseSettings.cypher_interpreted_parallel_scan_aggregation)) 1
+    else config.get(GraphDatabaseSettings.cypher_worker_count).toInt match {
+      case 0 => Runtime.getRuntime.availableProcessors()
+      case workers if workers < 0 => 1
+      case workers => workers
+    }
+  }
+
   def statsDivergenceFromConfig(config: Config): StatsDivergenceCalculator = {
     val divergenceThreshold = config.get(GraphDatabaseSettings.query_statistics_divergence_threshold).doubleValue()
     val targetThreshold = config.get(GraphDatabaseSettings.query_statistics_divergence_target).doubleValue()
@@ -129,7 +143,9 @@ case class CypherConfiguration(version: CypherVersion,
                                operatorEngine: CypherOperatorEngineOption,
                                interpretedPipesFallback: CypherInterpretedPipesFallbackOption,
                                memoryTrackingController: MemoryTrackingController,
-                               enableMonitors: Boolean) {
+                               enableMonitors: Boolean,
+                               interpretedIndexSeekPartitions: Int,
+                               interpretedScanAggregationWorkers: Int) {
 
   def toCypherRuntimeConfiguration: CypherRuntimeConfiguration =
     CypherRuntimeConfiguration(
@@ -138,7 +154,9 @@ case class CypherConfiguration(version: CypherVersion,
       schedulerTracing = toSchedulerTracingConfiguration(doSchedulerTracing, schedulerTracingFile),
       lenientCreateRelationship = lenientCreateRelationship,
       memoryTrackingController = memoryTrackingController,
-      enableMonitors
+      enableMonitors,
+      interpretedIndexSeekPartitions = interpretedIndexSeekPartitions,
+      interpretedScanAggregationWorkers = interpretedScanAggregationWorkers
     )
 
   def toSchedulerTracingConfiguration(doSchedulerTracing: Boolean,
@@ -42,10 +42,13 @@ import org.neo4j.graphdb.Path
 import org.neo4j.internal.kernel.api.IndexQuery
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
 import org.neo4j.internal.kernel.api.PropertyCursor
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
+import org.neo4j.internal.kernel.api.Scan
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext
 import org.neo4j.internal.schema.IndexDescriptor
 import org.neo4j.kernel.impl.core.TransactionalEntityFactory
@@ -140,6 +143,12 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def getNodesByLabel(id: Int, indexOrder: IndexOrder): Iterator[NodeValue] =
     translateException(tokenNameLookup, inner.getNodesByLabel(id, indexOrder))
 
+  override def allNodesScan(): Scan[NodeCursor] =
+    translateException(tokenNameLookup, inner.allNodesScan())
+
+  override def nodeLabelScan(id: Int): Scan[NodeLabelIndexCursor] =
+    translateException(tokenNameLookup, inner.nodeLabelScan(id))
+
   override def getNodesByLabelPrimitive(id: Int, indexOrder: IndexOrder): LongIterator =
     translateException(tokenNameLookup, inner.getNodesByLabelPrimitive(id, indexOrder))
 
@@ -249,6 +258,10 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
 
   override def traversalCursor(): RelationshipTraversalCursor = translateException(tokenNameLookup, inner.traversalCursor())
 
+  override def nodeValueIndexCursor(): NodeValueIndexCursor = translateException(tokenNameLookup, inner.nodeValueIndexCursor())
+
+  override def nodeLabelIndexCursor(): NodeLabelIndexCursor = translateException(tokenNameLookup, inner.nodeLabelIndexCursor())
+
   override def relationshipById(relationshipId: Long, startNodeId: Long, endNodeId: Long, typeId: Int): RelationshipValue =
     translateException(tokenNameLookup, inner.relationshipById(relationshipId, startNodeId, endNodeId, typeId))
 
@@ -269,6 +282,15 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
                                            indexOrder: IndexOrder): NodeValueIndexCursor =
     translateException(tokenNameLookup, inner.indexScan(index, needsValues, indexOrder))
 
+  override def partitionedIndexSeek(index: IndexReadSession,
+                                    desiredNumberOfPartitions: Int,
+                                    queries: Seq[IndexQuery]): PartitionedScan[NodeValueIndexCursor] =
+    translateException(tokenNameLookup, inner.partitionedIndexSeek(index, desiredNumberOfPartitions, queries))
+
+  override def partitionedIndexScan(index: IndexReadSession,
+                                    desiredNumberOfPartitions: Int): PartitionedScan[NodeValueIndexCursor] =
+    translateException(tokenNameLookup, inner.partitionedIndexScan(index, desiredNumberOfPartitions))
+
   override def nodeHasCheapDegrees(node: Long, nodeCursor: NodeCursor): Boolean =
     translateException(tokenNameLookup, inner.nodeHasCheapDegrees(node, nodeCursor))
 
@@ -64,7 +64,7 @@ class CompiledIndexUtilsTest
         NodeValueIndexCursor cursor = CompiledIndexUtils.indexSeek( mock( Read.class ), mock( CursorFactory.class ), index, null, NULL );
 
         // THEN
-        verify( read, never() ).nodeIndexSeek( any(), any(), any() );
+        verify( read, never() ).nodeIndexSeek( any(), any( NodeValueIndexCursor.class ), any() );
         assertFalse( cursor.next() );
     }
 }
@@ -41,11 +41,14 @@ import org.neo4j.internal.kernel.api.CursorFactory
 import org.neo4j.internal.kernel.api.IndexQuery
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
 import org.neo4j.internal.kernel.api.PropertyCursor
 import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
+import org.neo4j.internal.kernel.api.Scan
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.Write
@@ -56,6 +59,7 @@ import org.neo4j.kernel.api.dbms.DbmsOperations
 import org.neo4j.kernel.database.NamedDatabaseId
 import org.neo4j.kernel.impl.core.TransactionalEntityFactory
 import org.neo4j.kernel.impl.factory.DatabaseInfo
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.TextValue
 import org.neo4j.values.storable.Value
@@ -76,6 +80,7 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
   protected def manyDbHits(value: RelationshipIterator): RelationshipIterator = value
   protected def manyDbHits(value: RelationshipTraversalCursor): RelationshipTraversalCursor = value
   protected def manyDbHits(value: NodeValueIndexCursor): NodeValueIndexCursor = value
+  protected def manyDbHits(value: NodeLabelIndexCursor): NodeLabelIndexCursor = value
   protected def manyDbHits(value: NodeCursor): NodeCursor = value
   protected def manyDbHits(count: Int): Int = count
 
@@ -119,6 +124,10 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
 
   override def traversalCursor(): RelationshipTraversalCursor = manyDbHits(inner.traversalCursor())
 
+  override def nodeValueIndexCursor(): NodeValueIndexCursor = manyDbHits(inner.nodeValueIndexCursor())
+
+  override def nodeLabelIndexCursor(): NodeLabelIndexCursor = manyDbHits(inner.nodeLabelIndexCursor())
+
   override def singleRelationship(id: Long, cursor: RelationshipScanCursor): Unit =  singleDbHit(inner.singleRelationship(id, cursor))
 
   override def relationshipById(relationshipId: Long, startNodeId: Long, endNodeId: Long, typeId: Int): RelationshipValue =
@@ -164,6 +173,15 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
                                            indexOrder: IndexOrder): NodeValueIndexCursor =
     manyDbHits(inner.indexScan(index, needsValues, indexOrder))
 
+  override def partitionedIndexSeek(index: IndexReadSession,
+                                    desiredNumberOfPartitions: Int,
+                                    queries: Seq[IndexQuery]): PartitionedScan[NodeValueIndexCursor] =
+    unknownDbHits(inner.partitionedIndexSeek(index, desiredNumberOfPartitions, queries))
+
+  override def partitionedIndexScan(index: IndexReadSession,
+                                    desiredNumberOfPartitions: Int): PartitionedScan[NodeValueIndexCursor] =
+    unknownDbHits(inner.partitionedIndexScan(index, desiredNumberOfPartitions))
+
   override def indexSeekByContains[RESULT <: AnyRef](index: IndexReadSession,
                                                      needsValues: Boolean,
                                                      indexOrder: IndexOrder,
@@ -179,6 +197,10 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
   override def getNodesByLabel(id: Int, indexOrder: IndexOrder): Iterator[NodeValue] =
     manyDbHits(inner.getNodesByLabel(id, indexOrder))
 
+  override def allNodesScan(): Scan[NodeCursor] = unknownDbHits(inner.allNodesScan())
+
+  override def nodeLabelScan(id: Int): Scan[NodeLabelIndexCursor] = unknownDbHits(inner.nodeLabelScan(id))
+
   override def getNodesByLabelPrimitive(id: Int, indexOrder: IndexOrder): LongIterator =
     manyDbHits(inner.getNodesByLabelPrimitive(id, indexOrder))
 
@@ -365,6 +387,8 @@ class DelegatingQueryTransactionalContext(val inner: QueryTransactionalContext)
 
   override def kernelStatisticProvider: KernelStatisticProvider = inner.kernelStatisticProvider
 
+  override def jobScheduler: JobScheduler = inner.jobScheduler
+
   override def databaseInfo: DatabaseInfo = inner.databaseInfo
 
   override def databaseId: NamedDatabaseId = inner.databaseId
@@ -373,6 +397,8 @@ class DelegatingQueryTransactionalContext(val inner: QueryTransactionalContext)
 
   override def cursors: CursorFactory = inner.cursors
 
+  override def workerCursors: CursorFactory = inner.workerCursors
+
   override def dataRead: Read = inner.dataRead
 
   override def tokenRead: TokenRead = inner.tokenRead
@@ -70,6 +70,7 @@ import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.MergeCreateNode
 import org.neo4j.cypher.internal.logical.plans.MergeCreateRelationship
 import org.neo4j.cypher.internal.logical.plans.MultiNodeIndexSeek
+import org.neo4j.cypher.internal.logical.plans.NestedPlanExpression
 import org.neo4j.cypher.internal.logical.plans.NodeByIdSeek
 import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
 import org.neo4j.cypher.internal.logical.plans.NodeCountFromCountStore
@@ -94,6 +95,7 @@ import org.neo4j.cypher.internal.logical.plans.PruningVarExpand
 import org.neo4j.cypher.internal.logical.plans.RelationshipCountFromCountStore
 import org.neo4j.cypher.internal.logical.plans.RemoveLabels
 import org.neo4j.cypher.internal.logical.plans.ResolvedCall
+import org.neo4j.cypher.internal.logical.plans.ResolvedFunctionInvocation
 import org.neo4j.cypher.internal.logical.plans.RightOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.RollUpApply
 import org.neo4j.cypher.internal.logical.plans.SelectOrAntiSemiApply
@@ -187,7 +189,11 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedDistinctPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialSortPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTop1Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTop1WithTiesPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelNodeScanPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelScanAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTopNPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartitionedIndexCountPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartitionedNodeIndexPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ProcedureCallPipe
@@ -229,6 +235,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.NonGroupi
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.OrderedGroupingAggTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.OrderedNonGroupingAggTable
 import org.neo4j.cypher.internal.util.Eagerly
+import org.neo4j.cypher.internal.util.Foldable.FoldableAny
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.InternalException
 import org.neo4j.values.AnyValue
@@ -242,7 +249,9 @@ import org.neo4j.values.virtual.RelationshipValue
 case class InterpretedPipeMapper(readOnly: Boolean,
                                  expressionConverters: ExpressionConverters,
                                  tokenContext: TokenContext,
-                                 indexRegistrator: QueryIndexRegistrator)
+                                 indexRegistrator: QueryIndexRegistrator,
+                                 indexSeekPartitions: Int = 1,
+                                 scanAggregationWorkers: Int = 1)
                                 (implicit semanticTable: SemanticTable) extends PipeMapper {
 
   private def getBuildExpression(id: Id): internal.expressions.Expression => Expression =
@@ -466,6 +475,19 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         }.toArray
         OrderedDistinctPipe(source, projection)(id = id)
 
+      case Aggregation(_, groupingExpressions, aggregatingExpressions) if groupingExpressions.isEmpty && isPartitionedIndexCount(source, aggregatingExpressions) =>
+        val aggregationColumns = aggregatingExpressions.map {
+          case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression])
+        }.toArray
+        PartitionedIndexCountPipe(source.asInstanceOf[Pipe with PartitionedNodeIndexPipe], aggregatingExpressions.keys.toArray, indexSeekPartitions,
+          NonGroupingAggTable.Factory(aggregationColumns))(id = id)
+
+      case aggregation@Aggregation(_, groupingExpressions, aggregatingExpressions) if groupingExpressions.isEmpty && isParallelScanAggregation(aggregation, source) =>
+        val aggregationColumns = aggregatingExpressions.map {
+          case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression])
+        }.toArray
+        ParallelScanAggregationPipe(source, aggregationColumns, scanAggregationWorkers, NonGroupingAggTable.Factory(aggregationColumns))(id = id)
+
       case Aggregation(_, groupingExpressions, aggregatingExpressions) =>
         val aggregationColumns = aggregatingExpressions.map {
           case (key, value) => AggregationPipe.AggregatingCol(key, buildExpression(value).asInstanceOf[AggregationExpression])
@@ -733,6 +755,57 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       .rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext))
       .asInstanceOf[Predicate]
 
+  /**
+   * Counting the rows of an index seek or scan can be done in parallel, over partitions of the index, when all aggregations
+   * are counts of rows or of the, never null, node variable of the index pipe.
+   */
+  private def isPartitionedIndexCount(source: Pipe, aggregatingExpressions: Map[String, internal.expressions.Expression]): Boolean =
+    source match {
+      case indexPipe: PartitionedNodeIndexPipe if readOnly && indexSeekPartitions > 1 && aggregatingExpressions.nonEmpty =>
+        aggregatingExpressions.values.forall {
+          case internal.expressions.CountStar() => true
+          case f: internal.expressions.FunctionInvocation if f.function == internal.expressions.functions.Count && !f.distinct =>
+            f.args == IndexedSeq(internal.expressions.Variable(indexPipe.ident)(f.position))
+          case _ => false
+        }
+      case _ => false
+    }
+
+  /**
+   * Aggregating the, possibly filtered, rows of a node scan can be done by several workers, each reading their own batches of the scan,
+   * when all aggregations can be combined and no expression evaluates nested plans or user defined functions.
+   */
+  private def isParallelScanAggregation(aggregation: Aggregation, source: Pipe): Boolean = {
+    val predicates = (aggregation.source, source) match {
+      case (_, _: ParallelNodeScanPipe[_]) => Some(Seq.empty)
+      case (Selection(predicate, _), FilterPipe(_: ParallelNodeScanPipe[_], _)) => Some(predicate.exprs.toSeq)
+      case _ => None
+    }
+    readOnly && scanAggregationWorkers > 1 && aggregation.aggregationExpression.nonEmpty && predicates.exists { predicateExpressions =>
+      aggregation.aggregationExpression.values.forall {
+        case internal.expressions.CountStar() => true
+        case f: internal.expressions.FunctionInvocation => !f.distinct && combinableAggregations.contains(f.function)
+        case _ => false
+      } && (aggregation.aggregationExpression.values ++ predicateExpressions).forall(isSafeToEvaluateInParallel)
+    }
+  }
+
+  private val combinableAggregations: Set[internal.expressions.functions.Function] = Set(
+    internal.expressions.functions.Count,
+    internal.expressions.functions.Sum,
+    internal.expressions.functions.Min,
+    internal.expressions.functions.Max,
+    internal.expressions.functions.Collect)
+
+  private def isSafeToEvaluateInParallel(expression: internal.expressions.Expression): Boolean =
+    !expression.treeExists {
+      case _: NestedPlanExpression |
+           _: internal.expressions.PatternExpression |
+           _: internal.expressions.PatternComprehension |
+           _: internal.expressions.ExistsSubClause |
+           _: ResolvedFunctionInvocation => true
+    }
+
   private def translateColumnOrder(s: plans.ColumnOrder): org.neo4j.cypher.internal.runtime.interpreted.ColumnOrder = s match {
     case plans.Ascending(name) => org.neo4j.cypher.internal.runtime.interpreted.Ascending(name)
     case plans.Descending(name) => org.neo4j.cypher.internal.runtime.interpreted.Descending(name)
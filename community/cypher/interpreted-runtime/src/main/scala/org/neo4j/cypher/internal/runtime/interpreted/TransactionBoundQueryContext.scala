@@ -43,6 +43,7 @@ import org.neo4j.cypher.internal.runtime.RelationshipIterator
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.UserDefinedAggregator
 import org.neo4j.cypher.internal.runtime.ValuedNodeIndexCursor
+import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.EmptyPartitionedScan
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.CursorIterator
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.IndexSearchMonitor
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.RelationshipCursorIterator
@@ -74,11 +75,14 @@ import org.neo4j.internal.kernel.api.IndexQueryConstraints
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.internal.kernel.api.InternalIndexState
 import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
 import org.neo4j.internal.kernel.api.PropertyCursor
 import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
+import org.neo4j.internal.kernel.api.Scan
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.helpers.Nodes
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelections.allCursor
@@ -89,6 +93,7 @@ import org.neo4j.internal.schema.ConstraintType
 import org.neo4j.internal.schema.IndexDescriptor
 import org.neo4j.internal.schema.IndexPrototype
 import org.neo4j.internal.schema.SchemaDescriptor
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
 import org.neo4j.kernel.GraphDatabaseQueryService
 import org.neo4j.kernel.api.StatementConstants
 import org.neo4j.kernel.api.exceptions.schema.EquivalentSchemaRuleAlreadyExistsException
@@ -269,6 +274,12 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
   override def traversalCursor(): RelationshipTraversalCursor =
     transactionalContext.cursors.allocateRelationshipTraversalCursor(transactionalContext.kernelTransaction.pageCursorTracer)
 
+  override def nodeValueIndexCursor(): NodeValueIndexCursor =
+    transactionalContext.cursors.allocateNodeValueIndexCursor(transactionalContext.kernelTransaction.pageCursorTracer)
+
+  override def nodeLabelIndexCursor(): NodeLabelIndexCursor =
+    transactionalContext.cursors.allocateNodeLabelIndexCursor(transactionalContext.kernelTransaction.pageCursorTracer)
+
   override def relationshipById(relationshipId: Long,
                                 startNodeId: Long,
                                 endNodeId: Long,
@@ -283,20 +294,30 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
                                            needsValues: Boolean,
                                            indexOrder: IndexOrder,
                                            predicates: Seq[IndexQuery]): NodeValueIndexCursor = {
-
-    val impossiblePredicate =
-      predicates.exists {
-        case p: IndexQuery.ExactPredicate => (p.value() eq Values.NO_VALUE) || (p.value().isInstanceOf[FloatingPointValue] && p.value().asInstanceOf[FloatingPointValue].isNaN)
-        case _: IndexQuery.ExistsPredicate => predicates.length <= 1
-        case p: IndexQuery.RangePredicate[_] =>
-          !RANGE_SEEKABLE_VALUE_GROUPS.contains(p.valueGroup())
-        case _ => false
-      }
-
-    if (impossiblePredicate) NodeValueIndexCursor.EMPTY
+    if (isImpossiblePredicate(predicates)) NodeValueIndexCursor.EMPTY
     else seek(index, needsValues, indexOrder, predicates: _*)
   }
 
+  override def partitionedIndexSeek(index: IndexReadSession,
+                                    desiredNumberOfPartitions: Int,
+                                    predicates: Seq[IndexQuery]): PartitionedScan[NodeValueIndexCursor] = {
+    if (isImpossiblePredicate(predicates)) EmptyPartitionedScan
+    else reads().nodeIndexSeek(index, desiredNumberOfPartitions, IndexQueryConstraints.unconstrained(), predicates: _*)
+  }
+
+  override def partitionedIndexScan(index: IndexReadSession,
+                                    desiredNumberOfPartitions: Int): PartitionedScan[NodeValueIndexCursor] =
+    reads().nodeIndexScan(index, desiredNumberOfPartitions, IndexQueryConstraints.unconstrained())
+
+  private def isImpossiblePredicate(predicates: Seq[IndexQuery]): Boolean =
+    predicates.exists {
+      case p: IndexQuery.ExactPredicate => (p.value() eq Values.NO_VALUE) || (p.value().isInstanceOf[FloatingPointValue] && p.value().asInstanceOf[FloatingPointValue].isNaN)
+      case _: IndexQuery.ExistsPredicate => predicates.length <= 1
+      case p: IndexQuery.RangePredicate[_] =>
+        !RANGE_SEEKABLE_VALUE_GROUPS.contains(p.valueGroup())
+      case _ => false
+    }
+
   override def indexReference(label: Int,
                               properties: Int*): IndexDescriptor =
     Iterators.single(
@@ -384,6 +405,10 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     }
   }
 
+  override def allNodesScan(): Scan[NodeCursor] = reads().allNodesScan()
+
+  override def nodeLabelScan(id: Int): Scan[NodeLabelIndexCursor] = reads().nodeLabelScan(id)
+
   override def nodeAsMap(id: Long, nodeCursor: NodeCursor, propertyCursor: PropertyCursor): MapValue = {
     reads().singleNode(id, nodeCursor)
     if (!nodeCursor.next()) VirtualValues.EMPTY_MAP
@@ -999,6 +1024,12 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
 
 object TransactionBoundQueryContext {
 
+  object EmptyPartitionedScan extends PartitionedScan[NodeValueIndexCursor] {
+    override def getNumberOfPartitions: Int = 0
+
+    override def reservePartition(cursor: NodeValueIndexCursor, cursorTracer: PageCursorTracer): Boolean = false
+  }
+
   abstract class CursorIterator[T] extends Iterator[T] with AutoCloseable {
     private var _next: T = fetchNext()
 
@@ -27,12 +27,14 @@ import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.Write
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.Kernel
 import org.neo4j.kernel.api.KernelTransaction
 import org.neo4j.kernel.api.dbms.DbmsOperations
 import org.neo4j.kernel.database.NamedDatabaseId
 import org.neo4j.kernel.impl.api.SchemaStateKey
 import org.neo4j.kernel.impl.factory.DatabaseInfo
 import org.neo4j.kernel.impl.query.TransactionalContext
+import org.neo4j.scheduler.JobScheduler
 
 /**
  * TODO: Currently threadSafeCursors is entirely unused (always null), so we should consider removing it
@@ -49,6 +51,9 @@ case class TransactionalContextWrapper(tc: TransactionalContext, threadSafeCurso
 
   override def cursors: CursorFactory = if (threadSafeCursors == null) tc.kernelTransaction.cursors() else threadSafeCursors
 
+  override def workerCursors: CursorFactory =
+    if (threadSafeCursors == null) tc.graph().getDependencyResolver.resolveDependency(classOf[Kernel]).cursors() else threadSafeCursors
+
   override def dataRead: Read = tc.kernelTransaction().dataRead()
 
   override def tokenRead: TokenRead = tc.kernelTransaction().tokenRead()
@@ -69,6 +74,8 @@ case class TransactionalContextWrapper(tc: TransactionalContext, threadSafeCurso
 
   override def databaseInfo: DatabaseInfo = tc.graph().getDependencyResolver.resolveDependency(classOf[DatabaseInfo])
 
+  override def jobScheduler: JobScheduler = tc.graph().getDependencyResolver.resolveDependency(classOf[JobScheduler])
+
   override def databaseId: NamedDatabaseId = tc.databaseId()
 
   def getOrCreateFromSchemaState[T](key: SchemaStateKey, f: => T): T = {
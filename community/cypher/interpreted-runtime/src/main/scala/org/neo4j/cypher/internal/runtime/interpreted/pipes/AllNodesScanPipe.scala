@@ -21,12 +21,22 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
 
-case class AllNodesScanPipe(ident: String)(val id: Id = Id.INVALID_ID) extends Pipe {
+case class AllNodesScanPipe(ident: String)(val id: Id = Id.INVALID_ID) extends Pipe with ParallelNodeScanPipe[NodeCursor] {
 
   protected def internalCreateResults(state: QueryState): Iterator[CypherRow] = {
     val baseContext = state.newExecutionContext(executionContextFactory)
     state.query.nodeOps.all.map(n => executionContextFactory.copyWith(baseContext, ident, n))
   }
 
+  override def parallelScan(state: QueryState): Option[Scan[NodeCursor]] = Some(state.query.allNodesScan())
+
+  override def allocateCursor(cursors: CursorFactory, cursorTracer: PageCursorTracer): NodeCursor = cursors.allocateNodeCursor(cursorTracer)
+
+  override def nodeReference(cursor: NodeCursor): Long = cursor.nodeReference()
+
 }
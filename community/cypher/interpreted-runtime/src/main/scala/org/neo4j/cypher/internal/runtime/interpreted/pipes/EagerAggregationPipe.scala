@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
 import org.neo4j.cypher.internal.util.attribution.Id
 
@@ -31,8 +32,16 @@ case class EagerAggregationPipe(source: Pipe,
                                (val id: Id = Id.INVALID_ID)
   extends AggregationPipe(source, tableFactory) {
 
-  protected def internalCreateResults(input: Iterator[CypherRow], state: QueryState): Iterator[CypherRow] = {
-    val table = tableFactory.table(state, executionContextFactory, id)
+  protected def internalCreateResults(input: Iterator[CypherRow], state: QueryState): Iterator[CypherRow] =
+    EagerAggregationPipe.aggregate(input, tableFactory.table(state, executionContextFactory, id))
+}
+
+object EagerAggregationPipe {
+
+  /**
+   * Aggregates all of `input` into `table` and returns an iterator over the aggregated rows, which clears the table when exhausted.
+   */
+  def aggregate(input: Iterator[CypherRow], table: AggregationTable): Iterator[CypherRow] = {
     table.clear()
     while (input.hasNext) {
       table.processRow(input.next())
@@ -23,9 +23,13 @@ import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel.UNKNOWN
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
 
 case class NodeByLabelScanPipe(ident: String, label: LazyLabel)
-                              (val id: Id = Id.INVALID_ID) extends Pipe {
+                              (val id: Id = Id.INVALID_ID) extends Pipe with ParallelNodeScanPipe[NodeLabelIndexCursor] {
 
   protected def internalCreateResults(state: QueryState): Iterator[CypherRow] = {
 
@@ -39,4 +43,15 @@ case class NodeByLabelScanPipe(ident: String, label: LazyLabel)
       Iterator.empty
     }
   }
+
+  override def parallelScan(state: QueryState): Option[Scan[NodeLabelIndexCursor]] = {
+    val id = label.getId(state.query)
+    if (id != UNKNOWN) Some(state.query.nodeLabelScan(id))
+    else None
+  }
+
+  override def allocateCursor(cursors: CursorFactory, cursorTracer: PageCursorTracer): NodeLabelIndexCursor =
+    cursors.allocateNodeLabelIndexCursor(cursorTracer)
+
+  override def nodeReference(cursor: NodeLabelIndexCursor): Long = cursor.nodeReference()
 }
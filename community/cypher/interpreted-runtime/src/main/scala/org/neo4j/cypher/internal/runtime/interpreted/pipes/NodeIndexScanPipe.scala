@@ -25,6 +25,8 @@ import org.neo4j.cypher.internal.logical.plans.IndexOrder
 import org.neo4j.cypher.internal.logical.plans.IndexedProperty
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
 
 import scala.collection.Iterator
 
@@ -33,7 +35,7 @@ case class NodeIndexScanPipe(ident: String,
                              properties: Seq[IndexedProperty],
                              queryIndexId: Int,
                              indexOrder: IndexOrder)
-                            (val id: Id = Id.INVALID_ID) extends Pipe with IndexPipeWithValues {
+                            (val id: Id = Id.INVALID_ID) extends Pipe with IndexPipeWithValues with PartitionedNodeIndexPipe {
 
   override val indexPropertyIndices: Array[Int] =
     properties.indices.filter(properties(_).shouldGetValue).toArray
@@ -46,4 +48,7 @@ case class NodeIndexScanPipe(ident: String,
     val cursor = state.query.indexScan(state.queryIndexes(queryIndexId), needsValues, indexOrder)
     new IndexIterator(state.query, baseContext, cursor)
   }
+
+  override def partitionedScan(state: QueryState, desiredNumberOfPartitions: Int): Option[PartitionedScan[NodeValueIndexCursor]] =
+    Some(state.query.partitionedIndexScan(state.queryIndexes(queryIndexId), desiredNumberOfPartitions))
 }
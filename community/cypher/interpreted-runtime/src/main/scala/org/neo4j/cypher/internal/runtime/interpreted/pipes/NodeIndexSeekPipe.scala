@@ -27,6 +27,8 @@ import org.neo4j.cypher.internal.logical.plans.QueryExpression
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
 
 case class NodeIndexSeekPipe(ident: String,
                              label: LabelToken,
@@ -35,7 +37,7 @@ case class NodeIndexSeekPipe(ident: String,
                              valueExpr: QueryExpression[Expression],
                              indexMode: IndexSeekMode = IndexSeek,
                              indexOrder: IndexOrder)
-                            (val id: Id = Id.INVALID_ID) extends Pipe with NodeIndexSeeker with IndexPipeWithValues {
+                            (val id: Id = Id.INVALID_ID) extends Pipe with NodeIndexSeeker with IndexPipeWithValues with PartitionedNodeIndexPipe {
 
   override val propertyIds: Array[Int] = properties.map(_.propertyKeyToken.nameId.id)
 
@@ -50,6 +52,11 @@ case class NodeIndexSeekPipe(ident: String,
     new IndexIterator(state.query, baseContext, indexSeek(state, index, needsValues, indexOrder, baseContext))
   }
 
+  override def partitionedScan(state: QueryState, desiredNumberOfPartitions: Int): Option[PartitionedScan[NodeValueIndexCursor]] = {
+    val baseContext = state.newExecutionContext(executionContextFactory)
+    partitionedIndexSeek(state, state.queryIndexes(queryIndexId), desiredNumberOfPartitions, baseContext)
+  }
+
   def canEqual(other: Any): Boolean = other.isInstanceOf[NodeIndexSeekPipe]
 
   override def equals(other: Any): Boolean = other match {
@@ -51,6 +51,7 @@ import org.neo4j.exceptions.InternalException
 import org.neo4j.internal.kernel.api.IndexQuery
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.NumberValue
 import org.neo4j.values.storable.PointValue
@@ -99,6 +100,24 @@ trait NodeIndexSeeker {
         }
     }
 
+  /**
+   * @return the index seek as a [[PartitionedScan]], or `None` if it can't be done as a single seek of a non-locking index.
+   */
+  protected def partitionedIndexSeek(state: QueryState,
+                                     index: IndexReadSession,
+                                     desiredNumberOfPartitions: Int,
+                                     baseContext: CypherRow): Option[PartitionedScan[NodeValueIndexCursor]] =
+    indexMode match {
+      case _: ExactSeek |
+           _: SeekByRange =>
+        val indexQueries: Seq[Seq[IndexQuery]] = computeIndexQueries(state, baseContext)
+        if (indexQueries.size == 1) Some(state.query.partitionedIndexSeek(index, desiredNumberOfPartitions, indexQueries.head))
+        else None
+
+      case LockingUniqueIndexSeek =>
+        None
+    }
+
   // helpers
 
   private def orderedCursor(indexOrder: IndexOrder, cursors: Array[NodeValueIndexCursor]) = indexOrder match {
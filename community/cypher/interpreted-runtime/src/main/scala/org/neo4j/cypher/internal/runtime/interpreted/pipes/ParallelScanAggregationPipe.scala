@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ExpressionCursors
+import org.neo4j.cypher.internal.runtime.QueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.SynchronizedQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.CombinableAggregationFunction
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.io.IOUtils
+import org.neo4j.io.pagecache.tracing.PageCacheTracer
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer
+import org.neo4j.scheduler.Group
+import org.neo4j.values.storable.Values
+
+import scala.util.Try
+
+/**
+ * Aggregates, without grouping, the rows of a node scan, optionally filtered, by letting several workers read batches of the scan.
+ * Every worker aggregates its own batches, with its own [[QueryState]] and aggregation functions, and the partial aggregations
+ * are combined at the end.
+ *
+ * Memory allocated by the workers is recorded through a [[SynchronizedQueryMemoryTracker]].
+ * Page accesses of the workers are traced by a tracer per worker, which is merged into the tracer of the transaction at the end.
+ * When profiling, when there is an argument row or when the transaction has changes, this pipe falls back to ordinary eager aggregation.
+ *
+ * @param source a [[ParallelNodeScanPipe]], or a [[FilterPipe]] directly on top of one.
+ * @param aggregations the aggregation columns, all of which must create [[CombinableAggregationFunction]]s.
+ */
+case class ParallelScanAggregationPipe(source: Pipe,
+                                       aggregations: Array[AggregatingCol],
+                                       numberOfWorkers: Int,
+                                       tableFactory: AggregationTableFactory)
+                                      (val id: Id = Id.INVALID_ID)
+  extends AggregationPipe(source, tableFactory) {
+
+  private val scanPipe: ParallelNodeScanPipe[_ <: Cursor] = source match {
+    case FilterPipe(scan: ParallelNodeScanPipe[_], _) => scan
+    case scan: ParallelNodeScanPipe[_] => scan
+    case _ => throw new IllegalArgumentException(s"Can't aggregate $source in parallel")
+  }
+
+  private val predicate: Option[Expression] = source match {
+    case FilterPipe(_, filter) => Some(filter)
+    case _ => None
+  }
+
+  override def createResults(state: QueryState): Iterator[CypherRow] = {
+    val parallelResult =
+      if ((state.decorator eq NullPipeDecorator) && state.initialContext.isEmpty && !state.query.transactionalContext.dataRead.transactionStateHasChanges)
+        aggregateInParallel(state, scanPipe)
+      else None
+
+    parallelResult match {
+      case Some(row) => Iterator.single(row)
+      case None => super.createResults(state)
+    }
+  }
+
+  protected def internalCreateResults(input: Iterator[CypherRow], state: QueryState): Iterator[CypherRow] =
+    EagerAggregationPipe.aggregate(input, tableFactory.table(state, executionContextFactory, id))
+
+  private def aggregateInParallel[CURSOR <: Cursor](state: QueryState, scanPipe: ParallelNodeScanPipe[CURSOR]): Option[CypherRow] =
+    scanPipe.parallelScan(state).map { scan =>
+      // The page cursor tracer of the transaction is not thread-safe either, so every worker traces its reads with a tracer of its own,
+      // and those are merged into the one of the transaction when all workers are done
+      val memoryTracker = new SynchronizedQueryMemoryTracker(state.memoryTracker)
+      val workers = Array.fill(numberOfWorkers)(new Worker(scanPipe, state, memoryTracker))
+      try {
+        val executor = state.query.transactionalContext.jobScheduler.executor(Group.CYPHER_WORKER)
+        val futures = workers.tail.map(worker => CompletableFuture.runAsync(new Runnable {
+          override def run(): Unit = worker.aggregate(scan)
+        }, executor))
+        val aggregated = Try(workers.head.aggregate(scan))
+        // Wait for all workers before failing, no cursor may be closed while still in use
+        val results = aggregated +: futures.map(future => Try(future.join()).recover {
+          case e: CompletionException => throw e.getCause
+        })
+        results.foreach(_.get)
+
+        val functions = workers.head.functions
+        workers.tail.foreach(worker => {
+          var i = 0
+          while (i < functions.length) {
+            functions(i).combine(worker.functions(i))
+            i += 1
+          }
+        })
+        val row = state.newExecutionContext(executionContextFactory)
+        var i = 0
+        while (i < functions.length) {
+          row.set(aggregations(i).key, functions(i).result(state))
+          i += 1
+        }
+        row
+      } finally {
+        IOUtils.closeAll(workers: _*)
+        val transactionCursorTracer = state.query.transactionalContext.transaction.pageCursorTracer()
+        workers.foreach(worker => transactionCursorTracer.merge(worker.cursorTracer))
+      }
+    }
+
+  private class Worker[CURSOR <: Cursor](scanPipe: ParallelNodeScanPipe[CURSOR], queryState: QueryState, memoryTracker: QueryMemoryTracker)
+    extends AutoCloseable {
+    val cursorTracer = new DefaultPageCursorTracer(PageCacheTracer.NULL, "aggregateInParallel")
+    private val cursors = queryState.query.transactionalContext.workerCursors
+    private val cursor = scanPipe.allocateCursor(cursors, cursorTracer)
+    private val state = queryState.forWorker(new ExpressionCursors(cursors, cursorTracer), memoryTracker)
+    val functions: Array[CombinableAggregationFunction] =
+      aggregations.map(_.expression.createAggregationFunction(id).asInstanceOf[CombinableAggregationFunction])
+
+    def aggregate(scan: Scan[CURSOR]): Unit = {
+      val baseContext = state.newExecutionContext(executionContextFactory)
+      while (scan.reserveBatch(cursor, ParallelScanAggregationPipe.BATCH_SIZE)) {
+        while (cursor.next()) {
+          val row = executionContextFactory.copyWith(baseContext, scanPipe.ident, state.query.nodeById(scanPipe.nodeReference(cursor)))
+          if (predicate.forall(filter => filter(row, state) eq Values.TRUE)) {
+            var i = 0
+            while (i < functions.length) {
+              functions(i)(row, state)
+              i += 1
+            }
+          }
+        }
+      }
+    }
+
+    override def close(): Unit = {
+      functions.foreach(_.recordMemoryDeallocation())
+      IOUtils.closeAll(cursor, state)
+    }
+  }
+}
+
+object ParallelScanAggregationPipe {
+  /**
+   * Number of nodes a worker asks the scan for at a time.
+   */
+  val BATCH_SIZE = 1024
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.function.Supplier
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
+import org.neo4j.io.pagecache.tracing.PageCacheTracer
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer
+import org.neo4j.scheduler.Group
+import org.neo4j.values.storable.Values
+
+import scala.util.Try
+
+/**
+ * Counts the rows of an index seek or scan by reading the partitions of the index in parallel, one cursor per thread,
+ * and summing up the partial counts.
+ *
+ * Only counting is done in parallel, since it only needs the cursors. Any other aggregation evaluates expressions through
+ * the [[QueryState]], which is not thread-safe. When the index can't be partitioned, when profiling, or when there is an
+ * argument row, this pipe falls back to ordinary eager aggregation.
+ *
+ * @param countKeys the result columns, each of which is either `count(*)` or a count of the node variable of the index pipe.
+ */
+case class PartitionedIndexCountPipe(source: Pipe with PartitionedNodeIndexPipe,
+                                     countKeys: Array[String],
+                                     desiredNumberOfPartitions: Int,
+                                     tableFactory: AggregationTableFactory)
+                                    (val id: Id = Id.INVALID_ID)
+  extends AggregationPipe(source, tableFactory) {
+
+  override def createResults(state: QueryState): Iterator[CypherRow] = {
+    val partitionedScan =
+      if ((state.decorator eq NullPipeDecorator) && state.initialContext.isEmpty) source.partitionedScan(state, desiredNumberOfPartitions)
+      else None
+
+    partitionedScan match {
+      case Some(scan) =>
+        val row = state.newExecutionContext(executionContextFactory)
+        val count = Values.longValue(countInParallel(state, scan))
+        countKeys.foreach(key => row.set(key, count))
+        Iterator.single(row)
+      case None =>
+        super.createResults(state)
+    }
+  }
+
+  protected def internalCreateResults(input: Iterator[CypherRow], state: QueryState): Iterator[CypherRow] =
+    EagerAggregationPipe.aggregate(input, tableFactory.table(state, executionContextFactory, id))
+
+  private def countInParallel(state: QueryState, scan: PartitionedScan[NodeValueIndexCursor]): Long = {
+    val numberOfTasks = math.max(1, math.min(desiredNumberOfPartitions, scan.getNumberOfPartitions))
+    // The cursor pool of the transaction is not thread-safe, so all cursors are allocated, and closed, by this thread
+    val cursors = Array.fill(numberOfTasks)(state.query.nodeValueIndexCursor())
+    // Neither is the page cursor tracer of the transaction, so each task traces the partitions it reads with a tracer of its own
+    val cursorTracers = Array.fill(numberOfTasks)(new DefaultPageCursorTracer(PageCacheTracer.NULL, "countInParallel"))
+    try {
+      val executor = state.query.transactionalContext.jobScheduler.executor(Group.CYPHER_WORKER)
+      val futures = (1 until numberOfTasks).map(i => CompletableFuture.supplyAsync(new Supplier[Long] {
+        override def get(): Long = countPartitions(scan, cursors(i), cursorTracers(i))
+      }, executor))
+      val counted = Try(countPartitions(scan, cursors(0), cursorTracers(0)))
+      // Wait for all tasks before failing, no cursor may be closed while still in use
+      val partialCounts = counted +: futures.map(future => Try(future.join()).recover {
+        case e: CompletionException => throw e.getCause
+      })
+      partialCounts.map(_.get).sum
+    } finally {
+      // Unreserved partitions, left behind by a failed task, release their resources when initializing a cursor
+      while (scan.reservePartition(cursors(0), cursorTracers(0))) {}
+      cursors.foreach(_.close())
+      // All tasks are done and their cursors closed, so what they traced can be handed over to the transaction
+      val transactionCursorTracer = state.query.transactionalContext.transaction.pageCursorTracer()
+      cursorTracers.foreach(transactionCursorTracer.merge)
+    }
+  }
+
+  private def countPartitions(scan: PartitionedScan[NodeValueIndexCursor], cursor: NodeValueIndexCursor, cursorTracer: PageCursorTracer): Long = {
+    var count = 0L
+    while (scan.reservePartition(cursor, cursorTracer)) {
+      while (cursor.next()) {
+        count += 1
+      }
+    }
+    count
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
+
+/**
+ * Mixin trait for index leaf pipes whose result can be read in partitions, by several threads in parallel.
+ */
+trait PartitionedNodeIndexPipe {
+  self: Pipe =>
+
+  def ident: String
+
+  /**
+   * @return the result of this pipe as a [[PartitionedScan]], or `None` if this particular query can't be partitioned.
+   */
+  def partitionedScan(state: QueryState, desiredNumberOfPartitions: Int): Option[PartitionedScan[NodeValueIndexCursor]]
+}
@@ -89,6 +89,17 @@ class QueryState(val query: QueryContext,
     new QueryState(query, resources, params, cursors, queryIndexes, expressionVariables, subscriber, memoryTracker, decorator, initialContext,
       cachedIn, lenientCreateRelationship, prePopulateResults, input)
 
+  /**
+   * A state for evaluating expressions on another thread, with its own cursors and its own caches,
+   * so that the only mutable thing shared with this state is the given, thread-safe, memory tracker.
+   */
+  def forWorker(cursors: ExpressionCursors, memoryTracker: QueryMemoryTracker): QueryState = {
+    val state = new QueryState(query, resources, params, cursors, queryIndexes, new Array[AnyValue](expressionVariables.length), subscriber,
+      memoryTracker, decorator, initialContext, new SingleThreadedLRUCache(maxSize = 16), lenientCreateRelationship, prePopulateResults, input)
+    state.setExecutionContextFactory(_exFactory)
+    state
+  }
+
   def setExecutionContextFactory(exFactory: ExecutionContextFactory): Unit = {
     _exFactory = exFactory
   }
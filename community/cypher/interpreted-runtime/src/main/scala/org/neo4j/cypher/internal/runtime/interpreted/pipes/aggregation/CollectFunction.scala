@@ -30,7 +30,7 @@ import org.neo4j.values.virtual.VirtualValues
 
 import scala.collection.mutable.ArrayBuffer
 
-class CollectFunction(value:Expression, operatorId: Id) extends AggregationFunction {
+class CollectFunction(value:Expression, operatorId: Id) extends AggregationFunction with CombinableAggregationFunction {
   private var collection = new ArrayBuffer[AnyValue]()
   private var scopedMemoryTracker: ScopedMemoryTracker = _
 
@@ -46,6 +46,13 @@ class CollectFunction(value:Expression, operatorId: Id) extends AggregationFunct
     }
   }
 
+  /**
+   * The combined values stay accounted for by the memory tracker of `other`, until it records their de-allocation.
+   */
+  override def combine(other: CombinableAggregationFunction): Unit = {
+    collection ++= other.asInstanceOf[CollectFunction].collection
+  }
+
   override def result(state: QueryState): AnyValue = VirtualValues.list(collection.toArray:_*)
 
   override def recordMemoryDeallocation(): Unit = {
@@ -26,7 +26,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-class CountFunction(value: Expression) extends AggregationFunction {
+class CountFunction(value: Expression) extends AggregationFunction with CombinableAggregationFunction {
   var count: Long = 0
 
   override def apply(data: ReadableRow, state: QueryState) {
@@ -36,6 +36,10 @@ class CountFunction(value: Expression) extends AggregationFunction {
     }
   }
 
+  override def combine(other: CombinableAggregationFunction): Unit = {
+    count += other.asInstanceOf[CountFunction].count
+  }
+
   override def recordMemoryDeallocation(): Unit = ()
 
   override def result(state: QueryState): AnyValue = Values.longValue(count)
@@ -24,13 +24,17 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-class CountStarFunction extends AggregationFunction {
+class CountStarFunction extends AggregationFunction with CombinableAggregationFunction {
   var count:Long = 0
 
   override def apply(data: ReadableRow, state: QueryState) {
     count += 1
   }
 
+  override def combine(other: CombinableAggregationFunction): Unit = {
+    count += other.asInstanceOf[CountStarFunction].count
+  }
+
   override def result(state: QueryState): AnyValue = Values.longValue(count)
 
   override def recordMemoryDeallocation(): Unit = ()
@@ -27,7 +27,7 @@ import org.neo4j.values.AnyValue
 import org.neo4j.values.AnyValues
 import org.neo4j.values.storable.Values
 
-trait MinMax extends AggregationFunction {
+trait MinMax extends AggregationFunction with CombinableAggregationFunction {
   def value: Expression
   def keep(comparisonResult: Int): Boolean
   def name: String
@@ -43,6 +43,13 @@ trait MinMax extends AggregationFunction {
     }
   }
 
+  override def combine(other: CombinableAggregationFunction): Unit = {
+    val that = other.asInstanceOf[MinMax]
+    if (!(that.biggestSeen eq Values.NO_VALUE)) {
+      checkIfLargest(that.biggestSeen)
+    }
+  }
+
   override def recordMemoryDeallocation(): Unit = ()
 
   private def checkIfLargest(value: AnyValue) {
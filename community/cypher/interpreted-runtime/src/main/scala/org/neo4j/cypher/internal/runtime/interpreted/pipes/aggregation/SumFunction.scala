@@ -28,6 +28,7 @@ import org.neo4j.values.utils.ValueMath.overflowSafeAdd
 
 class SumFunction(val value: Expression)
   extends AggregationFunction
+  with CombinableAggregationFunction
   with NumericOrDurationAggregationExpression {
 
   def name = "SUM"
@@ -46,7 +47,19 @@ class SumFunction(val value: Expression)
   override def recordMemoryDeallocation(): Unit = ()
 
   override def apply(data: ReadableRow, state: QueryState) {
-    val vl = value(data, state)
+    add(value(data, state))
+  }
+
+  override def combine(other: CombinableAggregationFunction): Unit = {
+    val that = other.asInstanceOf[SumFunction]
+    that.aggregatingType match {
+      case None =>
+      case Some(that.AggregatingDurations) => add(that.sumDuration)
+      case _ => add(that.sumNumber)
+    }
+  }
+
+  private def add(vl: AnyValue): Unit = {
     actOnNumberOrDuration(vl,
       number => {
         sumNumber = overflowSafeAdd(sumNumber, number)
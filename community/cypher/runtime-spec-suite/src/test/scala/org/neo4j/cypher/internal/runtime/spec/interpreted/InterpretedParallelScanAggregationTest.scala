@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.interpreted
+
+import java.time.Duration
+
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.cypher.internal.CommunityRuntimeContext
+import org.neo4j.cypher.internal.InterpretedRuntime
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.LogicalQueryBuilder
+import org.neo4j.cypher.internal.runtime.spec.RuntimeTestSuite
+import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+
+class InterpretedParallelScanAggregationTest extends RuntimeTestSuite[CommunityRuntimeContext](
+  COMMUNITY.EDITION.copyWith(
+    GraphDatabaseSettings.cypher_interpreted_parallel_scan_aggregation -> java.lang.Boolean.TRUE,
+    GraphDatabaseSettings.cypher_worker_count -> Integer.valueOf(4)), InterpretedRuntime) {
+
+  private val numberOfNodes = 10000
+
+  test("should aggregate filtered all nodes scan in parallel") {
+    given {
+      nodePropertyGraph(numberOfNodes, {
+        case i => Map("num" -> i)
+      })
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c", "d", "s", "min", "max")
+      .aggregation(Seq.empty, Seq("count(*) AS c", "count(x.num) AS d", "sum(x.num) AS s", "min(x.num) AS min", "max(x.num) AS max"))
+      .filter("x.num % 2 = 1")
+      .allNodeScan("x")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = (0 until numberOfNodes).filter(_ % 2 == 1)
+    runtimeResult should beColumns("c", "d", "s", "min", "max").withSingleRow(expected.size, expected.size, expected.sum, expected.min, expected.max)
+  }
+
+  test("should collect label scan in parallel") {
+    given {
+      nodePropertyGraph(numberOfNodes, {
+        case i => Map("num" -> i)
+      }, "Honey")
+      nodeGraph(numberOfNodes, "Bee")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("collect(x.num) AS c"))
+      .nodeByLabelScan("x", "Honey")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("c").withRows(matching {
+      // The order of the collected elements in the list can differ
+      case Seq(Array(d: ListValue)) if d.asArray().toSeq.sorted(ANY_VALUE_ORDERING) == (0 until numberOfNodes).map(Values.intValue) =>
+    })
+  }
+
+  test("should hand over page accesses of all workers to the transaction") {
+    given {
+      nodePropertyGraph(numberOfNodes, {
+        case i => Map("num" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("s")
+      .aggregation(Seq.empty, Seq("sum(x.num) AS s"))
+      .nodeByLabelScan("x", "Honey")
+      .build()
+
+    val cursorTracer = tx.kernelTransaction().pageCursorTracer()
+    val pinsBefore = cursorTracer.pins()
+    val unpinsBefore = cursorTracer.unpins()
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("s").withSingleRow((0 until numberOfNodes).sum)
+    val pins = cursorTracer.pins() - pinsBefore
+    val unpins = cursorTracer.unpins() - unpinsBefore
+    pins should be > 0L
+    unpins shouldBe pins
+  }
+
+  test("should sum durations in parallel") {
+    given {
+      nodePropertyGraph(numberOfNodes, {
+        case i if i % 100 == 0 => Map("d" -> Duration.ofSeconds(1))
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("s")
+      .aggregation(Seq.empty, Seq("sum(x.d) AS s"))
+      .nodeByLabelScan("x", "Honey")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("s").withSingleRow(Duration.ofSeconds(numberOfNodes / 100))
+  }
+
+  test("should fail on mixed numbers and durations in parallel") {
+    given {
+      nodePropertyGraph(numberOfNodes, {
+        case i if i % 2 == 0 => Map("d" -> Duration.ofSeconds(1))
+        case i => Map("d" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("s")
+      .aggregation(Seq.empty, Seq("sum(x.d) AS s"))
+      .nodeByLabelScan("x", "Honey")
+      .build()
+
+    // then
+    intercept[CypherTypeException] {
+      consume(execute(logicalQuery, runtime))
+    }
+  }
+
+  test("should aggregate scan of unknown label") {
+    given {
+      nodeGraph(numberOfNodes, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("count(*) AS c"))
+      .nodeByLabelScan("x", "Bee")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("c").withSingleRow(0)
+  }
+}
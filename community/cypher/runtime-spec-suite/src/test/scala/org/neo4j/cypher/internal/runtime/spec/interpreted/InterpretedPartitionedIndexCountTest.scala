@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.interpreted
+
+import org.neo4j.configuration.GraphDatabaseSettings
+import org.neo4j.cypher.internal.CommunityRuntimeContext
+import org.neo4j.cypher.internal.InterpretedRuntime
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.LogicalQueryBuilder
+import org.neo4j.cypher.internal.runtime.spec.RuntimeTestSuite
+
+class InterpretedPartitionedIndexCountTest extends RuntimeTestSuite[CommunityRuntimeContext](
+  COMMUNITY.EDITION.copyWith(GraphDatabaseSettings.cypher_interpreted_index_seek_partitions -> Integer.valueOf(4)), InterpretedRuntime) {
+
+  private val numberOfNodes = 10000
+
+  test("should count range seek in partitions") {
+    given {
+      index("Honey", "prop")
+      nodePropertyGraph(numberOfNodes, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("count(*) AS c"))
+      .nodeIndexOperator("x:Honey(prop >= 1000)")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("c").withSingleRow(numberOfNodes - 1000)
+  }
+
+  test("should count exact seek in partitions") {
+    given {
+      index("Honey", "prop")
+      nodePropertyGraph(numberOfNodes, {
+        case i => Map("prop" -> i % 3)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c", "d")
+      .aggregation(Seq.empty, Seq("count(*) AS c", "count(x) AS d"))
+      .nodeIndexOperator("x:Honey(prop = 1)")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = (0 until numberOfNodes).count(_ % 3 == 1)
+    runtimeResult should beColumns("c", "d").withSingleRow(expected, expected)
+  }
+
+  test("should count index scan in partitions") {
+    given {
+      index("Honey", "prop")
+      nodePropertyGraph(numberOfNodes, {
+        case i if i % 2 == 0 => Map("prop" -> s"value-$i")
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("count(x) AS c"))
+      .nodeIndexOperator("x:Honey(prop)")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("c").withSingleRow(numberOfNodes / 2)
+  }
+
+  test("should hand over page accesses of all partitions to the transaction") {
+    given {
+      index("Honey", "prop")
+      nodePropertyGraph(numberOfNodes, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("count(*) AS c"))
+      .nodeIndexOperator("x:Honey(prop >= 0)")
+      .build()
+
+    val cursorTracer = tx.kernelTransaction().pageCursorTracer()
+    val pinsBefore = cursorTracer.pins()
+    val unpinsBefore = cursorTracer.unpins()
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("c").withSingleRow(numberOfNodes)
+    val pins = cursorTracer.pins() - pinsBefore
+    val unpins = cursorTracer.unpins() - unpinsBefore
+    pins should be > 0L
+    unpins shouldBe pins
+  }
+
+  test("should count empty seek") {
+    given {
+      index("Honey", "prop")
+      nodePropertyGraph(numberOfNodes, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("c")
+      .aggregation(Seq.empty, Seq("count(*) AS c"))
+      .nodeIndexOperator("x:Honey(prop > 20000)")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("c").withSingleRow(0)
+  }
+}
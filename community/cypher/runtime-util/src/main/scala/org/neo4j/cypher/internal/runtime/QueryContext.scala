@@ -35,11 +35,14 @@ import org.neo4j.internal.kernel.api.IndexQuery
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.internal.kernel.api.KernelReadTracer
 import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
 import org.neo4j.internal.kernel.api.PropertyCursor
 import org.neo4j.internal.kernel.api.Read
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
+import org.neo4j.internal.kernel.api.Scan
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.Write
@@ -50,6 +53,7 @@ import org.neo4j.kernel.api.dbms.DbmsOperations
 import org.neo4j.kernel.database.NamedDatabaseId
 import org.neo4j.kernel.impl.core.TransactionalEntityFactory
 import org.neo4j.kernel.impl.factory.DatabaseInfo
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.TextValue
 import org.neo4j.values.storable.Value
@@ -100,6 +104,10 @@ trait QueryContext extends TokenContext with DbAccess {
 
   def traversalCursor(): RelationshipTraversalCursor
 
+  def nodeValueIndexCursor(): NodeValueIndexCursor
+
+  def nodeLabelIndexCursor(): NodeLabelIndexCursor
+
   def getOrCreateLabelId(labelName: String): Int
 
   def setLabelsOnNode(node: Long, labelIds: Iterator[Int]): Int
@@ -137,10 +145,33 @@ trait QueryContext extends TokenContext with DbAccess {
                                   needsValues: Boolean,
                                   indexOrder: IndexOrder): NodeValueIndexCursor
 
+  /**
+   * Seek an index, splitting the result into partitions which can be read in parallel, each into its own [[NodeValueIndexCursor]].
+   */
+  def partitionedIndexSeek(index: IndexReadSession,
+                           desiredNumberOfPartitions: Int,
+                           queries: Seq[IndexQuery]): PartitionedScan[NodeValueIndexCursor]
+
+  /**
+   * Scan an index, splitting the result into partitions which can be read in parallel, each into its own [[NodeValueIndexCursor]].
+   */
+  def partitionedIndexScan(index: IndexReadSession,
+                           desiredNumberOfPartitions: Int): PartitionedScan[NodeValueIndexCursor]
+
   def lockingUniqueIndexSeek[RESULT](index: IndexDescriptor, queries: Seq[IndexQuery.ExactPredicate]): NodeValueIndexCursor
 
   def getNodesByLabel(id: Int, indexOrder: IndexOrder): Iterator[NodeValue]
 
+  /**
+   * Scan all nodes in batches, which can be read in parallel, each into its own [[NodeCursor]].
+   */
+  def allNodesScan(): Scan[NodeCursor]
+
+  /**
+   * Scan all nodes with the given label in batches, which can be read in parallel, each into its own [[NodeLabelIndexCursor]].
+   */
+  def nodeLabelScan(id: Int): Scan[NodeLabelIndexCursor]
+
   def getNodesByLabelPrimitive(id: Int, indexOrder: IndexOrder): LongIterator
 
   /* return true if the constraint was created, false if preexisting, throws if failed */
@@ -332,6 +363,12 @@ trait QueryTransactionalContext extends CloseableResource {
 
   def cursors : CursorFactory
 
+  /**
+   * Cursors for reading on behalf of the transaction from other threads. Unlike [[cursors]] these are not pooled, so they are
+   * traced with the page cursor tracer they are allocated with.
+   */
+  def workerCursors : CursorFactory
+
   def dataRead: Read
 
   def tokenRead: TokenRead
@@ -352,6 +389,8 @@ trait QueryTransactionalContext extends CloseableResource {
 
   def kernelStatisticProvider: KernelStatisticProvider
 
+  def jobScheduler: JobScheduler
+
   def databaseInfo: DatabaseInfo
 
   def databaseId: NamedDatabaseId
@@ -236,6 +236,60 @@ class BoundedMemoryTracker(transactionMemoryTracker: MemoryTracker, memoryTracke
   }
 }
 
+/**
+ * Lets several threads record allocations of the same query, by serializing all calls to `inner`, which is not thread-safe.
+ */
+class SynchronizedQueryMemoryTracker(inner: QueryMemoryTracker) extends QueryMemoryTracker {
+  override val isEnabled: Boolean = inner.isEnabled
+
+  override def allocated(bytes: Long, operatorId: Int): Unit = inner.synchronized(inner.allocated(bytes, operatorId))
+
+  override def allocated(value: AnyValue, operatorId: Int): Unit = inner.synchronized(inner.allocated(value, operatorId))
+
+  override def allocated(instance: Measurable, operatorId: Int): Unit = inner.synchronized(inner.allocated(instance, operatorId))
+
+  override def deallocated(bytes: Long, operatorId: Int): Unit = inner.synchronized(inner.deallocated(bytes, operatorId))
+
+  override def deallocated(value: AnyValue, operatorId: Int): Unit = inner.synchronized(inner.deallocated(value, operatorId))
+
+  override def deallocated(instance: Measurable, operatorId: Int): Unit = inner.synchronized(inner.deallocated(instance, operatorId))
+
+  override def memoryTrackingIterator[T <: CypherRow](input: Iterator[T], operatorId: Int): Iterator[T] =
+    if (isEnabled) input.map(row => {
+      allocated(row, operatorId)
+      row
+    })
+    else input
+
+  override def totalAllocatedMemory: Long = inner.synchronized(inner.totalAllocatedMemory)
+
+  override def maxMemoryOfOperator(operatorId: Int): Long = inner.synchronized(inner.maxMemoryOfOperator(operatorId))
+
+  override def memoryTrackerForOperator(operatorId: Int): MemoryTracker =
+    new SynchronizedQueryMemoryTracker.SynchronizedMemoryTracker(inner.synchronized(inner.memoryTrackerForOperator(operatorId)), inner)
+}
+
+object SynchronizedQueryMemoryTracker {
+
+  class SynchronizedMemoryTracker(inner: MemoryTracker, lock: AnyRef) extends MemoryTracker {
+    override def usedNativeMemory(): Long = lock.synchronized(inner.usedNativeMemory())
+
+    override def estimatedHeapMemory(): Long = lock.synchronized(inner.estimatedHeapMemory())
+
+    override def allocateNative(bytes: Long): Unit = lock.synchronized(inner.allocateNative(bytes))
+
+    override def releaseNative(bytes: Long): Unit = lock.synchronized(inner.releaseNative(bytes))
+
+    override def allocateHeap(bytes: Long): Unit = lock.synchronized(inner.allocateHeap(bytes))
+
+    override def releaseHeap(bytes: Long): Unit = lock.synchronized(inner.releaseHeap(bytes))
+
+    override def heapHighWaterMark(): Long = lock.synchronized(inner.heapHighWaterMark())
+
+    override def reset(): Unit = lock.synchronized(inner.reset())
+  }
+}
+
 /**
   * Logical description of memory tracking behaviour
   */
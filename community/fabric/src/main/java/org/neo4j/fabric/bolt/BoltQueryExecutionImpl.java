@@ -41,6 +41,7 @@ import org.neo4j.graphdb.Result;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.impl.query.QueryExecution;
 import org.neo4j.kernel.impl.query.QuerySubscriber;
+import org.neo4j.memory.MemoryTracker;
 
 public class BoltQueryExecutionImpl implements BoltQueryExecution
 {
@@ -60,6 +61,14 @@ public class BoltQueryExecutionImpl implements BoltQueryExecution
         return queryExecution;
     }
 
+    @Override
+    public MemoryTracker memoryTracker()
+    {
+        // the records are produced by the transactions of the graphs queried, local or remote, and there is no transaction
+        // of this query to charge them to, so they are not produced ahead of the client asking for them
+        return null;
+    }
+
     @Override
     public void close()
     {
@@ -46,10 +46,13 @@ import org.neo4j.graphdb.Path
 import org.neo4j.internal.kernel.api.IndexQuery
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
 import org.neo4j.internal.kernel.api.PropertyCursor
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
+import org.neo4j.internal.kernel.api.Scan
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext
 import org.neo4j.internal.kernel.api.security.SecurityContext
 import org.neo4j.internal.schema.IndexDescriptor
@@ -167,6 +170,10 @@ object StaticEvaluation {
 
     override def traversalCursor(): RelationshipTraversalCursor = notAvailable()
 
+    override def nodeValueIndexCursor(): NodeValueIndexCursor = notAvailable()
+
+    override def nodeLabelIndexCursor(): NodeLabelIndexCursor = notAvailable()
+
     override def getRelationshipsForIdsPrimitive(node: Long, dir: SemanticDirection, types: Array[Int]): RelationshipIterator = notAvailable()
 
     override def relationshipById(id: Long, startNode: Long, endNode: Long, `type`: Int): RelationshipValue = notAvailable()
@@ -197,10 +204,18 @@ object StaticEvaluation {
 
     override def indexScan[RESULT <: AnyRef](index: IndexReadSession, needsValues: Boolean, indexOrder: IndexOrder): NodeValueIndexCursor = notAvailable()
 
+    override def partitionedIndexSeek(index: IndexReadSession, desiredNumberOfPartitions: Int, queries: Seq[IndexQuery]): PartitionedScan[NodeValueIndexCursor] = notAvailable()
+
+    override def partitionedIndexScan(index: IndexReadSession, desiredNumberOfPartitions: Int): PartitionedScan[NodeValueIndexCursor] = notAvailable()
+
     override def lockingUniqueIndexSeek[RESULT](index: IndexDescriptor, queries: Seq[IndexQuery.ExactPredicate]): NodeValueIndexCursor = notAvailable()
 
     override def getNodesByLabel(id: Int, indexOrder: IndexOrder): Iterator[NodeValue] = notAvailable()
 
+    override def allNodesScan(): Scan[NodeCursor] = notAvailable()
+
+    override def nodeLabelScan(id: Int): Scan[NodeLabelIndexCursor] = notAvailable()
+
     override def getNodesByLabelPrimitive(id: Int, indexOrder: IndexOrder): LongIterator = notAvailable()
 
     override def createNodeKeyConstraint(labelId: Int, propertyKeyIds: Seq[Int], name: Option[String]): Unit = notAvailable()
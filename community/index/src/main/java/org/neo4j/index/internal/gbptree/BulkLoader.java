@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+
+/**
+ * Builds the contents of an empty {@link GBPTree} from entries {@link #add(Object, Object) added} in sorted order.
+ * Instead of descending the tree and splitting leaves for every entry, like a {@link Writer} does, leaves are filled completely
+ * one after the other and the internal levels are built bottom-up as leaves are completed.
+ * The new tree is published when the bulk loader is {@link #close() closed}, typically using try-with-resource clause.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BulkLoader<KEY,VALUE> extends Closeable
+{
+    /**
+     * Adds the next entry to the tree. Keys must be added in ascending order according to the {@link Layout} of the tree.
+     * A key equal to the previously added key will be merged into the existing entry, using the {@link ValueMerger}
+     * that this bulk loader was created with.
+     *
+     * @param key key to add, must not be less than the previously added key.
+     * @param value value to associate with the key.
+     * @throws IllegalArgumentException if the key is less than the previously added key.
+     * @throws UncheckedIOException on index access error.
+     */
+    void add( KEY key, VALUE value );
+}
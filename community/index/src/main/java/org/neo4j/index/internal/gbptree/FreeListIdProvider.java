@@ -24,6 +24,7 @@ import java.io.IOException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.util.FeatureToggles;
 
 import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
 import static org.neo4j.index.internal.gbptree.PageCursorUtil.goTo;
@@ -56,6 +57,12 @@ class FreeListIdProvider implements IdProvider
     {   // Empty
     };
 
+    /**
+     * Number of released ids to keep in memory before writing them to the free-list in one go, see {@link #flushReleasedIds(long, long, PageCursorTracer)}.
+     * Used by {@link GBPTree}, which flushes the released ids on every checkpoint.
+     */
+    static final int RELEASE_BATCH_SIZE = FeatureToggles.getInteger( FreeListIdProvider.class, "release_batch_size", 128 );
+
     private final PagedFile pagedFile;
 
     /**
@@ -96,6 +103,21 @@ class FreeListIdProvider implements IdProvider
      */
     private volatile long lastId;
 
+    /**
+     * Stable ids read from the {@link #readPageId read page}, indexed by their position on that page. Positions from {@link #readPos}
+     * up to, but not including, {@link #cachedReadPos} have been read and are handed out without visiting the free-list page again.
+     */
+    private final long[] cachedReadIds;
+    private int cachedReadPos;
+
+    /**
+     * Released ids not yet written to the free-list, all released in {@link #pendingReleaseGeneration}. They are written
+     * when the buffer is full, when the generation changes or on {@link #flushReleasedIds(long, long, PageCursorTracer)}.
+     */
+    private final long[] pendingReleases;
+    private int pendingReleaseCount;
+    private long pendingReleaseGeneration;
+
     /**
      * For monitoring internal free-list activity.
      */
@@ -107,11 +129,23 @@ class FreeListIdProvider implements IdProvider
     }
 
     FreeListIdProvider( PagedFile pagedFile, long lastId, Monitor monitor )
+    {
+        this( pagedFile, lastId, monitor, 1 );
+    }
+
+    /**
+     * @param releaseBatchSize number of released ids to buffer before writing them to the free-list. With a batch size of {@code 1}
+     * every released id is written right away, otherwise {@link #flushReleasedIds(long, long, PageCursorTracer)} must be called
+     * before the free-list state is persisted.
+     */
+    FreeListIdProvider( PagedFile pagedFile, long lastId, Monitor monitor, int releaseBatchSize )
     {
         this.pagedFile = pagedFile;
         this.monitor = monitor;
         this.freelistNode = new FreelistNode( pagedFile.pageSize() );
         this.lastId = lastId;
+        this.cachedReadIds = new long[freelistNode.maxEntries()];
+        this.pendingReleases = new long[Math.max( 1, releaseBatchSize )];
     }
 
     void initialize( long lastId, long writePageId, long readPageId, int writePos, int readPos )
@@ -121,6 +155,8 @@ class FreeListIdProvider implements IdProvider
         this.readPageId = readPageId;
         this.writePos = writePos;
         this.readPos = readPos;
+        this.cachedReadPos = 0;
+        this.pendingReleaseCount = 0;
     }
 
     void initializeAfterCreation( PageCursorTracer cursorTracer ) throws IOException
@@ -140,6 +176,7 @@ class FreeListIdProvider implements IdProvider
     @Override
     public long acquireNewId( long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
     {
+        flushReleasedIdsFromPreviousGeneration( stableGeneration, unstableGeneration, cursorTracer );
         try ( PageCursor cursor = pagedFile.io( 0, PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer ) )
         {
             return acquireNewId( cursor, stableGeneration, unstableGeneration, true, cursorTracer );
@@ -168,23 +205,31 @@ class FreeListIdProvider implements IdProvider
         {
             // It looks like reader isn't even caught up to the writer page-wise,
             // or the read pos is < write pos so check if we can grab the next id (generation could still mismatch).
-            goTo( cursor, "Free-list read page ", readPageId );
-
-            long resultPageId = freelistNode.read( cursor, stableGeneration, readPos );
+            if ( readPos >= cachedReadPos )
+            {
+                goTo( cursor, "Free-list read page ", readPageId );
+                cacheStableIds( cursor, stableGeneration );
+            }
 
-            if ( resultPageId != FreelistNode.NO_PAGE_ID )
+            if ( readPos < cachedReadPos )
             {
-                // FreelistNode compares generation and so this means that we have an available
+                // FreelistNode compared generation when caching and so this means that we have an available
                 // id in the free list which we can acquire from a stable generation. Increment readPos
+                long resultPageId = cachedReadIds[readPos];
                 readPos++;
                 if ( readPos >= freelistNode.maxEntries() )
                 {
                     // The current reader page is exhausted, go to the next free-list page.
+                    long exhaustedFreelistPageId = readPageId;
+                    if ( cursor.getCurrentPageId() != exhaustedFreelistPageId )
+                    {
+                        goTo( cursor, "Free-list read page ", exhaustedFreelistPageId );
+                    }
                     readPos = 0;
+                    cachedReadPos = 0;
                     readPageId = FreelistNode.next( cursor );
 
                     // Put the exhausted free-list page id itself on the free-list
-                    long exhaustedFreelistPageId = cursor.getCurrentPageId();
                     releaseId( stableGeneration, unstableGeneration, exhaustedFreelistPageId, cursorTracer );
                     monitor.releasedFreelistPageId( exhaustedFreelistPageId );
                 }
@@ -196,6 +241,26 @@ class FreeListIdProvider implements IdProvider
         return nextLastId();
     }
 
+    /**
+     * Reads all ids from {@link #readPos} and onwards on the read page that can be acquired in the given stable generation,
+     * so that the following acquisitions can be served without visiting the page again.
+     */
+    private void cacheStableIds( PageCursor cursor, long stableGeneration )
+    {
+        int targetPos = readPageId == writePageId ? writePos : freelistNode.maxEntries();
+        int pos = readPos;
+        while ( pos < targetPos )
+        {
+            long id = freelistNode.read( cursor, stableGeneration, pos );
+            if ( id == FreelistNode.NO_PAGE_ID )
+            {
+                break;
+            }
+            cachedReadIds[pos++] = id;
+        }
+        cachedReadPos = pos;
+    }
+
     private long nextLastId()
     {
         return ++lastId;
@@ -204,25 +269,62 @@ class FreeListIdProvider implements IdProvider
     @Override
     public void releaseId( long stableGeneration, long unstableGeneration, long id, PageCursorTracer cursorTracer ) throws IOException
     {
+        flushReleasedIdsFromPreviousGeneration( stableGeneration, unstableGeneration, cursorTracer );
+        pendingReleases[pendingReleaseCount++] = id;
+        pendingReleaseGeneration = unstableGeneration;
+        if ( pendingReleaseCount == pendingReleases.length )
+        {
+            flushReleasedIds( stableGeneration, unstableGeneration, cursorTracer );
+        }
+    }
+
+    private void flushReleasedIdsFromPreviousGeneration( long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        if ( pendingReleaseCount > 0 && pendingReleaseGeneration != unstableGeneration )
+        {
+            flushReleasedIds( stableGeneration, unstableGeneration, cursorTracer );
+        }
+    }
+
+    /**
+     * Writes all released, but not yet written, ids to the free-list, visiting each free-list write page once.
+     * Must be called before persisting the free-list state, i.e. on checkpoint.
+     */
+    void flushReleasedIds( long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        if ( pendingReleaseCount == 0 )
+        {
+            return;
+        }
+
         try ( PageCursor cursor = pagedFile.io( writePageId, PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer ) )
         {
             PageCursorUtil.goTo( cursor, "free-list write page", writePageId );
-            freelistNode.write( cursor, unstableGeneration, id, writePos );
-            writePos++;
-
-            if ( writePos >= freelistNode.maxEntries() )
+            for ( int i = 0; i < pendingReleaseCount; i++ )
             {
-                // Current free-list write page is full, allocate a new one.
-                long nextFreelistPage = acquireNewId( cursor, stableGeneration, unstableGeneration, false, cursorTracer );
-                PageCursorUtil.goTo( cursor, "free-list write page", writePageId );
-                FreelistNode.initialize( cursor );
-                // Link previous --> new writer page
-                FreelistNode.setNext( cursor, nextFreelistPage );
-                writePageId = nextFreelistPage;
-                writePos = 0;
-                monitor.acquiredFreelistPageId( nextFreelistPage );
+                freelistNode.write( cursor, pendingReleaseGeneration, pendingReleases[i], writePos );
+                writePos++;
+
+                if ( writePos >= freelistNode.maxEntries() )
+                {
+                    // Current free-list write page is full, allocate a new one.
+                    long nextFreelistPage = acquireNewId( cursor, stableGeneration, unstableGeneration, false, cursorTracer );
+                    PageCursorUtil.goTo( cursor, "free-list write page", writePageId );
+                    FreelistNode.initialize( cursor );
+                    // Link previous --> new writer page
+                    FreelistNode.setNext( cursor, nextFreelistPage );
+                    writePageId = nextFreelistPage;
+                    writePos = 0;
+                    monitor.acquiredFreelistPageId( nextFreelistPage );
+                    if ( i + 1 < pendingReleaseCount )
+                    {
+                        PageCursorUtil.goTo( cursor, "free-list write page", writePageId );
+                    }
+                }
             }
         }
+        pendingReleaseCount = 0;
     }
 
     @Override
@@ -256,6 +358,14 @@ class FreeListIdProvider implements IdProvider
                     visitor.freelistEntry( unacquiredId, generation.generation, pos );
                     pos++;
                 }
+                if ( pageId == writePageId )
+                {
+                    // Released ids not yet written will end up after the last written entry
+                    for ( int i = 0; i < pendingReleaseCount; i++ )
+                    {
+                        visitor.freelistEntry( pendingReleases[i], pendingReleaseGeneration, pos++ );
+                    }
+                }
                 visitor.endFreelistPage( pageId );
 
                 prevPage = pageId;
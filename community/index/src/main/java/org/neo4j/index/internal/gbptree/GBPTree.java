@@ -26,6 +26,7 @@ import org.eclipse.collections.api.set.ImmutableSet;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.file.NoSuchFileException;
@@ -35,6 +36,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -61,8 +64,14 @@ import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
 import static org.neo4j.index.internal.gbptree.GenerationSafePointer.MIN_GENERATION;
 import static org.neo4j.index.internal.gbptree.Header.CARRY_OVER_PREVIOUS_HEADER;
 import static org.neo4j.index.internal.gbptree.Header.replace;
+import static org.neo4j.index.internal.gbptree.KeySearch.isHit;
+import static org.neo4j.index.internal.gbptree.KeySearch.positionOf;
 import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
 import static org.neo4j.index.internal.gbptree.PointerChecking.assertNoSuccessor;
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_KEY_VALUE_SIZE_CAP;
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_OFFLOAD_ID;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
 import static org.neo4j.internal.helpers.Exceptions.withMessage;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
@@ -404,6 +413,31 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final GBPTreeLock lock = new GBPTreeLock();
 
+    /**
+     * Lock between {@link #concurrentWriter(PageCursorTracer) concurrent writers}. Changes that can be made within a single leaf are made
+     * holding the read lock together with the latch of that leaf from {@link #leafLatches}. Changes to the structure of the tree,
+     * i.e. splits, merges, rebalancing and creating successors, are made holding the write lock.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Latches for leaves modified by {@link #concurrentWriter(PageCursorTracer) concurrent writers} holding the read lock of {@link #structureLock}.
+     */
+    private final TreeNodeLatches leafLatches = new TreeNodeLatches( 1024 );
+
+    /**
+     * Number of currently open {@link #concurrentWriter(PageCursorTracer) concurrent writers}. Together they hold the writer lock in {@link #lock},
+     * which is taken by the first one to open and released by the last one to close. Guarded by synchronizing on {@link #leafLatches}.
+     */
+    private int openConcurrentWriters;
+
+    /**
+     * Number of checkpoints waiting for, or holding, the writer lock in {@link #lock}. As long as this is non-zero no new
+     * {@link #concurrentWriter(PageCursorTracer) concurrent writer} may open, so that the open ones drain and let the checkpoint in,
+     * instead of overlapping writers holding the writer lock indefinitely. Guarded by synchronizing on {@link #leafLatches}.
+     */
+    private int checkpointsWaiting;
+
     /**
      * Page size, i.e. tree node size, of the tree nodes in this tree. The page size is determined on
      * tree creation, stored in meta page and read when opening tree later.
@@ -602,7 +636,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
                     meta.verify( layout );
                     format = TreeNodeSelector.selectByFormat( meta.getFormatIdentifier(), meta.getFormatVersion() );
                 }
-                this.freeList = new FreeListIdProvider( pagedFile, rootId );
+                this.freeList = new FreeListIdProvider( pagedFile, rootId, FreeListIdProvider.NO_MONITOR, FreeListIdProvider.RELEASE_BATCH_SIZE );
                 OffloadStoreImpl<KEY,VALUE> offloadStore = buildOffload( layout, freeList, pagedFile, pageSize );
                 this.bTreeNode = format.create( pageSize, layout, offloadStore );
                 this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ) );
@@ -1046,7 +1080,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         // Returns cursor which is now initiated with left-most leaf node for the specified range
         return new SeekCursor<>( cursor, bTreeNode, fromInclusive, toExclusive, layout,
                 stableGeneration, unstableGeneration, generationSupplier, rootCatchupSupplier.get(), rootGeneration,
-                exceptionDecorator, readAheadLength, monitor, cursorTracer );
+                exceptionDecorator, readAheadLength, monitor, pageId -> pagedFile.prefetch( pageId, cursorTracer ), cursorTracer );
     }
 
     /**
@@ -1070,8 +1104,20 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return partitionedSeekInternal( fromInclusive, toExclusive, numberOfPartitions, this, cursorTracer );
     }
 
-    private Collection<Seeker<KEY,VALUE>> partitionedSeekInternal( KEY fromInclusive, KEY toExclusive, int numberOfPartitions,
-            Seeker.Factory<KEY,VALUE> seekerFactory, PageCursorTracer cursorTracer )
+    /**
+     * Partitions the provided key range the same way as {@link #partitionedSeek(Object, Object, int, PageCursorTracer)}, but leaves
+     * {@link #seek(Object, Object, PageCursorTracer) seeking} the partitions to the caller. Useful when the partitions are seeked
+     * on different threads, since each {@link Seeker} should then trace its page accesses with a {@link PageCursorTracer} of its own.
+     *
+     * @param fromInclusive lower bound of the range to partition (inclusive).
+     * @param toExclusive higher bound of the range to partition (exclusive).
+     * @param numberOfPartitions number of partitions desired by the caller. If the tree is small a lower number of partitions may be returned.
+     * The number of partitions will never be higher than the provided {@code numberOfPartitions}.
+     * @param cursorTracer underlying page cursor tracer, used for reading the root.
+     * @return a {@link List} of from (inclusive) and to (exclusive) keys, one pair per partition. Collectively they cover the whole provided range.
+     * @throws IOException on error reading from index.
+     */
+    public List<Pair<KEY,KEY>> partitionRange( KEY fromInclusive, KEY toExclusive, int numberOfPartitions, PageCursorTracer cursorTracer )
             throws IOException
     {
         Preconditions.checkArgument( layout.compare( fromInclusive, toExclusive ) <= 0, "Partitioned seek only supports forward seeking for the time being" );
@@ -1120,11 +1166,19 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
 
         KeyPartitioning<KEY> partitioning = new KeyPartitioning<>( layout );
+        return partitioning.partition( rootKeys, fromInclusive, toExclusive, numberOfPartitions );
+    }
+
+    private Collection<Seeker<KEY,VALUE>> partitionedSeekInternal( KEY fromInclusive, KEY toExclusive, int numberOfPartitions,
+            Seeker.Factory<KEY,VALUE> seekerFactory, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        List<Pair<KEY,KEY>> partitions = partitionRange( fromInclusive, toExclusive, numberOfPartitions, cursorTracer );
         List<Seeker<KEY,VALUE>> seekers = new ArrayList<>();
         boolean success = false;
         try
         {
-            for ( Pair<KEY,KEY> partition : partitioning.partition( rootKeys, fromInclusive, toExclusive, numberOfPartitions ) )
+            for ( Pair<KEY,KEY> partition : partitions )
             {
                 seekers.add( seekerFactory.seek( partition.getLeft(), partition.getRight(), cursorTracer ) );
             }
@@ -1227,12 +1281,29 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         // blocked while we do this
         pagedFile.flushAndForce( ioLimiter );
 
+        // Keep new concurrent writers from opening, so that the open ones drain and release the writer lock
+        synchronized ( leafLatches )
+        {
+            checkpointsWaiting++;
+        }
+
         // Block writers, or if there's a current writer then wait for it to complete and then block
         // From this point and till the lock is released we know that the tree won't change.
-        lock.writerAndCleanerLock();
+        try
+        {
+            lock.writerAndCleanerLock();
+        }
+        catch ( Throwable e )
+        {
+            checkpointDone();
+            throw e;
+        }
         try
         {
             assertRecoveryCleanSuccessful();
+            // Write ids released since the last checkpoint to the free-list, they are part of the state written below.
+            freeList.flushReleasedIds( stableGeneration( generation ), unstableGeneration( generation ), cursorTracer );
+
             // Flush dirty pages since that last flush above. This should be a very small set of pages
             // and should be rather fast. In here writers are blocked and we want to minimize this
             // windows of time as much as possible, that's why there's an initial flush outside this lock.
@@ -1258,6 +1329,16 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             // Unblock writers, any writes after this point and up until the next checkpoint will have
             // the new unstable generation.
             lock.writerAndCleanerUnlock();
+            checkpointDone();
+        }
+    }
+
+    private void checkpointDone()
+    {
+        synchronized ( leafLatches )
+        {
+            checkpointsWaiting--;
+            leafLatches.notifyAll();
         }
     }
 
@@ -1381,6 +1462,90 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return writer;
     }
 
+    /**
+     * Returns a {@link Writer} able to modify the index, i.e. insert and remove keys/values, concurrently with other writers
+     * acquired using this method. After usage the returned writer must be closed, typically by using try-with-resource clause.
+     * <p>
+     * Changes that fit within the leaf they end up in, which is the vast majority of changes, are made in parallel, only
+     * serialized by a latch on the leaf itself. Changes that require changes to the structure of the tree, like splits, merges or
+     * creating a successor of a node that was last changed before the most recent checkpoint, are made exclusively, blocking other
+     * concurrent writers for the duration of that change. Readers are not affected and stay lock-free.
+     * <p>
+     * Concurrent writers and the {@link #writer(PageCursorTracer) single writer} are mutually exclusive, as are concurrent writers and checkpoint.
+     * As long as at least one concurrent writer is open, a checkpoint or an attempt to acquire the single writer will wait.
+     * A waiting checkpoint is favoured over new concurrent writers: while one waits, this method blocks until it has completed,
+     * so that the already open writers drain. A thread must therefore not open a concurrent writer while it has one open already.
+     *
+     * @param cursorTracer underlying page cursor tracer
+     * @return a new {@link Writer} which can be used alongside other concurrent writers. The returned writer must only be used by a single thread
+     * and must be {@link Writer#close() closed} after usage.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> concurrentWriter( PageCursorTracer cursorTracer ) throws IOException
+    {
+        assertNotReadOnly( "Open tree concurrent writer." );
+        ConcurrentWriter concurrentWriter = new ConcurrentWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ) );
+        concurrentWriter.initialize( cursorTracer );
+        changesSinceLastCheckpoint = true;
+        return concurrentWriter;
+    }
+
+    /**
+     * Use {@link ValueMergers#overwrite()} for merging equal keys.
+     * @param cursorTracer underlying page cursor tracer
+     * @see GBPTree#bulkLoader(ValueMerger, PageCursorTracer)
+     */
+    public BulkLoader<KEY,VALUE> bulkLoader( PageCursorTracer cursorTracer ) throws IOException
+    {
+        return bulkLoader( ValueMergers.overwrite(), cursorTracer );
+    }
+
+    /**
+     * Returns a {@link BulkLoader} able to build the contents of this index from entries added in sorted order.
+     * This is considerably faster than inserting the same entries using a {@link #writer(PageCursorTracer) writer},
+     * since leaves are filled one after the other and internal nodes are built bottom-up, without searching or splitting.
+     * The index must be empty. Bulk loading holds the same exclusive access as a {@link Writer}, and the loaded entries
+     * become visible when the returned bulk loader is {@link BulkLoader#close() closed}.
+     *
+     * @param valueMerger {@link ValueMerger} to consult when the same key is added multiple times in a row.
+     * @param cursorTracer underlying page cursor tracer
+     * @return a {@link BulkLoader} for this index. The returned bulk loader must be {@link BulkLoader#close() closed}
+     * before another caller can acquire a writer or a bulk loader.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if the index is not empty, or if a writer is already acquired.
+     */
+    public BulkLoader<KEY,VALUE> bulkLoader( ValueMerger<KEY,VALUE> valueMerger, PageCursorTracer cursorTracer ) throws IOException
+    {
+        assertNotReadOnly( "Open tree bulk loader." );
+        writer.initialize( InternalTreeLogic.DEFAULT_SPLIT_RATIO, cursorTracer );
+        boolean success = false;
+        try
+        {
+            if ( !TreeNode.isLeaf( writer.cursor ) || TreeNode.keyCount( writer.cursor ) != 0 )
+            {
+                throw new IllegalStateException( "Bulk loading requires an empty tree, but " + this + " is not empty" );
+            }
+            changesSinceLastCheckpoint = true;
+            long unstableGeneration = unstableGeneration( generation );
+            BulkLoader<KEY,VALUE> bulkLoader = new GBPTreeBulkLoader<>( bTreeNode, layout, freeList, pagedFile, stableGeneration( generation ),
+                    unstableGeneration, valueMerger, cursorTracer, root.id(), rootId -> setRoot( rootId, unstableGeneration ), writer );
+            success = true;
+            return bulkLoader;
+        }
+        catch ( Throwable e )
+        {
+            appendTreeInformation( e );
+            throw e;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                writer.close();
+            }
+        }
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1563,6 +1728,41 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
                 stableGeneration( generation ), unstableGeneration( generation ) );
     }
 
+    /**
+     * Handles structure changes which propagated all the way up through the root, i.e. a split of the root or
+     * a new successor of the root. Leaves the cursor at the new root if the root changed.
+     *
+     * @return {@code true} if a new root was set, otherwise {@code false}.
+     */
+    private boolean handleRootStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation, long stableGeneration,
+            long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        boolean rootChanged = false;
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            // New root
+            long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
+            PageCursorUtil.goTo( cursor, "new root", newRootId );
+
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                    stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( cursor, 1 );
+            setRoot( newRootId, unstableGeneration );
+            rootChanged = true;
+            monitor.treeGrowth();
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            setRoot( GenerationSafePointerPair.pointer( structurePropagation.midChild ), unstableGeneration );
+            rootChanged = true;
+        }
+        structurePropagation.clear();
+        return rootChanged;
+    }
+
     private <E extends Throwable> void appendTreeInformation( E e )
     {
         Exceptions.withMessage( e, e.getMessage() + " | " + toString() );
@@ -1691,13 +1891,6 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             checkOutOfBounds( cursor );
         }
 
-        private void setRoot( long rootPointer )
-        {
-            long rootId = GenerationSafePointerPair.pointer( rootPointer );
-            GBPTree.this.setRoot( rootId, unstableGeneration );
-            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
-        }
-
         @Override
         public VALUE remove( KEY key )
         {
@@ -1726,26 +1919,10 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 
         private void handleStructureChanges( PageCursorTracer cursorTracer ) throws IOException
         {
-            if ( structurePropagation.hasRightKeyInsert )
-            {
-                // New root
-                long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
-                PageCursorUtil.goTo( cursor, "new root", newRootId );
-
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
-                        stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
-                        stableGeneration, unstableGeneration, cursorTracer );
-                TreeNode.setKeyCount( cursor, 1 );
-                setRoot( newRootId );
-                monitor.treeGrowth();
-            }
-            else if ( structurePropagation.hasMidChildUpdate )
+            if ( handleRootStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer ) )
             {
-                setRoot( structurePropagation.midChild );
+                treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
             }
-            structurePropagation.clear();
         }
 
         @Override
@@ -1770,6 +1947,388 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
     }
 
+    /**
+     * {@link Writer} which can be used concurrently with other {@link ConcurrentWriter concurrent writers}, see {@link #concurrentWriter(PageCursorTracer)}.
+     * <p>
+     * Every change is first attempted optimistically: holding the read lock of {@link #structureLock}, the cursor moves from root down to
+     * the leaf without latching anything, since internal nodes can't change while the read lock is held. The leaf is then latched and if the
+     * change can be made without affecting any other node it's made right there. Otherwise the change is made by {@link InternalTreeLogic}
+     * holding the write lock of {@link #structureLock}, exactly like the {@link SingleWriter} would have made it.
+     * <p>
+     * A change can be made within the leaf if the leaf has been written to since the last checkpoint, i.e. no successor is needed, and:
+     * <ul>
+     *     <li>an insert fits without defragmenting the leaf, or</li>
+     *     <li>a merged value has the same size as the existing value, or</li>
+     *     <li>a remove doesn't make the leaf underflow, or empty</li>
+     * </ul>
+     * Entries involving offloaded keys or values are always changed exclusively, since offloading allocates and releases ids in the free-list.
+     */
+    private class ConcurrentWriter implements Writer<KEY,VALUE>
+    {
+        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        private final StructurePropagation<KEY> structurePropagation;
+        private final KEY readKey;
+        private final VALUE readValue;
+        private PageCursor cursor;
+        private PageCursorTracer cursorTracer;
+        private boolean closed;
+
+        // Writer can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private long stableGeneration;
+        private long unstableGeneration;
+
+        ConcurrentWriter( InternalTreeLogic<KEY,VALUE> treeLogic )
+        {
+            this.structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+            this.treeLogic = treeLogic;
+            this.readKey = layout.newKey();
+            this.readValue = layout.newValue();
+        }
+
+        /**
+         * Waits, while synchronized on {@link #leafLatches}, until no checkpoint waits for the writer lock.
+         */
+        private void awaitCheckpoints() throws IOException
+        {
+            while ( checkpointsWaiting > 0 )
+            {
+                try
+                {
+                    leafLatches.wait();
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException( "Interrupted while waiting for checkpoint of " + GBPTree.this );
+                }
+            }
+        }
+
+        void initialize( PageCursorTracer cursorTracer ) throws IOException
+        {
+            synchronized ( leafLatches )
+            {
+                awaitCheckpoints();
+                if ( openConcurrentWriters == 0 )
+                {
+                    // Block here until cleaning has completed, if cleaning was required
+                    lock.writerAndCleanerLock();
+                }
+                openConcurrentWriters++;
+            }
+
+            boolean success = false;
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer );
+                this.cursorTracer = cursorTracer;
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, true );
+        }
+
+        @Override
+        public void mergeIfExists( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, false );
+        }
+
+        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            try
+            {
+                bTreeNode.validateKeyValueSize( key, value );
+                if ( !tryMergeInLeaf( key, value, valueMerger, createIfNotExists ) )
+                {
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        initializeTreeLogic();
+                        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger, createIfNotExists,
+                                stableGeneration, unstableGeneration, cursorTracer );
+                        handleRootStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            VALUE result = layout.newValue();
+            try
+            {
+                switch ( tryRemoveFromLeaf( key, result ) )
+                {
+                case REMOVED:
+                    break;
+                case NOT_FOUND:
+                    result = null;
+                    break;
+                default:
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        initializeTreeLogic();
+                        result = treeLogic.remove( cursor, structurePropagation, key, result, stableGeneration, unstableGeneration, cursorTracer );
+                        handleRootStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+
+            checkOutOfBounds( cursor );
+            return result;
+        }
+
+        /**
+         * Other writers may have changed the structure of the tree since this writer last used its {@link InternalTreeLogic},
+         * so the path it remembers can't be trusted. Start over from the root.
+         */
+        private void initializeTreeLogic() throws IOException
+        {
+            root.goTo( cursor );
+            treeLogic.initialize( cursor );
+        }
+
+        /**
+         * @return {@code true} if the merge was completed in the leaf, or found nothing to do, otherwise {@code false} and nothing was changed.
+         */
+        private boolean tryMergeInLeaf( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists ) throws IOException
+        {
+            structureLock.readLock().lock();
+            try
+            {
+                moveToLeaf( key );
+                ReentrantLock latch = leafLatches.latch( cursor.getCurrentPageId() );
+                latch.lock();
+                try
+                {
+                    if ( TreeNode.generation( cursor ) != unstableGeneration )
+                    {
+                        return false;
+                    }
+
+                    int keyCount = TreeNode.keyCount( cursor );
+                    int search = search( key, keyCount );
+                    int pos = positionOf( search );
+                    if ( isHit( search ) )
+                    {
+                        if ( bTreeNode.offloadIdAt( cursor, pos, LEAF ) != NO_OFFLOAD_ID )
+                        {
+                            return false;
+                        }
+                        bTreeNode.valueAt( cursor, readValue, pos, cursorTracer );
+                        ValueMerger.MergeResult mergeResult = valueMerger.merge( readKey, key, readValue, value );
+                        switch ( mergeResult )
+                        {
+                        case UNCHANGED:
+                            return true;
+                        case REPLACED:
+                        case MERGED:
+                            // Only succeeds if the merged value has the same size as the existing value
+                            return bTreeNode.setValueAt( cursor, mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue, pos );
+                        case REMOVED:
+                            return removeInLeafIfNoUnderflow( pos, keyCount );
+                        default:
+                            throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult );
+                        }
+                    }
+
+                    if ( !createIfNotExists )
+                    {
+                        return true;
+                    }
+                    if ( !canInline( key, value ) || bTreeNode.leafOverflow( cursor, keyCount, key, value ) != TreeNode.Overflow.NO )
+                    {
+                        return false;
+                    }
+                    bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+                    TreeNode.setKeyCount( cursor, keyCount + 1 );
+                    return true;
+                }
+                finally
+                {
+                    latch.unlock();
+                }
+            }
+            finally
+            {
+                structureLock.readLock().unlock();
+            }
+        }
+
+        private LeafRemoval tryRemoveFromLeaf( KEY key, VALUE into ) throws IOException
+        {
+            structureLock.readLock().lock();
+            try
+            {
+                moveToLeaf( key );
+                ReentrantLock latch = leafLatches.latch( cursor.getCurrentPageId() );
+                latch.lock();
+                try
+                {
+                    int keyCount = TreeNode.keyCount( cursor );
+                    int search = search( key, keyCount );
+                    if ( !isHit( search ) )
+                    {
+                        return LeafRemoval.NOT_FOUND;
+                    }
+                    int pos = positionOf( search );
+                    if ( TreeNode.generation( cursor ) != unstableGeneration || bTreeNode.offloadIdAt( cursor, pos, LEAF ) != NO_OFFLOAD_ID )
+                    {
+                        return LeafRemoval.NEEDS_STRUCTURE_CHANGE;
+                    }
+                    bTreeNode.valueAt( cursor, into, pos, cursorTracer );
+                    return removeInLeafIfNoUnderflow( pos, keyCount ) ? LeafRemoval.REMOVED : LeafRemoval.NEEDS_STRUCTURE_CHANGE;
+                }
+                finally
+                {
+                    latch.unlock();
+                }
+            }
+            finally
+            {
+                structureLock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Underflow is checked before removing, with the space of the removed entry not yet accounted for, since there's no way of
+         * undoing a remove. For dynamic size leaves this means that a leaf may end up slightly less than half full,
+         * which will be rebalanced on the next exclusive remove in that leaf.
+         */
+        private boolean removeInLeafIfNoUnderflow( int pos, int keyCount ) throws IOException
+        {
+            int newKeyCount = keyCount - 1;
+            if ( newKeyCount == 0 || bTreeNode.leafUnderflow( cursor, newKeyCount ) )
+            {
+                return false;
+            }
+            bTreeNode.removeKeyValueAt( cursor, pos, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( cursor, newKeyCount );
+            return true;
+        }
+
+        private void moveToLeaf( KEY key ) throws IOException
+        {
+            root.goTo( cursor );
+            while ( TreeNode.isInternal( cursor ) )
+            {
+                int keyCount = TreeNode.keyCount( cursor );
+                int searchResult = KeySearch.search( cursor, bTreeNode, INTERNAL, key, readKey, keyCount, cursorTracer );
+                KeySearch.assertSuccess( searchResult );
+                int childPos = positionOf( searchResult );
+                if ( isHit( searchResult ) )
+                {
+                    childPos++;
+                }
+                long childId = bTreeNode.childAt( cursor, childPos, stableGeneration, unstableGeneration );
+                PointerChecking.checkPointer( childId, false );
+                TreeNode.goTo( cursor, "child", childId );
+            }
+        }
+
+        private int search( KEY key, int keyCount )
+        {
+            int searchResult = KeySearch.search( cursor, bTreeNode, LEAF, key, readKey, keyCount, cursorTracer );
+            KeySearch.assertSuccess( searchResult );
+            return searchResult;
+        }
+
+        private boolean canInline( KEY key, VALUE value )
+        {
+            int inlineCap = bTreeNode.inlineKeyValueSizeCap();
+            return inlineCap == NO_KEY_VALUE_SIZE_CAP || layout.keySize( key ) + layout.valueSize( value ) <= inlineCap;
+        }
+
+        @Override
+        public void close()
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close concurrent writer of " + GBPTree.this + ", but writer is already closed." );
+            }
+            closed = true;
+            if ( cursor != null )
+            {
+                cursor.close();
+                cursor = null;
+            }
+            synchronized ( leafLatches )
+            {
+                openConcurrentWriters--;
+                if ( openConcurrentWriters == 0 )
+                {
+                    lock.writerAndCleanerUnlock();
+                }
+            }
+        }
+    }
+
+    private enum LeafRemoval
+    {
+        REMOVED,
+        NOT_FOUND,
+        NEEDS_STRUCTURE_CHANGE
+    }
+
     /**
      * Total size limit for key and value.
      * This limit includes storage overhead that is specific to key implementation for example entity id or meta data about type.
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_NODE_FLAG;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.io.IOUtils.closeAll;
+
+/**
+ * {@link BulkLoader} building a tree bottom-up from sorted entries.
+ * <p>
+ * Entries are appended to the current leaf until it overflows, at which point a new right sibling leaf is started and the
+ * minimal splitter between the two leaves is appended to the internal node one level up. Internal levels are filled in the same way
+ * and a new level is created each time the topmost level gets its second node. Every node is written once, left to right,
+ * in the unstable generation and with sibling pointers in place, so the result looks exactly like a tree built by a {@link Writer}
+ * that keeps everything to the left on split.
+ * <p>
+ * The tree being loaded into must be empty. All nodes are allocated from the free-list, the previous (empty) root is released and
+ * the new root is published on {@link #close()}. Nothing is visible to readers before that, and a crash before the next checkpoint
+ * will leave the tree in its previous, empty, state.
+ */
+class GBPTreeBulkLoader<KEY,VALUE> implements BulkLoader<KEY,VALUE>
+{
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final IdProvider idProvider;
+    private final PagedFile pagedFile;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final ValueMerger<KEY,VALUE> valueMerger;
+    private final PageCursorTracer cursorTracer;
+    private final long previousRootId;
+    private final LongConsumer rootPublisher;
+    private final Closeable onClose;
+
+    private final Level leaves;
+    private final List<Level> internalLevels = new ArrayList<>();
+    private final KEY lastKey;
+    private final KEY readKey;
+    private final KEY splitter;
+    private final VALUE readValue;
+    private boolean hasLastKey;
+    private boolean lastKeyInTree;
+    private boolean closed;
+
+    GBPTreeBulkLoader( TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout, IdProvider idProvider, PagedFile pagedFile, long stableGeneration,
+            long unstableGeneration, ValueMerger<KEY,VALUE> valueMerger, PageCursorTracer cursorTracer, long previousRootId, LongConsumer rootPublisher,
+            Closeable onClose ) throws IOException
+    {
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.idProvider = idProvider;
+        this.pagedFile = pagedFile;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.valueMerger = valueMerger;
+        this.cursorTracer = cursorTracer;
+        this.previousRootId = previousRootId;
+        this.rootPublisher = rootPublisher;
+        this.onClose = onClose;
+        this.lastKey = layout.newKey();
+        this.readKey = layout.newKey();
+        this.splitter = layout.newKey();
+        this.readValue = layout.newValue();
+        this.leaves = new Level( pagedFile.io( 0, PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer ) );
+        newNode( leaves, true );
+    }
+
+    @Override
+    public void add( KEY key, VALUE value )
+    {
+        try
+        {
+            bTreeNode.validateKeyValueSize( key, value );
+            if ( hasLastKey )
+            {
+                int comparison = layout.compare( key, lastKey );
+                if ( comparison < 0 )
+                {
+                    throw new IllegalArgumentException( "Bulk loaded keys must be added in sorted order, but " + key + " was added after " + lastKey );
+                }
+                if ( comparison == 0 && lastKeyInTree )
+                {
+                    mergeWithLast( key, value );
+                    return;
+                }
+            }
+            appendToLeaf( key, value );
+            layout.copyKey( key, lastKey );
+            hasLastKey = true;
+            lastKeyInTree = true;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * The last added entry is always the last entry in the current leaf, so merging with it is only a matter of
+     * reading and rewriting that one entry, the same way {@link InternalTreeLogic} does it.
+     */
+    private void mergeWithLast( KEY key, VALUE value ) throws IOException
+    {
+        PageCursor cursor = leaves.cursor;
+        int pos = leaves.keyCount - 1;
+        bTreeNode.valueAt( cursor, readValue, pos, cursorTracer );
+        ValueMerger.MergeResult mergeResult = valueMerger.merge( lastKey, key, readValue, value );
+        switch ( mergeResult )
+        {
+        case UNCHANGED:
+            break;
+        case REPLACED:
+        case MERGED:
+            VALUE mergedValue = mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue;
+            if ( !bTreeNode.setValueAt( cursor, mergedValue, pos ) )
+            {
+                // Value differs in size, remove and append it again, possibly into a new leaf
+                removeLastFromLeaf();
+                appendToLeaf( key, mergedValue );
+            }
+            break;
+        case REMOVED:
+            removeLastFromLeaf();
+            lastKeyInTree = false;
+            break;
+        default:
+            throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult );
+        }
+        checkOutOfBounds( cursor );
+    }
+
+    private void removeLastFromLeaf() throws IOException
+    {
+        leaves.keyCount--;
+        bTreeNode.removeKeyValueAt( leaves.cursor, leaves.keyCount, leaves.keyCount + 1, stableGeneration, unstableGeneration, cursorTracer );
+        TreeNode.setKeyCount( leaves.cursor, leaves.keyCount );
+    }
+
+    private void appendToLeaf( KEY key, VALUE value ) throws IOException
+    {
+        PageCursor cursor = leaves.cursor;
+        TreeNode.Overflow overflow = bTreeNode.leafOverflow( cursor, leaves.keyCount, key, value );
+        if ( overflow == TreeNode.Overflow.NO_NEED_DEFRAG )
+        {
+            bTreeNode.defragmentLeaf( cursor );
+        }
+        else if ( overflow == TreeNode.Overflow.YES )
+        {
+            bTreeNode.keyAt( cursor, readKey, leaves.keyCount - 1, LEAF, cursorTracer );
+            layout.minimalSplitter( readKey, key, splitter );
+            long leftLeaf = leaves.nodeId;
+            newNode( leaves, true );
+            addToInternalLevel( 0, splitter, leftLeaf, leaves.nodeId );
+        }
+        bTreeNode.insertKeyValueAt( cursor, key, value, leaves.keyCount, leaves.keyCount, stableGeneration, unstableGeneration, cursorTracer );
+        leaves.keyCount++;
+        TreeNode.setKeyCount( cursor, leaves.keyCount );
+        checkOutOfBounds( cursor );
+    }
+
+    /**
+     * Appends {@code key} and {@code rightChild} to the internal node currently being filled on the given level,
+     * creating the level if this is the first split below it.
+     *
+     * @param levelIndex index of the internal level, 0 being the level right above the leaves.
+     * @param key splitter between {@code leftChild} and {@code rightChild}.
+     * @param leftChild node to the left of {@code key}, only used if the level needs to be created.
+     * @param rightChild node to the right of {@code key}.
+     */
+    private void addToInternalLevel( int levelIndex, KEY key, long leftChild, long rightChild ) throws IOException
+    {
+        Level level;
+        if ( levelIndex == internalLevels.size() )
+        {
+            level = new Level( pagedFile.io( 0, PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer ) );
+            internalLevels.add( level );
+            newNode( level, false );
+            bTreeNode.setChildAt( level.cursor, leftChild, 0, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            level = internalLevels.get( levelIndex );
+            TreeNode.Overflow overflow = bTreeNode.internalOverflow( level.cursor, level.keyCount, key );
+            if ( overflow == TreeNode.Overflow.NO_NEED_DEFRAG )
+            {
+                bTreeNode.defragmentInternal( level.cursor );
+            }
+            else if ( overflow == TreeNode.Overflow.YES )
+            {
+                // The key moves up and separates the full node from a new node that starts out with only the right child
+                long leftNode = level.nodeId;
+                newNode( level, false );
+                bTreeNode.setChildAt( level.cursor, rightChild, 0, stableGeneration, unstableGeneration );
+                checkOutOfBounds( level.cursor );
+                addToInternalLevel( levelIndex + 1, key, leftNode, level.nodeId );
+                return;
+            }
+        }
+        bTreeNode.insertKeyAndRightChildAt( level.cursor, key, rightChild, level.keyCount, level.keyCount, stableGeneration, unstableGeneration,
+                cursorTracer );
+        level.keyCount++;
+        TreeNode.setKeyCount( level.cursor, level.keyCount );
+        checkOutOfBounds( level.cursor );
+    }
+
+    /**
+     * Allocates a new node and links it in as right sibling of the node currently held by {@code level}, if any.
+     * When leaving this method the cursor of the level is placed at the new, initialized, node.
+     */
+    private void newNode( Level level, boolean leaf ) throws IOException
+    {
+        long nodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
+        long leftSibling = level.nodeId;
+        if ( leftSibling != NO_NODE_FLAG )
+        {
+            TreeNode.setRightSibling( level.cursor, nodeId, stableGeneration, unstableGeneration );
+        }
+        PageCursorUtil.goTo( level.cursor, "new node", nodeId );
+        if ( leaf )
+        {
+            bTreeNode.initializeLeaf( level.cursor, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            bTreeNode.initializeInternal( level.cursor, stableGeneration, unstableGeneration );
+        }
+        if ( leftSibling != NO_NODE_FLAG )
+        {
+            TreeNode.setLeftSibling( level.cursor, leftSibling, stableGeneration, unstableGeneration );
+        }
+        level.nodeId = nodeId;
+        level.keyCount = 0;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "Tried to close bulk loader, but it is already closed." );
+        }
+        closed = true;
+        try
+        {
+            Level top = internalLevels.isEmpty() ? leaves : internalLevels.get( internalLevels.size() - 1 );
+            rootPublisher.accept( top.nodeId );
+            idProvider.releaseId( stableGeneration, unstableGeneration, previousRootId, cursorTracer );
+        }
+        finally
+        {
+            List<Closeable> toClose = new ArrayList<>();
+            toClose.add( leaves );
+            toClose.addAll( internalLevels );
+            toClose.add( onClose );
+            closeAll( toClose );
+        }
+    }
+
+    private static class Level implements Closeable
+    {
+        private final PageCursor cursor;
+        private long nodeId = NO_NODE_FLAG;
+        private int keyCount;
+
+        Level( PageCursor cursor )
+        {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void close()
+        {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.util.FeatureToggles;
+
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_NODE_FLAG;
+
+/**
+ * Keeps track of the leaves coming up in a {@link SeekCursor} range scan and asks for them to be prefetched before the scan gets there.
+ * <p>
+ * Leaf ids are not sequential, so the only way to know which leaves come next is to read the child pointers of their parent.
+ * The parent of the current leaf is read the first time the scan crosses over to a sibling leaf, and when the known leaves run low
+ * the sibling of that parent is read, and so on. A scan that never leaves its first leaf never reads anything here.
+ * <p>
+ * How far ahead leaves are prefetched adapts to the scan. It starts at one leaf on the first sibling crossing and doubles with every
+ * crossing after that, up to {@link #MAX_DEPTH} leaves. Everything read here is only used as a hint, so apart from basic sanity checks
+ * nothing is validated. Any unexpected read simply stops prefetching for the rest of the scan, or until the seek restarts from the root.
+ */
+class LeafPrefetcher
+{
+    private static final String MAX_DEPTH_NAME = "max_depth";
+    private static final int MAX_DEPTH_DEFAULT = 16;
+    static final int MAX_DEPTH = FeatureToggles.getInteger( LeafPrefetcher.class, MAX_DEPTH_NAME, MAX_DEPTH_DEFAULT );
+
+    private final TreeNode<?,?> bTreeNode;
+    private final LongConsumer prefetcher;
+    private final boolean seekForward;
+
+    /**
+     * Known upcoming leaves, in scan order, between {@link #head} (inclusive) and {@link #tail} (exclusive).
+     */
+    private long[] upcoming = new long[MAX_DEPTH * 2];
+    private int head;
+    private int tail;
+    /**
+     * Number of leaves, counting from {@link #head}, that have already been prefetched.
+     */
+    private int prefetched;
+    private int depth;
+    /**
+     * Parent of the first leaf, only read on the first crossing.
+     */
+    private long firstParentId = NO_NODE_FLAG;
+    /**
+     * Next internal node to read children from when the known upcoming leaves run low.
+     */
+    private long nextParentId = NO_NODE_FLAG;
+    private boolean started;
+
+    LeafPrefetcher( TreeNode<?,?> bTreeNode, LongConsumer prefetcher, boolean seekForward )
+    {
+        this.bTreeNode = bTreeNode;
+        this.prefetcher = prefetcher;
+        this.seekForward = seekForward;
+    }
+
+    /**
+     * Called when the seek has descended to a leaf, which happens when the seek starts, but also after it restarted from the root.
+     *
+     * @param parentId id of the internal node that was the parent of the leaf, or {@link TreeNode#NO_NODE_FLAG} if the leaf is the root.
+     */
+    void reset( long parentId )
+    {
+        firstParentId = parentId;
+        nextParentId = NO_NODE_FLAG;
+        head = 0;
+        tail = 0;
+        prefetched = 0;
+        depth = 0;
+        started = false;
+    }
+
+    /**
+     * Called when the seek moves from one leaf to its sibling. Prefetches the leaves following {@code toLeaf}, as far ahead as the
+     * current depth says.
+     *
+     * @param cursor the seek cursor, used to open a linked cursor for reading internal nodes from.
+     * @param fromLeaf the leaf the seek is leaving.
+     * @param toLeaf the sibling leaf the seek is moving to.
+     * @param stableGeneration stable generation of the seek.
+     * @param unstableGeneration unstable generation of the seek.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    void crossing( PageCursor cursor, long fromLeaf, long toLeaf, long stableGeneration, long unstableGeneration ) throws IOException
+    {
+        if ( !started )
+        {
+            if ( firstParentId == NO_NODE_FLAG )
+            {
+                return;
+            }
+            started = true;
+            if ( !readChildren( cursor, firstParentId, fromLeaf, stableGeneration, unstableGeneration ) )
+            {
+                return;
+            }
+        }
+        depth = depth == 0 ? 1 : Math.min( depth * 2, MAX_DEPTH );
+
+        // We want to know about the leaf we're moving to, as well as depth leaves after it
+        while ( tail - head <= depth && nextParentId != NO_NODE_FLAG )
+        {
+            if ( !readChildren( cursor, nextParentId, NO_NODE_FLAG, stableGeneration, unstableGeneration ) )
+            {
+                return;
+            }
+        }
+        if ( head == tail || upcoming[head] != toLeaf )
+        {
+            // Tree has changed since the parent was read, or we ran out of leaves
+            stop();
+            return;
+        }
+        head++;
+        prefetched = Math.max( 0, prefetched - 1 );
+
+        int end = Math.min( tail, head + depth );
+        for ( int i = head + prefetched; i < end; i++ )
+        {
+            prefetcher.accept( upcoming[i] );
+            prefetched++;
+        }
+    }
+
+    /**
+     * Reads the child pointers of the given internal node and appends them, in scan order, to the known upcoming leaves.
+     * Also remembers the sibling of the internal node, in scan direction, as the next one to read from.
+     *
+     * @param cursor cursor to open a linked cursor from.
+     * @param nodeId internal node to read.
+     * @param afterChild only append children following this child, or {@link TreeNode#NO_NODE_FLAG} to append all children.
+     * @return {@code true} if the read was successful, otherwise {@code false}, in which case prefetching has been stopped.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    private boolean readChildren( PageCursor cursor, long nodeId, long afterChild, long stableGeneration, long unstableGeneration )
+            throws IOException
+    {
+        compact();
+        int start = tail;
+        boolean success;
+        long sibling;
+        try ( PageCursor reader = cursor.openLinkedCursor( GenerationSafePointerPair.pointer( nodeId ) ) )
+        {
+            if ( !reader.next() )
+            {
+                stop();
+                return false;
+            }
+            do
+            {
+                tail = start;
+                sibling = NO_NODE_FLAG;
+                success = false;
+                if ( TreeNode.nodeType( reader ) != TreeNode.NODE_TYPE_TREE_NODE || !TreeNode.isInternal( reader ) )
+                {
+                    continue;
+                }
+                int keyCount = TreeNode.keyCount( reader );
+                if ( !bTreeNode.reasonableKeyCount( keyCount ) )
+                {
+                    continue;
+                }
+                long siblingRead = seekForward ? TreeNode.rightSibling( reader, stableGeneration, unstableGeneration ) :
+                                   TreeNode.leftSibling( reader, stableGeneration, unstableGeneration );
+                sibling = GenerationSafePointerPair.isSuccess( siblingRead ) ? GenerationSafePointerPair.pointer( siblingRead ) : NO_NODE_FLAG;
+                ensureCapacity( start + keyCount + 1 );
+                boolean found = afterChild == NO_NODE_FLAG;
+                success = true;
+                for ( int i = 0; i <= keyCount && success; i++ )
+                {
+                    long childRead = bTreeNode.childAt( reader, seekForward ? i : keyCount - i, stableGeneration, unstableGeneration );
+                    success = GenerationSafePointerPair.isSuccess( childRead );
+                    long child = GenerationSafePointerPair.pointer( childRead );
+                    if ( found )
+                    {
+                        upcoming[tail++] = child;
+                    }
+                    else
+                    {
+                        found = child == afterChild;
+                    }
+                }
+                success &= found;
+            }
+            while ( reader.shouldRetry() );
+            if ( reader.checkAndClearBoundsFlag() )
+            {
+                success = false;
+            }
+            reader.clearCursorException();
+        }
+
+        if ( !success )
+        {
+            stop();
+            return false;
+        }
+        nextParentId = sibling;
+        return true;
+    }
+
+    private void stop()
+    {
+        head = 0;
+        tail = 0;
+        prefetched = 0;
+        nextParentId = NO_NODE_FLAG;
+    }
+
+    private void compact()
+    {
+        if ( head > 0 )
+        {
+            System.arraycopy( upcoming, head, upcoming, 0, tail - head );
+            tail -= head;
+            head = 0;
+        }
+    }
+
+    private void ensureCapacity( int capacity )
+    {
+        if ( upcoming.length < capacity )
+        {
+            upcoming = Arrays.copyOf( upcoming, Math.max( capacity, upcoming.length * 2 ) );
+        }
+    }
+}
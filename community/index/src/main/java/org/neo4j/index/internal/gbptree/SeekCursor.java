@@ -21,12 +21,14 @@ package org.neo4j.index.internal.gbptree;
 
 import java.io.IOException;
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 import java.util.function.LongSupplier;
 
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_NODE_FLAG;
 import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
 import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
 
@@ -171,6 +173,10 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
 
     static final int DEFAULT_MAX_READ_AHEAD = 20;
 
+    static final LongConsumer NO_PREFETCH = pageId ->
+    {   // no-op
+    };
+
     /**
      * Cursor for reading from tree nodes and also will be moved around when following pointers.
      */
@@ -431,11 +437,16 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
      */
     private final GenerationKeeper generationKeeper = new GenerationKeeper();
 
+    /**
+     * Prefetches upcoming leaves as the seek moves along the leaves.
+     */
+    private final LeafPrefetcher leafPrefetcher;
+
     @SuppressWarnings( "unchecked" )
     SeekCursor( PageCursor cursor, TreeNode<KEY,VALUE> bTreeNode, KEY fromInclusive, KEY toExclusive,
             Layout<KEY,VALUE> layout, long stableGeneration, long unstableGeneration, LongSupplier generationSupplier,
             RootCatchup rootCatchup, long lastFollowedPointerGeneration, Consumer<Throwable> exceptionDecorator, int maxReadAhead, Monitor monitor,
-            PageCursorTracer cursorTracer ) throws IOException
+            LongConsumer prefetcher, PageCursorTracer cursorTracer ) throws IOException
     {
         this.cursor = cursor;
         this.cursorTracer = cursorTracer;
@@ -461,6 +472,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         this.stride = seekForward ? 1 : -1;
         this.expectedFirstAfterGoToNext = layout.newKey();
         this.firstKeyInNode = layout.newKey();
+        this.leafPrefetcher = new LeafPrefetcher( bTreeNode, prefetcher, seekForward );
 
         try
         {
@@ -490,6 +502,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
     private void traverseDownToFirstLeaf() throws IOException
     {
         int depth = 0;
+        long parentId = NO_NODE_FLAG;
         do
         {
             // Read
@@ -524,6 +537,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 prepareToStartFromRoot();
                 isInternal = true;
                 depth = 0;
+                parentId = NO_NODE_FLAG;
                 continue;
             }
             else if ( !saneRead() )
@@ -544,12 +558,14 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
             if ( isInternal )
             {
                 monitor.internalNode( depth, keyCount );
+                parentId = cursor.getCurrentPageId();
                 goTo( pointerId, pointerGeneration, "child", false );
                 depth++;
             }
         }
         while ( isInternal );
         monitor.leafNode( depth, keyCount );
+        leafPrefetcher.reset( parentId );
 
         // We've now come to the first relevant leaf, initialize the state for the coming leaf scan
         pos -= stride;
@@ -973,8 +989,10 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
             {
                 // TODO: Check if rightSibling is within expected range before calling next.
                 // TODO: Possibly by getting highest expected from IdProvider
+                long fromLeaf = cursor.getCurrentPageId();
                 TreeNode.goTo( cursor, "sibling", pointerId );
                 lastFollowedPointerGeneration = pointerGeneration;
+                leafPrefetcher.crossing( cursor, fromLeaf, GenerationSafePointerPair.pointer( pointerId ), stableGeneration, unstableGeneration );
                 if ( first )
                 {
                     // Have not yet found first hit among leaves.
@@ -996,9 +1014,11 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 // Need to scout next sibling because we are seeking backwards
                 if ( scoutNextSibling() )
                 {
+                    long fromLeaf = cursor.getCurrentPageId();
                     TreeNode.goTo( cursor, "sibling", pointerId );
                     verifyExpectedFirstAfterGoToNext = true;
                     lastFollowedPointerGeneration = pointerGeneration;
+                    leafPrefetcher.crossing( cursor, fromLeaf, GenerationSafePointerPair.pointer( pointerId ), stableGeneration, unstableGeneration );
                 }
                 else
                 {
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.neo4j.internal.helpers.Numbers.isPowerOfTwo;
+
+/**
+ * Exclusive latches for tree nodes, used by concurrent writers to serialize changes made to the same leaf.
+ * <p>
+ * Latches are striped on tree node id so that the number of lock instances is fixed regardless of tree size.
+ * Two different tree nodes may share a latch, which is harmless since a writer only ever holds one latch at a time,
+ * the cost being a bit of false contention.
+ * <p>
+ * The page cache doesn't provide this exclusivity by itself since write locks on pages are shared between cursors.
+ */
+class TreeNodeLatches
+{
+    private final ReentrantLock[] latches;
+    private final int mask;
+
+    TreeNodeLatches( int stripes )
+    {
+        if ( !isPowerOfTwo( stripes ) )
+        {
+            throw new IllegalArgumentException( "Number of stripes must be a power of two, but was " + stripes );
+        }
+        this.latches = new ReentrantLock[stripes];
+        this.mask = stripes - 1;
+        for ( int i = 0; i < stripes; i++ )
+        {
+            latches[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @param treeNodeId id of the tree node to get the latch for.
+     * @return the latch guarding the tree node with the given id.
+     */
+    ReentrantLock latch( long treeNodeId )
+    {
+        // Spread the bits since neighbouring nodes are likely to be written to at the same time
+        long hash = treeNodeId * 0x9E3779B97F4A7C15L;
+        return latches[(int) (hash >>> 32) & mask];
+    }
+}
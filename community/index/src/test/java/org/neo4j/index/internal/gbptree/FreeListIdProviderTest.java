@@ -270,6 +270,142 @@ class FreeListIdProviderTest
         assertTrue( expected.isEmpty() );
     }
 
+    @Test
+    void shouldNotRevisitFreelistPageForAlreadyReadIds() throws Exception
+    {
+        // GIVEN
+        long baseId = 101;
+        int count = 10;
+        for ( int i = 0; i < count; i++ )
+        {
+            freelist.releaseId( GENERATION_ONE, GENERATION_TWO, baseId + i, NULL );
+        }
+        assertEquals( baseId, freelist.acquireNewId( GENERATION_TWO, GENERATION_THREE, NULL ) );
+
+        // WHEN the free-list page gets garbled after the first acquisition
+        fillPageWithRandomBytes( freelist.readPageId() );
+
+        // THEN the rest of the stable ids are still handed out in order
+        for ( int i = 1; i < count; i++ )
+        {
+            assertEquals( baseId + i, freelist.acquireNewId( GENERATION_TWO, GENERATION_THREE, NULL ) );
+            assertEquals( i + 1, freelist.readPos() );
+        }
+    }
+
+    @Test
+    void shouldKeepReleasedIdsInMemoryUntilFlushed() throws Exception
+    {
+        // GIVEN
+        freelist = batchingFreelist( 10 );
+        long baseId = 101;
+        int count = 5;
+
+        // WHEN
+        for ( int i = 0; i < count; i++ )
+        {
+            freelist.releaseId( GENERATION_ONE, GENERATION_TWO, baseId + i, NULL );
+        }
+
+        // THEN
+        assertEquals( 0, freelist.writePos() );
+        MutableLongSet visited = new LongHashSet();
+        freelist.visitFreelist( new IdProvider.IdProviderVisitor.Adaptor()
+        {
+            @Override
+            public void freelistEntry( long pageId, long generation, int pos )
+            {
+                assertEquals( GENERATION_TWO, generation );
+                visited.add( pageId );
+            }
+        }, NULL );
+        assertEquals( count, visited.size() );
+
+        // WHEN
+        freelist.flushReleasedIds( GENERATION_ONE, GENERATION_TWO, NULL );
+
+        // THEN
+        assertEquals( count, freelist.writePos() );
+        for ( int i = 0; i < count; i++ )
+        {
+            assertEquals( baseId + i, freelist.acquireNewId( GENERATION_TWO, GENERATION_THREE, NULL ) );
+        }
+    }
+
+    @Test
+    void shouldWriteReleasedIdsWhenBatchIsFull() throws Exception
+    {
+        // GIVEN
+        int batchSize = 10;
+        freelist = batchingFreelist( batchSize );
+
+        // WHEN
+        for ( int i = 0; i < batchSize - 1; i++ )
+        {
+            freelist.releaseId( GENERATION_ONE, GENERATION_TWO, 101 + i, NULL );
+        }
+        assertEquals( 0, freelist.writePos() );
+        freelist.releaseId( GENERATION_ONE, GENERATION_TWO, 101 + batchSize, NULL );
+
+        // THEN
+        assertEquals( batchSize, freelist.writePos() );
+    }
+
+    @Test
+    void shouldWriteReleasedIdsFromPreviousGenerationBeforeAcquiring() throws Exception
+    {
+        // GIVEN
+        freelist = batchingFreelist( 10 );
+        long releasedId = 101;
+        freelist.releaseId( GENERATION_ONE, GENERATION_TWO, releasedId, NULL );
+
+        // WHEN
+        long acquiredId = freelist.acquireNewId( GENERATION_TWO, GENERATION_THREE, NULL );
+
+        // THEN
+        assertEquals( releasedId, acquiredId );
+    }
+
+    @Test
+    void shouldWriteBatchOfReleasedIdsSpanningMultipleFreelistPages() throws Exception
+    {
+        // GIVEN
+        int entries = freelist.entriesPerPage() * 2 + 1;
+        freelist = batchingFreelist( entries + 1 );
+        MutableLongSet acquiredFreelistPages = new LongHashSet();
+        monitor.set( new Monitor()
+        {
+            @Override
+            public void acquiredFreelistPageId( long freelistPageId )
+            {
+                acquiredFreelistPages.add( freelistPageId );
+            }
+        } );
+        long baseId = 1001;
+        for ( int i = 0; i < entries; i++ )
+        {
+            freelist.releaseId( GENERATION_ONE, GENERATION_TWO, baseId + i, NULL );
+        }
+
+        // WHEN
+        freelist.flushReleasedIds( GENERATION_ONE, GENERATION_TWO, NULL );
+
+        // THEN
+        assertEquals( 2, acquiredFreelistPages.size() );
+        assertEquals( 1, freelist.writePos() );
+        for ( int i = 0; i < entries; i++ )
+        {
+            assertEquals( baseId + i, freelist.acquireNewId( GENERATION_TWO, GENERATION_THREE, NULL ) );
+        }
+    }
+
+    private FreeListIdProvider batchingFreelist( int releaseBatchSize )
+    {
+        FreeListIdProvider batchingFreelist = new FreeListIdProvider( pagedFile, BASE_ID, monitor, releaseBatchSize );
+        batchingFreelist.initialize( BASE_ID + 1, BASE_ID + 1, BASE_ID + 1, 0, 0 );
+        return batchingFreelist;
+    }
+
     private void fillPageWithRandomBytes( long releasedId )
     {
         cursor.next( releasedId );
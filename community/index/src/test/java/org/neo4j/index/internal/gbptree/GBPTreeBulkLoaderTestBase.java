@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+@PageCacheExtension
+@ExtendWith( RandomExtension.class )
+abstract class GBPTreeBulkLoaderTestBase<KEY,VALUE>
+{
+    @Inject
+    private TestDirectory testDirectory;
+    @Inject
+    private RandomRule random;
+    @Inject
+    private PageCache pageCache;
+
+    private TestLayout<KEY,VALUE> layout;
+    private File indexFile;
+
+    @BeforeEach
+    void setUp()
+    {
+        indexFile = testDirectory.file( "index" );
+        layout = getLayout( random, pageCache.pageSize() );
+    }
+
+    abstract TestLayout<KEY,VALUE> getLayout( RandomRule random, int pageSize );
+
+    @Test
+    void shouldBulkLoadSortedEntries() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // when
+            int count = random.intBetween( 10_000, 50_000 );
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( NULL ) )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    bulkLoader.add( key( i ), value( i ) );
+                }
+            }
+
+            // then
+            assertTrue( index.consistencyCheck( NULL ) );
+            assertContainsSeeds( index, 0, count, 1 );
+        }
+    }
+
+    @Test
+    void shouldBulkLoadNothing() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // when
+            index.bulkLoader( NULL ).close();
+
+            // then
+            assertTrue( index.consistencyCheck( NULL ) );
+            assertContainsSeeds( index, 0, 0, 1 );
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                writer.put( key( 1 ), value( 1 ) );
+            }
+            assertContainsSeeds( index, 1, 2, 1 );
+        }
+    }
+
+    @Test
+    void shouldAllowRegularWritesAfterBulkLoadAndRestart() throws Exception
+    {
+        int count = random.intBetween( 5_000, 20_000 );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( NULL ) )
+            {
+                for ( int i = 0; i < count; i += 2 )
+                {
+                    bulkLoader.add( key( i ), value( i ) );
+                }
+            }
+
+            // when
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                for ( int i = 1; i < count; i += 2 )
+                {
+                    writer.put( key( i ), value( i ) );
+                }
+            }
+            index.checkpoint( IOLimiter.UNLIMITED, NULL );
+        }
+
+        // then
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            assertTrue( index.consistencyCheck( NULL ) );
+            assertContainsSeeds( index, 0, count, 1 );
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                for ( int i = 1; i < count; i += 2 )
+                {
+                    assertEqualsValue( value( i ), writer.remove( key( i ) ) );
+                }
+            }
+            assertTrue( index.consistencyCheck( NULL ) );
+            assertContainsSeeds( index, 0, count, 2 );
+        }
+    }
+
+    @Test
+    void shouldMergeEqualKeysAddedInSequence() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // when
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( ValueMergers.overwrite(), NULL ) )
+            {
+                bulkLoader.add( key( 0 ), value( 100 ) );
+                bulkLoader.add( key( 0 ), value( 0 ) );
+                bulkLoader.add( key( 1 ), value( 1 ) );
+                bulkLoader.add( key( 2 ), value( 2 ) );
+                bulkLoader.add( key( 2 ), value( 2 ) );
+            }
+
+            // then
+            assertTrue( index.consistencyCheck( NULL ) );
+            assertContainsSeeds( index, 0, 3, 1 );
+        }
+    }
+
+    @Test
+    void shouldFailOnUnsortedKeys() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index();
+              BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( NULL ) )
+        {
+            bulkLoader.add( key( 10 ), value( 10 ) );
+            assertThrows( IllegalArgumentException.class, () -> bulkLoader.add( key( 9 ), value( 9 ) ) );
+        }
+    }
+
+    @Test
+    void shouldFailBulkLoadIntoNonEmptyTree() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                writer.put( key( 0 ), value( 0 ) );
+            }
+
+            // when/then
+            assertThrows( IllegalStateException.class, () -> index.bulkLoader( NULL ) );
+            // and writer should still be available
+            index.writer( NULL ).close();
+        }
+    }
+
+    @Test
+    void shouldNotAllowWriterWhileBulkLoading() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( NULL ) )
+            {
+                bulkLoader.add( key( 0 ), value( 0 ) );
+                assertThrows( IllegalStateException.class, () -> index.writer( NULL ) );
+            }
+            index.writer( NULL ).close();
+        }
+    }
+
+    private void assertContainsSeeds( GBPTree<KEY,VALUE> index, long fromSeed, long toSeed, int stride ) throws IOException
+    {
+        try ( Seeker<KEY,VALUE> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( long seed = fromSeed; seed < toSeed; seed += stride )
+            {
+                assertTrue( cursor.next() );
+                assertEqualsKey( key( seed ), cursor.key() );
+                assertEqualsValue( value( seed ), cursor.value() );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    private GBPTree<KEY,VALUE> index() throws IOException
+    {
+        return new GBPTreeBuilder<>( pageCache, indexFile, layout ).build();
+    }
+
+    private VALUE value( long seed )
+    {
+        return layout.value( seed );
+    }
+
+    private KEY key( long seed )
+    {
+        return layout.key( seed );
+    }
+
+    private void assertEqualsKey( KEY expected, KEY actual )
+    {
+        assertEquals( 0, layout.compare( expected, actual ), format( "expected equal, expected=%s, actual=%s", expected, actual ) );
+    }
+
+    private void assertEqualsValue( VALUE expected, VALUE actual )
+    {
+        assertEquals( 0, layout.compareValue( expected, actual ), format( "expected equal, expected=%s, actual=%s", expected, actual ) );
+    }
+}
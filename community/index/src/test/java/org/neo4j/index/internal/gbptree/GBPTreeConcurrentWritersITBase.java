@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.test.Race.throwing;
+import static org.neo4j.test.rule.PageCacheConfig.config;
+
+/**
+ * Stresses {@link GBPTree#concurrentWriter(org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer) concurrent writers} with inserts,
+ * updates and removes from many threads, together with concurrent readers and checkpoints. Every writer thread owns a disjoint set of keys
+ * and keeps track of what it expects the tree to contain for those, so that the end result can be verified exactly.
+ */
+@EphemeralTestDirectoryExtension
+@ExtendWith( RandomExtension.class )
+abstract class GBPTreeConcurrentWritersITBase<KEY,VALUE>
+{
+    private static final int PAGE_SIZE = 512;
+
+    @Inject
+    private TestDirectory testDirectory;
+    @Inject
+    private RandomRule random;
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( config().withPageSize( PAGE_SIZE ).withAccessChecks( true ) );
+    @Inject
+    private PageCache pageCache;
+
+    private TestLayout<KEY,VALUE> layout;
+
+    protected abstract TestLayout<KEY,VALUE> getLayout( RandomRule random, int pageSize );
+
+    @Test
+    void shouldApplyUpdatesFromConcurrentWritersWithConcurrentReadersAndCheckpoints() throws Throwable
+    {
+        layout = getLayout( random, PAGE_SIZE );
+        int writers = 8;
+        int keysPerWriter = 2_000;
+        int rounds = 5;
+        List<Map<Long,Long>> expectedPerWriter = new ArrayList<>();
+        for ( int i = 0; i < writers; i++ )
+        {
+            expectedPerWriter.add( new TreeMap<>() );
+        }
+        long seed = random.seed();
+
+        try ( GBPTree<KEY,VALUE> index = new GBPTreeBuilder<>( pageCache, testDirectory.file( "index" ), layout ).build() )
+        {
+            for ( int round = 0; round < rounds; round++ )
+            {
+                AtomicInteger activeWriters = new AtomicInteger( writers );
+                int currentRound = round;
+                Race race = new Race();
+                race.addContestants( writers, writer -> throwing( () ->
+                {
+                    try
+                    {
+                        Random threadRandom = new Random( seed + currentRound * writers + writer );
+                        applyRandomUpdates( index, threadRandom, writer, writers, keysPerWriter, expectedPerWriter.get( writer ) );
+                    }
+                    finally
+                    {
+                        activeWriters.decrementAndGet();
+                    }
+                } ), 1 );
+                race.addContestant( throwing( () ->
+                {
+                    while ( activeWriters.get() > 0 )
+                    {
+                        assertSortedAndUnique( index );
+                    }
+                } ), 1 );
+                race.addContestant( throwing( () ->
+                {
+                    while ( activeWriters.get() > 0 )
+                    {
+                        index.checkpoint( IOLimiter.UNLIMITED, NULL );
+                        // Give writers a chance to get some work done between checkpoints
+                        Thread.sleep( 10 );
+                    }
+                } ), 1 );
+                race.go();
+
+                Map<Long,Long> expected = new TreeMap<>();
+                expectedPerWriter.forEach( expected::putAll );
+                assertEquals( expected, allEntries( index ) );
+            }
+            assertTrue( index.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldInsertFromIncreasingNumberOfConcurrentWriters() throws Throwable
+    {
+        layout = getLayout( random, PAGE_SIZE );
+        int totalInserts = 100_000;
+        for ( int writers = 1; writers <= 32; writers *= 2 )
+        {
+            int insertsPerWriter = totalInserts / writers;
+            int numberOfWriters = writers;
+            try ( GBPTree<KEY,VALUE> index = new GBPTreeBuilder<>( pageCache, testDirectory.file( "index-" + writers ), layout ).build() )
+            {
+                Race race = new Race();
+                race.addContestants( writers, writer -> throwing( () ->
+                {
+                    try ( Writer<KEY,VALUE> concurrentWriter = index.concurrentWriter( NULL ) )
+                    {
+                        for ( int i = 0; i < insertsPerWriter; i++ )
+                        {
+                            // Spread keys from all writers over the whole key space, like e.g. node ids from concurrent transactions
+                            long keySeed = (long) i * numberOfWriters + writer;
+                            concurrentWriter.put( layout.key( keySeed ), layout.value( keySeed ) );
+                        }
+                    }
+                } ), 1 );
+                race.go();
+
+                int inserted = insertsPerWriter * writers;
+                assertEquals( inserted, allEntries( index ).size() );
+                assertTrue( index.consistencyCheck( NULL ) );
+            }
+        }
+    }
+
+    private void applyRandomUpdates( GBPTree<KEY,VALUE> index, Random random, int writer, int writers, int keysPerWriter, Map<Long,Long> expected )
+            throws IOException
+    {
+        int batches = 10;
+        for ( int batch = 0; batch < batches; batch++ )
+        {
+            try ( Writer<KEY,VALUE> concurrentWriter = index.concurrentWriter( NULL ) )
+            {
+                for ( int i = 0; i < 200; i++ )
+                {
+                    long keySeed = (long) random.nextInt( keysPerWriter ) * writers + writer;
+                    if ( random.nextInt( 3 ) == 0 )
+                    {
+                        VALUE removed = concurrentWriter.remove( layout.key( keySeed ) );
+                        Long expectedRemoved = expected.remove( keySeed );
+                        if ( expectedRemoved == null )
+                        {
+                            assertThat( removed ).isNull();
+                        }
+                        else
+                        {
+                            assertEquals( expectedRemoved.longValue(), layout.valueSeed( removed ) );
+                        }
+                    }
+                    else
+                    {
+                        long valueSeed = random.nextInt( 1_000 );
+                        concurrentWriter.put( layout.key( keySeed ), layout.value( valueSeed ) );
+                        expected.put( keySeed, valueSeed );
+                    }
+                }
+            }
+        }
+    }
+
+    private void assertSortedAndUnique( GBPTree<KEY,VALUE> index ) throws IOException
+    {
+        try ( Seeker<KEY,VALUE> seek = index.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            long previousKeySeed = -1;
+            while ( seek.next() )
+            {
+                long keySeed = layout.keySeed( seek.key() );
+                assertTrue( keySeed > previousKeySeed, "Keys out of order " + previousKeySeed + ", " + keySeed );
+                previousKeySeed = keySeed;
+            }
+        }
+    }
+
+    private Map<Long,Long> allEntries( GBPTree<KEY,VALUE> index ) throws IOException
+    {
+        Map<Long,Long> entries = new TreeMap<>();
+        try ( Seeker<KEY,VALUE> seek = index.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            while ( seek.next() )
+            {
+                entries.put( layout.keySeed( seek.key() ), layout.valueSeed( seek.value() ) );
+            }
+        }
+        return entries;
+    }
+}
@@ -121,9 +121,10 @@ class GBPTreeSingleWriterTest
         {
             treeWriter.merge( new MutableLong( 0 ), new MutableLong( 1 ), ValueMergers.overwrite() );
 
-            assertThat( cursorTracer.pins() ).isEqualTo( 5 );
-            assertThat( cursorTracer.unpins() ).isEqualTo( 4 );
-            assertThat( cursorTracer.hits() ).isEqualTo( 4 );
+            // released ids are not written to the free-list until checkpoint
+            assertThat( cursorTracer.pins() ).isEqualTo( 4 );
+            assertThat( cursorTracer.unpins() ).isEqualTo( 3 );
+            assertThat( cursorTracer.hits() ).isEqualTo( 3 );
             assertThat( cursorTracer.faults() ).isEqualTo( 1 );
         }
     }
@@ -141,9 +142,10 @@ class GBPTreeSingleWriterTest
         {
             treeWriter.put( new MutableLong( 0 ), new MutableLong( 1 ) );
 
-            assertThat( cursorTracer.pins() ).isEqualTo( 5 );
-            assertThat( cursorTracer.unpins() ).isEqualTo( 4 );
-            assertThat( cursorTracer.hits() ).isEqualTo( 4 );
+            // released ids are not written to the free-list until checkpoint
+            assertThat( cursorTracer.pins() ).isEqualTo( 4 );
+            assertThat( cursorTracer.unpins() ).isEqualTo( 3 );
+            assertThat( cursorTracer.hits() ).isEqualTo( 3 );
             assertThat( cursorTracer.faults() ).isEqualTo( 1 );
         }
     }
@@ -158,9 +160,10 @@ class GBPTreeSingleWriterTest
               var treeWriter = gbpTree.writer( 0, cursorTracer ) )
         {
             treeWriter.put( new MutableLong( 0 ), new MutableLong( 0 ) );
-            assertThat( cursorTracer.pins() ).isEqualTo( 5 );
-            assertThat( cursorTracer.unpins() ).isEqualTo( 4 );
-            assertThat( cursorTracer.hits() ).isEqualTo( 4 );
+            // released ids are not written to the free-list until checkpoint
+            assertThat( cursorTracer.pins() ).isEqualTo( 4 );
+            assertThat( cursorTracer.unpins() ).isEqualTo( 3 );
+            assertThat( cursorTracer.hits() ).isEqualTo( 3 );
             assertThat( cursorTracer.faults() ).isEqualTo( 1 );
 
             cursorTracer.reportEvents();
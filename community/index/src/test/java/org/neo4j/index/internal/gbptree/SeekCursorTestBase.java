@@ -33,6 +33,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 import java.util.function.LongSupplier;
 
 import org.neo4j.io.pagecache.PageCursor;
@@ -1304,7 +1305,7 @@ abstract class SeekCursorTestBase<KEY, VALUE>
         // WHEN
         try ( SeekCursor<KEY,VALUE> cursor = new SeekCursor<>( this.cursor,
                 node, from, to, layout, stableGeneration, unstableGeneration, () -> 0L, failingRootCatchup,
-                unstableGeneration, exceptionDecorator, 1, SeekCursor.NO_MONITOR, NULL ) )
+                unstableGeneration, exceptionDecorator, 1, SeekCursor.NO_MONITOR, SeekCursor.NO_PREFETCH, NULL ) )
         {
             // reading a couple of keys
             assertTrue( cursor.next() );
@@ -1950,7 +1951,7 @@ abstract class SeekCursorTestBase<KEY, VALUE>
         //noinspection EmptyTryBlock
         try ( SeekCursor<KEY,VALUE> ignored = new SeekCursor<>( cursor, node, key( 0 ), key( 1 ), layout,
                 stableGeneration, unstableGeneration, generationSupplier, rootCatchup, generation - 1,
-                exceptionDecorator, 1, SeekCursor.NO_MONITOR, NULL ) )
+                exceptionDecorator, 1, SeekCursor.NO_MONITOR, SeekCursor.NO_PREFETCH, NULL ) )
         {
             // do nothing
         }
@@ -2002,7 +2003,7 @@ abstract class SeekCursorTestBase<KEY, VALUE>
         //noinspection EmptyTryBlock
         try ( SeekCursor<KEY,VALUE> ignored = new SeekCursor<>( cursor, node, from, to, layout,
                 stableGeneration, unstableGeneration, generationSupplier, rootCatchup, unstableGeneration,
-                exceptionDecorator, 1, SeekCursor.NO_MONITOR, NULL ) )
+                exceptionDecorator, 1, SeekCursor.NO_MONITOR, SeekCursor.NO_PREFETCH, NULL ) )
         {
             // do nothing
         }
@@ -2051,7 +2052,7 @@ abstract class SeekCursorTestBase<KEY, VALUE>
         KEY to = key( 20L );
         try ( SeekCursor<KEY,VALUE> seek = new SeekCursor<>( cursor, node, from, to, layout,
                 stableGeneration - 1, unstableGeneration - 1, generationSupplier, rootCatchup, unstableGeneration,
-                exceptionDecorator, 1, SeekCursor.NO_MONITOR, NULL ) )
+                exceptionDecorator, 1, SeekCursor.NO_MONITOR, SeekCursor.NO_PREFETCH, NULL ) )
         {
             while ( seek.next() )
             {
@@ -2121,6 +2122,136 @@ abstract class SeekCursorTestBase<KEY, VALUE>
         }
     }
 
+    /* PREFETCH */
+
+    @Test
+    void shouldPrefetchUpcomingLeavesWhenSeekingForward() throws Exception
+    {
+        // given
+        long keyCount = treeWithLeafParents( 30 );
+        List<Long> leaves = leavesInOrder();
+
+        // when
+        List<Long> prefetched = new ArrayList<>();
+        try ( SeekCursor<KEY,VALUE> seek = seekCursor( 0, keyCount, prefetched::add ) )
+        {
+            //noinspection StatementWithEmptyBody
+            while ( seek.next() )
+            {
+            }
+        }
+
+        // then the first leaf to be prefetched is the one after the first sibling crossing, and from there on every leaf,
+        // across leaf parents, in scan order and only once
+        assertEquals( leaves.subList( 2, leaves.size() ), prefetched );
+    }
+
+    @Test
+    void shouldPrefetchUpcomingLeavesWhenSeekingBackwards() throws Exception
+    {
+        // given
+        long keyCount = treeWithLeafParents( 30 );
+        List<Long> leaves = leavesInOrder();
+        Collections.reverse( leaves );
+
+        // when
+        List<Long> prefetched = new ArrayList<>();
+        try ( SeekCursor<KEY,VALUE> seek = seekCursor( keyCount - 1, -1, prefetched::add ) )
+        {
+            //noinspection StatementWithEmptyBody
+            while ( seek.next() )
+            {
+            }
+        }
+
+        // then
+        assertEquals( leaves.subList( 2, leaves.size() ), prefetched );
+    }
+
+    @Test
+    void shouldPrefetchFurtherAheadTheLongerTheScan() throws Exception
+    {
+        // given
+        long keyCount = treeWithLeafParents( 8 + LeafPrefetcher.MAX_DEPTH );
+        List<Long> leaves = leavesInOrder();
+
+        // when
+        List<Long> prefetched = new ArrayList<>();
+        try ( SeekCursor<KEY,VALUE> seek = seekCursor( 0, keyCount, prefetched::add ) )
+        {
+            int crossings = 0;
+            long currentLeaf = cursor.getCurrentPageId();
+            while ( seek.next() && crossings <= 5 )
+            {
+                if ( cursor.getCurrentPageId() != currentLeaf )
+                {
+                    currentLeaf = cursor.getCurrentPageId();
+                    crossings++;
+                    // then depth doubles with each crossing, starting at one leaf
+                    int depth = Math.min( 1 << (crossings - 1), LeafPrefetcher.MAX_DEPTH );
+                    assertEquals( leaves.subList( 2, crossings + 1 + depth ), prefetched );
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldNotPrefetchWhenSeekStaysInOneLeaf() throws Exception
+    {
+        // given
+        treeWithLeafParents( 30 );
+
+        // when
+        List<Long> prefetched = new ArrayList<>();
+        try ( SeekCursor<KEY,VALUE> seek = seekCursor( 0, 2, prefetched::add ) )
+        {
+            //noinspection StatementWithEmptyBody
+            while ( seek.next() )
+            {
+            }
+        }
+
+        // then
+        assertTrue( prefetched.isEmpty() );
+    }
+
+    /**
+     * Inserts keys from 0 and up, until the root has split twice, so that there are several leaf parents, and there are
+     * at least {@code minLeafCount} leaves.
+     *
+     * @return the number of keys inserted.
+     */
+    private long treeWithLeafParents( int minLeafCount ) throws IOException
+    {
+        long i = 0;
+        while ( numberOfRootSplits < 2 || leavesInOrder().size() < minLeafCount )
+        {
+            insert( i );
+            i++;
+        }
+        TreeNode.goTo( cursor, "root", rootId );
+        return i;
+    }
+
+    private List<Long> leavesInOrder() throws IOException
+    {
+        PageAwareByteArrayCursor readCursor = cursor.duplicate( rootId );
+        readCursor.next();
+        while ( TreeNode.isInternal( readCursor ) )
+        {
+            goTo( readCursor, childAt( readCursor, 0, stableGeneration, unstableGeneration ) );
+        }
+        List<Long> leaves = new ArrayList<>();
+        leaves.add( readCursor.getCurrentPageId() );
+        long rightSibling;
+        while ( TreeNode.isNode( rightSibling = TreeNode.rightSibling( readCursor, stableGeneration, unstableGeneration ) ) )
+        {
+            goTo( readCursor, rightSibling );
+            leaves.add( readCursor.getCurrentPageId() );
+        }
+        return leaves;
+    }
+
     private void triggerUnderflowAndSeekRange( SeekCursor<KEY,VALUE> seeker,
             TestPageCursor seekCursor, long fromInclusive, long toExclusive, long rightChild ) throws IOException
     {
@@ -2277,10 +2408,21 @@ abstract class SeekCursorTestBase<KEY, VALUE>
 
     private SeekCursor<KEY,VALUE> seekCursor( long fromInclusive, long toExclusive,
             PageCursor pageCursor, long stableGeneration, long unstableGeneration, RootCatchup rootCatchup ) throws IOException
+    {
+        return seekCursor( fromInclusive, toExclusive, pageCursor, stableGeneration, unstableGeneration, rootCatchup, SeekCursor.NO_PREFETCH );
+    }
+
+    private SeekCursor<KEY,VALUE> seekCursor( long fromInclusive, long toExclusive, LongConsumer prefetcher ) throws IOException
+    {
+        return seekCursor( fromInclusive, toExclusive, cursor, stableGeneration, unstableGeneration, failingRootCatchup, prefetcher );
+    }
+
+    private SeekCursor<KEY,VALUE> seekCursor( long fromInclusive, long toExclusive, PageCursor pageCursor, long stableGeneration,
+            long unstableGeneration, RootCatchup rootCatchup, LongConsumer prefetcher ) throws IOException
     {
         return new SeekCursor<>( pageCursor, node, key( fromInclusive ), key( toExclusive ), layout, stableGeneration, unstableGeneration,
                 generationSupplier, rootCatchup, unstableGeneration , exceptionDecorator, random.nextInt( 1, DEFAULT_MAX_READ_AHEAD ),
-                SeekCursor.NO_MONITOR, NULL );
+                SeekCursor.NO_MONITOR, prefetcher, NULL );
     }
 
     /**
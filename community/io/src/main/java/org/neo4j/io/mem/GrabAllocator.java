@@ -25,14 +25,24 @@ import org.neo4j.memory.MemoryTracker;
 import java.lang.ref.Cleaner;
 
 import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.util.FeatureToggles.getInteger;
 
 /**
  * This memory allocator is allocating memory in large segments, called "grabs", and the memory returned by the memory
  * manager is page aligned, and plays well with transparent huge pages and other operating system optimisations.
+ * <p>
+ * In huge page mode, the grabs are larger, and both their start and end addresses are aligned to the
+ * {@link #HUGE_PAGE_SIZE huge page size}. This way, every grab can be completely backed by transparent huge pages,
+ * which greatly reduces the TLB pressure of very large page caches.
  */
 public final class GrabAllocator implements MemoryAllocator
 {
+    /**
+     * The size of the transparent huge pages on x86-64 Linux, which is what huge page mode aligns its grabs to.
+     */
+    static final long HUGE_PAGE_SIZE = mebiBytes( 2 );
+
     private static final Cleaner globalCleaner = globalCleaner();
 
     private final Grabs grabs;
@@ -44,11 +54,12 @@ public final class GrabAllocator implements MemoryAllocator
      *
      * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate. The
      * actual amount of memory used can end up greater than this value, if some of it gets wasted on alignment padding.
+     * @param hugePages {@code true} if the grabs should be aligned to, and sized in multiples of, the huge page size.
      * @param memoryTracker memory usage tracker
      */
-    GrabAllocator( long expectedMaxMemory, MemoryTracker memoryTracker )
+    GrabAllocator( long expectedMaxMemory, boolean hugePages, MemoryTracker memoryTracker )
     {
-        this.grabs = new Grabs( expectedMaxMemory, memoryTracker );
+        this.grabs = new Grabs( expectedMaxMemory, hugePages, memoryTracker );
         this.cleanable = globalCleaner.register( this, new GrabsDeallocator( grabs ) );
     }
 
@@ -79,27 +90,34 @@ public final class GrabAllocator implements MemoryAllocator
     private static class Grab
     {
         public final Grab next;
+        private final long allocationAddress;
+        private final long allocationSize;
         private final long address;
         private final long limit;
         private final MemoryTracker memoryTracker;
         private long nextPointer;
 
-        Grab( Grab next, long size, MemoryTracker memoryTracker )
+        Grab( Grab next, long size, long grabAlignment, MemoryTracker memoryTracker )
         {
             this.next = next;
-            this.address = UnsafeUtil.allocateMemory( size, memoryTracker );
+            // Over-allocate so that the usable part of the grab can start at the requested alignment.
+            this.allocationSize = size + grabAlignment - 1;
+            this.allocationAddress = UnsafeUtil.allocateMemory( allocationSize, memoryTracker );
+            this.address = nextAligned( allocationAddress, grabAlignment );
             this.limit = address + size;
             this.memoryTracker = memoryTracker;
             nextPointer = address;
         }
 
-        Grab( Grab next, long address, long limit, long nextPointer, MemoryTracker memoryTracker )
+        Grab( Grab next, Grab grab )
         {
             this.next = next;
-            this.address = address;
-            this.limit = limit;
-            this.nextPointer = nextPointer;
-            this.memoryTracker = memoryTracker;
+            this.allocationAddress = grab.allocationAddress;
+            this.allocationSize = grab.allocationSize;
+            this.address = grab.address;
+            this.limit = grab.limit;
+            this.nextPointer = grab.nextPointer;
+            this.memoryTracker = grab.memoryTracker;
         }
 
         private static long nextAligned( long pointer, long alignment )
@@ -125,7 +143,7 @@ public final class GrabAllocator implements MemoryAllocator
 
         void free()
         {
-            UnsafeUtil.free( address, limit - address, memoryTracker );
+            UnsafeUtil.free( allocationAddress, allocationSize, memoryTracker );
         }
 
         boolean canAllocate( long bytes, long alignment )
@@ -135,7 +153,7 @@ public final class GrabAllocator implements MemoryAllocator
 
         Grab setNext( Grab grab )
         {
-            return new Grab( grab, address, limit, nextPointer, memoryTracker );
+            return new Grab( grab, this );
         }
 
         @Override
@@ -154,15 +172,34 @@ public final class GrabAllocator implements MemoryAllocator
          * The amount of memory, in bytes, to grab in each Grab.
          */
         private static final long GRAB_SIZE = getInteger( GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes( 512 ) );
+        /**
+         * The amount of memory, in bytes, to grab in each Grab when in huge page mode. Always rounded up to a whole
+         * number of huge pages.
+         */
+        private static final long HUGE_PAGE_GRAB_SIZE = getInteger( GrabAllocator.class, "HUGE_PAGE_GRAB_SIZE", (int) mebiBytes( 32 ) );
 
         private final MemoryTracker memoryTracker;
+        private final long grabSize;
+        private final long grabAlignment;
         private long expectedMaxMemory;
         private Grab head;
 
-        Grabs( long expectedMaxMemory, MemoryTracker memoryTracker )
+        Grabs( long expectedMaxMemory, boolean hugePages, MemoryTracker memoryTracker )
         {
             this.expectedMaxMemory = expectedMaxMemory;
             this.memoryTracker = memoryTracker;
+            this.grabAlignment = hugePages ? HUGE_PAGE_SIZE : 1;
+            this.grabSize = hugePages ? roundUpToGrabAlignment( HUGE_PAGE_GRAB_SIZE ) : GRAB_SIZE;
+        }
+
+        private long roundUpToGrabAlignment( long size )
+        {
+            return ((size + grabAlignment - 1) / grabAlignment) * grabAlignment;
+        }
+
+        private Grab newGrab( Grab next, long size )
+        {
+            return new Grab( next, roundUpToGrabAlignment( size ), grabAlignment, memoryTracker );
         }
 
         long usedMemory()
@@ -206,19 +243,19 @@ public final class GrabAllocator implements MemoryAllocator
             {
                 throw new IllegalArgumentException( "Invalid alignment: " + alignment + ". Alignment must be positive." );
             }
-            long grabSize = Math.min( GRAB_SIZE, expectedMaxMemory );
+            long grabSize = Math.min( this.grabSize, expectedMaxMemory );
             long maxAllocationSize = bytes + alignment - 1;
-            if ( maxAllocationSize > GRAB_SIZE )
+            if ( maxAllocationSize > this.grabSize )
             {
                 // This is a huge allocation. Put it in its own grab and keep any existing grab at the head.
                 grabSize = bytes;
                 Grab nextGrab = head == null ? null : head.next;
-                Grab allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                Grab allocationGrab = newGrab( nextGrab, grabSize );
                 if ( !allocationGrab.canAllocate( bytes, alignment ) )
                 {
                     allocationGrab.free();
                     grabSize = maxAllocationSize;
-                    allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                    allocationGrab = newGrab( nextGrab, grabSize );
                 }
                 long allocation = allocationGrab.allocate( bytes, alignment );
                 head = head == null ? allocationGrab : head.setNext( allocationGrab );
@@ -231,7 +268,7 @@ public final class GrabAllocator implements MemoryAllocator
                 if ( grabSize < bytes )
                 {
                     grabSize = bytes;
-                    Grab grab = new Grab( head, grabSize, memoryTracker );
+                    Grab grab = newGrab( head, grabSize );
                     if ( grab.canAllocate( bytes, alignment ) )
                     {
                         expectedMaxMemory -= grabSize;
@@ -241,7 +278,7 @@ public final class GrabAllocator implements MemoryAllocator
                     grab.free();
                     grabSize = maxAllocationSize;
                 }
-                head = new Grab( head, grabSize, memoryTracker );
+                head = newGrab( head, grabSize );
                 expectedMaxMemory -= grabSize;
             }
             return head.allocate( bytes, alignment );
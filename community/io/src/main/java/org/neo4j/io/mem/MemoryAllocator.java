@@ -28,7 +28,16 @@ public interface MemoryAllocator
 {
     static MemoryAllocator createAllocator( long expectedMemory, MemoryTracker memoryTracker )
     {
-        return new GrabAllocator( expectedMemory, memoryTracker );
+        return createAllocator( expectedMemory, false, memoryTracker );
+    }
+
+    /**
+     * Create an allocator that, if {@code hugePages} is {@code true}, hands out memory from regions that are aligned to,
+     * and sized in multiples of, the transparent huge page size.
+     */
+    static MemoryAllocator createAllocator( long expectedMemory, boolean hugePages, MemoryTracker memoryTracker )
+    {
+        return new GrabAllocator( expectedMemory, hugePages, memoryTracker );
     }
 
     /**
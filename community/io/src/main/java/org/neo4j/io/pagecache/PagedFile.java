@@ -75,9 +75,12 @@ public interface PagedFile extends AutoCloseable
      */
     int PF_NO_FAULT = 1 << 4;
     /**
-     * Do not update page access statistics.
+     * Do not update page access statistics. Pages that are only ever accessed through transient cursors are the first
+     * to be evicted, which makes this useful for one-pass scans that should not push more frequently used pages out of
+     * the page cache. Only honoured by the scan-resistant eviction policy, the default policy counts transient accesses
+     * like any other.
      */
-    int PF_TRANSIENT = 1 << 5; // TBD
+    int PF_TRANSIENT = 1 << 5;
     /**
      * Flush pages more aggressively, after they have been dirtied by a write cursor.
      */
@@ -177,6 +180,34 @@ public interface PagedFile extends AutoCloseable
      */
     long getLastPageId() throws IOException;
 
+    /**
+     * Make sure that the given range of pages are loaded into the page cache, without pinning them.
+     * <p>
+     * Pages that are not already in memory are faulted in with as few, and as large, reads as possible, which makes
+     * this much faster than visiting each page with a cursor. This is useful for warming up the page cache. Pages
+     * beyond the end of the file are ignored; the file is never grown by this method.
+     *
+     * @param pageId the file page id of the first page to touch.
+     * @param count the number of consecutive pages to touch.
+     * @param tracer underlying page cursor tracer.
+     * @return the number of pages in the given range that are within the bounds of the file, and thus touched.
+     * @throws IOException if there was a problem reading the pages in.
+     */
+    int touch( long pageId, int count, PageCursorTracer tracer ) throws IOException;
+
+    /**
+     * Hint that the given page is likely to be accessed soon, so that it can be loaded into the page cache ahead of time.
+     * <p>
+     * Unlike {@link #touch(long, int, PageCursorTracer)} this method does not wait for the page to be loaded. If the page is not
+     * already in memory, it is read in by a background thread some time after this method returns. The hint can also be ignored
+     * altogether, e.g. if there are already too many pages being prefetched. Pages beyond the end of the file are ignored.
+     * Pages loaded this way are the first candidates for eviction, until they are accessed by a cursor.
+     *
+     * @param pageId the file page id of the page to prefetch.
+     * @param tracer underlying page cursor tracer, which is told about the prefetch if one was actually issued.
+     */
+    void prefetch( long pageId, PageCursorTracer tracer );
+
     /**
      * Release a handle to a paged file.
      * <p>
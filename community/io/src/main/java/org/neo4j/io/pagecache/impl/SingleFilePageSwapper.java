@@ -28,6 +28,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileSystemException;
 import java.nio.file.OpenOption;
 import java.util.ArrayList;
 import java.util.Set;
@@ -59,6 +60,7 @@ public class SingleFilePageSwapper implements PageSwapper
     private static final boolean PREALLOCATE_MAPPED_FILES = FeatureToggles.flag( SingleFilePageSwapper.class, "PREALLOCATE_MAPPED_FILES", true );
     private static final long FILE_SIZE_OFFSET = UnsafeUtil.getFieldOffset( SingleFilePageSwapper.class, "fileSize" );
     private static final ThreadLocal<ByteBuffer> PROXY_CACHE = new ThreadLocal<>();
+    private static final String DIRECT_IO_NOT_SUPPORTED_REASON = "Invalid argument";
 
     private static ByteBuffer proxy( long buffer, int bufferLength ) throws IOException
     {
@@ -90,6 +92,7 @@ public class SingleFilePageSwapper implements PageSwapper
     private final File file;
     private final int filePageSize;
     private final Set<OpenOption> openOptions;
+    private final boolean directIO;
     private volatile PageEvictionCallback onEviction;
     private StoreChannel channel;
     private FileLock fileLock;
@@ -101,19 +104,30 @@ public class SingleFilePageSwapper implements PageSwapper
     @SuppressWarnings( "unused" ) // Accessed through unsafe
     private volatile long fileSize;
 
-    SingleFilePageSwapper( File file, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction, boolean useDirectIO ) throws IOException
+    SingleFilePageSwapper( File file, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction, boolean useDirectIO,
+            SingleFilePageSwapperFactory.DirectIOFallbackListener directIOFallbackListener ) throws IOException
     {
         this.fs = fs;
         this.file = file;
 
-        var options = new ArrayList<>( WRITE_OPTIONS );
+        Set<OpenOption> bufferedOptions = Set.copyOf( WRITE_OPTIONS );
         if ( useDirectIO )
         {
             validateDirectIOPossibility( file, filePageSize );
+            var options = new ArrayList<>( WRITE_OPTIONS );
             options.add( ExtendedOpenOption.DIRECT );
+            Set<OpenOption> directOptions = Set.copyOf( options );
+            StoreChannel directChannel = tryCreateDirectStoreChannel( directOptions, directIOFallbackListener );
+            directIO = directChannel != null;
+            openOptions = directIO ? directOptions : bufferedOptions;
+            channel = directIO ? directChannel : createStoreChannel();
+        }
+        else
+        {
+            directIO = false;
+            openOptions = bufferedOptions;
+            channel = createStoreChannel();
         }
-        openOptions = Set.copyOf( options );
-        channel = createStoreChannel();
 
         this.filePageSize = filePageSize;
         this.onEviction = onEviction;
@@ -140,11 +154,46 @@ public class SingleFilePageSwapper implements PageSwapper
 
     private StoreChannel createStoreChannel() throws IOException
     {
-        var storeChannel = fs.open( file, openOptions );
+        return createStoreChannel( openOptions );
+    }
+
+    private StoreChannel createStoreChannel( Set<OpenOption> options ) throws IOException
+    {
+        var storeChannel = fs.open( file, options );
         storeChannel.tryMakeUninterruptible();
         return storeChannel;
     }
 
+    /**
+     * Some file systems, like tmpfs and some network and FUSE file systems, refuse to open files with O_DIRECT.
+     * Rather than failing the mapping, we fall back to buffered IO for files on such file systems. Any other failure to open the file is thrown.
+     *
+     * @return the opened channel, or {@code null} if the file system does not support direct IO.
+     */
+    private StoreChannel tryCreateDirectStoreChannel( Set<OpenOption> directOptions,
+            SingleFilePageSwapperFactory.DirectIOFallbackListener directIOFallbackListener ) throws IOException
+    {
+        try
+        {
+            return createStoreChannel( directOptions );
+        }
+        catch ( UnsupportedOperationException e )
+        {
+            directIOFallbackListener.directIONotSupported( file, e );
+            return null;
+        }
+        catch ( FileSystemException e )
+        {
+            // open(2) fails with EINVAL when the file system does not support O_DIRECT
+            if ( !DIRECT_IO_NOT_SUPPORTED_REASON.equals( e.getReason() ) )
+            {
+                throw e;
+            }
+            directIOFallbackListener.directIONotSupported( file, e );
+            return null;
+        }
+    }
+
     private void validateDirectIOPossibility( File file, int filePageSize ) throws IOException
     {
         if ( !IS_OS_LINUX )
@@ -702,6 +751,7 @@ public class SingleFilePageSwapper implements PageSwapper
         return "SingleFilePageSwapper{" +
                 "filePageSize=" + filePageSize +
                 ", file=" + file +
+                ", directIO=" + directIO +
                 '}';
     }
 
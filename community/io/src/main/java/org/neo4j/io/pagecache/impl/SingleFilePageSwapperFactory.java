@@ -22,6 +22,8 @@ package org.neo4j.io.pagecache.impl;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.NoSuchFileException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageEvictionCallback;
@@ -36,10 +38,28 @@ import org.neo4j.io.pagecache.PageSwapperFactory;
 public class SingleFilePageSwapperFactory implements PageSwapperFactory
 {
     private final FileSystemAbstraction fs;
+    private final Set<File> directIOFallbackFiles = ConcurrentHashMap.newKeySet();
+    private final DirectIOFallbackListener directIOFallbackListener;
 
     public SingleFilePageSwapperFactory( FileSystemAbstraction fs )
+    {
+        this( fs, DirectIOFallbackListener.NONE );
+    }
+
+    /**
+     * @param directIOFallbackListener told, once per file, when a file that should have used direct IO is accessed with buffered IO instead,
+     * because its file system does not support direct IO.
+     */
+    public SingleFilePageSwapperFactory( FileSystemAbstraction fs, DirectIOFallbackListener directIOFallbackListener )
     {
         this.fs = fs;
+        this.directIOFallbackListener = ( file, cause ) ->
+        {
+            if ( directIOFallbackFiles.add( file ) )
+            {
+                directIOFallbackListener.directIONotSupported( file, cause );
+            }
+        };
     }
 
     @Override
@@ -54,7 +74,7 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory
         {
             throw new NoSuchFileException( file.getPath(), null, "Cannot map non-existing file" );
         }
-        return new SingleFilePageSwapper( file, fs, filePageSize, onEviction, useDirectIO );
+        return new SingleFilePageSwapper( file, fs, filePageSize, onEviction, useDirectIO, directIOFallbackListener );
     }
 
     @Override
@@ -62,4 +82,17 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory
     {
         // We have nothing to close
     }
+
+    /**
+     * Told about files that are accessed with buffered IO even though direct IO was asked for.
+     */
+    @FunctionalInterface
+    public interface DirectIOFallbackListener
+    {
+        DirectIOFallbackListener NONE = ( file, cause ) ->
+        {
+        };
+
+        void directIONotSupported( File file, Exception cause );
+    }
 }
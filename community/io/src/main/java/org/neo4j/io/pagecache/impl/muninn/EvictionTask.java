@@ -19,23 +19,70 @@
  */
 package org.neo4j.io.pagecache.impl.muninn;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
- * This Runnable runs the eviction algorithm. Only one is expected for each page cache.
+ * This Runnable runs the eviction algorithm over one partition of the pages in the page cache. The page cache runs
+ * one of these for each of its eviction partitions, and each of them only ever sweeps the pages in its own partition.
  *
  * Interrupting the thread running this runnable, will be interpreted as a shutdown signal.
  *
- * @see MuninnPageCache#continuouslySweepPages()
+ * @see MuninnPageCache#continuouslySweepPages(EvictionTask)
  */
 final class EvictionTask extends BackgroundTask
 {
-    EvictionTask( MuninnPageCache pageCache )
+    final int partition;
+    // The cache page ids of the pages in our partition; fromPage inclusive, toPage exclusive.
+    final int fromPage;
+    final int toPage;
+
+    // The thread that runs this task. We unpark this when we've run out of free pages to grab.
+    private volatile Thread thread;
+    // True if the eviction thread is currently parked, without someone having
+    // signalled it to wake up. This is used as a weak guard for unparking the
+    // eviction thread, because calling unpark too much (from many page
+    // faulting threads) can cause contention on the locks protecting that
+    // threads scheduling meta-data in the OS kernel.
+    private volatile boolean parked;
+
+    EvictionTask( MuninnPageCache pageCache, int partition, int fromPage, int toPage )
     {
         super( pageCache );
+        this.partition = partition;
+        this.fromPage = fromPage;
+        this.toPage = toPage;
     }
 
     @Override
     protected void run( MuninnPageCache pageCache )
     {
-        pageCache.continuouslySweepPages();
+        thread = Thread.currentThread();
+        pageCache.continuouslySweepPages( this );
+    }
+
+    void park( long parkNanos )
+    {
+        // Only called from the thread running this task!
+        parked = true;
+        LockSupport.parkNanos( this, parkNanos );
+        parked = false;
+    }
+
+    void unpark()
+    {
+        if ( parked )
+        {
+            parked = false;
+            LockSupport.unpark( thread );
+        }
+    }
+
+    void interrupt()
+    {
+        Thread evictionThread = thread;
+        if ( evictionThread != null )
+        {
+            evictionThread.interrupt();
+        }
     }
 }
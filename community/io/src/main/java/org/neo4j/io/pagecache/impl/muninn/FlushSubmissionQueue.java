@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * A bounded queue of IO operations that are submitted in batches, and completed asynchronously by the
+ * {@link Group#FILE_IO_HELPER} threads.
+ * <p>
+ * This is a thread pool based stand-in for the submission and completion queues of native asynchronous IO
+ * interfaces: the submitting thread can keep on collecting its next batch of pages while up to {@code queueDepth}
+ * previously submitted batches are being written. The submitter must call {@link #awaitCompletion()} before it relies
+ * on any of the submitted operations having completed, e.g. before forcing the file.
+ * <p>
+ * The first failure of any submitted operation is remembered, and thrown from either the next call to
+ * {@link #submit(IOTask)}, or from {@link #awaitCompletion()}. The original exception instance is thrown, such that
+ * callers can tell a {@link java.nio.channels.ClosedChannelException} from other IO failures.
+ */
+final class FlushSubmissionQueue
+{
+    private final JobScheduler scheduler;
+    private final int queueDepth;
+    private final Semaphore slots;
+    private final AtomicReference<Throwable> failure;
+
+    FlushSubmissionQueue( JobScheduler scheduler, int queueDepth )
+    {
+        if ( queueDepth < 1 )
+        {
+            throw new IllegalArgumentException( "Queue depth must be positive, but was " + queueDepth );
+        }
+        this.scheduler = scheduler;
+        this.queueDepth = queueDepth;
+        this.slots = new Semaphore( queueDepth );
+        this.failure = new AtomicReference<>();
+    }
+
+    /**
+     * Submit the given IO operation, blocking while the queue is full.
+     */
+    void submit( IOTask task ) throws IOException
+    {
+        throwIfFailed();
+        acquire( 1 );
+        try
+        {
+            scheduler.schedule( Group.FILE_IO_HELPER, () -> runTask( task ) );
+        }
+        catch ( Throwable throwable )
+        {
+            slots.release();
+            throw throwable;
+        }
+    }
+
+    /**
+     * Wait for all submitted IO operations to complete, and throw the first failure, if any of them failed.
+     */
+    void awaitCompletion() throws IOException
+    {
+        acquire( queueDepth );
+        slots.release( queueDepth );
+        throwIfFailed();
+    }
+
+    /**
+     * Wait for all submitted IO operations to complete, when the submitting thread is itself failing with the given
+     * exception. Any failure of the submitted operations is added as a suppressed exception.
+     */
+    void awaitCompletion( Throwable cause )
+    {
+        slots.acquireUninterruptibly( queueDepth );
+        slots.release( queueDepth );
+        Throwable taskFailure = failure.get();
+        if ( taskFailure != null && taskFailure != cause )
+        {
+            cause.addSuppressed( taskFailure );
+        }
+    }
+
+    private void runTask( IOTask task )
+    {
+        try
+        {
+            task.run();
+        }
+        catch ( Throwable throwable )
+        {
+            if ( !failure.compareAndSet( null, throwable ) )
+            {
+                failure.get().addSuppressed( throwable );
+            }
+        }
+        finally
+        {
+            slots.release();
+        }
+    }
+
+    private void acquire( int permits ) throws InterruptedIOException
+    {
+        try
+        {
+            slots.acquire( permits );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException( "Interrupted while waiting for submitted IO to complete" );
+            exception.initCause( e );
+            throw exception;
+        }
+    }
+
+    private void throwIfFailed() throws IOException
+    {
+        Throwable throwable = failure.get();
+        if ( throwable instanceof IOException )
+        {
+            throw (IOException) throwable;
+        }
+        if ( throwable instanceof RuntimeException )
+        {
+            throw (RuntimeException) throwable;
+        }
+        if ( throwable instanceof Error )
+        {
+            throw (Error) throwable;
+        }
+    }
+
+    @FunctionalInterface
+    interface IOTask
+    {
+        void run() throws IOException;
+    }
+}
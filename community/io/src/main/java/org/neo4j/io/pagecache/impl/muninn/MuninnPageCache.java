@@ -31,10 +31,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
@@ -49,6 +50,7 @@ import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.memory.EmptyMemoryTracker;
 import org.neo4j.memory.MemoryTracker;
@@ -131,6 +133,34 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The maximum number of background eviction threads. The pages are split into this many partitions, and each
+    // eviction thread only sweeps the pages in its own partition. Only one eviction thread is active to begin with, and
+    // more are brought in while page faulting threads are forced to evict pages cooperatively.
+    private static final int maxEvictionThreads = getInteger(
+            MuninnPageCache.class, "maxEvictionThreads", Math.max( 1, Runtime.getRuntime().availableProcessors() / 8 ) );
+
+    // The number of eviction partitions is truncated so that no partition is smaller than this many pages.
+    private static final int minPagesPerEvictionPartition = getInteger(
+            MuninnPageCache.class, "minPagesPerEvictionPartition", 4096 );
+
+    // This is how many times in a row the eviction threads must wake up without observing any cooperative evictions,
+    // before an eviction thread is retired again.
+    private static final int evictionThreadIdleRounds = getInteger(
+            MuninnPageCache.class, "evictionThreadIdleRounds", 100 );
+
+    // With the scan-resistant eviction policy, pages that have only been accessed by transient or read-ahead cursors are
+    // evicted first, and pages that have been accessed by other cursors are only aged by eviction once this many pages
+    // in a row has been found not to be evictable. Otherwise a one-pass scan would age out the entire working set.
+    private static final int protectedPagesSkippedBeforeAging = getInteger(
+            MuninnPageCache.class, "protectedPagesSkippedBeforeAging", 64 );
+
+    // The maximum number of single page prefetches, asked for through PagedFile.prefetch, that can be queued up or running at
+    // any one time. Prefetches asked for beyond this are ignored.
+    private static final int maxPrefetchesInFlight = getInteger(
+            MuninnPageCache.class, "maxPrefetchesInFlight", 64 );
+
+    private static final String TRACER_PREFETCH_TAG = "Prefetch";
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
@@ -151,6 +181,7 @@ public class MuninnPageCache implements PageCache
 
     // Scheduler that runs all the background jobs for page cache.
     private final JobScheduler scheduler;
+    private final AtomicInteger prefetchesInFlight = new AtomicInteger();
     private final SystemNanoClock clock;
 
     private static final List<OpenOption> ignoredOpenOptions = Arrays.asList( StandardOpenOption.APPEND,
@@ -163,6 +194,10 @@ public class MuninnPageCache implements PageCache
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
     private final int keepFree;
+    // Whether to use the scan-resistant eviction policy, rather than the plain clock policy. This is decided when the
+    // page cache is created, and cannot be changed afterwards.
+    final boolean scanResistant = flag( MuninnPageCache.class, "scanResistantEviction", false );
+    private final EvictionTask[] evictors;
     private final PageCacheTracer pageCacheTracer;
     private final VersionContextSupplier versionContextSupplier;
     final PageList pages;
@@ -183,15 +218,14 @@ public class MuninnPageCache implements PageCache
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
+    // The number of eviction threads, counted from the first, that are currently sweeping their partitions. The rest
+    // stay parked. Only ever changed by the first eviction thread.
+    private volatile int activeEvictors = 1;
+    // Counts the pages evicted by page faulting threads, which is the signal for bringing in more eviction threads.
+    private final LongAdder cooperativeEvictions = new LongAdder();
+    // Only accessed by the first eviction thread.
+    private long observedCooperativeEvictions;
+    private int idleEvictionRounds;
     private volatile IOException evictorException;
 
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
@@ -272,12 +306,26 @@ public class MuninnPageCache implements PageCache
         this.printExceptionsOnClose = true;
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize, memoryTracker );
         this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, UnsafeUtil.pageSize() );
+        this.evictors = createEvictors( maxPages );
         this.scheduler = jobScheduler;
         this.clock = clock;
 
         setFreelistHead( new AtomicInteger() );
     }
 
+    private EvictionTask[] createEvictors( int maxPages )
+    {
+        int partitions = Math.max( 1, Math.min( maxEvictionThreads, maxPages / minPagesPerEvictionPartition ) );
+        EvictionTask[] tasks = new EvictionTask[partitions];
+        for ( int i = 0; i < partitions; i++ )
+        {
+            int fromPage = (int) ((long) maxPages * i / partitions);
+            int toPage = (int) ((long) maxPages * (i + 1) / partitions);
+            tasks[i] = new EvictionTask( this, i, fromPage, toPage );
+        }
+        return tasks;
+    }
+
     private static void verifyHacks()
     {
         // Make sure that we have access to theUnsafe.
@@ -474,7 +522,11 @@ public class MuninnPageCache implements PageCache
 
         try
         {
-            scheduler.schedule( Group.PAGE_CACHE_EVICTION, new EvictionTask( this ) );
+            for ( EvictionTask evictor : evictors )
+            {
+                scheduler.schedule( Group.PAGE_CACHE_EVICTION, evictor );
+            }
+            pageCacheTracer.activeEvictionThreads( activeEvictors );
         }
         catch ( Exception e )
         {
@@ -496,6 +548,7 @@ public class MuninnPageCache implements PageCache
         if ( file.decrementRefCount() )
         {
             // This was the last reference!
+            file.stopPrefetching();
             // Find and remove the existing mapping:
             FileMapping prev = null;
             FileMapping current = mappedFiles;
@@ -664,21 +717,15 @@ public class MuninnPageCache implements PageCache
 
         closed = true;
 
-        interrupt( evictionThread );
-        evictionThread = null;
+        for ( EvictionTask evictor : evictors )
+        {
+            evictor.interrupt();
+        }
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
     }
 
-    private static void interrupt( Thread thread )
-    {
-        if ( thread != null )
-        {
-            thread.interrupt();
-        }
-    }
-
     private void assertHealthy() throws IOException
     {
         assertNotClosed();
@@ -749,10 +796,12 @@ public class MuninnPageCache implements PageCache
             current = getFreelistHead();
             if ( current == null )
             {
-                unparkEvictor();
+                unparkEvictors();
                 long pageRef = cooperativelyEvict( faultEvent );
                 if ( pageRef != 0 )
                 {
+                    cooperativeEvictions.increment();
+                    pageCacheTracer.cooperativeEvictions( 1 );
                     return pageRef;
                 }
             }
@@ -792,6 +841,8 @@ public class MuninnPageCache implements PageCache
         int pageCount = pages.getPageCount();
         int clockArm = ThreadLocalRandom.current().nextInt( pageCount );
         boolean evicted = false;
+        boolean ageProtectedPages = !scanResistant;
+        int protectedPagesSkipped = 0;
         long pageRef;
         do
         {
@@ -812,16 +863,30 @@ public class MuninnPageCache implements PageCache
             }
 
             pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) && isEvictionCandidate( pageRef, ageProtectedPages ) )
             {
                 evicted = pages.tryEvict( pageRef, faultEvent );
             }
+            else if ( !ageProtectedPages && ++protectedPagesSkipped == protectedPagesSkippedBeforeAging )
+            {
+                ageProtectedPages = true;
+            }
             clockArm++;
         }
         while ( !evicted );
         return pageRef;
     }
 
+    /**
+     * Decide if the given loaded page should be evicted. With the plain clock policy we always age the pages we pass
+     * over, and evict them when their usage stamp reaches zero. The scan-resistant policy first looks for probationary
+     * pages, and only starts aging pages once it has passed over enough pages that are in use.
+     */
+    private boolean isEvictionCandidate( long pageRef, boolean ageProtectedPages )
+    {
+        return ageProtectedPages ? pages.decrementUsage( pageRef ) : pages.isProbationary( pageRef );
+    }
+
     private CacheLiveLockException cooperativeEvictionLiveLock()
     {
         return new CacheLiveLockException(
@@ -837,23 +902,15 @@ public class MuninnPageCache implements PageCache
                 "your database." );
     }
 
-    private void unparkEvictor()
+    private void unparkEvictors()
     {
-        if ( evictorParked )
+        int active = activeEvictors;
+        for ( int i = 0; i < active; i++ )
         {
-            evictorParked = false;
-            LockSupport.unpark( evictionThread );
+            evictors[i].unpark();
         }
     }
 
-    private void parkEvictor( long parkNanos )
-    {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos( this, parkNanos );
-        evictorParked = false;
-    }
-
     private Object getFreelistHead()
     {
         return UnsafeUtil.getObjectVolatile( this, freelistOffset );
@@ -871,23 +928,22 @@ public class MuninnPageCache implements PageCache
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
+     * Scan through all the pages in the partition of the given evictor, one by one, and decrement their usage stamps.
      * If a usage reaches zero, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
-     * unpark our thread as needed.
+     * unpark our thread as needed. The pages that need to be evicted are shared evenly among the active evictors.
      */
-    void continuouslySweepPages()
+    void continuouslySweepPages( EvictionTask evictor )
     {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
+        int clockArm = evictor.fromPage;
 
         while ( !closed )
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
+            int pageCountToEvict = parkUntilEvictionRequired( evictor, keepFree );
             try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                clockArm = evictPages( pageCountToEvict, clockArm, evictor.fromPage, evictor.toPage, evictionRunEvent );
             }
         }
 
@@ -896,27 +952,63 @@ public class MuninnPageCache implements PageCache
         setFreelistHead( shutdownSignal );
     }
 
-    private int parkUntilEvictionRequired( int keepFree )
+    private int parkUntilEvictionRequired( EvictionTask evictor, int keepFree )
     {
         // Park until we're either interrupted, or the number of free pages drops
-        // bellow keepFree.
+        // bellow keepFree, and we are one of the active evictors.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
         for (;;)
         {
-            parkEvictor( parkNanos );
+            evictor.park( parkNanos );
             if ( Thread.interrupted() || closed )
             {
                 return 0;
             }
 
+            if ( evictor.partition == 0 )
+            {
+                adjustActiveEvictors();
+            }
+            int active = activeEvictors;
+            if ( evictor.partition >= active )
+            {
+                continue;
+            }
+
             int availablePages = tryGetNumberOfAvailablePages( keepFree );
             if ( availablePages != UNKNOWN_AVAILABLE_PAGES )
             {
-                return availablePages;
+                return (availablePages + active - 1) / active;
             }
         }
     }
 
+    private void adjustActiveEvictors()
+    {
+        // Only called from the first eviction thread!
+        // Page faulting threads that have to evict pages themselves, means that the active evictors can't keep up, so
+        // we bring in one more. Once the cooperative evictions have stopped for a while, we retire one again.
+        long cooperative = cooperativeEvictions.sum();
+        int active = activeEvictors;
+        if ( cooperative != observedCooperativeEvictions )
+        {
+            observedCooperativeEvictions = cooperative;
+            idleEvictionRounds = 0;
+            if ( active < evictors.length )
+            {
+                activeEvictors = active + 1;
+                pageCacheTracer.activeEvictionThreads( active + 1 );
+                evictors[active].unpark();
+            }
+        }
+        else if ( active > 1 && ++idleEvictionRounds >= evictionThreadIdleRounds )
+        {
+            idleEvictionRounds = 0;
+            activeEvictors = active - 1;
+            pageCacheTracer.activeEvictionThreads( active - 1 );
+        }
+    }
+
     private int tryGetNumberOfAvailablePages( int keepFree )
     {
         Object freelistHead = getFreelistHead();
@@ -947,11 +1039,18 @@ public class MuninnPageCache implements PageCache
 
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        return evictPages( pageCountToEvict, clockArm, 0, pages.getPageCount(), evictionRunEvent );
+    }
+
+    private int evictPages( int pageCountToEvict, int clockArm, int fromPage, int toPage, EvictionRunEvent evictionRunEvent )
+    {
+        boolean ageProtectedPages = !scanResistant;
+        int protectedPagesSkipped = 0;
         while ( pageCountToEvict > 0 && !closed )
         {
-            if ( clockArm == pages.getPageCount() )
+            if ( clockArm >= toPage )
             {
-                clockArm = 0;
+                clockArm = fromPage;
             }
 
             if ( closed )
@@ -961,7 +1060,7 @@ public class MuninnPageCache implements PageCache
             }
 
             long pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) && isEvictionCandidate( pageRef, ageProtectedPages ) )
             {
                 try
                 {
@@ -986,6 +1085,10 @@ public class MuninnPageCache implements PageCache
                             "Eviction thread encountered a problem", th );
                 }
             }
+            else if ( !ageProtectedPages && ++protectedPagesSkipped == protectedPagesSkippedBeforeAging )
+            {
+                ageProtectedPages = true;
+            }
 
             clockArm++;
         }
@@ -1056,12 +1159,65 @@ public class MuninnPageCache implements PageCache
         } );
     }
 
-    void startPreFetching( MuninnPageCursor cursor, CursorFactory cursorFactory )
+    void startPreFetching( MuninnPageCursor cursor, MuninnPagedFile pagedFile )
     {
-        PreFetcher preFetcher = new PreFetcher( cursor, cursorFactory, pageCacheTracer, clock );
+        PreFetcher preFetcher = new PreFetcher( cursor, pagedFile, pageCacheTracer, clock );
         cursor.preFetcher = scheduler.schedule( Group.PAGE_CACHE_PRE_FETCHER, preFetcher );
     }
 
+    /**
+     * Schedules a touch of the given page in the background, which is transient with the scan-resistant eviction policy.
+     *
+     * @return {@code true} if the prefetch was scheduled, or {@code false} if there were already too many prefetches in flight.
+     */
+    boolean prefetchAsync( MuninnPagedFile pagedFile, long pageId )
+    {
+        if ( prefetchesInFlight.incrementAndGet() > maxPrefetchesInFlight )
+        {
+            prefetchesInFlight.decrementAndGet();
+            return false;
+        }
+        try
+        {
+            scheduler.schedule( Group.PAGE_CACHE_PRE_FETCHER, () ->
+            {
+                try
+                {
+                    if ( pagedFile.beginPrefetch() )
+                    {
+                        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( TRACER_PREFETCH_TAG ) )
+                        {
+                            pagedFile.touch( pageId, 1, cursorTracer, scanResistant );
+                        }
+                        catch ( IOException e )
+                        {
+                            // Prefetching is only a hint, any real problem with this page will be seen by the cursor that pins it.
+                        }
+                        finally
+                        {
+                            pagedFile.endPrefetch();
+                        }
+                    }
+                }
+                finally
+                {
+                    prefetchesInFlight.decrementAndGet();
+                }
+            } );
+            return true;
+        }
+        catch ( RejectedExecutionException e )
+        {
+            prefetchesInFlight.decrementAndGet();
+            return false;
+        }
+    }
+
+    FlushSubmissionQueue createFlushSubmissionQueue( int queueDepth )
+    {
+        return new FlushSubmissionQueue( scheduler, queueDepth );
+    }
+
     void allocateFileAsync( PageSwapper swapper, long newFileSize )
     {
         scheduler.schedule( Group.FILE_IO_HELPER, new AllocateFileTask( swapper, newFileSize ) );
@@ -41,7 +41,9 @@ import org.neo4j.util.VisibleForTesting;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
 import static org.neo4j.util.FeatureToggles.flag;
 
@@ -74,6 +76,7 @@ public abstract class MuninnPageCursor extends PageCursor
     protected boolean eagerFlush;
     protected boolean noFault;
     protected boolean noGrow;
+    protected boolean transientAccess;
     @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
     private long currentPageId;
     protected long nextPageId;
@@ -110,6 +113,9 @@ public abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault || isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        // transient accesses are only honoured by the scan-resistant eviction policy, the default policy counts all accesses alike
+        this.transientAccess = pagedFile.pageCache.scanResistant &&
+                ( isFlagRaised( pf_flags, PF_TRANSIENT ) || isFlagRaised( pf_flags, PF_READ_AHEAD ) );
     }
 
     private boolean isFlagRaised( int flagSet, int flag )
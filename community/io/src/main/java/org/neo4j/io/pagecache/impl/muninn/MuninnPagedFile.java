@@ -24,6 +24,7 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOLimiter;
@@ -38,6 +39,7 @@ import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 
@@ -47,6 +49,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 {
     static final int UNMAPPED_TTE = -1;
     private static final int maxChunkGrowth = getInteger( MuninnPagedFile.class, "maxChunkGrowth", 16 ); // One chunk is 32 MiB, by default.
+    private static final int touchMaxRunLength = getInteger( MuninnPagedFile.class, "touchMaxRunLength", 32 ); // Pages per vectored read.
     private static final int translationTableChunkSizePower = getInteger( MuninnPagedFile.class, "translationTableChunkSizePower", 12 );
     private static final int translationTableChunkSize = 1 << translationTableChunkSizePower;
     private static final long translationTableChunkSizeMask = translationTableChunkSize - 1;
@@ -62,7 +65,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 
     final MuninnPageCache pageCache;
     final int filePageSize;
+    // The number of flush vectors that an unlimited flush can have in flight at once. One means synchronous flushing.
+    private final int flushQueueDepth = getInteger( MuninnPagedFile.class, "flushQueueDepth", 1 );
     private final PageCacheTracer pageCacheTracer;
+    // Number of background prefetches currently faulting pages into this file, or -1 once the file has been unmapped.
+    private final AtomicInteger runningPrefetches = new AtomicInteger();
     final LatchMap pageFaultLatches;
 
     // This is the table where we translate file-page-ids to cache-page-ids. Only one thread can perform a resize at
@@ -187,7 +194,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         cursor.rewind();
         if ( ( pf_flags & PF_READ_AHEAD ) == PF_READ_AHEAD && ( pf_flags & PF_NO_FAULT ) != PF_NO_FAULT )
         {
-            pageCache.startPreFetching( cursor, cursorFactory );
+            pageCache.startPreFetching( cursor, this );
         }
         return cursor;
     }
@@ -377,6 +384,32 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 
     private void doFlushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter )
             throws IOException
+    {
+        // Limited flushes are meant to trickle out at a steady rate, so only unlimited flushes are worth submitting
+        // asynchronously.
+        FlushSubmissionQueue submissionQueue = flushQueueDepth > 1 && !limiter.isLimited() ? pageCache.createFlushSubmissionQueue( flushQueueDepth ) : null;
+        try
+        {
+            flushPages( flushes, forClosing, limiter, submissionQueue );
+        }
+        catch ( Throwable throwable )
+        {
+            if ( submissionQueue != null )
+            {
+                submissionQueue.awaitCompletion( throwable );
+            }
+            throw throwable;
+        }
+        if ( submissionQueue != null )
+        {
+            submissionQueue.awaitCompletion();
+        }
+
+        swapper.force();
+    }
+
+    private void flushPages( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter, FlushSubmissionQueue submissionQueue )
+            throws IOException
     {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
         long[] pages = new long[translationTableChunkSize];
@@ -443,19 +476,44 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                 }
                 if ( pagesGrabbed > 0 )
                 {
-                    vectoredFlush( pages, bufferAddresses, flushStamps, pagesGrabbed, flushes, forClosing );
+                    submitFlush( pages, bufferAddresses, flushStamps, pagesGrabbed, flushes, forClosing, submissionQueue );
                     limiterStamp = limiter.maybeLimitIO( limiterStamp, pagesGrabbed, this );
                     pagesGrabbed = 0;
                 }
             }
             if ( pagesGrabbed > 0 )
             {
-                vectoredFlush( pages, bufferAddresses, flushStamps, pagesGrabbed, flushes, forClosing );
+                submitFlush( pages, bufferAddresses, flushStamps, pagesGrabbed, flushes, forClosing, submissionQueue );
                 limiterStamp = limiter.maybeLimitIO( limiterStamp, pagesGrabbed, this );
             }
         }
+    }
 
-        swapper.force();
+    private void submitFlush(
+            long[] pages, long[] bufferAddresses, long[] flushStamps, int pagesGrabbed,
+            FlushEventOpportunity flushOpportunity, boolean forClosing, FlushSubmissionQueue submissionQueue ) throws IOException
+    {
+        if ( submissionQueue == null )
+        {
+            vectoredFlush( pages, bufferAddresses, flushStamps, pagesGrabbed, flushOpportunity, forClosing );
+            return;
+        }
+
+        // The vectors are reused for the next run of pages, so the asynchronous flush gets its own copies.
+        long[] pagesCopy = Arrays.copyOf( pages, pagesGrabbed );
+        long[] bufferAddressesCopy = Arrays.copyOf( bufferAddresses, pagesGrabbed );
+        long[] flushStampsCopy = forClosing ? null : Arrays.copyOf( flushStamps, pagesGrabbed );
+        try
+        {
+            submissionQueue.submit(
+                    () -> vectoredFlush( pagesCopy, bufferAddressesCopy, flushStampsCopy, pagesGrabbed, flushOpportunity, forClosing ) );
+        }
+        catch ( Throwable throwable )
+        {
+            // The flush was never submitted, so we still own the locks on the pages.
+            unlockPages( pagesCopy, flushStampsCopy, pagesGrabbed, forClosing, false );
+            throw throwable;
+        }
     }
 
     private void vectoredFlush(
@@ -491,24 +549,29 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         finally
         {
             // Always unlock all the pages in the vector
-            if ( forClosing )
+            unlockPages( pages, flushStamps, pagesGrabbed, forClosing, successful );
+        }
+    }
+
+    private void unlockPages( long[] pages, long[] flushStamps, int pagesGrabbed, boolean forClosing, boolean successful )
+    {
+        if ( forClosing )
+        {
+            for ( int i = 0; i < pagesGrabbed; i++ )
             {
-                for ( int i = 0; i < pagesGrabbed; i++ )
+                long pageRef = pages[i];
+                if ( successful )
                 {
-                    long pageRef = pages[i];
-                    if ( successful )
-                    {
-                        explicitlyMarkPageUnmodifiedUnderExclusiveLock( pageRef );
-                    }
-                    unlockExclusive( pageRef );
+                    explicitlyMarkPageUnmodifiedUnderExclusiveLock( pageRef );
                 }
+                unlockExclusive( pageRef );
             }
-            else
+        }
+        else
+        {
+            for ( int i = 0; i < pagesGrabbed; i++ )
             {
-                for ( int i = 0; i < pagesGrabbed; i++ )
-                {
-                    unlockFlush( pages[i], flushStamps[i], successful );
-                }
+                unlockFlush( pages[i], flushStamps[i], successful );
             }
         }
     }
@@ -553,6 +616,226 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return state & headerStateLastPageIdMask;
     }
 
+    @Override
+    public int touch( long pageId, int count, PageCursorTracer tracer ) throws IOException
+    {
+        return touch( pageId, count, tracer, false );
+    }
+
+    @Override
+    public void prefetch( long pageId, PageCursorTracer tracer )
+    {
+        long state = getHeaderState();
+        if ( pageId < 0 || refCountOf( state ) == 0 || pageId > (state & headerStateLastPageIdMask) )
+        {
+            return;
+        }
+        int chunkId = computeChunkId( pageId );
+        int[][] tt = translationTable;
+        if ( chunkId < tt.length && UnsafeUtil.getIntVolatile( tt[chunkId], computeChunkOffset( pageId ) ) != UNMAPPED_TTE )
+        {
+            // Already in memory
+            return;
+        }
+        if ( pageCache.prefetchAsync( this, pageId ) )
+        {
+            tracer.prefetch();
+        }
+    }
+
+    /**
+     * Register a background prefetch into this file, which must be followed by a call to {@link #endPrefetch()} when done.
+     *
+     * @return {@code true} if the prefetch can go ahead, or {@code false} if this file has been unmapped.
+     */
+    boolean beginPrefetch()
+    {
+        int count;
+        do
+        {
+            count = runningPrefetches.get();
+            if ( count < 0 )
+            {
+                return false;
+            }
+        }
+        while ( !runningPrefetches.compareAndSet( count, count + 1 ) );
+        return true;
+    }
+
+    void endPrefetch()
+    {
+        runningPrefetches.decrementAndGet();
+    }
+
+    /**
+     * Called when the last reference to this file is gone. Waits for any running background prefetches to finish, and makes sure
+     * that no more prefetches will fault pages into this file, before it is closed.
+     */
+    void stopPrefetching()
+    {
+        while ( !runningPrefetches.compareAndSet( 0, -1 ) )
+        {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Like {@link #touch(long, int, PageCursorTracer)}, but with {@code transientAccess} the faulted pages are not given any usage, such that they remain
+     * the first candidates for eviction until they are accessed by a cursor. This is used by the {@link PreFetcher}.
+     */
+    int touch( long pageId, int count, PageCursorTracer tracer, boolean transientAccess ) throws IOException
+    {
+        if ( pageId < 0 || count < 0 )
+        {
+            throw new IllegalArgumentException( "Cannot touch " + count + " pages from page id " + pageId );
+        }
+        long endPageId = Math.min( pageId + count, getLastPageId() + 1 );
+        if ( endPageId <= pageId )
+        {
+            return 0;
+        }
+
+        // We hold exclusive locks on every page in a run until it has been read in, so we must make sure to never
+        // lock so many pages at once that the other page faulting threads would end up in a cooperative eviction
+        // live-lock.
+        TouchRun run = new TouchRun( Math.max( 1, Math.min( touchMaxRunLength, getPageCount() / 4 ) ), transientAccess );
+        for ( long filePageId = pageId; filePageId < endPageId; filePageId++ )
+        {
+            int chunkId = computeChunkId( filePageId );
+            long chunkOffset = computeChunkOffset( filePageId );
+            int[][] tt = translationTable;
+            if ( tt.length <= chunkId )
+            {
+                tt = expandCapacity( chunkId );
+            }
+            int[] chunk = tt[chunkId];
+            if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+            {
+                // The page is already in memory, so the run of pages we are building has come to an end.
+                faultTouchRun( run );
+                continue;
+            }
+
+            LatchMap.Latch latch = pageFaultLatches.tryTakeLatch( filePageId );
+            if ( latch == null )
+            {
+                // Either someone else is faulting in a colliding page, or we ourselves hold the colliding latch as
+                // part of the current run. Complete the run so we don't hold on to any latches, before we wait.
+                faultTouchRun( run );
+                latch = pageFaultLatches.takeOrAwaitLatch( filePageId );
+                if ( latch == null )
+                {
+                    // Someone else just did a page fault on this page.
+                    continue;
+                }
+            }
+            if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+            {
+                // We raced with another page fault.
+                latch.release();
+                faultTouchRun( run );
+                continue;
+            }
+
+            PinEvent pinEvent = tracer.beginPin( false, filePageId, swapper );
+            PageFaultEvent faultEvent = pinEvent.beginPageFault();
+            long pageRef;
+            try
+            {
+                pageRef = grabFreeAndExclusivelyLockedPage( faultEvent );
+            }
+            catch ( Throwable throwable )
+            {
+                latch.release();
+                faultEvent.done( throwable );
+                pinEvent.done();
+                abortTouchRun( run, throwable );
+                throw throwable;
+            }
+            try
+            {
+                initBuffer( pageRef );
+            }
+            catch ( Throwable throwable )
+            {
+                unlockExclusive( pageRef );
+                latch.release();
+                faultEvent.done( throwable );
+                pinEvent.done();
+                abortTouchRun( run, throwable );
+                throw throwable;
+            }
+            if ( run.add( filePageId, pageRef, chunk, chunkOffset, latch, pinEvent, faultEvent ) )
+            {
+                faultTouchRun( run );
+            }
+        }
+        faultTouchRun( run );
+        return (int) (endPageId - pageId);
+    }
+
+    /**
+     * Read in all the pages of the given run with a single vectored read, publish them in the translation table and
+     * release all of their locks and latches.
+     */
+    private void faultTouchRun( TouchRun run ) throws IOException
+    {
+        int length = run.length;
+        if ( length == 0 )
+        {
+            return;
+        }
+        long bytesRead;
+        try
+        {
+            // Check if we're racing with unmapping. We hold the page locks, so the unmapping would have already happened.
+            getLastPageId();
+            bytesRead = faultVectored( run.pageRefs, run.bufferAddresses, length, swapper, swapperId, run.startFilePageId );
+        }
+        catch ( Throwable throwable )
+        {
+            abortTouchRun( run, throwable );
+            throw throwable;
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = run.pageRefs[i];
+            int cachePageId = toId( pageRef );
+            // Put the page in the translation table before we undo the exclusive lock, as we could otherwise race with
+            // eviction, and the onEvict callback expects to find a page in the table.
+            UnsafeUtil.putIntVolatile( run.chunks[i], run.chunkOffsets[i], cachePageId );
+            if ( !run.transientAccess )
+            {
+                incrementUsage( pageRef );
+            }
+            unlockExclusive( pageRef );
+            run.latches[i].release();
+
+            long pageBytesRead = Math.min( filePageSize, Math.max( 0, bytesRead - (long) i * filePageSize ) );
+            PageFaultEvent faultEvent = run.faultEvents[i];
+            faultEvent.addBytesRead( pageBytesRead );
+            faultEvent.setCachePageId( cachePageId );
+            faultEvent.done();
+            run.pinEvents[i].setCachePageId( cachePageId );
+            run.pinEvents[i].done();
+        }
+        run.clear();
+    }
+
+    private void abortTouchRun( TouchRun run, Throwable throwable )
+    {
+        for ( int i = 0; i < run.length; i++ )
+        {
+            // The pages might be considered loaded, but they are not bound, so the eviction thread will pick them up.
+            unlockExclusive( run.pageRefs[i] );
+            run.latches[i].release();
+            run.faultEvents[i].done( throwable );
+            run.pinEvents[i].done();
+        }
+        run.clear();
+    }
+
     private FileIsNotMappedException fileIsNotMappedException()
     {
         FileIsNotMappedException exception = new FileIsNotMappedException( file() );
@@ -327,6 +327,15 @@ class PageList
         }
     }
 
+    /**
+     * Returns true if the page has not been accessed since it was faulted in, other than by transient accesses, or if
+     * its usage stamp has otherwise been decremented all the way to 0.
+     */
+    boolean isProbationary( long pageRef )
+    {
+        return getUsageCounter( pageRef ) == 0;
+    }
+
     /**
      * Decrement the usage stamp. Returns true if it reaches 0.
      **/
@@ -437,6 +446,51 @@ class PageList
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault a run of consecutive file pages, starting at the given {@code startFilePageId}, into the given cache pages
+     * with a single vectored read. All of the cache pages must be exclusively locked, unbound, and have their buffers
+     * initialised.
+     * <p>
+     * The binding protocol is the same as for {@link #fault(long, PageSwapper, int, long, PageFaultEvent)}: the file
+     * page ids are assigned before the read, and the swapper id only after the read has succeeded.
+     *
+     * @param pageRefs the cache pages to fault into, in file page order.
+     * @param bufferAddresses scratch array that will be filled with the buffer addresses of the given pages.
+     * @param length the number of pages in the run.
+     * @return the number of bytes read.
+     */
+    long faultVectored( long[] pageRefs, long[] bufferAddresses, int length, PageSwapper swapper, int swapperId, long startFilePageId )
+            throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( !isExclusivelyLocked( pageRef ) || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper, currentFilePageId );
+            }
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            setFilePageId( pageRef, startFilePageId + i ); // Page now considered isLoaded()
+            bufferAddresses[i] = getAddress( pageRef );
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, 0, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            setSwapperId( pageRefs[i], swapperId ); // Page now considered isBoundTo( swapper, filePageId )
+        }
+        return bytesRead;
+    }
+
     private static IllegalArgumentException swapperCannotBeNull()
     {
         return new IllegalArgumentException( "swapper cannot be null" );
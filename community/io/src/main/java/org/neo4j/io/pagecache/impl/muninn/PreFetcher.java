@@ -25,14 +25,12 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
-import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.scheduler.CancelListener;
 import org.neo4j.time.SystemNanoClock;
 
 import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
-import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
 /**
  * An adaptive page pre-fetcher for sequential scans, for either forwards (increasing page id order) or backwards (decreasing page id order) scans.
@@ -48,12 +46,17 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * The pre-fetcher is adaptive because the number of pages the pre-fetcher will move ahead of the scanning cursor, and the length of time the pre-fetcher
  * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be.
  * The pre-fetcher also automatically figures out if the scanner is scanning the file in a forward or backwards direction.
+ *
+ * Each pre-fetch range is {@link MuninnPagedFile#touch(long, int, PageCursorTracer, boolean) touched} as a whole, so that runs of consecutive pages are
+ * submitted to the file as batched vectored reads, rather than as one read per page. With the scan-resistant eviction policy, the pre-fetched pages
+ * are loaded as transient, such that they do not push pages with an established usage history out of the cache, unless the scanner actually gets
+ * around to use them.
  */
 class PreFetcher implements Runnable, CancelListener
 {
     private static final String TRACER_PRE_FETCHER_TAG = "Pre-fetcher";
     private final MuninnPageCursor observedCursor;
-    private final CursorFactory cursorFactory;
+    private final MuninnPagedFile pagedFile;
     private final PageCacheTracer tracer;
     private final SystemNanoClock clock;
     private volatile boolean cancelled;
@@ -62,10 +65,10 @@ class PreFetcher implements Runnable, CancelListener
     private long tripCount;
     private long pauseNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
 
-    PreFetcher( MuninnPageCursor observedCursor, CursorFactory cursorFactory, PageCacheTracer tracer, SystemNanoClock clock )
+    PreFetcher( MuninnPageCursor observedCursor, MuninnPagedFile pagedFile, PageCacheTracer tracer, SystemNanoClock clock )
     {
         this.observedCursor = observedCursor;
-        this.cursorFactory = cursorFactory;
+        this.pagedFile = pagedFile;
         this.tracer = tracer;
         this.clock = clock;
     }
@@ -123,8 +126,7 @@ class PreFetcher implements Runnable, CancelListener
         // The initial value don't matter so much. Just same as offset, so we initially fetch one page.
         long jump = offset;
 
-        try ( PageCursorTracer cursorTracer = tracer.createPageCursorTracer( TRACER_PRE_FETCHER_TAG );
-              PageCursor prefetchCursor = cursorFactory.takeReadCursor( 0, PF_SHARED_READ_LOCK, cursorTracer ) )
+        try ( PageCursorTracer cursorTracer = tracer.createPageCursorTracer( TRACER_PRE_FETCHER_TAG ) )
         {
             currentPageId = getCurrentObservedPageId();
             while ( currentPageId != UNBOUND_PAGE_ID )
@@ -140,13 +142,13 @@ class PreFetcher implements Runnable, CancelListener
                     fromPage = Math.max( 0, cp + jump );
                     toPage = cp;
                 }
-                while ( fromPage < toPage )
+                if ( fromPage < toPage )
                 {
-                    if ( !prefetchCursor.next( fromPage ) || cancelled )
+                    int count = (int) Math.min( toPage - fromPage, Integer.MAX_VALUE );
+                    if ( pagedFile.touch( fromPage, count, cursorTracer, pagedFile.pageCache.scanResistant ) < count || cancelled )
                     {
                         return; // Reached the end of the file. Or got cancelled.
                     }
-                    fromPage++;
                 }
 
                 // Phase 3.5: After each prefetch round, we wait for the cursor to move again.
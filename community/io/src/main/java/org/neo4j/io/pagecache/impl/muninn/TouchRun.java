@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
+
+/**
+ * A run of consecutive file pages that are being faulted in together by {@link MuninnPagedFile#touch}.
+ * <p>
+ * Every page in the run is exclusively locked, and its page fault latch is held, until the run is either faulted in
+ * with a single vectored read, or aborted.
+ */
+final class TouchRun
+{
+    final long[] pageRefs;
+    final long[] bufferAddresses;
+    final int[][] chunks;
+    final long[] chunkOffsets;
+    final LatchMap.Latch[] latches;
+    final PinEvent[] pinEvents;
+    final PageFaultEvent[] faultEvents;
+    final boolean transientAccess;
+    long startFilePageId;
+    int length;
+
+    TouchRun( int maxLength, boolean transientAccess )
+    {
+        this.transientAccess = transientAccess;
+        pageRefs = new long[maxLength];
+        bufferAddresses = new long[maxLength];
+        chunks = new int[maxLength][];
+        chunkOffsets = new long[maxLength];
+        latches = new LatchMap.Latch[maxLength];
+        pinEvents = new PinEvent[maxLength];
+        faultEvents = new PageFaultEvent[maxLength];
+    }
+
+    /**
+     * Add the next page to this run. The file page id must directly follow the last page in the run.
+     *
+     * @return {@code true} if the run is now full, and must be faulted in before any more pages can be added.
+     */
+    boolean add( long filePageId, long pageRef, int[] chunk, long chunkOffset, LatchMap.Latch latch, PinEvent pinEvent,
+            PageFaultEvent faultEvent )
+    {
+        if ( length == 0 )
+        {
+            startFilePageId = filePageId;
+        }
+        else if ( startFilePageId + length != filePageId )
+        {
+            throw new IllegalStateException( "File page " + filePageId + " does not extend run of " + length +
+                    " pages starting at file page " + startFilePageId );
+        }
+        pageRefs[length] = pageRef;
+        chunks[length] = chunk;
+        chunkOffsets[length] = chunkOffset;
+        latches[length] = latch;
+        pinEvents[length] = pinEvent;
+        faultEvents[length] = faultEvent;
+        length++;
+        return length == pageRefs.length;
+    }
+
+    void clear()
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            chunks[i] = null;
+            latches[i] = null;
+            pinEvents[i] = null;
+            faultEvents[i] = null;
+        }
+        length = 0;
+    }
+}
@@ -80,6 +80,28 @@ public interface PageCacheCounters
      */
     long evictionExceptions();
 
+    /**
+     * @return The total time, in nanoseconds, spent on page faults thus far. Divided by the number of {@link #faults()},
+     * this gives the average page fault latency.
+     */
+    long faultNanos();
+
+    /**
+     * @return The number of background page prefetches that have been issued thus far.
+     */
+    long prefetches();
+
+    /**
+     * @return The number of pages evicted by page faulting threads, because the background eviction threads could not
+     * keep up, thus far.
+     */
+    long cooperativeEvictions();
+
+    /**
+     * @return The number of background eviction threads that are currently sweeping pages.
+     */
+    long activeEvictionThreads();
+
     /**
      * @return The cache hit ratio observed thus far.
      */
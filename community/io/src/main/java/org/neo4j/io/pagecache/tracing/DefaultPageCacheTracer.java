@@ -45,6 +45,10 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder faultNanos = new LongAdder();
+    protected final LongAdder prefetches = new LongAdder();
+    protected final LongAdder cooperativeEvictions = new LongAdder();
+    protected final AtomicLong activeEvictionThreads = new AtomicLong();
     protected final AtomicLong maxPages = new AtomicLong();
 
     private final FlushEvent flushEvent = new FlushEvent()
@@ -241,6 +245,30 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictionExceptions.sum();
     }
 
+    @Override
+    public long faultNanos()
+    {
+        return faultNanos.sum();
+    }
+
+    @Override
+    public long prefetches()
+    {
+        return prefetches.sum();
+    }
+
+    @Override
+    public long cooperativeEvictions()
+    {
+        return cooperativeEvictions.sum();
+    }
+
+    @Override
+    public long activeEvictionThreads()
+    {
+        return activeEvictionThreads.get();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -300,6 +328,30 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.evictionExceptions.add( evictionExceptions );
     }
 
+    @Override
+    public void faultNanos( long faultNanos )
+    {
+        this.faultNanos.add( faultNanos );
+    }
+
+    @Override
+    public void prefetches( long prefetches )
+    {
+        this.prefetches.add( prefetches );
+    }
+
+    @Override
+    public void cooperativeEvictions( long cooperativeEvictions )
+    {
+        this.cooperativeEvictions.add( cooperativeEvictions );
+    }
+
+    @Override
+    public void activeEvictionThreads( long activeEvictionThreads )
+    {
+        this.activeEvictionThreads.set( activeEvictionThreads );
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -137,6 +137,30 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long faultNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long prefetches()
+        {
+            return 0;
+        }
+
+        @Override
+        public long cooperativeEvictions()
+        {
+            return 0;
+        }
+
+        @Override
+        public long activeEvictionThreads()
+        {
+            return 0;
+        }
+
         @Override
         public double hitRatio()
         {
@@ -184,6 +208,26 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void faultNanos( long faultNanos )
+        {
+        }
+
+        @Override
+        public void prefetches( long prefetches )
+        {
+        }
+
+        @Override
+        public void cooperativeEvictions( long cooperativeEvictions )
+        {
+        }
+
+        @Override
+        public void activeEvictionThreads( long activeEvictionThreads )
+        {
+        }
+
         @Override
         public void bytesWritten( long bytesWritten )
         {
@@ -284,6 +328,30 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void evictionExceptions( long evictionExceptions );
 
+    /**
+     * Report time spent on page faults
+     * @param faultNanos nanoseconds spent on page faults
+     */
+    void faultNanos( long faultNanos );
+
+    /**
+     * Report number of background page prefetches issued
+     * @param prefetches number of prefetches
+     */
+    void prefetches( long prefetches );
+
+    /**
+     * Report number of pages evicted by page faulting threads
+     * @param cooperativeEvictions number of cooperative evictions
+     */
+    void cooperativeEvictions( long cooperativeEvictions );
+
+    /**
+     * Sets the number of background eviction threads that are currently sweeping pages.
+     * @param activeEvictionThreads the number of active eviction threads.
+     */
+    void activeEvictionThreads( long activeEvictionThreads );
+
     /**
      * Report number of bytes written
      * @param bytesWritten number of written bytes
@@ -36,11 +36,17 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private long unpins;
     private long hits;
     private long faults;
+    private long faultNanos;
+    // Page faults can be in progress for several pages at once, when they are faulted in together with a single
+    // vectored read. They are then all timed from when the first of them began.
+    private int faultsInProgress;
+    private long faultStartNanos;
     private long bytesRead;
     private long bytesWritten;
     private long evictions;
     private long evictionExceptions;
     private long flushes;
+    private long prefetches;
 
     private final DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
     private final PageCacheTracer pageCacheTracer;
@@ -77,6 +83,10 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         {
             pageCacheTracer.faults( faults );
         }
+        if ( faultNanos > 0 )
+        {
+            pageCacheTracer.faultNanos( faultNanos );
+        }
         if ( bytesRead > 0 )
         {
             pageCacheTracer.bytesRead( bytesRead );
@@ -97,20 +107,45 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         {
             pageCacheTracer.flushes( flushes );
         }
+        if ( prefetches > 0 )
+        {
+            pageCacheTracer.prefetches( prefetches );
+        }
         reset();
     }
 
+    @Override
+    public void merge( PageCursorTracer cursorTracer )
+    {
+        pins += cursorTracer.pins();
+        unpins += cursorTracer.unpins();
+        hits += cursorTracer.hits();
+        faults += cursorTracer.faults();
+        bytesRead += cursorTracer.bytesRead();
+        evictions += cursorTracer.evictions();
+        evictionExceptions += cursorTracer.evictionExceptions();
+        bytesWritten += cursorTracer.bytesWritten();
+        flushes += cursorTracer.flushes();
+        prefetches += cursorTracer.prefetches();
+        if ( cursorTracer instanceof DefaultPageCursorTracer )
+        {
+            faultNanos += ((DefaultPageCursorTracer) cursorTracer).faultNanos;
+        }
+    }
+
     private void reset()
     {
         pins = 0;
         unpins = 0;
         hits = 0;
         faults = 0;
+        faultNanos = 0;
         bytesRead = 0;
         bytesWritten = 0;
         evictions = 0;
         evictionExceptions = 0;
         flushes = 0;
+        prefetches = 0;
     }
 
     @Override
@@ -167,6 +202,12 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         return flushes;
     }
 
+    @Override
+    public long prefetches()
+    {
+        return prefetches;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -181,6 +222,12 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         return pinTracingEvent;
     }
 
+    @Override
+    public void prefetch()
+    {
+        prefetches++;
+    }
+
     private final EvictionEvent evictionEvent = new EvictionEvent()
     {
         @Override
@@ -229,6 +276,11 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void done()
         {
             faults++;
+            if ( faultsInProgress > 0 )
+            {
+                faultsInProgress--;
+                faultNanos += System.nanoTime() - faultStartNanos;
+            }
         }
 
         @Override
@@ -297,6 +349,10 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public PageFaultEvent beginPageFault()
         {
             eventHits = 0;
+            if ( faultsInProgress++ == 0 )
+            {
+                faultStartNanos = System.nanoTime();
+            }
             return pageFaultEvent;
         }
 
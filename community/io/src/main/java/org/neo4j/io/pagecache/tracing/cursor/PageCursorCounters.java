@@ -74,6 +74,11 @@ public interface PageCursorCounters
      */
     long flushes();
 
+    /**
+     * @return The number of background page prefetches issued thus far.
+     */
+    long prefetches();
+
     /**
      * @return The hit ratio observed thus far.
      */
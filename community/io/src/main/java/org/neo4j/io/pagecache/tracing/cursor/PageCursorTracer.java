@@ -93,6 +93,12 @@ public interface PageCursorTracer extends PageCursorCounters, Closeable
             return 0;
         }
 
+        @Override
+        public long prefetches()
+        {
+            return 0;
+        }
+
         @Override
         public double hitRatio()
         {
@@ -105,6 +111,16 @@ public interface PageCursorTracer extends PageCursorCounters, Closeable
             return PinEvent.NULL;
         }
 
+        @Override
+        public void prefetch()
+        {
+        }
+
+        @Override
+        public void merge( PageCursorTracer cursorTracer )
+        {
+        }
+
         @Override
         public void reportEvents()
         {
@@ -120,6 +136,21 @@ public interface PageCursorTracer extends PageCursorCounters, Closeable
 
     PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper );
 
+    /**
+     * Report that a background prefetch of a page has been issued on behalf of this cursor tracer.
+     */
+    void prefetch();
+
+    /**
+     * Add the events observed by another page cursor tracer to the events of this one, as if this tracer had observed them.
+     * A page cursor tracer must only be used by one thread at a time, so work done on behalf of this tracer on other threads
+     * is traced by tracers of their own, which are merged into this one once that work is done.
+     * The given tracer must not report its events, nor be used, afterwards.
+     *
+     * @param cursorTracer tracer whose events to add to this tracer.
+     */
+    void merge( PageCursorTracer cursorTracer );
+
     /**
      * Report to global page cache tracer events observed by current page cursor tracer.
      * As soon as any event will be reported, page cursor tracer reset corresponding counters and completely forgets
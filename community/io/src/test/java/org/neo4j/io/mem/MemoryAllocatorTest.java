@@ -157,6 +157,25 @@ class MemoryAllocatorTest
         assertThat( mman.availableMemory() ).isLessThanOrEqualTo( PageCache.PAGE_SIZE - 97L );
     }
 
+    @Test
+    void hugePageAllocatorMustHandOutMemoryFromHugePageAlignedGrabs()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        allocator = MemoryAllocator.createAllocator( MebiByte.toBytes( 8 ), true, memoryTracker );
+        long first = allocator.allocateAligned( PageCache.PAGE_SIZE, UnsafeUtil.pageSize() );
+        assertThat( first % GrabAllocator.HUGE_PAGE_SIZE ).isEqualTo( 0L );
+        for ( int i = 1; i < 100; i++ )
+        {
+            long address = allocator.allocateAligned( PageCache.PAGE_SIZE, UnsafeUtil.pageSize() );
+            assertThat( address % UnsafeUtil.pageSize() ).isEqualTo( 0L );
+            UnsafeUtil.putLong( address, i );
+        }
+        assertThat( memoryTracker.usedNativeMemory() ).isGreaterThanOrEqualTo( MebiByte.toBytes( 8 ) );
+
+        allocator.close();
+        assertEquals( 0, memoryTracker.usedNativeMemory() );
+    }
+
     @Test
     void trackMemoryAllocations()
     {
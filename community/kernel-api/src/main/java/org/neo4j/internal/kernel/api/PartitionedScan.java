@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+/**
+ * Initializer for reading the result of an index query in partitions, spread over multiple cursors for use from different threads in parallel.
+ * <p>
+ * Unlike {@link Scan}, where the caller decides the size of each batch, the partitions are decided up front when this
+ * object is created and {@link #getNumberOfPartitions()} tells how many there are.
+ *
+ * @param <Cursor>
+ *         the type of cursor this object initializes.
+ */
+public interface PartitionedScan<Cursor extends org.neo4j.internal.kernel.api.Cursor>
+{
+    /**
+     * @return the number of partitions this scan has been split into. May be lower than the number of partitions asked for,
+     * for example if the index is small, and is {@code 1} if the result could not be partitioned at all.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Will attempt to reserve the next partition to read.
+     * <p>
+     * A <code>PartitionedScan</code> instance can be shared among threads and guarantees that each call to
+     * <code>reservePartition</code> will reserve a partition no other call has reserved. The basic usage pattern is
+     * that a single instance is shared among several threads but where each thread maintains separate cursors, and a separate
+     * {@link PageCursorTracer}, since page cursor tracers are not thread-safe. Tracers of other threads can be
+     * {@link PageCursorTracer#merge(PageCursorTracer) merged} into the tracer of the transaction once they are done.
+     * Each thread can call <code>reservePartition</code> multiple times and then proceed to iterate the cursor as usual.
+     * <p>
+     * Example:
+     * <pre>
+     * {@code
+     *   try ( NodeValueIndexCursor cursor = cursors.allocateNodeValueIndexCursor( cursorTracer ) )
+     *   {
+     *     while ( scan.reservePartition( cursor, cursorTracer ) )
+     *     {
+     *       while ( cursor.next() )
+     *       {
+     *         //do things with the node
+     *       }
+     *     }
+     *   }
+     * }
+     * </pre>
+     * <p>
+     * Resources held by a partition are released when the cursor is initialized with another partition or closed,
+     * so all partitions should be reserved, even if they are not read to the end.
+     *
+     * @param cursor The cursor to be used for reading.
+     * @param cursorTracer The page cursor tracer of the thread reading the partition.
+     * @return <code>true</code> if a partition was reserved, otherwise <code>false</code> if all partitions have been reserved already.
+     */
+    boolean reservePartition( Cursor cursor, PageCursorTracer cursorTracer );
+}
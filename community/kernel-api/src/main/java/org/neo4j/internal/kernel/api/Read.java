@@ -58,6 +58,21 @@ public interface Read
     void nodeIndexSeek( IndexReadSession index, NodeValueIndexCursor cursor, IndexQueryConstraints constraints, IndexQuery... query )
             throws KernelException;
 
+    /**
+     * Seek all nodes matching the provided index query in an index, split into partitions which can be read in parallel.
+     * <p>
+     * The result is only partitioned if the index supports it for the given query and there are no changes in the transaction state,
+     * otherwise the returned scan will have a single partition covering the whole result.
+     *
+     * @param index {@link IndexReadSession} referencing index to query.
+     * @param desiredNumberOfPartitions the number of partitions to split the result into, the actual number can be lower.
+     * @param constraints The requested constraints on the query result. Ordered results can not be partitioned.
+     * @param query Combination of {@link IndexQuery index queries} to run against referenced index.
+     * @return a {@link PartitionedScan} initializing one cursor per partition.
+     */
+    PartitionedScan<NodeValueIndexCursor> nodeIndexSeek( IndexReadSession index, int desiredNumberOfPartitions, IndexQueryConstraints constraints,
+            IndexQuery... query ) throws KernelException;
+
     /**
      * Seek all relationships matching the provided index query in an index.
      *
@@ -104,6 +119,18 @@ public interface Read
      */
     void nodeIndexScan( IndexReadSession index, NodeValueIndexCursor cursor, IndexQueryConstraints constraints ) throws KernelException;
 
+    /**
+     * Scan all values in an index, split into partitions which can be read in parallel.
+     *
+     * @param index {@link IndexReadSession} index read session to query.
+     * @param desiredNumberOfPartitions the number of partitions to split the result into, the actual number can be lower.
+     * @param constraints The requested constraints on the query result. Ordered results can not be partitioned.
+     * @return a {@link PartitionedScan} initializing one cursor per partition.
+     * @see #nodeIndexSeek(IndexReadSession, int, IndexQueryConstraints, IndexQuery...)
+     */
+    PartitionedScan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions, IndexQueryConstraints constraints )
+            throws KernelException;
+
     /**
      * Scan all nodes with a label.
      *
@@ -135,6 +135,11 @@ public abstract class IndexProvider extends LifecycleAdapter implements IndexCon
             public void recoveryCleanupFailed( File indexFile, IndexDescriptor index, Throwable throwable )
             {   // no-op
             }
+
+            @Override
+            public void uniqueLookupFilterStatistics( IndexDescriptor index, long lookups, long skippedLookups, long falsePositives )
+            {   // no-op
+            }
         }
 
         void failedToOpenIndex( IndexDescriptor index, String action, Exception cause );
@@ -149,6 +154,17 @@ public abstract class IndexProvider extends LifecycleAdapter implements IndexCon
         void recoveryCleanupClosed( File indexFile, IndexDescriptor index );
 
         void recoveryCleanupFailed( File indexFile, IndexDescriptor index, Throwable throwable );
+
+        /**
+         * Reported on checkpoint by indexes keeping a filter of the values they contain, to skip exact lookups of absent values.
+         * The counts are accumulated since the index was opened.
+         *
+         * @param index the index the filter belongs to.
+         * @param lookups number of exact lookups checked against the filter.
+         * @param skippedLookups number of lookups skipped because the value was definitely not in the index.
+         * @param falsePositives number of lookups let through by the filter which didn't find anything in the index.
+         */
+        void uniqueLookupFilterStatistics( IndexDescriptor index, long lookups, long skippedLookups, long falsePositives );
     }
 
     public static final IndexProvider EMPTY =
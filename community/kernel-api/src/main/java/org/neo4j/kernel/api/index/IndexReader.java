@@ -64,6 +64,31 @@ public interface IndexReader extends Resource
      */
     boolean hasFullValuePrecision( IndexQuery... predicates );
 
+    /**
+     * @param predicates query to determine whether the index can partition the result of.
+     * @return whether or not {@link #partitionedQuery(int, IndexQueryConstraints, PageCursorTracer, IndexQuery...)} is supported for the given predicates.
+     */
+    default boolean supportsPartitionedQuery( IndexQuery... predicates )
+    {
+        return false;
+    }
+
+    /**
+     * Queries the index for the given {@link IndexQuery} predicates, splitting the result into partitions which can be read in parallel.
+     * Only supported if {@link #supportsPartitionedQuery(IndexQuery...)} returns {@code true} for the same predicates.
+     *
+     * @param desiredNumberOfPartitions the number of partitions to split the result into, the actual number can be lower.
+     * @param constraints constraints upon the query result. Ordered results are not supported.
+     * @param cursorTracer underlying page cursor tracer
+     * @param query the query so serve.
+     * @return the partitioned result.
+     */
+    default PartitionedValueSeek partitionedQuery( int desiredNumberOfPartitions, IndexQueryConstraints constraints, PageCursorTracer cursorTracer,
+            IndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        throw new UnsupportedOperationException( "Partitioned query is not supported by " + getClass().getSimpleName() );
+    }
+
     IndexReader EMPTY = new IndexReader()
     {
         // Used for checking index correctness
@@ -89,6 +89,16 @@ public class LoggingMonitor implements IndexProvider.Monitor
                 indexDescription( indexFile, index ), ExceptionUtils.getStackTrace( throwable ) ) );
     }
 
+    @Override
+    public void uniqueLookupFilterStatistics( IndexDescriptor index, long lookups, long skippedLookups, long falsePositives )
+    {
+        if ( log.isDebugEnabled() )
+        {
+            log.debug( "Unique lookup filter of index:" + index.getId() + ". Lookups: " + lookups + ", skipped lookups: " + skippedLookups +
+                    ", false positives: " + falsePositives );
+        }
+    }
+
     private static String indexDescription( File indexFile, IndexDescriptor indexDescriptor )
     {
         return "descriptor=" + indexDescriptor + ", indexFile=" + indexFile.getAbsolutePath();
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+/**
+ * The result of an index query, split into partitions which can be read in parallel.
+ *
+ * @see IndexReader#partitionedQuery(int, org.neo4j.internal.kernel.api.IndexQueryConstraints, org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer,
+ * org.neo4j.internal.kernel.api.IndexQuery...)
+ */
+public interface PartitionedValueSeek
+{
+    /**
+     * @return the number of partitions the query result is split into.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Initializes the given client with a partition not reserved by any previous call. Can be called concurrently from multiple threads.
+     *
+     * @param client the client which will control the progression through the entries of the partition.
+     * @param cursorTracer underlying page cursor tracer, of the thread reading the partition.
+     * @return {@code true} if the client was initialized with a partition, otherwise {@code false} if all partitions have been reserved already.
+     */
+    boolean reservePartition( IndexProgressor.EntityValueClient client, PageCursorTracer cursorTracer );
+}
@@ -187,6 +187,18 @@ public class DatabasePageCache implements PageCache
             return delegate.getLastPageId();
         }
 
+        @Override
+        public int touch( long pageId, int count, PageCursorTracer tracer ) throws IOException
+        {
+            return delegate.touch( pageId, count, tracer );
+        }
+
+        @Override
+        public void prefetch( long pageId, PageCursorTracer tracer )
+        {
+            delegate.prefetch( pageId, tracer );
+        }
+
         @Override
         public void close()
         {
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionCommitFailed;
+
+/**
+ * A commit process that applies the transactions of concurrently committing threads to the store together, once there are more of them than
+ * there are threads to apply them.
+ * <p>
+ * Up to {@code maxConcurrentAppliers} committers apply to the storage engine at the same time, each applying the transactions it finds
+ * queued, as in {@link TransactionRepresentationCommitProcess} where every committer applies its own. A committer that finds all the
+ * appliers busy queues its batch and waits. The next free applier links all the queued batches, in transaction id order, into a single
+ * chain of commands and applies that chain in one pass, so that the per batch work of the storage engine, such as the index and id
+ * generator updates, is shared by all of the transactions in the chain. Chains are applied concurrently, like single transactions are:
+ * committing transactions hold the locks on the entities they change, so no two transactions being applied change the same records.
+ * <p>
+ * The applier closes the transactions of its chain in transaction id order before it releases their committers, and the chains are closed
+ * in the order they were taken from the queue. A committer whose append to the log completed after a chain was taken is applied and closed
+ * after that chain, even if its transaction id is lower.
+ * <p>
+ * Only {@link TransactionApplicationMode#INTERNAL internal} commits are pipelined. Transactions applied in any other
+ * mode are applied directly by the committing thread, as in {@link TransactionRepresentationCommitProcess}.
+ */
+public class PipelinedTransactionRepresentationCommitProcess extends TransactionRepresentationCommitProcess
+{
+    private static final Comparator<ApplyRequest> TRANSACTION_ID_ORDER = Comparator.comparingLong( request -> request.batch.transactionId() );
+
+    private final StorageEngine storageEngine;
+    private final AtomicReference<ApplyRequest> applyRequestHead = new AtomicReference<>( ApplyRequest.END );
+    private final Semaphore appliers;
+    private final Object closeOrder = new Object();
+    // Guarded by applyRequestHead.
+    private long chainsTaken;
+    // Guarded by closeOrder.
+    private long chainsClosed;
+
+    public PipelinedTransactionRepresentationCommitProcess( TransactionAppender appender, StorageEngine storageEngine, int maxConcurrentAppliers )
+    {
+        super( appender, storageEngine );
+        this.storageEngine = storageEngine;
+        this.appliers = new Semaphore( maxConcurrentAppliers );
+    }
+
+    @Override
+    public long commit( TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode ) throws TransactionFailureException
+    {
+        if ( mode != TransactionApplicationMode.INTERNAL )
+        {
+            return super.commit( batch, commitEvent, mode );
+        }
+
+        long lastTxId = appendToLog( batch, commitEvent );
+        // The batch is closed by whichever committer applies it, along with the other batches of its chain.
+        applyToStoreAndClose( batch, commitEvent );
+        return lastTxId;
+    }
+
+    private void applyToStoreAndClose( TransactionToApply batch, CommitEvent commitEvent ) throws TransactionFailureException
+    {
+        try ( StoreApplyEvent storeApplyEvent = commitEvent.beginStoreApply() )
+        {
+            // There's a benign race here, where we add our request before we update our next pointer.
+            // This is okay, however, because takeQueuedRequests() spins when it sees a null next pointer.
+            ApplyRequest request = new ApplyRequest( batch, Thread.currentThread() );
+            request.next = applyRequestHead.getAndSet( request );
+            do
+            {
+                // Once taken, the request is applied by another committer, which unparks us when it is done.
+                if ( !request.taken && appliers.tryAcquire() )
+                {
+                    try
+                    {
+                        applyQueuedRequests();
+                    }
+                    finally
+                    {
+                        appliers.release();
+
+                        // Wake up whoever queued up while we were applying, so they can apply next.
+                        applyRequestHead.get().unpark();
+                    }
+                }
+                else
+                {
+                    LockSupport.parkNanos( this, TimeUnit.MILLISECONDS.toNanos( 100 ) );
+                }
+            }
+            while ( !request.done );
+
+            if ( request.failure != null )
+            {
+                throw new TransactionFailureException( TransactionCommitFailed, request.failure,
+                        "Could not apply the transaction to the store after written to log" );
+            }
+        }
+    }
+
+    private void applyQueuedRequests()
+    {
+        ApplyRequest[] requests;
+        long chain;
+        synchronized ( applyRequestHead )
+        {
+            requests = takeQueuedRequests();
+            if ( requests.length == 0 )
+            {
+                // Our own request was taken by another applier after we checked.
+                return;
+            }
+            chain = chainsTaken++;
+        }
+        Arrays.sort( requests, TRANSACTION_ID_ORDER );
+
+        // Link the batches together into one chain, remembering where each of them ended, so we can undo it later.
+        TransactionToApply[] lastInBatch = new TransactionToApply[requests.length];
+        for ( int i = 0; i < requests.length; i++ )
+        {
+            TransactionToApply last = requests[i].batch;
+            while ( last.next() != null )
+            {
+                last = last.next();
+            }
+            lastInBatch[i] = last;
+            if ( i > 0 )
+            {
+                lastInBatch[i - 1].next( requests[i].batch );
+            }
+        }
+
+        Throwable failure = null;
+        try
+        {
+            storageEngine.apply( requests[0].batch, TransactionApplicationMode.INTERNAL );
+        }
+        catch ( Throwable cause )
+        {
+            // We cannot tell which of the transactions failed, and the storage engine will have panicked the
+            // database anyway, so the whole chain is considered failed.
+            failure = cause;
+        }
+        finally
+        {
+            // Each batch is closed on its own, so the batches must not lead on to the batches of other committers.
+            for ( TransactionToApply last : lastInBatch )
+            {
+                last.next( null );
+            }
+        }
+
+        closeInOrder( requests, chain );
+        for ( ApplyRequest request : requests )
+        {
+            request.failure = failure;
+            request.done = true;
+            request.unpark();
+        }
+    }
+
+    private void closeInOrder( ApplyRequest[] requests, long chain )
+    {
+        boolean interrupted = false;
+        synchronized ( closeOrder )
+        {
+            while ( chainsClosed != chain )
+            {
+                try
+                {
+                    closeOrder.wait();
+                }
+                catch ( InterruptedException e )
+                {
+                    // The chain must be closed regardless, the interrupt is restored once it is.
+                    interrupted = true;
+                }
+            }
+            for ( ApplyRequest request : requests )
+            {
+                close( request.batch );
+            }
+            chainsClosed++;
+            closeOrder.notifyAll();
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ApplyRequest[] takeQueuedRequests()
+    {
+        ApplyRequest stack = applyRequestHead.getAndSet( ApplyRequest.END );
+        int count = 0;
+        for ( ApplyRequest request = stack; request != ApplyRequest.END; request = nextInStack( request ) )
+        {
+            count++;
+        }
+        ApplyRequest[] requests = new ApplyRequest[count];
+        int i = 0;
+        for ( ApplyRequest request = stack; request != ApplyRequest.END; request = nextInStack( request ) )
+        {
+            request.taken = true;
+            requests[i++] = request;
+        }
+        return requests;
+    }
+
+    private static ApplyRequest nextInStack( ApplyRequest request )
+    {
+        ApplyRequest next;
+        do
+        {
+            // Spin because of the race:y update when consing.
+            next = request.next;
+        }
+        while ( next == null );
+        return next;
+    }
+
+    private static class ApplyRequest
+    {
+        static final ApplyRequest END = new ApplyRequest( null, null );
+
+        final TransactionToApply batch;
+        final Thread thread;
+        volatile ApplyRequest next;
+        volatile boolean taken;
+        volatile boolean done;
+        // Written by the applier before it marks the request as done.
+        Throwable failure;
+
+        ApplyRequest( TransactionToApply batch, Thread thread )
+        {
+            this.batch = batch;
+            this.thread = thread;
+        }
+
+        void unpark()
+        {
+            LockSupport.unpark( thread );
+        }
+
+        static
+        {
+            END.next = END;
+        }
+    }
+}
@@ -56,7 +56,7 @@ public class TransactionRepresentationCommitProcess implements TransactionCommit
         }
     }
 
-    private long appendToLog( TransactionToApply batch, CommitEvent commitEvent ) throws TransactionFailureException
+    protected long appendToLog( TransactionToApply batch, CommitEvent commitEvent ) throws TransactionFailureException
     {
         try ( LogAppendEvent logAppendEvent = commitEvent.beginLogAppend() )
         {
@@ -83,7 +83,7 @@ public class TransactionRepresentationCommitProcess implements TransactionCommit
         }
     }
 
-    private static void close( TransactionToApply batch )
+    protected static void close( TransactionToApply batch )
     {
         while ( batch != null )
         {
@@ -116,6 +116,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
     private final Log userLog;
     private final IndexStatisticsStore indexStatisticsStore;
     private final PageCacheTracer pageCacheTracer;
+    private final int populationScanWorkers;
     private final boolean readOnly;
     private final TokenNameLookup tokenNameLookup;
     private final JobScheduler jobScheduler;
@@ -214,6 +215,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
             Monitor monitor,
             IndexStatisticsStore indexStatisticsStore,
             PageCacheTracer pageCacheTracer,
+            int populationScanWorkers,
             boolean readOnly )
     {
         this.indexProxyCreator = indexProxyCreator;
@@ -232,6 +234,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
         this.userLog = userLogProvider.getLog( getClass() );
         this.indexStatisticsStore = indexStatisticsStore;
         this.pageCacheTracer = pageCacheTracer;
+        this.populationScanWorkers = populationScanWorkers;
         this.readOnly = readOnly;
     }
 
@@ -809,7 +812,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
     private IndexPopulationJob newIndexPopulationJob( EntityType type, boolean verifyBeforeFlipping )
     {
         MultipleIndexPopulator multiPopulator = new MultipleIndexPopulator( storeView, internalLogProvider, type, schemaState, indexStatisticsStore,
-                jobScheduler, tokenNameLookup, pageCacheTracer );
+                jobScheduler, tokenNameLookup, pageCacheTracer, populationScanWorkers );
         return new IndexPopulationJob( multiPopulator, monitor, verifyBeforeFlipping, pageCacheTracer );
     }
 
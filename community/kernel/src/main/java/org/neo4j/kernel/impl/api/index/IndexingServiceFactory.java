@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.api.index;
 
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.SchemaState;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -63,6 +64,16 @@ public final class IndexingServiceFactory
 
         return new IndexingService( proxySetup, providerMap, indexMapRef, storeView, indexRules,
                 indexSamplingController, tokenNameLookup, scheduler, schemaState,
-                internalLogProvider, userLogProvider, monitor, indexStatisticsStore, pageCacheTracer, readOnly );
+                internalLogProvider, userLogProvider, monitor, indexStatisticsStore, pageCacheTracer, populationScanWorkers( config ), readOnly );
+    }
+
+    private static int populationScanWorkers( Config config )
+    {
+        if ( !config.get( GraphDatabaseSettings.index_population_parallel_scan ) )
+        {
+            return 1;
+        }
+        int workers = config.get( GraphDatabaseSettings.index_population_workers );
+        return workers == 0 ? Runtime.getRuntime().availableProcessors() : workers;
     }
 }
@@ -36,6 +36,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BooleanSupplier;
 import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 import java.util.stream.IntStream;
 
 import org.neo4j.common.EntityType;
@@ -108,6 +109,10 @@ import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
  * {@link #QUEUE_THRESHOLD} than all queued concurrent updates are flushed after the store scan in
  * {@link MultipleIndexPopulator#flipAfterStoreScan(boolean, PageCursorTracer)}.
  * <p>
+ * If created with more than one scan worker, store scans which can be split up are run by that many threads,
+ * see {@link StoreScan#setParallelism(int, JobScheduler, PageCacheTracer, LongPredicate)}. The scan threads then only add updates
+ * to the batches of the populations and the queue of concurrent updates is applied in between the batches of the scan instead.
+ * <p>
  */
 public class MultipleIndexPopulator
 {
@@ -146,6 +151,7 @@ public class MultipleIndexPopulator
     private StoreScan<IndexPopulationFailedKernelException> storeScan;
     private final TokenNameLookup tokenNameLookup;
     private final PageCacheTracer cacheTracer;
+    private final int scanWorkers;
 
     /**
      * Creates a new multi-threaded populator for the given store view.
@@ -158,6 +164,24 @@ public class MultipleIndexPopulator
      */
     public MultipleIndexPopulator( IndexStoreView storeView, LogProvider logProvider, EntityType type, SchemaState schemaState,
             IndexStatisticsStore indexStatisticsStore, JobScheduler jobScheduler, TokenNameLookup tokenNameLookup, PageCacheTracer cacheTracer )
+    {
+        this( storeView, logProvider, type, schemaState, indexStatisticsStore, jobScheduler, tokenNameLookup, cacheTracer, 1 );
+    }
+
+    /**
+     * Creates a new multi-threaded populator for the given store view, which scans the store with up to {@code scanWorkers} threads
+     * if the {@link StoreScan} supports it, see {@link StoreScan#setParallelism(int, JobScheduler, PageCacheTracer, LongPredicate)}.
+     * @param storeView the view of the store as a visitable of nodes
+     * @param logProvider the log provider
+     * @param type entity type to populate
+     * @param schemaState the schema state
+     * @param jobScheduler the job scheduler
+     * @param tokenNameLookup token lookup
+     * @param scanWorkers number of threads scanning the store
+     */
+    public MultipleIndexPopulator( IndexStoreView storeView, LogProvider logProvider, EntityType type, SchemaState schemaState,
+            IndexStatisticsStore indexStatisticsStore, JobScheduler jobScheduler, TokenNameLookup tokenNameLookup, PageCacheTracer cacheTracer,
+            int scanWorkers )
     {
         this.storeView = storeView;
         this.cursorTracer = cacheTracer.createPageCursorTracer( MULTIPLE_INDEX_POPULATOR_TAG );
@@ -171,6 +195,7 @@ public class MultipleIndexPopulator
         this.jobScheduler = jobScheduler;
         this.tokenNameLookup = tokenNameLookup;
         this.cacheTracer = cacheTracer;
+        this.scanWorkers = scanWorkers;
     }
 
     IndexPopulation addPopulator( IndexPopulator populator, IndexDescriptor indexDescriptor, FlippableIndexProxy flipper,
@@ -207,15 +232,21 @@ public class MultipleIndexPopulator
         int[] propertyKeyIds = propertyKeyIds();
         IntPredicate propertyKeyIdFilter = propertyKeyId -> contains( propertyKeyIds, propertyKeyId );
 
+        EntityPopulationVisitor visitor = new EntityPopulationVisitor();
         if ( type == EntityType.RELATIONSHIP )
         {
-            storeScan = storeView.visitRelationships( entityTokenIds, propertyKeyIdFilter, new EntityPopulationVisitor(), null, false, cursorTracer );
+            storeScan = storeView.visitRelationships( entityTokenIds, propertyKeyIdFilter, visitor, null, false, cursorTracer );
         }
         else
         {
-            storeScan = storeView.visitNodes( entityTokenIds, propertyKeyIdFilter, new EntityPopulationVisitor(), null, false, cursorTracer );
+            storeScan = storeView.visitNodes( entityTokenIds, propertyKeyIdFilter, visitor, null, false, cursorTracer );
         }
         storeScan.setPhaseTracker( phaseTracker );
+        if ( scanWorkers > 1 && storeScan.setParallelism( scanWorkers, jobScheduler, cacheTracer, this::applyConcurrentUpdateQueueBatched ) )
+        {
+            // External updates are applied by the thread running the scan, in between the batches scanned by the workers
+            visitor.scanInParallel = true;
+        }
         return new BatchingStoreScan<>( storeScan );
     }
 
@@ -715,7 +746,7 @@ public class MultipleIndexPopulator
             }
         }
 
-        private void onUpdateFromScan( IndexEntryUpdate<?> update )
+        private synchronized void onUpdateFromScan( IndexEntryUpdate<?> update )
         {
             populator.includeSample( update );
             if ( addToBatchFromScan( update ) )
@@ -784,7 +815,7 @@ public class MultipleIndexPopulator
             return batchedUpdatesFromScan.size() >= BATCH_SIZE_SCAN;
         }
 
-        List<IndexEntryUpdate<?>> takeCurrentBatchFromScan()
+        synchronized List<IndexEntryUpdate<?>> takeCurrentBatchFromScan()
         {
             if ( batchedUpdatesFromScan.isEmpty() )
             {
@@ -809,6 +840,8 @@ public class MultipleIndexPopulator
     private class EntityPopulationVisitor implements Visitor<EntityUpdates,
             IndexPopulationFailedKernelException>
     {
+        private boolean scanInParallel;
+
         @Override
         public boolean visit( EntityUpdates updates )
         {
@@ -817,7 +850,7 @@ public class MultipleIndexPopulator
             {
                 log.info( "Added scan updates for entity %d", updates.getEntityId() );
             }
-            return applyConcurrentUpdateQueueBatched( updates.getEntityId() );
+            return !scanInParallel && applyConcurrentUpdateQueueBatched( updates.getEntityId() );
         }
 
         private void addFromScan( EntityUpdates updates )
@@ -869,6 +902,12 @@ public class MultipleIndexPopulator
         {
             delegate.setPhaseTracker( phaseTracker );
         }
+
+        @Override
+        public boolean setParallelism( int workers, JobScheduler jobScheduler, PageCacheTracer cacheTracer, LongPredicate betweenBatches )
+        {
+            return delegate.setParallelism( workers, jobScheduler, cacheTracer, betweenBatches );
+        }
     }
 
     /**
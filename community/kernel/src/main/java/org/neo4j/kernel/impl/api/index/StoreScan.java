@@ -19,7 +19,12 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
+import java.util.function.LongPredicate;
+
 import org.neo4j.internal.kernel.api.PopulationProgress;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 
 public interface StoreScan<FAILURE extends Exception>
@@ -41,4 +46,21 @@ public interface StoreScan<FAILURE extends Exception>
     default void setPhaseTracker( PhaseTracker phaseTracker )
     {   // no-op
     }
+
+    /**
+     * Ask this {@link StoreScan} to split the entity id space into ranges which are scanned concurrently by {@code workers} threads.
+     * Visitors given to a parallel scan are called from those threads, each of them is only ever given entities from one range at a time.
+     * Must not be called once scan has already started.
+     *
+     * @param workers number of threads scanning, each in its own {@link Group#INDEX_POPULATION_SCAN} job.
+     * @param jobScheduler {@link JobScheduler} to run the workers in.
+     * @param cacheTracer {@link PageCacheTracer} for the page cursors of the workers.
+     * @param betweenBatches called by the thread running the scan, while no worker is running, with an entity id such that all entities
+     * with ids up to and including it have been scanned. Returns whether or not external updates were applied.
+     * @return {@code true} if this scan will run in parallel, otherwise {@code false} and the scan will run sequentially as before.
+     */
+    default boolean setParallelism( int workers, JobScheduler jobScheduler, PageCacheTracer cacheTracer, LongPredicate betweenBatches )
+    {
+        return false;
+    }
 }
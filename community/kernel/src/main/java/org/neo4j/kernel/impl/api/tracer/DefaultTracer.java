@@ -199,6 +199,11 @@ public class DefaultTracer implements DatabaseTracer
 
         }
 
+        @Override
+        public void setGroupCommit( int groupSize, long waitTimeNanos )
+        {
+        }
+
         @Override
         public LogRotateEvent beginLogRotate()
         {
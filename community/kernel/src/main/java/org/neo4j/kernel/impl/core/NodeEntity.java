@@ -56,6 +56,8 @@ import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.storageengine.api.Degrees;
 import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static java.lang.String.format;
 import static org.neo4j.graphdb.Label.label;
@@ -418,6 +420,36 @@ public class NodeEntity implements Node, RelationshipFactory<Relationship>
         return properties;
     }
 
+    /**
+     * Same as {@link #getAllProperties()}, but with the property values as they are read from the store rather than copied into
+     * java objects. Strings keep their UTF-8 encoding this way, so that they can be written e.g. to Bolt without being re-encoded.
+     *
+     * @return all properties of this node.
+     */
+    public MapValue getAllPropertyValues()
+    {
+        KernelTransaction transaction = internalTransaction.kernelTransaction();
+        MapValueBuilder properties = new MapValueBuilder();
+
+        try
+        {
+            NodeCursor nodes = transaction.ambientNodeCursor();
+            PropertyCursor propertyCursor = transaction.ambientPropertyCursor();
+            TokenRead token = transaction.tokenRead();
+            singleNode( transaction, nodes );
+            nodes.properties( propertyCursor );
+            while ( propertyCursor.next() )
+            {
+                properties.add( token.propertyKeyName( propertyCursor.propertyKey() ), propertyCursor.propertyValue() );
+            }
+        }
+        catch ( PropertyKeyIdNotFoundKernelException e )
+        {
+            throw new IllegalStateException( "Property key retrieved through kernel API should exist.", e );
+        }
+        return properties.build();
+    }
+
     @Override
     public Object getProperty( String key ) throws NotFoundException
     {
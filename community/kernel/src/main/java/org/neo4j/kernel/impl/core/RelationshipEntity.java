@@ -48,6 +48,8 @@ import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.storageengine.api.RelationshipVisitor;
 import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.kernel.api.Read.NO_ID;
@@ -324,6 +326,36 @@ public class RelationshipEntity implements Relationship, RelationshipVisitor<Run
         return properties;
     }
 
+    /**
+     * Same as {@link #getAllProperties()}, but with the property values as they are read from the store rather than copied into
+     * java objects. Strings keep their UTF-8 encoding this way, so that they can be written e.g. to Bolt without being re-encoded.
+     *
+     * @return all properties of this relationship.
+     */
+    public MapValue getAllPropertyValues()
+    {
+        KernelTransaction transaction = internalTransaction.kernelTransaction();
+        MapValueBuilder properties = new MapValueBuilder();
+
+        try
+        {
+            RelationshipScanCursor relationships = transaction.ambientRelationshipCursor();
+            PropertyCursor propertyCursor = transaction.ambientPropertyCursor();
+            TokenRead token = transaction.tokenRead();
+            singleRelationship( transaction, relationships );
+            relationships.properties( propertyCursor );
+            while ( propertyCursor.next() )
+            {
+                properties.add( token.propertyKeyName( propertyCursor.propertyKey() ), propertyCursor.propertyValue() );
+            }
+        }
+        catch ( PropertyKeyIdNotFoundKernelException e )
+        {
+            throw new IllegalStateException( "Property key retrieved through kernel API should exist.", e );
+        }
+        return properties.build();
+    }
+
     @Override
     public Object getProperty( String key )
     {
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.factory;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.api.CommitProcessFactory;
+import org.neo4j.kernel.impl.api.PipelinedTransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.api.ReadOnlyTransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
@@ -37,6 +38,10 @@ public class CommunityCommitProcessFactory implements CommitProcessFactory
         {
             return new ReadOnlyTransactionCommitProcess();
         }
+        if ( config.get( GraphDatabaseSettings.pipelined_transaction_apply ) )
+        {
+            return new PipelinedTransactionRepresentationCommitProcess( appender, storageEngine, Runtime.getRuntime().availableProcessors() );
+        }
         return new TransactionRepresentationCommitProcess( appender, storageEngine );
     }
 }
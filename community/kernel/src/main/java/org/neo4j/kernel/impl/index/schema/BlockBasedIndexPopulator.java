@@ -33,8 +33,10 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import org.neo4j.index.internal.gbptree.BulkLoader;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.ValueMergers;
 import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.kernel.api.PopulationProgress;
@@ -423,18 +425,47 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
                 }
             }
 
-            int asMuchAsPossibleToTheLeft = 1;
-            try ( Writer<KEY,VALUE> writer = tree.writer( asMuchAsPossibleToTheLeft, cursorTracer ) )
+            // The merged scan updates come in the tree order, including entity id, so the tree can be built bottom-up instead of
+            // inserting them one by one. The same entry can be seen multiple times, those are simply de-duplicated.
+            boolean unique = descriptor.isUnique();
+            KEY previousKey = layout.newKey();
+            boolean hasPrevious = false;
+            try ( BulkLoader<KEY,VALUE> bulkLoader = tree.bulkLoader( ValueMergers.keepExisting(), cursorTracer ) )
             {
                 while ( allEntries.next() && !cancellation.cancelled() )
                 {
-                    writeToTree( writer, recordingConflictDetector, allEntries.key(), allEntries.value() );
+                    KEY key = allEntries.key();
+                    if ( unique )
+                    {
+                        if ( hasPrevious )
+                        {
+                            detectConflictWithPrevious( recordingConflictDetector, previousKey, key );
+                        }
+                        layout.copyKey( key, previousKey );
+                        hasPrevious = true;
+                    }
+                    bulkLoader.add( key, allEntries.value() );
                     numberOfAppliedScanUpdates++;
                 }
             }
         }
     }
 
+    /**
+     * Entries with the same value end up next to each other in the sorted scan updates, so for a uniqueness index it's enough to compare
+     * each key with the previous one. A conflict is recorded and verified after external updates have been applied, just like conflicts
+     * seen when writing the external updates.
+     */
+    private void detectConflictWithPrevious( RecordingConflictDetector<KEY,VALUE> recordingConflictDetector, KEY previousKey, KEY key )
+            throws IndexEntryConflictException
+    {
+        if ( layout.compareValue( previousKey, key ) == 0 )
+        {
+            recordingConflictDetector.merge( previousKey, key, null, null );
+            recordingConflictDetector.checkConflict( key );
+        }
+    }
+
     @Override
     public IndexUpdater newPopulatingUpdater( PageCursorTracer cursorTracer )
     {
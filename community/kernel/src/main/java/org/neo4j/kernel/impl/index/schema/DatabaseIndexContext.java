@@ -29,13 +29,20 @@ public class DatabaseIndexContext
     final FileSystemAbstraction fileSystem;
     final IndexProvider.Monitor monitor;
     final boolean readOnly;
+    final boolean incrementalSampling;
+    final long uniqueLookupFilterSize;
+    final boolean concurrentWriters;
 
-    private DatabaseIndexContext( PageCache pageCache, FileSystemAbstraction fileSystem, IndexProvider.Monitor monitor, boolean readOnly )
+    private DatabaseIndexContext( PageCache pageCache, FileSystemAbstraction fileSystem, IndexProvider.Monitor monitor, boolean readOnly,
+            boolean incrementalSampling, long uniqueLookupFilterSize, boolean concurrentWriters )
     {
         this.pageCache = pageCache;
         this.fileSystem = fileSystem;
         this.monitor = monitor;
         this.readOnly = readOnly;
+        this.incrementalSampling = incrementalSampling;
+        this.uniqueLookupFilterSize = uniqueLookupFilterSize;
+        this.concurrentWriters = concurrentWriters;
     }
 
     /**
@@ -54,6 +61,9 @@ public class DatabaseIndexContext
         private final FileSystemAbstraction fileSystem;
         private IndexProvider.Monitor monitor;
         private boolean readOnly;
+        private boolean incrementalSampling;
+        private long uniqueLookupFilterSize;
+        private boolean concurrentWriters;
 
         private Builder( PageCache pageCache, FileSystemAbstraction fileSystem )
         {
@@ -87,9 +97,47 @@ public class DatabaseIndexContext
             return this;
         }
 
+        /**
+         * Default is false
+         *
+         * @param incrementalSampling true if indexes should keep their sample up to date as they are updated, instead of
+         * scanning the whole index when sampled.
+         * @return {@link Builder this builder}
+         */
+        public Builder withIncrementalSampling( boolean incrementalSampling )
+        {
+            this.incrementalSampling = incrementalSampling;
+            return this;
+        }
+
+        /**
+         * Default is 0
+         *
+         * @param uniqueLookupFilterSize size in bytes of the filter each unique index keeps of its values, to skip lookups of absent values.
+         * 0 means no filter.
+         * @return {@link Builder this builder}
+         */
+        public Builder withUniqueLookupFilterSize( long uniqueLookupFilterSize )
+        {
+            this.uniqueLookupFilterSize = uniqueLookupFilterSize;
+            return this;
+        }
+
+        /**
+         * Default is false
+         *
+         * @param concurrentWriters true if online updaters should be able to update an index concurrently, each through a tree writer of its own.
+         * @return {@link Builder this builder}
+         */
+        public Builder withConcurrentWriters( boolean concurrentWriters )
+        {
+            this.concurrentWriters = concurrentWriters;
+            return this;
+        }
+
         public DatabaseIndexContext build()
         {
-            return new DatabaseIndexContext( pageCache, fileSystem, monitor, readOnly );
+            return new DatabaseIndexContext( pageCache, fileSystem, monitor, readOnly, incrementalSampling, uniqueLookupFilterSize, concurrentWriters );
         }
     }
 }
@@ -27,9 +27,11 @@ import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.NonUniqueIndexSampler;
+import org.neo4j.values.storable.Value;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link #sample(PageCursorTracer)}.
+ * If given an {@link IndexSampleSketch} it is rebuilt from the scanned entries.
  *
  * @param <KEY> type of keys in tree.
  * @param <VALUE> type of values in tree.
@@ -39,11 +41,18 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
 {
     private final GBPTree<KEY,VALUE> gbpTree;
     private final IndexLayout<KEY,VALUE> layout;
+    private final IndexSampleSketch sketchToRebuild;
 
     FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout )
+    {
+        this( gbpTree, layout, null );
+    }
+
+    FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout, IndexSampleSketch sketchToRebuild )
     {
         this.gbpTree = gbpTree;
         this.layout = layout;
+        this.sketchToRebuild = sketchToRebuild;
     }
 
     @Override
@@ -56,6 +65,12 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
         highest.initialize( Long.MAX_VALUE );
         highest.initValuesAsHighest();
         KEY prev = layout.newKey();
+        IndexSampleSketch scanned = null;
+        if ( sketchToRebuild != null )
+        {
+            scanned = IndexSampleSketch.empty();
+            sketchToRebuild.beginRebuild();
+        }
         try ( Seeker<KEY,VALUE> seek = gbpTree.seek( lowest, highest, cursorTracer ) )
         {
             long sampledValues = 0;
@@ -67,6 +82,11 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
                 prev = layout.copyKey( seek.key(), prev );
                 sampledValues++;
                 uniqueValues++;
+                Value[] values = scanned != null ? prev.asValues() : null;
+                if ( scanned != null )
+                {
+                    scanned.add( values );
+                }
 
                 // Then do the rest
                 while ( seek.next() )
@@ -75,17 +95,37 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
                     {
                         uniqueValues++;
                         layout.copyKey( seek.key(), prev );
+                        if ( scanned != null )
+                        {
+                            values = prev.asValues();
+                        }
                     }
                     // else this is a duplicate of the previous one
                     sampledValues++;
+                    if ( scanned != null )
+                    {
+                        scanned.add( values );
+                    }
                 }
             }
+            if ( scanned != null )
+            {
+                sketchToRebuild.completeRebuild( scanned );
+            }
             return new IndexSample( sampledValues, uniqueValues, sampledValues );
         }
         catch ( IOException e )
         {
             throw new UncheckedIOException( e );
         }
+        finally
+        {
+            if ( sketchToRebuild != null )
+            {
+                // no-op if the rebuild completed
+                sketchToRebuild.abortRebuild();
+            }
+        }
     }
 
     @Override
@@ -46,7 +46,7 @@ class GenericBlockBasedIndexPopulator extends BlockBasedIndexPopulator<GenericKe
     @Override
     NativeIndexReader<GenericKey,NativeIndexValue> newReader()
     {
-        return new GenericNativeIndexReader( tree, layout, descriptor, spatialSettings, configuration );
+        return new GenericNativeIndexReader( tree, layout, descriptor, spatialSettings, configuration, null, null );
     }
 
     @Override
@@ -54,7 +54,7 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIn
         super( databaseIndexContext, indexFiles, layout, descriptor, NO_HEADER_WRITER );
         this.spaceFillingCurveSettings = spaceFillingCurveSettings;
         this.configuration = configuration;
-        instantiateTree( recoveryCleanupWorkCollector, headerWriter );
+        instantiateTree( recoveryCleanupWorkCollector );
     }
 
     @Override
@@ -67,7 +67,7 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIn
     public IndexReader newReader()
     {
         assertOpen();
-        return new GenericNativeIndexReader( tree, layout, descriptor, spaceFillingCurveSettings, configuration );
+        return new GenericNativeIndexReader( tree, layout, descriptor, spaceFillingCurveSettings, configuration, sampleSketch, uniqueLookupFilter );
     }
 
     @Override
@@ -79,6 +79,7 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<GenericKey,NativeIn
     @Override
     public void force( IOLimiter ioLimiter, PageCursorTracer cursorTracer )
     {
+        reportUniqueLookupFilterStatistics();
         // This accessor needs to use the header writer here because coordinate reference systems may have changed since last checkpoint.
         tree.checkpoint( ioLimiter, headerWriter, cursorTracer );
     }
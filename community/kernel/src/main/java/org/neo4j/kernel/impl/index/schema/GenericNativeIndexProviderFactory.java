@@ -66,7 +66,10 @@ public class GenericNativeIndexProviderFactory extends AbstractIndexProviderFact
     {
         IndexDirectoryStructure.Factory directoryStructure = directoriesByProvider( storeDir );
         boolean readOnly = config.get( GraphDatabaseSettings.read_only ) && (OperationalMode.SINGLE == mode);
-        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withReadOnly( readOnly ).build();
+        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withReadOnly( readOnly )
+                .withIncrementalSampling( config.get( GraphDatabaseSettings.index_sampling_incremental ) )
+                .withUniqueLookupFilterSize( config.get( GraphDatabaseSettings.index_unique_lookup_filter_size ) )
+                .withConcurrentWriters( config.get( GraphDatabaseSettings.index_concurrent_writers ) ).build();
         return new GenericNativeIndexProvider( databaseIndexContext, directoryStructure, recoveryCleanupWorkCollector, config );
     }
 }
@@ -51,9 +51,9 @@ class GenericNativeIndexReader extends NativeIndexReader<GenericKey,NativeIndexV
 
     GenericNativeIndexReader( GBPTree<GenericKey,NativeIndexValue> tree, IndexLayout<GenericKey,NativeIndexValue> layout,
             IndexDescriptor descriptor, IndexSpecificSpaceFillingCurveSettings spaceFillingCurveSettings,
-            SpaceFillingCurveConfiguration configuration )
+            SpaceFillingCurveConfiguration configuration, IndexSampleSketch sampleSketch, UniqueLookupFilter uniqueLookupFilter )
     {
-        super( tree, layout, descriptor );
+        super( tree, layout, descriptor, sampleSketch, uniqueLookupFilter );
         this.spaceFillingCurveSettings = spaceFillingCurveSettings;
         this.configuration = configuration;
     }
@@ -72,6 +72,13 @@ class GenericNativeIndexReader extends NativeIndexReader<GenericKey,NativeIndexV
         return true;
     }
 
+    @Override
+    public boolean supportsPartitionedQuery( IndexQuery... predicates )
+    {
+        // A geometry range is split into several seeks, one per range on the space filling curve
+        return getGeometryRangePredicateIfAny( predicates ) == null;
+    }
+
     @Override
     void validateQuery( IndexQueryConstraints constraints, IndexQuery[] predicates )
     {
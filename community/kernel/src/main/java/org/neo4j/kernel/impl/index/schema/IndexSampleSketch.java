@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.hashing.HashFunction;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Size and distinct value estimate of a native index, kept up to date from the updates applied to the index so that it
+ * can be sampled without scanning the whole {@link GBPTree}. Distinct values are estimated by a HyperLogLog sketch over
+ * the 64-bit hash of the indexed values, with {@code 2^}{@link #PRECISION} registers, i.e. a standard error of about 2.3%.
+ * <p>
+ * A HyperLogLog sketch can't forget values, so removals only decrement the index size. They are counted and once they make up
+ * more than half of the index the sketch needs to be rebuilt by a full scan, see {@link #canSample()}. The sketch is written
+ * into the index header on checkpoint and is dropped if the tree wasn't cleanly shut down, since the updates replayed by
+ * recovery can't be told apart from the ones already accounted for.
+ * <p>
+ * Updates are applied under the single index writer, sampling and rebuilding may happen concurrently with that.
+ */
+class IndexSampleSketch
+{
+    static final int PRECISION = 11;
+    static final int REGISTERS = 1 << PRECISION;
+    private static final byte FORMAT_ABSENT = 0;
+    private static final byte FORMAT_HLL = 1;
+    private static final HashFunction HASH = HashFunction.incrementalXXH64();
+    private static final long SEED = 1;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private byte[] registers = new byte[REGISTERS];
+    private byte[] rebuildRegisters;
+    private long indexSize;
+    private long removals;
+    private boolean valid;
+    private boolean recovered;
+
+    /**
+     * @return a sketch which is valid from the start, i.e. for an empty index or one that is about to be fully scanned.
+     */
+    static IndexSampleSketch empty()
+    {
+        IndexSampleSketch sketch = new IndexSampleSketch();
+        sketch.valid = true;
+        return sketch;
+    }
+
+    synchronized void add( Value[] values )
+    {
+        long hash = hash( values );
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros( (hash << PRECISION) | (1L << (PRECISION - 1)) ) + 1);
+        if ( registers[index] < rank )
+        {
+            registers[index] = rank;
+        }
+        if ( rebuildRegisters != null && rebuildRegisters[index] < rank )
+        {
+            rebuildRegisters[index] = rank;
+        }
+        indexSize++;
+    }
+
+    synchronized void remove()
+    {
+        indexSize = Math.max( 0, indexSize - 1 );
+        removals++;
+    }
+
+    /**
+     * @return whether or not {@link #sample()} can be used, otherwise the index needs to be scanned and the sketch rebuilt.
+     */
+    synchronized boolean canSample()
+    {
+        return valid && removals <= indexSize / 2;
+    }
+
+    synchronized IndexSample sample()
+    {
+        return new IndexSample( indexSize, Math.min( indexSize, distinctValues() ), indexSize );
+    }
+
+    private long distinctValues()
+    {
+        double sum = 0;
+        int zeros = 0;
+        for ( byte register : registers )
+        {
+            sum += Math.scalb( 1d, -register );
+            if ( register == 0 )
+            {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if ( estimate <= 2.5 * REGISTERS && zeros > 0 )
+        {
+            // Linear counting is more accurate for small cardinalities
+            estimate = REGISTERS * Math.log( (double) REGISTERS / zeros );
+        }
+        return Math.round( estimate );
+    }
+
+    /**
+     * Called before scanning the index to rebuild this sketch. Values added during the scan are remembered so that they are not
+     * lost if the scan has already passed them.
+     */
+    synchronized void beginRebuild()
+    {
+        rebuildRegisters = new byte[REGISTERS];
+    }
+
+    /**
+     * Replaces the state of this sketch with the given sketch, built from all entries seen in a full scan of the index.
+     */
+    synchronized void completeRebuild( IndexSampleSketch scanned )
+    {
+        byte[] added = rebuildRegisters != null ? rebuildRegisters : new byte[REGISTERS];
+        byte[] rebuilt = new byte[REGISTERS];
+        for ( int i = 0; i < REGISTERS; i++ )
+        {
+            rebuilt[i] = (byte) Math.max( scanned.registers[i], added[i] );
+        }
+        registers = rebuilt;
+        rebuildRegisters = null;
+        indexSize = scanned.indexSize;
+        removals = 0;
+        valid = true;
+    }
+
+    synchronized void abortRebuild()
+    {
+        rebuildRegisters = null;
+    }
+
+    /**
+     * Called if the tree is opened after a crash. The state read from the header, as well as anything added during recovery,
+     * can't be trusted until the sketch has been rebuilt.
+     */
+    synchronized void recovered()
+    {
+        recovered = true;
+        valid = false;
+    }
+
+    synchronized void write( PageCursor cursor )
+    {
+        if ( !valid )
+        {
+            cursor.putByte( FORMAT_ABSENT );
+            return;
+        }
+        cursor.putByte( FORMAT_HLL );
+        cursor.putLong( indexSize );
+        cursor.putLong( removals );
+        cursor.putBytes( registers );
+    }
+
+    synchronized void read( ByteBuffer headerData )
+    {
+        valid = false;
+        try
+        {
+            if ( !headerData.hasRemaining() || headerData.get() != FORMAT_HLL )
+            {
+                // Written before incremental sampling was enabled, or when the sketch wasn't valid
+                return;
+            }
+            long readIndexSize = headerData.getLong();
+            long readRemovals = headerData.getLong();
+            byte[] readRegisters = new byte[REGISTERS];
+            headerData.get( readRegisters );
+            indexSize = readIndexSize;
+            removals = readRemovals;
+            registers = readRegisters;
+            valid = !recovered;
+        }
+        catch ( BufferUnderflowException e )
+        {
+            // Incomplete sketch, will be rebuilt on next sampling
+        }
+    }
+
+    private static long hash( Value[] values )
+    {
+        long hash = HASH.initialise( SEED );
+        for ( Value value : values )
+        {
+            hash = value.updateHash( HASH, hash );
+        }
+        return HASH.finalise( hash );
+    }
+
+    /**
+     * {@link GBPTree.Monitor} invalidating the sketch if the tree wasn't cleanly shut down.
+     */
+    GBPTree.Monitor treeMonitor( GBPTree.Monitor delegate )
+    {
+        return new GBPTree.Monitor.Delegate( delegate )
+        {
+            @Override
+            public void startupState( boolean clean )
+            {
+                if ( !clean )
+                {
+                    recovered();
+                }
+                super.startupState( clean );
+            }
+        };
+    }
+}
@@ -26,6 +26,8 @@ import java.util.function.Consumer;
 
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.index.internal.gbptree.TreeInconsistencyException;
 import org.neo4j.internal.helpers.collection.BoundedIterable;
 import org.neo4j.internal.schema.IndexDescriptor;
@@ -46,13 +48,81 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
 {
     private final NativeIndexUpdater<KEY,VALUE> singleUpdater;
     final NativeIndexHeaderWriter headerWriter;
+    /**
+     * Kept up to date by the updater and persisted in the header if {@link DatabaseIndexContext#incrementalSampling incremental sampling}
+     * is enabled, otherwise {@code null}.
+     */
+    final IndexSampleSketch sampleSketch;
+    /**
+     * Filter of the values in a unique index, built when the tree is instantiated and kept up to date by the updater, if
+     * {@link DatabaseIndexContext#uniqueLookupFilterSize enabled}, otherwise {@code null}.
+     */
+    final UniqueLookupFilter uniqueLookupFilter;
+    /**
+     * Whether {@link IndexUpdateMode#ONLINE online} updaters each get a {@link GBPTree#concurrentWriter(PageCursorTracer) concurrent writer}
+     * of their own, instead of sharing the single writer of the tree.
+     */
+    private final boolean concurrentWriters;
 
     NativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout,
             IndexDescriptor descriptor, Consumer<PageCursor> additionalHeaderWriter )
     {
-        super( databaseIndexContext, layout, indexFiles, descriptor, GBPTree.NO_MONITOR );
-        singleUpdater = new NativeIndexUpdater<>( layout.newKey(), layout.newValue() );
-        headerWriter = new NativeIndexHeaderWriter( BYTE_ONLINE, additionalHeaderWriter );
+        this( databaseIndexContext, indexFiles, layout, descriptor, additionalHeaderWriter,
+                databaseIndexContext.incrementalSampling ? new IndexSampleSketch() : null );
+    }
+
+    private NativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout,
+            IndexDescriptor descriptor, Consumer<PageCursor> additionalHeaderWriter, IndexSampleSketch sampleSketch )
+    {
+        super( databaseIndexContext, layout, indexFiles, descriptor,
+                sampleSketch != null ? sampleSketch.treeMonitor( GBPTree.NO_MONITOR ) : GBPTree.NO_MONITOR );
+        this.sampleSketch = sampleSketch;
+        this.uniqueLookupFilter = UniqueLookupFilter.forIndex( descriptor, databaseIndexContext.uniqueLookupFilterSize );
+        this.concurrentWriters = databaseIndexContext.concurrentWriters;
+        singleUpdater = new NativeIndexUpdater<>( layout.newKey(), layout.newValue(), sampleSketch, uniqueLookupFilter );
+        headerWriter = new NativeIndexHeaderWriter( BYTE_ONLINE,
+                sampleSketch != null ? additionalHeaderWriter.andThen( sampleSketch::write ) : additionalHeaderWriter );
+    }
+
+    /**
+     * Instantiates the tree, reading the {@link #sampleSketch} from the header if there is one and building the {@link #uniqueLookupFilter}.
+     * The sketch is written after the additional header, which means that it can only be read if the additional header is empty.
+     */
+    void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        if ( sampleSketch != null )
+        {
+            instantiateTree( recoveryCleanupWorkCollector, headerWriter, new NativeIndexHeaderReader( sampleSketch::read ) );
+        }
+        else
+        {
+            instantiateTree( recoveryCleanupWorkCollector, headerWriter );
+        }
+        if ( uniqueLookupFilter != null )
+        {
+            buildUniqueLookupFilter();
+        }
+    }
+
+    private void buildUniqueLookupFilter()
+    {
+        KEY lowest = layout.newKey();
+        lowest.initialize( Long.MIN_VALUE );
+        lowest.initValuesAsLowest();
+        KEY highest = layout.newKey();
+        highest.initialize( Long.MAX_VALUE );
+        highest.initValuesAsHighest();
+        try ( Seeker<KEY,VALUE> seek = tree.seek( lowest, highest, PageCursorTracer.NULL ) )
+        {
+            while ( seek.next() )
+            {
+                uniqueLookupFilter.add( seek.key().asValues() );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
     }
 
     @Override
@@ -68,6 +138,12 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
         assertOpen();
         try
         {
+            if ( concurrentWriters && mode == IndexUpdateMode.ONLINE )
+            {
+                // Committing transactions apply their updates concurrently, each through a writer of its own
+                return new NativeIndexUpdater<>( layout.newKey(), layout.newValue(), sampleSketch, uniqueLookupFilter )
+                        .initialize( tree.concurrentWriter( cursorTracer ) );
+            }
             return singleUpdater.initialize( tree.writer( cursorTracer ) );
         }
         catch ( IOException e )
@@ -79,7 +155,23 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
     @Override
     public void force( IOLimiter ioLimiter, PageCursorTracer cursorTracer )
     {
-        tree.checkpoint( ioLimiter, cursorTracer );
+        reportUniqueLookupFilterStatistics();
+        if ( sampleSketch != null )
+        {
+            tree.checkpoint( ioLimiter, headerWriter, cursorTracer );
+        }
+        else
+        {
+            tree.checkpoint( ioLimiter, cursorTracer );
+        }
+    }
+
+    void reportUniqueLookupFilterStatistics()
+    {
+        if ( uniqueLookupFilter != null )
+        {
+            uniqueLookupFilter.reportStatistics( monitor, descriptor );
+        }
     }
 
     @Override
@@ -19,8 +19,14 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.apache.commons.lang3.tuple.Pair;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
@@ -35,6 +41,8 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
+import org.neo4j.util.Preconditions;
 import org.neo4j.values.storable.Value;
 
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
@@ -45,12 +53,21 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     protected final IndexDescriptor descriptor;
     final IndexLayout<KEY,VALUE> layout;
     final GBPTree<KEY,VALUE> tree;
+    private final IndexSampleSketch sampleSketch;
+    private final UniqueLookupFilter uniqueLookupFilter;
 
-    NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor )
+    /**
+     * @param sampleSketch sketch to sample from, or rebuild when scanning the index, or {@code null} to always sample by scanning.
+     * @param uniqueLookupFilter filter to check exact lookups against before seeking, or {@code null}.
+     */
+    NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, IndexDescriptor descriptor, IndexSampleSketch sampleSketch,
+            UniqueLookupFilter uniqueLookupFilter )
     {
         this.tree = tree;
         this.layout = layout;
         this.descriptor = descriptor;
+        this.sampleSketch = sampleSketch;
+        this.uniqueLookupFilter = uniqueLookupFilter;
     }
 
     @Override
@@ -67,12 +84,17 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         // For that reason this implementation opts for keeping complexity down by just using the existing
         // non-unique sampler which scans the index and counts (potentially duplicates, of which there will
         // be none in a unique index).
+        // With incremental sampling the scan is only needed when the sketch kept up to date by the updates can't be used.
 
-        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout );
+        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout, sampleSketch );
         return tracer ->
         {
             try
             {
+                if ( sampleSketch != null && sampleSketch.canSample() )
+                {
+                    return sampleSketch.sample();
+                }
                 return sampler.sample( tracer );
             }
             catch ( UncheckedIOException e )
@@ -124,12 +146,78 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     {
         validateQuery( constraints, predicates );
 
+        boolean filteredLookup = uniqueLookupFilter != null && isExactLookup( predicates );
+        if ( filteredLookup && !uniqueLookupFilter.mightContain( exactValues( predicates ) ) )
+        {
+            cursor.initialize( descriptor, IndexProgressor.EMPTY, predicates, constraints, false );
+            return;
+        }
+
+        KEY treeKeyFrom = layout.newKey();
+        KEY treeKeyTo = layout.newKey();
+        initializeFromToKeys( treeKeyFrom, treeKeyTo );
+
+        boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
+        startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, constraints, needFilter, filteredLookup, cursorTracer );
+    }
+
+    private boolean isExactLookup( IndexQuery[] predicates )
+    {
+        if ( predicates.length != descriptor.schema().getPropertyIds().length )
+        {
+            return false;
+        }
+        for ( IndexQuery predicate : predicates )
+        {
+            if ( !(predicate instanceof IndexQuery.ExactPredicate) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Value[] exactValues( IndexQuery[] predicates )
+    {
+        Value[] values = new Value[predicates.length];
+        for ( int i = 0; i < predicates.length; i++ )
+        {
+            values[i] = ((IndexQuery.ExactPredicate) predicates[i]).value();
+        }
+        return values;
+    }
+
+    @Override
+    public boolean supportsPartitionedQuery( IndexQuery... predicates )
+    {
+        return true;
+    }
+
+    @Override
+    public PartitionedValueSeek partitionedQuery( int desiredNumberOfPartitions, IndexQueryConstraints constraints, PageCursorTracer cursorTracer,
+            IndexQuery... predicates )
+    {
+        Preconditions.checkArgument( !constraints.isOrdered(), "Partitioned query does not support ordered results" );
+        validateQuery( constraints, predicates );
+
         KEY treeKeyFrom = layout.newKey();
         KEY treeKeyTo = layout.newKey();
         initializeFromToKeys( treeKeyFrom, treeKeyTo );
 
         boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
-        startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, constraints, needFilter, cursorTracer );
+        if ( isEmptyRange( treeKeyFrom, treeKeyTo ) )
+        {
+            return new NativePartitionedValueSeek( Collections.emptyList(), predicates, constraints, needFilter );
+        }
+        try
+        {
+            return new NativePartitionedValueSeek( tree.partitionRange( treeKeyFrom, treeKeyTo, desiredNumberOfPartitions, cursorTracer ), predicates,
+                    constraints, needFilter );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
     }
 
     void initializeFromToKeys( KEY treeKeyFrom, KEY treeKeyTo )
@@ -150,6 +238,15 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
 
     void startSeekForInitializedRange( IndexProgressor.EntityValueClient client, KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] query,
             IndexQueryConstraints constraints, boolean needFilter, PageCursorTracer cursorTracer )
+    {
+        startSeekForInitializedRange( client, treeKeyFrom, treeKeyTo, query, constraints, needFilter, false, cursorTracer );
+    }
+
+    /**
+     * @param filteredLookup whether or not this is a lookup let through by the {@link #uniqueLookupFilter}, which is then told if it found anything.
+     */
+    private void startSeekForInitializedRange( IndexProgressor.EntityValueClient client, KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] query,
+            IndexQueryConstraints constraints, boolean needFilter, boolean filteredLookup, PageCursorTracer cursorTracer )
     {
         if ( isEmptyRange( treeKeyFrom, treeKeyTo ) )
         {
@@ -160,6 +257,10 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         {
             Seeker<KEY,VALUE> seeker = makeIndexSeeker( treeKeyFrom, treeKeyTo, constraints.order(), cursorTracer );
             IndexProgressor hitProgressor = getIndexProgressor( seeker, client, needFilter, query );
+            if ( filteredLookup )
+            {
+                hitProgressor = uniqueLookupFilter.trackFalsePositive( hitProgressor );
+            }
             client.initialize( descriptor, hitProgressor, query, constraints, false );
         }
         catch ( IOException e )
@@ -189,4 +290,53 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     {
         return layout.compare( treeKeyFrom, treeKeyTo ) > 0;
     }
+
+    /**
+     * Hands out one {@link GBPTree#partitionRange(Object, Object, int, PageCursorTracer) partition} of the range per reservation.
+     * Partitions are often read on other threads than the one partitioning the range, so each partition is seeked when it is reserved,
+     * with the page cursor tracer of the thread reserving it. Seekers are closed by the {@link IndexProgressor} they are wrapped in.
+     */
+    private class NativePartitionedValueSeek implements PartitionedValueSeek
+    {
+        private final int numberOfPartitions;
+        private final Queue<Pair<KEY,KEY>> partitions;
+        private final IndexQuery[] query;
+        private final IndexQueryConstraints constraints;
+        private final boolean needFilter;
+
+        NativePartitionedValueSeek( Collection<Pair<KEY,KEY>> partitions, IndexQuery[] query, IndexQueryConstraints constraints, boolean needFilter )
+        {
+            this.numberOfPartitions = partitions.size();
+            this.partitions = new ConcurrentLinkedQueue<>( partitions );
+            this.query = query;
+            this.constraints = constraints;
+            this.needFilter = needFilter;
+        }
+
+        @Override
+        public int getNumberOfPartitions()
+        {
+            return numberOfPartitions;
+        }
+
+        @Override
+        public boolean reservePartition( IndexProgressor.EntityValueClient client, PageCursorTracer cursorTracer )
+        {
+            Pair<KEY,KEY> partition = partitions.poll();
+            if ( partition == null )
+            {
+                return false;
+            }
+            try
+            {
+                Seeker<KEY,VALUE> seeker = tree.seek( partition.getLeft(), partition.getRight(), cursorTracer );
+                client.initialize( descriptor, getIndexProgressor( seeker, client, needFilter, query ), query, constraints, false );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            return true;
+        }
+    }
 }
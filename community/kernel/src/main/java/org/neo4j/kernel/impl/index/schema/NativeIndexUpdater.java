@@ -24,6 +24,7 @@ import org.neo4j.io.IOUtils;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.UpdateMode;
 import org.neo4j.values.storable.Value;
 
 import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
@@ -34,14 +35,27 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
     private final KEY treeKey;
     private final VALUE treeValue;
     private final ConflictDetectingValueMerger<KEY,VALUE,Value[]> conflictDetectingValueMerger = new ThrowingConflictDetector<>( true );
+    private final IndexSampleSketch sampleSketch;
+    private final UniqueLookupFilter uniqueLookupFilter;
     private Writer<KEY,VALUE> writer;
 
     private boolean closed = true;
 
     NativeIndexUpdater( KEY treeKey, VALUE treeValue )
+    {
+        this( treeKey, treeValue, null, null );
+    }
+
+    /**
+     * @param sampleSketch sketch to keep up to date with the applied updates, or {@code null}.
+     * @param uniqueLookupFilter filter to add added values to, or {@code null}.
+     */
+    NativeIndexUpdater( KEY treeKey, VALUE treeValue, IndexSampleSketch sampleSketch, UniqueLookupFilter uniqueLookupFilter )
     {
         this.treeKey = treeKey;
         this.treeValue = treeValue;
+        this.sampleSketch = sampleSketch;
+        this.uniqueLookupFilter = uniqueLookupFilter;
     }
 
     NativeIndexUpdater<KEY,VALUE> initialize( Writer<KEY,VALUE> writer )
@@ -60,7 +74,40 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
     public void process( IndexEntryUpdate<?> update ) throws IndexEntryConflictException
     {
         assertOpen();
+        if ( uniqueLookupFilter != null && update.updateMode() != UpdateMode.REMOVED )
+        {
+            // Added before the tree is updated, so that a lookup finding the entry in the tree also gets through the filter
+            uniqueLookupFilter.add( update.values() );
+        }
         processUpdate( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
+        if ( sampleSketch != null )
+        {
+            includeInSketch( update );
+        }
+    }
+
+    /**
+     * Called after the update has been applied, so an update which failed because of a conflict isn't included.
+     * An added entry is assumed to not exist in the tree already, which holds for everything but recovery,
+     * and recovery invalidates the sketch anyway.
+     */
+    private void includeInSketch( IndexEntryUpdate<?> update )
+    {
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            sampleSketch.add( update.values() );
+            break;
+        case CHANGED:
+            sampleSketch.remove();
+            sampleSketch.add( update.values() );
+            break;
+        case REMOVED:
+            sampleSketch.remove();
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
     }
 
     @Override
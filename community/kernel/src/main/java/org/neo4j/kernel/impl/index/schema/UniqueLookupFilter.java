@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.hashing.HashFunction;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.IOUtils;
+import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.values.storable.ArrayValue;
+import org.neo4j.values.storable.NumberArray;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Bloom filter over the values in a unique index, letting exact lookups skip the {@link org.neo4j.index.internal.gbptree.GBPTree}
+ * for values which are definitely not in the index. Its size is fixed when created, so it saturates and lets more lookups
+ * through the more entries the index has.
+ * <p>
+ * Values are only ever added to the filter, removed values stay in it until the filter is rebuilt by the next time the index is opened.
+ * Values are hashed so that values which are equal in the index, e.g. {@code 1} and {@code 1.0} or {@code 'a'} and {@code "a"},
+ * end up with the same hash.
+ * <p>
+ * Values are added by the single index writer, lookups may happen concurrently with that.
+ */
+class UniqueLookupFilter
+{
+    private static final HashFunction HASH = HashFunction.incrementalXXH64();
+    private static final long SEED = 1;
+    /**
+     * Number of bits set for each value, which is the optimal number for a filter with about 6 bits per entry
+     * and doesn't give too many false positives for filters with more bits per entry.
+     */
+    private static final int HASHES = 4;
+
+    private final AtomicLongArray bits;
+    private final long bitMask;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder skippedLookups = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * @param sizeInBytes size of the filter, rounded down to the closest power of two.
+     */
+    UniqueLookupFilter( long sizeInBytes )
+    {
+        int words = Integer.highestOneBit( (int) Math.min( Integer.MAX_VALUE, Math.max( 1, sizeInBytes / Long.BYTES ) ) );
+        bits = new AtomicLongArray( words );
+        bitMask = (long) words * Long.SIZE - 1;
+    }
+
+    /**
+     * @return a filter of the given size if the index is unique and the size is positive, otherwise {@code null}.
+     */
+    static UniqueLookupFilter forIndex( IndexDescriptor descriptor, long sizeInBytes )
+    {
+        return descriptor.isUnique() && sizeInBytes > 0 ? new UniqueLookupFilter( sizeInBytes ) : null;
+    }
+
+    void add( Value[] values )
+    {
+        long hash = hash( values );
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> Integer.SIZE);
+        for ( int i = 0; i < HASHES; i++ )
+        {
+            long bit = (h1 + (long) i * h2) & bitMask;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ( (bits.get( word ) & mask) == 0 )
+            {
+                bits.getAndAccumulate( word, mask, ( current, add ) -> current | add );
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the values are definitely not in the index, otherwise {@code true}.
+     */
+    boolean mightContain( Value[] values )
+    {
+        lookups.increment();
+        long hash = hash( values );
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> Integer.SIZE);
+        for ( int i = 0; i < HASHES; i++ )
+        {
+            long bit = (h1 + (long) i * h2) & bitMask;
+            if ( (bits.get( (int) (bit >>> 6) ) & (1L << bit)) == 0 )
+            {
+                skippedLookups.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return progressor counting the lookup as a false positive if it doesn't find anything.
+     */
+    IndexProgressor trackFalsePositive( IndexProgressor progressor )
+    {
+        return new IndexProgressor()
+        {
+            private boolean found;
+            private boolean done;
+
+            @Override
+            public boolean next()
+            {
+                boolean next = progressor.next();
+                if ( next )
+                {
+                    found = true;
+                }
+                else if ( !found && !done )
+                {
+                    falsePositives.increment();
+                }
+                done |= !next;
+                return next;
+            }
+
+            @Override
+            public void close()
+            {
+                IOUtils.closeAllUnchecked( progressor );
+            }
+        };
+    }
+
+    void reportStatistics( IndexProvider.Monitor monitor, IndexDescriptor descriptor )
+    {
+        monitor.uniqueLookupFilterStatistics( descriptor, lookups.sum(), skippedLookups.sum(), falsePositives.sum() );
+    }
+
+    private static long hash( Value[] values )
+    {
+        long hash = HASH.initialise( SEED );
+        for ( Value value : values )
+        {
+            if ( value instanceof NumberValue )
+            {
+                hash = updateHash( hash, ((NumberValue) value).doubleValue() );
+            }
+            else if ( value instanceof NumberArray )
+            {
+                NumberArray array = (NumberArray) value;
+                for ( int i = 0; i < array.length(); i++ )
+                {
+                    hash = updateHash( hash, ((NumberValue) array.value( i )).doubleValue() );
+                }
+                hash = HASH.update( hash, array.length() );
+            }
+            else if ( value instanceof TextValue )
+            {
+                // Char values and the different string representations don't hash the same
+                String string = ((TextValue) value).stringValue();
+                for ( int i = 0; i < string.length(); i++ )
+                {
+                    hash = HASH.update( hash, string.charAt( i ) );
+                }
+                hash = HASH.update( hash, string.length() );
+            }
+            else if ( value instanceof ArrayValue )
+            {
+                // Arrays of different types may be equal in the index, e.g. char and string arrays, so only the length is safe to hash
+                hash = HASH.update( hash, ((ArrayValue) value).length() );
+            }
+            else
+            {
+                hash = value.updateHash( HASH, hash );
+            }
+        }
+        return HASH.finalise( hash );
+    }
+
+    private static long updateHash( long hash, double number )
+    {
+        // Integral and floating point numbers are equal in the index if they have the same value, also -0.0 and 0.0
+        return HASH.update( hash, Double.doubleToLongBits( number == 0 ? 0 : number ) );
+    }
+}
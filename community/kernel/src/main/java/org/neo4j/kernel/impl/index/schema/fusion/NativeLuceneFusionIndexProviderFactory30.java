@@ -82,7 +82,10 @@ public class NativeLuceneFusionIndexProviderFactory30 extends AbstractIndexProvi
         boolean readOnly = IndexProviderFactoryUtil.isReadOnly( config, isSingleInstance );
         boolean archiveFailedIndex = config.get( GraphDatabaseSettings.archive_failed_index );
 
-        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withReadOnly( readOnly ).build();
+        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withReadOnly( readOnly )
+                .withIncrementalSampling( config.get( GraphDatabaseSettings.index_sampling_incremental ) )
+                .withUniqueLookupFilterSize( config.get( GraphDatabaseSettings.index_unique_lookup_filter_size ) )
+                .withConcurrentWriters( config.get( GraphDatabaseSettings.index_concurrent_writers ) ).build();
         GenericNativeIndexProvider generic =
                 new GenericNativeIndexProvider( databaseIndexContext, childDirectoryStructure,
                         recoveryCleanupWorkCollector, config );
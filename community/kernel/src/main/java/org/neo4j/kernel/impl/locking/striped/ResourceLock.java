@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.striped;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.lock.ResourceType;
+
+/**
+ * Global state of the lock on one resource. All fields are guarded by the {@link StripedLockManager.LockStripe} the resource maps to.
+ */
+final class ResourceLock
+{
+    final ResourceType resourceType;
+    final long resourceId;
+    final StripedLockManager.LockStripe stripe;
+
+    StripedLockClient exclusiveOwner;
+    // Each client holds a shared lock at most once, its own reentrancy is counted locally, so a set keeps release constant time
+    final Set<StripedLockClient> sharedOwners = Collections.newSetFromMap( new IdentityHashMap<>( 4 ) );
+    int waiters;
+    long waitingSinceMillis;
+
+    ResourceLock( ResourceType resourceType, long resourceId, StripedLockManager.LockStripe stripe )
+    {
+        this.resourceType = resourceType;
+        this.resourceId = resourceId;
+        this.stripe = stripe;
+    }
+
+    /**
+     * Shared locks can be granted while no other client holds the exclusive lock. The exclusive lock can be granted while no
+     * other client holds any lock, which also makes it possible to upgrade a shared lock held only by the acquiring client.
+     */
+    boolean tryAcquire( StripedLockClient client, boolean exclusive )
+    {
+        if ( exclusiveOwner != null && exclusiveOwner != client )
+        {
+            return false;
+        }
+        if ( exclusive )
+        {
+            if ( !sharedOwners.isEmpty() && (sharedOwners.size() > 1 || !sharedOwners.contains( client )) )
+            {
+                return false;
+            }
+            exclusiveOwner = client;
+        }
+        else
+        {
+            sharedOwners.add( client );
+        }
+        return true;
+    }
+
+    void release( StripedLockClient client, boolean exclusive )
+    {
+        if ( exclusive )
+        {
+            exclusiveOwner = null;
+        }
+        else
+        {
+            sharedOwners.remove( client );
+        }
+    }
+
+    boolean isHeld()
+    {
+        return exclusiveOwner != null || !sharedOwners.isEmpty();
+    }
+
+    List<StripedLockClient> holders()
+    {
+        List<StripedLockClient> holders = new ArrayList<>( sharedOwners );
+        if ( exclusiveOwner != null )
+        {
+            holders.add( exclusiveOwner );
+        }
+        return holders;
+    }
+
+    @Override
+    public String toString()
+    {
+        return resourceType + "(" + resourceId + ")";
+    }
+}
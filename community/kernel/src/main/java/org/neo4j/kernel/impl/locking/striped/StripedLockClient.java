@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.striped;
+
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import org.neo4j.kernel.impl.api.LeaseClient;
+import org.neo4j.kernel.impl.locking.ActiveLock;
+import org.neo4j.kernel.impl.locking.LockClientStateHolder;
+import org.neo4j.kernel.impl.locking.LockClientStoppedException;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.ResourceType;
+
+import static java.lang.String.format;
+
+/**
+ * Client of a {@link StripedLockManager}. Lock re-entrancy is tracked locally, in maps of reference counts per resource type and id,
+ * so the lock manager is only involved when a client acquires a lock it does not already hold or releases its last reference to it.
+ */
+public class StripedLockClient implements Locks.Client
+{
+    private static final AtomicInteger CLIENT_IDS = new AtomicInteger();
+
+    private final StripedLockManager manager;
+    private final int clientId = CLIENT_IDS.incrementAndGet();
+    private final MutableIntObjectMap<MutableLongIntMap> sharedLocks = new IntObjectHashMap<>();
+    private final MutableIntObjectMap<MutableLongIntMap> exclusiveLocks = new IntObjectHashMap<>();
+    private final LockClientStateHolder stateHolder = new LockClientStateHolder();
+    private volatile boolean stopped;
+
+    /**
+     * The lock this client is currently waiting for, read by other clients during deadlock detection.
+     */
+    volatile ResourceLock waitingFor;
+
+    StripedLockClient( StripedLockManager manager )
+    {
+        this.manager = manager;
+    }
+
+    @Override
+    public void initialize( LeaseClient leaseClient )
+    {
+        // we don't need lease here
+    }
+
+    @Override
+    public void acquireShared( LockTracer tracer, ResourceType resourceType, long... resourceIds )
+    {
+        acquire( tracer, resourceType, resourceIds, false );
+    }
+
+    @Override
+    public void acquireExclusive( LockTracer tracer, ResourceType resourceType, long... resourceIds )
+    {
+        acquire( tracer, resourceType, resourceIds, true );
+    }
+
+    @Override
+    public boolean tryExclusiveLock( ResourceType resourceType, long resourceId )
+    {
+        return tryAcquire( resourceType, resourceId, true );
+    }
+
+    @Override
+    public boolean trySharedLock( ResourceType resourceType, long resourceId )
+    {
+        return tryAcquire( resourceType, resourceId, false );
+    }
+
+    @Override
+    public boolean reEnterShared( ResourceType resourceType, long resourceId )
+    {
+        return reEnter( resourceType, resourceId, false );
+    }
+
+    @Override
+    public boolean reEnterExclusive( ResourceType resourceType, long resourceId )
+    {
+        return reEnter( resourceType, resourceId, true );
+    }
+
+    @Override
+    public void releaseShared( ResourceType resourceType, long... resourceIds )
+    {
+        release( resourceType, resourceIds, false );
+    }
+
+    @Override
+    public void releaseExclusive( ResourceType resourceType, long... resourceIds )
+    {
+        release( resourceType, resourceIds, true );
+    }
+
+    @Override
+    public void prepare()
+    {
+        stateHolder.prepare( this );
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( stateHolder.stopClient() )
+        {
+            stopped = true;
+            wakeUpWaiterAndWaitForClientsToLeave();
+            releaseLocks();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        stateHolder.closeClient();
+        stopped = true;
+        wakeUpWaiterAndWaitForClientsToLeave();
+        releaseLocks();
+    }
+
+    @Override
+    public int getLockSessionId()
+    {
+        return clientId;
+    }
+
+    @Override
+    public Stream<ActiveLock> activeLocks()
+    {
+        List<ActiveLock> locks = new ArrayList<>();
+        collectActiveLocks( exclusiveLocks, locks, ActiveLock.Factory.EXCLUSIVE_LOCK );
+        collectActiveLocks( sharedLocks, locks, ActiveLock.Factory.SHARED_LOCK );
+        return locks.stream();
+    }
+
+    @Override
+    public long activeLockCount()
+    {
+        return exclusiveLocks.sumOfInt( MutableLongIntMap::size ) + sharedLocks.sumOfInt( MutableLongIntMap::size );
+    }
+
+    boolean isStopped()
+    {
+        return stopped;
+    }
+
+    private void acquire( LockTracer tracer, ResourceType resourceType, long[] resourceIds, boolean exclusive )
+    {
+        stateHolder.incrementActiveClients( this );
+        try
+        {
+            MutableLongIntMap localLocks = localLocks( resourceType, exclusive );
+            for ( long resourceId : resourceIds )
+            {
+                if ( localLocks.containsKey( resourceId ) )
+                {
+                    localLocks.addToValue( resourceId, 1 );
+                }
+                else if ( manager.acquire( this, tracer, resourceType, resourceId, exclusive ) )
+                {
+                    localLocks.put( resourceId, 1 );
+                }
+                else
+                {
+                    throw new LockClientStoppedException( this );
+                }
+            }
+        }
+        finally
+        {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    private boolean tryAcquire( ResourceType resourceType, long resourceId, boolean exclusive )
+    {
+        stateHolder.incrementActiveClients( this );
+        try
+        {
+            MutableLongIntMap localLocks = localLocks( resourceType, exclusive );
+            if ( localLocks.containsKey( resourceId ) )
+            {
+                localLocks.addToValue( resourceId, 1 );
+                return true;
+            }
+            if ( manager.tryAcquire( this, resourceType, resourceId, exclusive ) )
+            {
+                localLocks.put( resourceId, 1 );
+                return true;
+            }
+            return false;
+        }
+        finally
+        {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    private boolean reEnter( ResourceType resourceType, long resourceId, boolean exclusive )
+    {
+        stateHolder.incrementActiveClients( this );
+        try
+        {
+            MutableLongIntMap localLocks = localLocks( resourceType, exclusive );
+            if ( localLocks.containsKey( resourceId ) )
+            {
+                localLocks.addToValue( resourceId, 1 );
+                return true;
+            }
+            return false;
+        }
+        finally
+        {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    private void release( ResourceType resourceType, long[] resourceIds, boolean exclusive )
+    {
+        stateHolder.incrementActiveClients( this );
+        try
+        {
+            MutableLongIntMap localLocks = localLocks( resourceType, exclusive );
+            for ( long resourceId : resourceIds )
+            {
+                if ( !localLocks.containsKey( resourceId ) )
+                {
+                    throw new IllegalStateException( format( "%s cannot release %s lock on %s(%d) that it does not hold",
+                            this, exclusive ? "exclusive" : "shared", resourceType, resourceId ) );
+                }
+                if ( localLocks.addToValue( resourceId, -1 ) == 0 )
+                {
+                    localLocks.remove( resourceId );
+                    manager.release( this, resourceType, resourceId, exclusive );
+                }
+            }
+        }
+        finally
+        {
+            stateHolder.decrementActiveClients();
+        }
+    }
+
+    private void wakeUpWaiterAndWaitForClientsToLeave()
+    {
+        StripedLockManager.wakeUp( this );
+        while ( stateHolder.hasActiveClients() )
+        {
+            StripedLockManager.wakeUp( this );
+            LockSupport.parkNanos( TimeUnit.MILLISECONDS.toNanos( 20 ) );
+        }
+    }
+
+    private synchronized void releaseLocks()
+    {
+        exclusiveLocks.forEachKeyValue( ( typeId, locks ) ->
+                locks.forEachKey( resourceId -> manager.release( this, manager.resourceType( typeId ), resourceId, true ) ) );
+        sharedLocks.forEachKeyValue( ( typeId, locks ) ->
+                locks.forEachKey( resourceId -> manager.release( this, manager.resourceType( typeId ), resourceId, false ) ) );
+        exclusiveLocks.clear();
+        sharedLocks.clear();
+    }
+
+    private MutableLongIntMap localLocks( ResourceType resourceType, boolean exclusive )
+    {
+        MutableIntObjectMap<MutableLongIntMap> locks = exclusive ? exclusiveLocks : sharedLocks;
+        return locks.getIfAbsentPut( resourceType.typeId(), LongIntHashMap::new );
+    }
+
+    private void collectActiveLocks( MutableIntObjectMap<MutableLongIntMap> locksByType, List<ActiveLock> locks, ActiveLock.Factory activeLock )
+    {
+        locksByType.forEachKeyValue( ( typeId, typeLocks ) ->
+        {
+            ResourceType resourceType = manager.resourceType( typeId );
+            typeLocks.forEachKey( resourceId -> locks.add( activeLock.create( resourceType, resourceId ) ) );
+        } );
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "%s[%d]", getClass().getSimpleName(), getLockSessionId() );
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.striped;
+
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.locking.LockAcquisitionTimeoutException;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.LockWaitEvent;
+import org.neo4j.lock.ResourceType;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+import static org.neo4j.util.FeatureToggles.getLong;
+
+/**
+ * Lock manager that keeps the lock state of each resource in one of a number of stripes per resource type, instead of
+ * in a single map guarded by one monitor. Acquiring or releasing a lock only synchronizes on the stripe the resource maps to,
+ * so clients locking different resources rarely contend with each other.
+ * <p>
+ * Deadlock detection is lazy. A waiting client only walks the wait-for graph once it has been waiting for longer than
+ * the deadlock detection threshold, and then again each time that threshold passes while it keeps waiting. The walk
+ * looks at the holders of one lock at a time, never holding more than one stripe monitor.
+ */
+public class StripedLockManager implements Locks
+{
+    private static final int STRIPES = Integer.highestOneBit( getInteger( StripedLockManager.class, "stripes", 128 ) );
+    private static final long DEADLOCK_DETECTION_THRESHOLD_MILLIS = getLong( StripedLockManager.class, "deadlockDetectionThresholdMillis", 50 );
+
+    private final LockStripe[][] stripesByType;
+    private final Clock clock;
+
+    /**
+     * Time within which any particular lock should be acquired.
+     * @see GraphDatabaseSettings#lock_acquisition_timeout
+     */
+    private final long lockAcquisitionTimeoutMillis;
+    private volatile boolean closed;
+
+    public StripedLockManager( Config config, Clock clock, ResourceType[] resourceTypes )
+    {
+        this.clock = clock;
+        this.lockAcquisitionTimeoutMillis = config.get( GraphDatabaseSettings.lock_acquisition_timeout ).toMillis();
+        int maxTypeId = 0;
+        for ( ResourceType resourceType : resourceTypes )
+        {
+            maxTypeId = Math.max( maxTypeId, resourceType.typeId() );
+        }
+        this.stripesByType = new LockStripe[maxTypeId + 1][];
+        for ( ResourceType resourceType : resourceTypes )
+        {
+            LockStripe[] stripes = new LockStripe[STRIPES];
+            for ( int i = 0; i < STRIPES; i++ )
+            {
+                stripes[i] = new LockStripe( resourceType );
+            }
+            stripesByType[resourceType.typeId()] = stripes;
+        }
+    }
+
+    @Override
+    public Client newClient()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( this + " already closed" );
+        }
+        return new StripedLockClient( this );
+    }
+
+    @Override
+    public void accept( Visitor visitor )
+    {
+        for ( LockStripe[] stripes : stripesByType )
+        {
+            if ( stripes == null )
+            {
+                continue;
+            }
+            for ( LockStripe stripe : stripes )
+            {
+                synchronized ( stripe )
+                {
+                    long now = clock.millis();
+                    stripe.locks.forEachValue( lock ->
+                    {
+                        if ( lock.isHeld() )
+                        {
+                            long waitTime = lock.waiters > 0 ? now - lock.waitingSinceMillis : 0;
+                            visitor.visit( lock.resourceType, lock.resourceId, describe( lock ), waitTime, System.identityHashCode( lock ) );
+                        }
+                    } );
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+    }
+
+    /**
+     * @return {@code true} if the lock was acquired, {@code false} if the client was stopped while waiting for it.
+     */
+    boolean acquire( StripedLockClient client, LockTracer tracer, ResourceType resourceType, long resourceId, boolean exclusive )
+    {
+        LockStripe stripe = stripe( resourceType, resourceId );
+        ResourceLock lock;
+        synchronized ( stripe )
+        {
+            lock = stripe.lock( resourceId );
+            if ( lock.tryAcquire( client, exclusive ) )
+            {
+                return true;
+            }
+            if ( lock.waiters++ == 0 )
+            {
+                lock.waitingSinceMillis = clock.millis();
+            }
+        }
+        return awaitLock( client, tracer, lock, exclusive );
+    }
+
+    boolean tryAcquire( StripedLockClient client, ResourceType resourceType, long resourceId, boolean exclusive )
+    {
+        LockStripe stripe = stripe( resourceType, resourceId );
+        synchronized ( stripe )
+        {
+            ResourceLock lock = stripe.lock( resourceId );
+            if ( lock.tryAcquire( client, exclusive ) )
+            {
+                return true;
+            }
+            stripe.removeIfUnused( lock );
+            return false;
+        }
+    }
+
+    void release( StripedLockClient client, ResourceType resourceType, long resourceId, boolean exclusive )
+    {
+        LockStripe stripe = stripe( resourceType, resourceId );
+        synchronized ( stripe )
+        {
+            ResourceLock lock = stripe.locks.get( resourceId );
+            lock.release( client, exclusive );
+            if ( lock.waiters > 0 )
+            {
+                stripe.notifyAll();
+            }
+            else
+            {
+                stripe.removeIfUnused( lock );
+            }
+        }
+    }
+
+    ResourceType resourceType( int typeId )
+    {
+        return stripesByType[typeId][0].resourceType;
+    }
+
+    /**
+     * Wakes up the thread of the given client, if it is waiting for a lock, so that it notices that the client has been stopped.
+     */
+    static void wakeUp( StripedLockClient client )
+    {
+        ResourceLock waitingFor = client.waitingFor;
+        if ( waitingFor != null )
+        {
+            synchronized ( waitingFor.stripe )
+            {
+                waitingFor.stripe.notifyAll();
+            }
+        }
+    }
+
+    private boolean awaitLock( StripedLockClient client, LockTracer tracer, ResourceLock lock, boolean exclusive )
+    {
+        LockStripe stripe = lock.stripe;
+        client.waitingFor = lock;
+        long timeBoundary = clock.millis() + lockAcquisitionTimeoutMillis;
+        long nextDeadlockDetectionNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( DEADLOCK_DETECTION_THRESHOLD_MILLIS );
+        try ( LockWaitEvent ignored = tracer.waitForLock( exclusive, lock.resourceType, lock.resourceId ) )
+        {
+            while ( true )
+            {
+                synchronized ( stripe )
+                {
+                    if ( lock.tryAcquire( client, exclusive ) )
+                    {
+                        return true;
+                    }
+                    if ( client.isStopped() )
+                    {
+                        return false;
+                    }
+                    assertNotExpired( lock, timeBoundary );
+                    waitUninterruptedly( stripe, waitTimeMillis( timeBoundary ) );
+                    if ( lock.tryAcquire( client, exclusive ) )
+                    {
+                        return true;
+                    }
+                }
+                if ( System.nanoTime() - nextDeadlockDetectionNanos >= 0 )
+                {
+                    detectDeadlock( client, lock );
+                    nextDeadlockDetectionNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( DEADLOCK_DETECTION_THRESHOLD_MILLIS );
+                }
+            }
+        }
+        finally
+        {
+            client.waitingFor = null;
+            synchronized ( stripe )
+            {
+                lock.waiters--;
+                stripe.removeIfUnused( lock );
+            }
+        }
+    }
+
+    private long waitTimeMillis( long timeBoundary )
+    {
+        long waitTime = Math.max( DEADLOCK_DETECTION_THRESHOLD_MILLIS, 1 );
+        if ( lockAcquisitionTimeoutMillis > 0 )
+        {
+            waitTime = Math.max( Math.min( waitTime, timeBoundary - clock.millis() ), 1 );
+        }
+        return waitTime;
+    }
+
+    private static void waitUninterruptedly( LockStripe stripe, long waitTimeMillis )
+    {
+        try
+        {
+            stripe.wait( waitTimeMillis );
+        }
+        catch ( InterruptedException e )
+        {
+            // Waiting is retried by the caller, which also notices if the client was stopped
+            Thread.interrupted();
+        }
+    }
+
+    private void assertNotExpired( ResourceLock lock, long timeBoundary )
+    {
+        if ( lockAcquisitionTimeoutMillis > 0 && timeBoundary < clock.millis() )
+        {
+            throw new LockAcquisitionTimeoutException( lock.resourceType, lock.resourceId, lockAcquisitionTimeoutMillis );
+        }
+    }
+
+    /**
+     * Walks the wait-for graph starting at the holders of the lock the given client waits for. The holders of each lock are looked at
+     * under the monitor of its stripe, one lock at a time, so the graph is not a consistent snapshot. A cycle involving clients that
+     * are all still waiting cannot resolve itself though, which is what waiting past the detection threshold before looking is for.
+     */
+    private static void detectDeadlock( StripedLockClient client, ResourceLock lock )
+    {
+        Set<StripedLockClient> visited = new HashSet<>();
+        Deque<StripedLockClient> toVisit = new ArrayDeque<>();
+        for ( StripedLockClient holder : holders( lock ) )
+        {
+            if ( holder != client )
+            {
+                toVisit.push( holder );
+            }
+        }
+        while ( !toVisit.isEmpty() )
+        {
+            StripedLockClient waitingClient = toVisit.pop();
+            ResourceLock waitingFor = waitingClient.waitingFor;
+            if ( !visited.add( waitingClient ) || waitingFor == null )
+            {
+                continue;
+            }
+            for ( StripedLockClient holder : holders( waitingFor ) )
+            {
+                if ( holder == client )
+                {
+                    throw new DeadlockDetectedException( client + " can't wait on resource " + lock + " since " + waitingClient +
+                            ", which directly or indirectly waits for " + client + ", waits on resource " + waitingFor );
+                }
+                if ( holder != waitingClient )
+                {
+                    toVisit.push( holder );
+                }
+            }
+        }
+    }
+
+    private static List<StripedLockClient> holders( ResourceLock lock )
+    {
+        synchronized ( lock.stripe )
+        {
+            return lock.holders();
+        }
+    }
+
+    private static String describe( ResourceLock lock )
+    {
+        if ( lock.exclusiveOwner != null )
+        {
+            return "ExclusiveLock[" + lock + ", owner:" + lock.exclusiveOwner + "]";
+        }
+        return "SharedLock[" + lock + ", owners:" + lock.sharedOwners + "]";
+    }
+
+    private LockStripe stripe( ResourceType resourceType, long resourceId )
+    {
+        // Spread the id bits so that sequential ids end up in different stripes
+        long hash = resourceId * 0x9E3779B97F4A7C15L;
+        return stripesByType[resourceType.typeId()][(int) (hash >>> 32) & (STRIPES - 1)];
+    }
+
+    /**
+     * The lock states of the resources mapping to this stripe. Also the monitor that guards those states, and that clients
+     * waiting for any of them wait on.
+     */
+    static final class LockStripe
+    {
+        private final ResourceType resourceType;
+        private final MutableLongObjectMap<ResourceLock> locks = new LongObjectHashMap<>();
+
+        LockStripe( ResourceType resourceType )
+        {
+            this.resourceType = resourceType;
+        }
+
+        ResourceLock lock( long resourceId )
+        {
+            ResourceLock lock = locks.get( resourceId );
+            if ( lock == null )
+            {
+                lock = new ResourceLock( resourceType, resourceId, this );
+                locks.put( resourceId, lock );
+            }
+            return lock;
+        }
+
+        void removeIfUnused( ResourceLock lock )
+        {
+            if ( lock.waiters == 0 && !lock.isHeld() )
+            {
+                locks.remove( lock.resourceId );
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.kernel.api.TokenSet;
 import org.neo4j.internal.schema.IndexOrder;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexProgressor.EntityTokenClient;
 import org.neo4j.storageengine.api.txstate.LongDiffSets;
@@ -49,13 +50,15 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<IndexProgressor> implement
 
     private final CursorPool<DefaultNodeLabelIndexCursor> pool;
     private final DefaultNodeCursor nodeCursor;
+    private final PageCursorTracer cursorTracer;
     private AccessMode accessMode;
     private boolean shortcutSecurity;
 
-    DefaultNodeLabelIndexCursor( CursorPool<DefaultNodeLabelIndexCursor> pool, DefaultNodeCursor nodeCursor )
+    DefaultNodeLabelIndexCursor( CursorPool<DefaultNodeLabelIndexCursor> pool, DefaultNodeCursor nodeCursor, PageCursorTracer cursorTracer )
     {
         this.pool = pool;
         this.nodeCursor = nodeCursor;
+        this.cursorTracer = cursorTracer;
         this.node = NO_ID;
     }
 
@@ -208,6 +211,14 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<IndexProgressor> implement
         this.read = read;
     }
 
+    /**
+     * @return the tracer this cursor was allocated with, which batches of a parallel scan should also be read with.
+     */
+    PageCursorTracer cursorTracer()
+    {
+        return cursorTracer;
+    }
+
     @Override
     public void node( NodeCursor cursor )
     {
@@ -329,7 +329,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         if ( nodeLabelIndexCursor == null )
         {
             return trace( new DefaultNodeLabelIndexCursor( this::accept, new DefaultNodeCursor(
-                    this::accept, storageReader.allocateNodeCursor( cursorTracer ), storageReader.allocateNodeCursor( cursorTracer ) ) ) );
+                    this::accept, storageReader.allocateNodeCursor( cursorTracer ), storageReader.allocateNodeCursor( cursorTracer ) ), cursorTracer ) );
         }
 
         try
@@ -357,7 +357,8 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         if ( fullAccessNodeLabelIndexCursor == null )
         {
             return trace( new FullAccessNodeLabelIndexCursor( this::acceptFullAccess, new FullAccessNodeCursor(
-                    this::acceptFullAccess, storageReader.allocateNodeCursor( cursorTracer ), storageReader.allocateNodeCursor( cursorTracer ) ) ) );
+                    this::acceptFullAccess, storageReader.allocateNodeCursor( cursorTracer ), storageReader.allocateNodeCursor( cursorTracer ) ),
+                    cursorTracer ) );
         }
 
         try
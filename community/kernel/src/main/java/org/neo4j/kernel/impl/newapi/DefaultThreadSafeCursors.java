@@ -104,7 +104,7 @@ public class DefaultThreadSafeCursors extends DefaultCursors implements CursorFa
     @Override
     public NodeLabelIndexCursor allocateNodeLabelIndexCursor( PageCursorTracer cursorTracer )
     {
-        return trace( new DefaultNodeLabelIndexCursor( DefaultNodeLabelIndexCursor::release, allocateNodeCursor( cursorTracer ) ) );
+        return trace( new DefaultNodeLabelIndexCursor( DefaultNodeLabelIndexCursor::release, allocateNodeCursor( cursorTracer ), cursorTracer ) );
     }
 
     @Override
@@ -20,12 +20,13 @@
 package org.neo4j.kernel.impl.newapi;
 
 import org.neo4j.internal.kernel.api.TokenSet;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 class FullAccessNodeLabelIndexCursor extends DefaultNodeLabelIndexCursor
 {
-    FullAccessNodeLabelIndexCursor( CursorPool<DefaultNodeLabelIndexCursor> pool, DefaultNodeCursor nodeCursor )
+    FullAccessNodeLabelIndexCursor( CursorPool<DefaultNodeLabelIndexCursor> pool, DefaultNodeCursor nodeCursor, PageCursorTracer cursorTracer )
     {
-        super( pool, nodeCursor );
+        super( pool, nodeCursor, cursorTracer );
     }
 
     protected boolean allowed( long reference, TokenSet labels )
@@ -22,14 +22,13 @@ package org.neo4j.kernel.impl.newapi;
 import org.eclipse.collections.api.iterator.LongIterator;
 
 import org.neo4j.internal.kernel.api.NodeCursor;
-import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.storageengine.api.AllNodeScan;
 
 final class NodeCursorScan extends BaseCursorScan<NodeCursor,AllNodeScan>
 {
-    NodeCursorScan( AllNodeScan allNodeScan, Read read, PageCursorTracer cursorTracer )
+    NodeCursorScan( AllNodeScan allNodeScan, Read read )
     {
-        super( allNodeScan, read, () -> read.txState().addedAndRemovedNodes().getAdded().toArray(), cursorTracer );
+        super( allNodeScan, read, () -> read.txState().addedAndRemovedNodes().getAdded().toArray() );
     }
 
     @Override
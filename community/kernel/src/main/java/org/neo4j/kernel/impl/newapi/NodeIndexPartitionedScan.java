@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
+
+/**
+ * {@link PartitionedScan} over {@link NodeValueIndexCursor node value index cursors}, handing out the partitions of a {@link PartitionedValueSeek}.
+ */
+class NodeIndexPartitionedScan implements PartitionedScan<NodeValueIndexCursor>
+{
+    private final Read read;
+    private final PartitionedValueSeek valueSeek;
+
+    NodeIndexPartitionedScan( Read read, PartitionedValueSeek valueSeek )
+    {
+        this.read = read;
+        this.valueSeek = valueSeek;
+    }
+
+    @Override
+    public int getNumberOfPartitions()
+    {
+        return valueSeek.getNumberOfPartitions();
+    }
+
+    @Override
+    public boolean reservePartition( NodeValueIndexCursor cursor, PageCursorTracer cursorTracer )
+    {
+        DefaultNodeValueIndexCursor indexCursor = (DefaultNodeValueIndexCursor) cursor;
+        indexCursor.setRead( read );
+        return valueSeek.reservePartition( indexCursor, cursorTracer );
+    }
+}
@@ -25,7 +25,6 @@ import org.eclipse.collections.impl.factory.primitive.LongSets;
 
 import org.neo4j.internal.index.label.TokenScan;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
-import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.txstate.TransactionState;
 
@@ -36,9 +35,9 @@ class NodeLabelIndexCursorScan extends BaseCursorScan<NodeLabelIndexCursor,Token
     private final LongSet removed;
     private final int label;
 
-    NodeLabelIndexCursorScan( Read read, int label, TokenScan tokenScan, PageCursorTracer cursorTracer )
+    NodeLabelIndexCursorScan( Read read, int label, TokenScan tokenScan )
     {
-        super( tokenScan, read, () -> read.txState().nodesWithLabelChanged( label ).getAdded().toArray(), cursorTracer );
+        super( tokenScan, read, () -> read.txState().nodesWithLabelChanged( label ).getAdded().toArray() );
         this.label = label;
         if ( hasChanges )
         {
@@ -57,7 +56,7 @@ class NodeLabelIndexCursorScan extends BaseCursorScan<NodeLabelIndexCursor,Token
     {
         DefaultNodeLabelIndexCursor indexCursor = (DefaultNodeLabelIndexCursor) cursor;
         indexCursor.setRead( read );
-        IndexProgressor indexProgressor = storageScan.initializeBatch( indexCursor.nodeLabelClient(), sizeHint, cursorTracer );
+        IndexProgressor indexProgressor = storageScan.initializeBatch( indexCursor.nodeLabelClient(), sizeHint, indexCursor.cursorTracer() );
 
         if ( indexProgressor == IndexProgressor.EMPTY && !addedItems.hasNext() )
         {
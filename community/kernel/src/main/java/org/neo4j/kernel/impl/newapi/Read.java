@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.exceptions.KernelException;
@@ -33,6 +35,7 @@ import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.QueryContext;
 import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
@@ -42,6 +45,7 @@ import org.neo4j.internal.kernel.api.RelationshipTypeIndexCursor;
 import org.neo4j.internal.kernel.api.Scan;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException;
+import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.internal.schema.SchemaDescriptor;
@@ -51,6 +55,7 @@ import org.neo4j.kernel.api.AssertOpen;
 import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.PartitionedValueSeek;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.api.txstate.TxStateHolder;
 import org.neo4j.kernel.impl.api.KernelTransactionImplementation;
@@ -113,6 +118,90 @@ abstract class Read implements TxStateHolder,
         indexSession.reader.query( this, withFullPrecision, constraints, cursorTracer, query );
     }
 
+    @Override
+    public final PartitionedScan<NodeValueIndexCursor> nodeIndexSeek( IndexReadSession index, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints, IndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        ktx.assertOpen();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+
+        if ( indexSession.reference.schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node index seek can only be performed on node indexes: " + index );
+        }
+        return partitionedNodeIndexSeek( indexSession, desiredNumberOfPartitions, constraints, query );
+    }
+
+    private PartitionedScan<NodeValueIndexCursor> partitionedNodeIndexSeek( DefaultIndexReadSession indexSession, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints, IndexQuery... query ) throws IndexNotApplicableKernelException
+    {
+        IndexReader reader = indexSession.reader;
+        if ( desiredNumberOfPartitions < 1 )
+        {
+            throw new IllegalArgumentException( "Expected at least one partition, but got " + desiredNumberOfPartitions );
+        }
+        // Changes in the transaction state are merged into the result by the cursor, which only works when it sees the whole result.
+        // Results needing post-filtering would also need per partition property cursors, so read those in one partition.
+        // The same goes for results the user may only see parts of, since every node is then read to check its labels.
+        if ( desiredNumberOfPartitions == 1 || hasTxStateWithChanges() || constraints.isOrdered() ||
+                !reader.supportsPartitionedQuery( query ) || !reader.hasFullValuePrecision( query ) || !allowsAllOf( indexSession.reference ) )
+        {
+            return new NodeIndexPartitionedScan( this, singlePartition( reader, constraints, query ) );
+        }
+        return new NodeIndexPartitionedScan( this, reader.partitionedQuery( desiredNumberOfPartitions, constraints, cursorTracer, query ) );
+    }
+
+    private boolean allowsAllOf( IndexDescriptor index )
+    {
+        AccessMode accessMode = ktx.securityContext().mode();
+        for ( int label : index.schema().getEntityTokenIds() )
+        {
+            if ( !accessMode.allowsTraverseAllNodesWithLabel( label ) )
+            {
+                return false;
+            }
+        }
+        for ( int propertyKey : index.schema().getPropertyIds() )
+        {
+            if ( !accessMode.allowsReadPropertyAllLabels( propertyKey ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private PartitionedValueSeek singlePartition( IndexReader reader, IndexQueryConstraints constraints, IndexQuery[] query )
+    {
+        AtomicBoolean reserved = new AtomicBoolean();
+        return new PartitionedValueSeek()
+        {
+            @Override
+            public int getNumberOfPartitions()
+            {
+                return 1;
+            }
+
+            @Override
+            public boolean reservePartition( IndexProgressor.EntityValueClient client, PageCursorTracer partitionCursorTracer )
+            {
+                if ( !reserved.compareAndSet( false, true ) )
+                {
+                    return false;
+                }
+                try
+                {
+                    reader.query( Read.this, injectFullValuePrecision( client, query, reader ), constraints, partitionCursorTracer, query );
+                }
+                catch ( IndexNotApplicableKernelException e )
+                {
+                    throw new IllegalArgumentException( "Unexpectedly the index reader couldn't handle this query", e );
+                }
+                return true;
+            }
+        };
+    }
+
     @Override
     public final void relationshipIndexSeek( IndexDescriptor index, RelationshipIndexCursor cursor, IndexQueryConstraints constraints, IndexQuery... query )
             throws IndexNotApplicableKernelException, IndexNotFoundKernelException
@@ -243,6 +332,22 @@ abstract class Read implements TxStateHolder,
         indexSession.reader.query( this, cursorImpl, constraints, cursorTracer, IndexQuery.exists( firstProperty ) );
     }
 
+    @Override
+    public final PartitionedScan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions,
+            IndexQueryConstraints constraints ) throws KernelException
+    {
+        ktx.assertOpen();
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+
+        if ( indexSession.reference.schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node index scan can only be performed on node indexes: " + index );
+        }
+
+        int firstProperty = indexSession.reference.schema().getPropertyIds()[0];
+        return partitionedNodeIndexSeek( indexSession, desiredNumberOfPartitions, constraints, IndexQuery.exists( firstProperty ) );
+    }
+
     @Override
     public final void nodeLabelScan( int label, NodeLabelIndexCursor cursor, IndexOrder order )
     {
@@ -258,7 +363,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<NodeLabelIndexCursor> nodeLabelScan( int label )
     {
         ktx.assertOpen();
-        return new NodeLabelIndexCursorScan( this, label, labelScanReader().entityTokenScan( label, cursorTracer ), cursorTracer );
+        return new NodeLabelIndexCursorScan( this, label, labelScanReader().entityTokenScan( label, cursorTracer ) );
     }
 
     @Override
@@ -272,7 +377,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<NodeCursor> allNodesScan()
     {
         ktx.assertOpen();
-        return new NodeCursorScan( storageReader.allNodeScan(), this, cursorTracer );
+        return new NodeCursorScan( storageReader.allNodeScan(), this );
     }
 
     @Override
@@ -300,7 +405,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<RelationshipScanCursor> allRelationshipsScan()
     {
         ktx.assertOpen();
-        return new RelationshipCursorScan( storageReader.allRelationshipScan(), this, cursorTracer );
+        return new RelationshipCursorScan( storageReader.allRelationshipScan(), this );
     }
 
     @Override
@@ -22,15 +22,14 @@ package org.neo4j.kernel.impl.newapi;
 import org.eclipse.collections.api.iterator.LongIterator;
 
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
-import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.storageengine.api.AllRelationshipsScan;
 
 final class RelationshipCursorScan extends BaseCursorScan<RelationshipScanCursor,AllRelationshipsScan>
 {
 
-    RelationshipCursorScan( AllRelationshipsScan allRelationshipsScan, Read read, PageCursorTracer cursorTracer )
+    RelationshipCursorScan( AllRelationshipsScan allRelationshipsScan, Read read )
     {
-        super( allRelationshipsScan, read, () -> read.txState().addedAndRemovedRelationships().getAdded().toArray(), cursorTracer );
+        super( allRelationshipsScan, read, () -> read.txState().addedAndRemovedRelationships().getAdded().toArray() );
     }
 
     @Override
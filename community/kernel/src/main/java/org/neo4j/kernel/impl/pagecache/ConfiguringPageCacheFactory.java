@@ -36,6 +36,7 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_huge_pages;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
 import static org.neo4j.io.mem.MemoryAllocator.createAllocator;
@@ -98,7 +99,7 @@ public class ConfiguringPageCacheFactory
 
     private MemoryAllocator buildMemoryAllocator( long pageCacheMaxMemory, MemoryTracker memoryTracker )
     {
-        return createAllocator( pageCacheMaxMemory, memoryTracker );
+        return createAllocator( pageCacheMaxMemory, config.get( pagecache_huge_pages ), memoryTracker );
     }
 
     private long getPageCacheMaxMemory( Config config )
@@ -176,8 +177,9 @@ public class ConfiguringPageCacheFactory
         log.info( msg );
     }
 
-    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs )
+    private PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs )
     {
-        return new SingleFilePageSwapperFactory( fs );
+        return new SingleFilePageSwapperFactory( fs, ( file, cause ) ->
+                log.warn( "The file system of %s does not support direct IO, the file will be accessed with buffered IO instead. %s", file, cause ) );
     }
 }
@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_whitelist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.configuration.GraphDatabaseSettings.read_only;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * The page cache warmer keeps a profile of which pages of the mapped database files are in memory, and uses that
+ * profile to load those pages back into the page cache when the database is started. This greatly reduces the time it
+ * takes for a restarted database to reach its usual performance.
+ * <p>
+ * The profile of every mapped file is a gzip compressed bitmap with one bit per file page, written to the
+ * {@value #PROFILE_DIRECTORY} directory of the database, every {@code dbms.memory.pagecache.warmup.profile.interval} and once more when
+ * the warmer is stopped.
+ * The profiles are written to a temporary file first, and then atomically moved in place, so a crash will never leave
+ * a torn profile behind.
+ * <p>
+ * When {@code dbms.memory.pagecache.warmup.preload} is enabled, the files matching the preload whitelist are instead
+ * loaded in their entirety on startup, and no profiles are written.
+ * <p>
+ * The warmer is started before the database becomes available, so the database is not reported as available until
+ * the warmup has completed. The files are warmed up in parallel, with large vectored reads via
+ * {@link PagedFile#touch(long, int, PageCursorTracer)}.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    static final String PROFILE_DIRECTORY = "profiles";
+    static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PROFILE_TAG = "pageCacheProfiler";
+    private static final String WARMUP_TAG = "pageCacheWarmer";
+    // The largest number of consecutive pages we ask the page cache to load in one go.
+    private static final int MAX_TOUCH_PAGES = 1024;
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final File databaseDirectory;
+    private final File profilesDirectory;
+    private final Config config;
+    private final PageCacheTracer pageCacheTracer;
+    private final Log log;
+    private volatile boolean stopped;
+    private JobHandle<?> profileHandle;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, File databaseDirectory, Config config,
+            PageCacheTracer pageCacheTracer, LogProvider logProvider )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.profilesDirectory = new File( databaseDirectory, PROFILE_DIRECTORY );
+        this.config = config;
+        this.pageCacheTracer = pageCacheTracer;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public synchronized void start() throws IOException
+    {
+        if ( !config.get( pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        stopped = false;
+        long startNanos = System.nanoTime();
+        long pagesLoaded;
+        if ( config.get( pagecache_warmup_prefetch ) )
+        {
+            pagesLoaded = preloadFiles( Pattern.compile( config.get( pagecache_warmup_prefetch_whitelist ) ) );
+        }
+        else
+        {
+            pagesLoaded = reheat();
+            if ( !config.get( read_only ) )
+            {
+                long intervalMillis = config.get( pagecache_warmup_profiling_interval ).toMillis();
+                profileHandle = scheduler.scheduleRecurring( Group.FILE_IO_HELPER, this::profileQuietly, intervalMillis, intervalMillis,
+                        TimeUnit.MILLISECONDS );
+            }
+        }
+        if ( pagesLoaded > 0 )
+        {
+            log.info( "Page cache warmup completed. %d pages loaded. Duration: %d ms.", pagesLoaded,
+                    TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startNanos ) );
+        }
+    }
+
+    @Override
+    public synchronized void stop()
+    {
+        if ( profileHandle != null )
+        {
+            profileHandle.cancel();
+            profileHandle = null;
+            // Profile once more, so that the next start reloads the pages that are in memory now, rather than as of the last interval.
+            profileQuietly();
+        }
+        stopped = true;
+    }
+
+    /**
+     * Load the pages recorded in the profiles of all currently mapped files.
+     *
+     * @return the number of pages loaded.
+     */
+    long reheat() throws IOException
+    {
+        return forEachMappedFile( pagedFile ->
+        {
+            File profile = profileFile( pagedFile );
+            if ( profile == null || !fs.fileExists( profile ) )
+            {
+                return 0;
+            }
+            try
+            {
+                return reheat( pagedFile, profile );
+            }
+            catch ( IOException e )
+            {
+                // A broken profile must never stop the database from starting; we will write a new one soon enough.
+                log.warn( "Failed to warm up the page cache from the profile " + profile + ". It will be ignored.", e );
+                return 0;
+            }
+        } );
+    }
+
+    /**
+     * Write a profile of the pages that are currently in memory, for all currently mapped files.
+     *
+     * @return the number of pages found to be in memory.
+     */
+    synchronized long profile() throws IOException
+    {
+        if ( stopped )
+        {
+            return 0;
+        }
+        fs.mkdirs( profilesDirectory );
+        long pagesInMemory = 0;
+        for ( PagedFile pagedFile : pageCache.listExistingMappings() )
+        {
+            File profile = profileFile( pagedFile );
+            if ( profile != null )
+            {
+                try
+                {
+                    pagesInMemory += profile( pagedFile, profile );
+                }
+                catch ( FileIsNotMappedException e )
+                {
+                    // The file was unmapped while we were profiling it, so there is nothing to warm up for it anyway.
+                    fs.deleteFile( new File( profilesDirectory, profile.getName() + TEMP_SUFFIX ) );
+                }
+            }
+        }
+        return pagesInMemory;
+    }
+
+    private long preloadFiles( Pattern whitelist ) throws IOException
+    {
+        return forEachMappedFile( pagedFile ->
+        {
+            if ( !whitelist.matcher( pagedFile.file().getName() ).matches() )
+            {
+                return 0;
+            }
+            long pagesLoaded = 0;
+            try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( WARMUP_TAG ) )
+            {
+                long lastPageId = pagedFile.getLastPageId();
+                for ( long pageId = 0; pageId <= lastPageId && !stopped; pageId += MAX_TOUCH_PAGES )
+                {
+                    pagesLoaded += pagedFile.touch( pageId, MAX_TOUCH_PAGES, cursorTracer );
+                }
+            }
+            return pagesLoaded;
+        } );
+    }
+
+    private long reheat( PagedFile pagedFile, File profile ) throws IOException
+    {
+        long pagesLoaded = 0;
+        long runStart = -1;
+        long pageId = 0;
+        try ( InputStream input = new GZIPInputStream( new BufferedInputStream( fs.openAsInputStream( profile ) ) );
+              PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( WARMUP_TAG ) )
+        {
+            int b;
+            while ( (b = input.read()) != -1 && !stopped )
+            {
+                for ( int bit = 0; bit < Byte.SIZE; bit++, pageId++ )
+                {
+                    boolean inMemory = (b & (1 << bit)) != 0;
+                    if ( inMemory && runStart == -1 )
+                    {
+                        runStart = pageId;
+                    }
+                    else if ( runStart != -1 && (!inMemory || pageId - runStart == MAX_TOUCH_PAGES) )
+                    {
+                        pagesLoaded += pagedFile.touch( runStart, (int) (pageId - runStart), cursorTracer );
+                        runStart = inMemory ? pageId : -1;
+                    }
+                }
+            }
+            if ( runStart != -1 && !stopped )
+            {
+                pagesLoaded += pagedFile.touch( runStart, (int) (pageId - runStart), cursorTracer );
+            }
+        }
+        return pagesLoaded;
+    }
+
+    private long profile( PagedFile pagedFile, File profile ) throws IOException
+    {
+        long pagesInMemory = 0;
+        File tempProfile = new File( profile.getParentFile(), profile.getName() + TEMP_SUFFIX );
+        try ( OutputStream output = new GZIPOutputStream( new BufferedOutputStream( fs.openAsOutputStream( tempProfile, false ) ) );
+              PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( PROFILE_TAG );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, cursorTracer ) )
+        {
+            int b = 0;
+            int bit = 0;
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    b |= 1 << bit;
+                    pagesInMemory++;
+                }
+                if ( ++bit == Byte.SIZE )
+                {
+                    output.write( b );
+                    b = 0;
+                    bit = 0;
+                }
+            }
+            if ( bit != 0 )
+            {
+                output.write( b );
+            }
+        }
+        fs.renameFile( tempProfile, profile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        return pagesInMemory;
+    }
+
+    private void profileQuietly()
+    {
+        try
+        {
+            profile();
+        }
+        catch ( Exception e )
+        {
+            if ( !stopped )
+            {
+                log.warn( "Failed to write page cache profile.", e );
+            }
+        }
+    }
+
+    /**
+     * @return the profile file for the given paged file, or {@code null} if the file does not belong to the database directory.
+     */
+    private File profileFile( PagedFile pagedFile )
+    {
+        String path = databaseDirectory.toPath().relativize( pagedFile.file().toPath() ).toString();
+        if ( path.startsWith( ".." ) )
+        {
+            return null;
+        }
+        return new File( profilesDirectory, path.replace( File.separatorChar, '.' ) + PROFILE_SUFFIX );
+    }
+
+    private long forEachMappedFile( FileWarmup warmup ) throws IOException
+    {
+        AtomicLong pagesLoaded = new AtomicLong();
+        List<JobHandle<?>> handles = new ArrayList<>();
+        for ( PagedFile pagedFile : pageCache.listExistingMappings() )
+        {
+            handles.add( scheduler.schedule( Group.FILE_IO_HELPER, () ->
+            {
+                try
+                {
+                    pagesLoaded.addAndGet( warmup.warmUp( pagedFile ) );
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+            } ) );
+        }
+        for ( JobHandle<?> handle : handles )
+        {
+            try
+            {
+                handle.waitTermination();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( e );
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IOException( e.getCause() );
+            }
+        }
+        return pagesLoaded.get();
+    }
+
+    @FunctionalInterface
+    private interface FileWarmup
+    {
+        long warmUp( PagedFile pagedFile ) throws IOException;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+
+/**
+ * A batch of transactions waiting to be appended to the transaction log as part of a group commit.
+ * <p>
+ * Requests are pushed onto a lock-free stack by the committing threads, and are appended and forced by whichever of
+ * them gets to be the group commit leader. The leader publishes the outcome in the request, and then marks it as done.
+ */
+class AppendRequest
+{
+    final TransactionToApply batch;
+    final LogAppendEvent logAppendEvent;
+    final Thread thread;
+    volatile AppendRequest next;
+    volatile boolean done;
+
+    // These are written by the leader before it marks the request as done.
+    long lastTransactionId;
+    int groupSize;
+    Throwable failure;
+
+    AppendRequest( TransactionToApply batch, LogAppendEvent logAppendEvent, Thread thread )
+    {
+        this.batch = batch;
+        this.logAppendEvent = logAppendEvent;
+        this.thread = thread;
+    }
+
+    void unpark()
+    {
+        LockSupport.unpark( thread );
+    }
+
+    void failed( Throwable throwable )
+    {
+        if ( failure == null )
+        {
+            failure = throwable;
+        }
+    }
+
+    void throwIfFailed() throws IOException
+    {
+        if ( failure instanceof IOException )
+        {
+            throw (IOException) failure;
+        }
+        if ( failure instanceof RuntimeException )
+        {
+            throw (RuntimeException) failure;
+        }
+        if ( failure instanceof Error )
+        {
+            throw (Error) failure;
+        }
+        if ( failure != null )
+        {
+            throw new IOException( failure );
+        }
+    }
+
+    static final AppendRequest END = new AppendRequest( null, LogAppendEvent.NULL, null );
+
+    static
+    {
+        END.next = END;
+    }
+}
@@ -50,9 +50,14 @@ import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SP
 /**
  * Concurrently appends transactions to the transaction log, while coordinating with the log rotation and forcing the
  * log file in batches for higher throughput in a concurrent scenario.
+ * <p>
+ * Appending is done with group commit: concurrently committing threads queue up their batches, and one of them
+ * becomes the leader that appends all the queued batches under a single acquisition of the log file monitor,
+ * forces the log once, and then releases the other committers.
  */
 public class BatchingTransactionAppender extends LifecycleAdapter implements TransactionAppender
 {
+    private final AtomicReference<AppendRequest> appendRequestHead = new AtomicReference<>( AppendRequest.END );
     private final AtomicReference<ThreadLink> threadLinkHead = new AtomicReference<>( ThreadLink.END );
     private final TransactionMetadataCache transactionMetadataCache;
     private final LogFile logFile;
@@ -60,6 +65,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final TransactionIdStore transactionIdStore;
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final Health databaseHealth;
+    private final Lock appendLock = new ReentrantLock();
     private final Lock forceLock = new ReentrantLock();
 
     private FlushablePositionAwareChecksumChannel writer;
@@ -99,44 +105,45 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     @Override
     public long append( TransactionToApply batch, LogAppendEvent logAppendEvent ) throws IOException
     {
-        // Assigned base tx id just to make compiler happy
-        long lastTransactionId = TransactionIdStore.BASE_TX_ID;
-        // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized ( logFile )
+        long startTime = System.nanoTime();
+        // There's a benign race here, where we add our request before we update our next pointer.
+        // This is okay, however, because appendGroup() spins when it sees a null next pointer.
+        AppendRequest request = new AppendRequest( batch, logAppendEvent, Thread.currentThread() );
+        request.next = appendRequestHead.getAndSet( request );
+        boolean forcedLog = false;
+        do
         {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy( IOException.class );
-            try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+            if ( appendLock.tryLock() )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
+                try
                 {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId, logAppendEvent, previousChecksum );
-                    previousChecksum = commitment.getTransactionChecksum();
-                    tx.commitment( commitment, transactionId );
-                    tx.logPosition( commitment.logPosition() );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
+                    if ( !request.done )
+                    {
+                        // We are the group commit leader. Our own request is in the group, because it can only have
+                        // been taken by a previous leader if that leader had also marked it as done.
+                        forcedLog = appendGroup( logAppendEvent );
+                    }
                 }
+                finally
+                {
+                    appendLock.unlock();
+
+                    // Wake up whoever queued up behind the group we just completed, so they can lead the next group.
+                    appendRequestHead.get().unpark();
+                }
+            }
+            else
+            {
+                waitForGroupCommit();
             }
         }
+        while ( !request.done );
+        logAppendEvent.setGroupCommit( request.groupSize, System.nanoTime() - startTime );
+        request.throwIfFailed();
 
-        // At this point we've appended all transactions in this batch, but we can't mark any of them
-        // as committed since they haven't been forced to disk yet. So here we force, or potentially
-        // piggy-back on another force, but anyway after this call below we can be sure that all our transactions
-        // in this batch exist durably on disk.
-        if ( forceAfterAppend( logAppendEvent ) )
+        if ( forcedLog )
         {
-            // We got lucky and were the one forcing the log. It's enough if ones of all doing concurrent committers
+            // We were the one forcing the log. It's enough if ones of all doing concurrent committers
             // checks the need for log rotation.
             boolean logRotated = logRotation.rotateLogIfNeeded( logAppendEvent );
             logAppendEvent.setLogRotated( logRotated );
@@ -145,9 +152,137 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         // Mark all transactions as committed
         publishAsCommitted( batch );
 
+        return request.lastTransactionId;
+    }
+
+    /**
+     * Append all the queued up requests to the log under a single acquisition of the logFile monitor, so their
+     * transactions end up next to each other in the log buffer, and then force the log once for all of them.
+     *
+     * @return {@code true} if we got to force the log.
+     */
+    private boolean appendGroup( LogForceEvents logForceEvents )
+    {
+        AppendRequest group = takeGroupInAppendOrder();
+        int groupSize = 0;
+        for ( AppendRequest request = group; request != null; request = request.next )
+        {
+            groupSize++;
+        }
+
+        // Synchronized with logFile to get absolute control over concurrent rotations happening
+        synchronized ( logFile )
+        {
+            for ( AppendRequest request = group; request != null; request = request.next )
+            {
+                try
+                {
+                    // Assert that kernel is healthy before making any changes
+                    databaseHealth.assertHealthy( IOException.class );
+                    request.lastTransactionId = appendBatch( request.batch, request.logAppendEvent );
+                }
+                catch ( Throwable throwable )
+                {
+                    request.failed( throwable );
+                }
+            }
+        }
+
+        // At this point we've appended all transactions in this group, but we can't mark any of them
+        // as committed since they haven't been forced to disk yet. So here we force, or potentially
+        // piggy-back on another force, but anyway after this call below we can be sure that all the transactions
+        // in this group exist durably on disk.
+        boolean forcedLog = false;
+        Throwable forceFailure = null;
+        try
+        {
+            forcedLog = forceAfterAppend( logForceEvents );
+        }
+        catch ( Throwable throwable )
+        {
+            forceFailure = throwable;
+        }
+
+        AppendRequest request = group;
+        while ( request != null )
+        {
+            // Read the next pointer before we mark the request as done, since its thread is then free to move on.
+            AppendRequest next = request.next;
+            if ( forceFailure != null )
+            {
+                request.failed( forceFailure );
+            }
+            request.groupSize = groupSize;
+            request.done = true;
+            request.unpark();
+            request = next;
+        }
+        return forcedLog;
+    }
+
+    /**
+     * Take all the currently queued up requests off of the stack, and link them up in the order they were queued in.
+     * The returned list is terminated by {@code null} rather than {@link AppendRequest#END}.
+     */
+    private AppendRequest takeGroupInAppendOrder()
+    {
+        AppendRequest stack = appendRequestHead.getAndSet( AppendRequest.END );
+        AppendRequest ordered = null;
+        while ( stack != AppendRequest.END )
+        {
+            AppendRequest next;
+            do
+            {
+                // Spin because of the race:y update when consing.
+                next = stack.next;
+            }
+            while ( next == null );
+            stack.next = ordered;
+            ordered = stack;
+            stack = next;
+        }
+        return ordered;
+    }
+
+    /**
+     * Append all the transactions in the given batch to the log. Must be called while holding the logFile monitor.
+     *
+     * @return the id of the last transaction in the batch.
+     */
+    private long appendBatch( TransactionToApply batch, LogAppendEvent logAppendEvent ) throws IOException
+    {
+        // Assigned base tx id just to make compiler happy
+        long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+        try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+        {
+            TransactionToApply tx = batch;
+            while ( tx != null )
+            {
+                long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+                // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+                // id have already been generated by another entity we simply check that our id
+                // that we generated match that id. If it doesn't we've run into a problem we can't ´
+                // really recover from and would point to a bug somewhere.
+                matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+                TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId, logAppendEvent, previousChecksum );
+                previousChecksum = commitment.getTransactionChecksum();
+                tx.commitment( commitment, transactionId );
+                tx.logPosition( commitment.logPosition() );
+                tx = tx.next();
+                lastTransactionId = transactionId;
+            }
+        }
         return lastTransactionId;
     }
 
+    private void waitForGroupCommit()
+    {
+        long parkTime = TimeUnit.MILLISECONDS.toNanos( 100 );
+        LockSupport.parkNanos( this, parkTime );
+    }
+
     private void matchAgainstExpectedTransactionIdIfAny( long transactionId, TransactionToApply tx )
     {
         long expectedTransactionId = tx.transactionId();
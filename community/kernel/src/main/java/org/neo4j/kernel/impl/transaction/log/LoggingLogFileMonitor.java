@@ -61,6 +61,15 @@ public class LoggingLogFileMonitor implements RecoveryMonitor, RecoveryStartInfo
         }
     }
 
+    @Override
+    public void parallelRecoveryCompleted( int numberOfWorkers, long parallelTransactions, long orderedTransactions, long applyTimeInMilliseconds )
+    {
+        long transactions = parallelTransactions + orderedTransactions;
+        log.info( format( "Recovered transactions applied by %d threads. %d transactions applied in parallel, %d in log order, " +
+                        "time spent: %s, throughput: %d transactions/s", numberOfWorkers, parallelTransactions, orderedTransactions,
+                duration( applyTimeInMilliseconds ), transactions * 1000 / Math.max( applyTimeInMilliseconds, 1 ) ) );
+    }
+
     @Override
     public void failToRecoverTransactionsAfterCommit( Throwable t, LogEntryCommit commitEntry, LogPosition recoveryToPosition )
     {
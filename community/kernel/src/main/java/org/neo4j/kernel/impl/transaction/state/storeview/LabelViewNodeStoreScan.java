@@ -29,6 +29,7 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.lock.LockService;
 import org.neo4j.storageengine.api.EntityUpdates;
 import org.neo4j.storageengine.api.EntityTokenUpdate;
+import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StorageReader;
 
 /**
@@ -59,4 +60,11 @@ public class LabelViewNodeStoreScan<FAILURE extends Exception> extends NodeStore
     {
         return new TokenScanViewIdIterator<>( labelScanStore.newReader(), labelIds, entityCursor, cursorTracer );
     }
+
+    @Override
+    protected BatchedScan<StorageNodeCursor> batchedScan( StorageReader storageReader )
+    {
+        // Entity ids come from the label scan store, which isn't split up
+        return null;
+    }
 }
@@ -25,6 +25,7 @@ import javax.annotation.Nullable;
 import org.neo4j.internal.helpers.collection.Visitor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.lock.LockService;
+import org.neo4j.storageengine.api.AllNodeScan;
 import org.neo4j.storageengine.api.EntityTokenUpdate;
 import org.neo4j.storageengine.api.EntityUpdates;
 import org.neo4j.storageengine.api.StorageNodeCursor;
@@ -61,6 +62,13 @@ public class NodeStoreScan<FAILURE extends Exception> extends PropertyAwareEntit
         return storageReader.allocateNodeCursor( cursorTracer );
     }
 
+    @Override
+    protected BatchedScan<StorageNodeCursor> batchedScan( StorageReader storageReader )
+    {
+        AllNodeScan scan = storageReader.allNodeScan();
+        return ( cursor, sizeHint ) -> cursor.scanBatch( scan, sizeHint );
+    }
+
     @Override
     public boolean process( StorageNodeCursor cursor ) throws FAILURE
     {
@@ -21,24 +21,36 @@ package org.neo4j.kernel.impl.transaction.state.storeview;
 
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.function.IntPredicate;
 import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
 
+import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.index.label.LabelScanStore;
 import org.neo4j.internal.index.label.RelationshipTypeScanStore;
 import org.neo4j.internal.kernel.api.PopulationProgress;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.api.index.MultipleIndexPopulator;
 import org.neo4j.kernel.impl.api.index.PhaseTracker;
 import org.neo4j.kernel.impl.api.index.StoreScan;
 import org.neo4j.lock.Lock;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.EntityUpdates;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.StorageEntityScanCursor;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.values.storable.Value;
 
+import static java.util.Collections.emptyList;
 import static org.neo4j.io.IOUtils.closeAllUnchecked;
 
 /**
@@ -47,12 +59,20 @@ import static org.neo4j.io.IOUtils.closeAllUnchecked;
  *
  * The {@link #entityCursor cursor} is placed on each record and then {@link #process(StorageEntityScanCursor) processed},
  * this is where we extract updates for indexes that we are populating.
+ * <p>
+ * A full scan of the store can also be {@link #setParallelism(int, JobScheduler, PageCacheTracer, LongPredicate) split up} between
+ * a number of workers. They scan the store in strides, where each worker claims and processes one batch of {@link #PARALLEL_SCAN_BATCH_SIZE}
+ * entity ids per stride, with separate cursors. Since batches are handed out in order, all entities below the batches claimed so far
+ * have been scanned once a stride completes. This is where external updates can be applied, just as between entities in a sequential scan.
  *
  * @param <CURSOR> the type of cursor used to read the records.
  * @param <FAILURE> on failure during processing.
  */
 public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityScanCursor, FAILURE extends Exception> implements StoreScan<FAILURE>
 {
+    private static final String PARALLEL_SCAN_TAG = "parallelStoreScan";
+    static final int PARALLEL_SCAN_BATCH_SIZE = FeatureToggles.getInteger( PropertyAwareEntityStoreScan.class, "parallel_scan_batch_size", 10_000 );
+
     final CURSOR entityCursor;
     private final StoragePropertyCursor propertyCursor;
     private final StorageReader storageReader;
@@ -62,6 +82,12 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
     private final IntPredicate propertyKeyIdFilter;
     private final LongFunction<Lock> lockFunction;
     private PhaseTracker phaseTracker;
+    private BatchedScan<CURSOR> batchedScan;
+    private int workers;
+    private JobScheduler jobScheduler;
+    private PageCacheTracer cacheTracer;
+    private LongPredicate betweenBatches;
+    private List<ScanWorker> scanWorkers = emptyList();
 
     protected PropertyAwareEntityStoreScan( StorageReader storageReader, long totalEntityCount, IntPredicate propertyKeyIdFilter,
             LongFunction<Lock> lockFunction, PageCursorTracer cursorTracer )
@@ -77,6 +103,16 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
 
     protected abstract CURSOR allocateCursor( StorageReader storageReader, PageCursorTracer cursorTracer );
 
+    /**
+     * @param storageReader reader to create the scan from.
+     * @return a {@link BatchedScan} handing out batches of this scan to the cursors of concurrent workers,
+     * or {@code null} if this scan can't be split up.
+     */
+    protected BatchedScan<CURSOR> batchedScan( StorageReader storageReader )
+    {
+        return null;
+    }
+
     static boolean containsAnyEntityToken( int[] entityTokenFilter, long... entityTokens )
     {
         for ( long candidate : entityTokens )
@@ -96,14 +132,15 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
             return false;
         }
         boolean hasRelevantProperty = false;
-        cursor.properties( propertyCursor );
-        while ( propertyCursor.next() )
+        StoragePropertyCursor properties = propertyCursor( cursor );
+        cursor.properties( properties );
+        while ( properties.next() )
         {
-            int propertyKeyId = propertyCursor.propertyKey();
+            int propertyKeyId = properties.propertyKey();
             if ( propertyKeyIdFilter.test( propertyKeyId ) )
             {
                 // This relationship has a property of interest to us
-                Value value = propertyCursor.propertyValue();
+                Value value = properties.propertyValue();
                 // No need to validate values before passing them to the updater since the index implementation
                 // is allowed to fail in which ever way it wants to. The result of failure will be the same as
                 // a failed validation, i.e. population FAILED.
@@ -114,9 +151,26 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
         return hasRelevantProperty;
     }
 
+    private StoragePropertyCursor propertyCursor( CURSOR cursor )
+    {
+        for ( ScanWorker worker : scanWorkers )
+        {
+            if ( worker.entityCursor == cursor )
+            {
+                return worker.propertyCursor;
+            }
+        }
+        return propertyCursor;
+    }
+
     @Override
     public void run() throws FAILURE
     {
+        if ( batchedScan != null )
+        {
+            runParallel();
+            return;
+        }
         entityCursor.scan();
         try ( EntityIdIterator entityIdIterator = getEntityIdIterator() )
         {
@@ -141,6 +195,85 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
         }
     }
 
+    private void runParallel() throws FAILURE
+    {
+        List<ScanWorker> workerList = new ArrayList<>( workers );
+        try
+        {
+            for ( int i = 0; i < workers; i++ )
+            {
+                workerList.add( new ScanWorker() );
+            }
+            scanWorkers = workerList;
+            continueScanning = true;
+            long claimedBatches = 0;
+            boolean foundEntities = true;
+            while ( continueScanning && foundEntities )
+            {
+                phaseTracker.enterPhase( PhaseTracker.Phase.SCAN );
+                List<JobHandle<Long>> stride = new ArrayList<>( workers );
+                for ( ScanWorker worker : workerList )
+                {
+                    stride.add( jobScheduler.schedule( Group.INDEX_POPULATION_SCAN, worker ) );
+                }
+                foundEntities = false;
+                for ( long scanned : awaitStride( stride ) )
+                {
+                    if ( scanned >= 0 )
+                    {
+                        foundEntities = true;
+                        count += scanned;
+                    }
+                }
+                claimedBatches += workers;
+                betweenBatches.test( claimedBatches * PARALLEL_SCAN_BATCH_SIZE - 1 );
+            }
+        }
+        finally
+        {
+            closeAllUnchecked( workerList );
+            closeAllUnchecked( propertyCursor, entityCursor, storageReader );
+        }
+    }
+
+    /**
+     * Waits for all workers of a stride to complete, also if any of them fails, so that their cursors are not closed while in use.
+     */
+    @SuppressWarnings( "unchecked" )
+    private List<Long> awaitStride( List<JobHandle<Long>> stride ) throws FAILURE
+    {
+        List<Long> scanned = new ArrayList<>( stride.size() );
+        Throwable failure = null;
+        for ( JobHandle<Long> job : stride )
+        {
+            try
+            {
+                scanned.add( job.get() );
+            }
+            catch ( ExecutionException e )
+            {
+                failure = failure == null ? e.getCause() : failure;
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                failure = failure == null ? e : failure;
+                stop();
+            }
+        }
+        if ( failure instanceof InterruptedException )
+        {
+            throw new RuntimeException( "Got interrupted, so store scan not completed", failure );
+        }
+        if ( failure != null )
+        {
+            Exceptions.throwIfUnchecked( failure );
+            // Workers only throw what process throws
+            throw (FAILURE) failure;
+        }
+        return scanned;
+    }
+
     @Override
     public void acceptUpdate( MultipleIndexPopulator.MultipleIndexUpdater updater, IndexEntryUpdate<?> update,
             long currentlyIndexedNodeId )
@@ -185,6 +318,25 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
         this.phaseTracker = phaseTracker;
     }
 
+    @Override
+    public boolean setParallelism( int workers, JobScheduler jobScheduler, PageCacheTracer cacheTracer, LongPredicate betweenBatches )
+    {
+        if ( workers <= 1 )
+        {
+            return false;
+        }
+        batchedScan = batchedScan( storageReader );
+        if ( batchedScan == null )
+        {
+            return false;
+        }
+        this.workers = workers;
+        this.jobScheduler = jobScheduler;
+        this.cacheTracer = cacheTracer;
+        this.betweenBatches = betweenBatches;
+        return true;
+    }
+
     protected EntityIdIterator getEntityIdIterator()
     {
         return new EntityIdIterator()
@@ -228,4 +380,58 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
             }
         };
     }
+
+    /**
+     * Hands out batches of a scan over all entities in the store, see {@link StorageEntityScanCursor#scanBatch(Object, int)}.
+     */
+    @FunctionalInterface
+    protected interface BatchedScan<CURSOR>
+    {
+        boolean scanBatch( CURSOR cursor, int sizeHint );
+    }
+
+    /**
+     * Scans one batch per stride with its own cursors.
+     */
+    private class ScanWorker implements Callable<Long>, AutoCloseable
+    {
+        private final PageCursorTracer cursorTracer;
+        private final CURSOR entityCursor;
+        private final StoragePropertyCursor propertyCursor;
+
+        ScanWorker()
+        {
+            this.cursorTracer = cacheTracer.createPageCursorTracer( PARALLEL_SCAN_TAG );
+            this.entityCursor = allocateCursor( storageReader, cursorTracer );
+            this.propertyCursor = storageReader.allocatePropertyCursor( cursorTracer );
+        }
+
+        /**
+         * @return number of entities scanned in the claimed batch, or {@code -1} if there were no more entities to claim.
+         */
+        @Override
+        public Long call() throws FAILURE
+        {
+            if ( !batchedScan.scanBatch( entityCursor, PARALLEL_SCAN_BATCH_SIZE ) )
+            {
+                return -1L;
+            }
+            long scanned = 0;
+            while ( continueScanning && entityCursor.next() )
+            {
+                try ( Lock ignored = lockFunction.apply( entityCursor.entityReference() ) )
+                {
+                    scanned++;
+                    process( entityCursor );
+                }
+            }
+            return scanned;
+        }
+
+        @Override
+        public void close()
+        {
+            closeAllUnchecked( propertyCursor, entityCursor, cursorTracer );
+        }
+    }
 }
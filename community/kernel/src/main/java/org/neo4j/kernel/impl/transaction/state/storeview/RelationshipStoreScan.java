@@ -25,6 +25,7 @@ import javax.annotation.Nullable;
 import org.neo4j.internal.helpers.collection.Visitor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.lock.LockService;
+import org.neo4j.storageengine.api.AllRelationshipsScan;
 import org.neo4j.storageengine.api.EntityTokenUpdate;
 import org.neo4j.storageengine.api.EntityUpdates;
 import org.neo4j.storageengine.api.StorageReader;
@@ -60,6 +61,13 @@ public class RelationshipStoreScan<FAILURE extends Exception> extends PropertyAw
         return storageReader.allocateRelationshipScanCursor( cursorTracer );
     }
 
+    @Override
+    protected BatchedScan<StorageRelationshipScanCursor> batchedScan( StorageReader storageReader )
+    {
+        AllRelationshipsScan scan = storageReader.allRelationshipScan();
+        return ( cursor, sizeHint ) -> cursor.scanBatch( scan, sizeHint );
+    }
+
     @Override
     protected boolean process( StorageRelationshipScanCursor cursor ) throws FAILURE
     {
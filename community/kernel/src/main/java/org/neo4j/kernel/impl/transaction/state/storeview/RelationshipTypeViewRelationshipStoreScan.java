@@ -29,6 +29,7 @@ import org.neo4j.lock.LockService;
 import org.neo4j.storageengine.api.EntityTokenUpdate;
 import org.neo4j.storageengine.api.EntityUpdates;
 import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
 
 public class RelationshipTypeViewRelationshipStoreScan<FAILURE extends Exception> extends RelationshipStoreScan<FAILURE>
 {
@@ -51,4 +52,11 @@ public class RelationshipTypeViewRelationshipStoreScan<FAILURE extends Exception
     {
         return new TokenScanViewIdIterator<>( relationshipTypeScanStore.newReader(), relationshipTypeIds, entityCursor, cursorTracer );
     }
+
+    @Override
+    protected BatchedScan<StorageRelationshipScanCursor> batchedScan( StorageReader storageReader )
+    {
+        // Entity ids come from the relationship type scan store, which isn't split up
+        return null;
+    }
 }
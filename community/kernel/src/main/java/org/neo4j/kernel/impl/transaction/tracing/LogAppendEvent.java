@@ -48,6 +48,12 @@ public interface LogAppendEvent extends LogForceEvents, AutoCloseable
      */
     void setLogRotated( boolean logRotated );
 
+    /**
+     * Note how many batches of transactions were appended and forced together in the group commit that included this one,
+     * and how long this append waited for that group commit to complete.
+     */
+    void setGroupCommit( int groupSize, long waitTimeNanos );
+
     /**
      * Begin a log rotation as part of this appending to the transaction log.
      */
@@ -76,6 +82,11 @@ public interface LogAppendEvent extends LogForceEvents, AutoCloseable
 
         }
 
+        @Override
+        public void setGroupCommit( int groupSize, long waitTimeNanos )
+        {
+        }
+
         @Override
         public LogRotateEvent beginLogRotate()
         {
@@ -143,7 +143,14 @@ public class NodeEntityWrappingNodeValue extends NodeValue
                 m = properties;
                 if ( m == null )
                 {
-                    m = properties = ValueUtils.asMapValue( node.getAllProperties() );
+                    if ( node instanceof NodeEntity )
+                    {
+                        m = properties = ((NodeEntity) node).getAllPropertyValues();
+                    }
+                    else
+                    {
+                        m = properties = ValueUtils.asMapValue( node.getAllProperties() );
+                    }
                 }
             }
         }
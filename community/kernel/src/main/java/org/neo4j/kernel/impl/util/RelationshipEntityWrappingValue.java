@@ -238,7 +238,14 @@ public class RelationshipEntityWrappingValue extends RelationshipValue
                 m = properties;
                 if ( m == null )
                 {
-                    m = properties = ValueUtils.asMapValue( relationship.getAllProperties() );
+                    if ( relationship instanceof RelationshipEntity )
+                    {
+                        m = properties = ((RelationshipEntity) relationship).getAllPropertyValues();
+                    }
+                    else
+                    {
+                        m = properties = ValueUtils.asMapValue( relationship.getAllProperties() );
+                    }
                 }
             }
         }
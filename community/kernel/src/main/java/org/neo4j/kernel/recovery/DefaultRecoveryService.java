@@ -20,7 +20,9 @@
 package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
@@ -38,6 +40,7 @@ import org.neo4j.storageengine.api.TransactionIdStore;
 
 import static org.neo4j.kernel.impl.transaction.log.Commitment.NO_COMMITMENT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FORMAT_LOG_HEADER_SIZE;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
 
 public class DefaultRecoveryService implements RecoveryService
 {
@@ -47,16 +50,40 @@ public class DefaultRecoveryService implements RecoveryService
     private final LogicalTransactionStore logicalTransactionStore;
     private final LogVersionRepository logVersionRepository;
     private final Log log;
+    private final int recoveryParallelism;
+    private final Executor recoveryExecutor;
+    private final PageCacheTracer pageCacheTracer;
+    private final RecoveryMonitor recoveryMonitor;
 
     DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner, TransactionIdStore transactionIdStore,
             LogicalTransactionStore logicalTransactionStore, LogVersionRepository logVersionRepository, LogFiles logFiles,
             RecoveryStartInformationProvider.Monitor monitor, Log log )
+    {
+        this( storageEngine, logTailScanner, transactionIdStore, logicalTransactionStore, logVersionRepository, logFiles, monitor, log,
+                1, null, PageCacheTracer.NULL, new RecoveryMonitor()
+                {
+                } );
+    }
+
+    /**
+     * @param recoveryParallelism number of threads applying recovered transactions in parallel, transactions are applied in log order by the
+     * recovering thread if this is {@code 1}.
+     * @param recoveryExecutor {@link Executor} running the threads applying recovered transactions in parallel.
+     */
+    DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner, TransactionIdStore transactionIdStore,
+            LogicalTransactionStore logicalTransactionStore, LogVersionRepository logVersionRepository, LogFiles logFiles,
+            RecoveryStartInformationProvider.Monitor monitor, Log log, int recoveryParallelism, Executor recoveryExecutor,
+            PageCacheTracer pageCacheTracer, RecoveryMonitor recoveryMonitor )
     {
         this.storageEngine = storageEngine;
         this.transactionIdStore = transactionIdStore;
         this.logicalTransactionStore = logicalTransactionStore;
         this.logVersionRepository = logVersionRepository;
         this.log = log;
+        this.recoveryParallelism = recoveryParallelism;
+        this.recoveryExecutor = recoveryExecutor;
+        this.pageCacheTracer = pageCacheTracer;
+        this.recoveryMonitor = recoveryMonitor;
         this.recoveryStartInformationProvider = new RecoveryStartInformationProvider( logTailScanner, logFiles, monitor );
     }
 
@@ -69,6 +96,12 @@ public class DefaultRecoveryService implements RecoveryService
     @Override
     public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode, PageCursorTracer cursorTracer )
     {
+        if ( mode == RECOVERY && recoveryParallelism > 1 )
+        {
+            // Reverse recovery stays sequential, it only restores records to a consistent state and is usually short
+            return new ParallelRecoveryVisitor( storageEngine, mode, cursorTracer, pageCacheTracer, recoveryExecutor, recoveryParallelism,
+                    recoveryMonitor );
+        }
         return new RecoveryVisitor( storageEngine, mode, cursorTracer );
     }
 
@@ -123,6 +156,16 @@ public class DefaultRecoveryService implements RecoveryService
         logVersionRepository.setCurrentLogVersion( positionAfterLastRecoveredTransaction.getLogVersion(), cursorTracer );
     }
 
+    static TransactionToApply transactionToApply( CommittedTransactionRepresentation transaction, PageCursorTracer cursorTracer )
+    {
+        TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
+        long txId = transaction.getCommitEntry().getTxId();
+        TransactionToApply tx = new TransactionToApply( txRepresentation, txId, cursorTracer );
+        tx.commitment( NO_COMMITMENT, txId );
+        tx.logPosition( transaction.getStartEntry().getStartPosition() );
+        return tx;
+    }
+
     static class RecoveryVisitor implements RecoveryApplier
     {
         private final StorageEngine storageEngine;
@@ -139,12 +182,7 @@ public class DefaultRecoveryService implements RecoveryService
         @Override
         public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
         {
-            TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
-            long txId = transaction.getCommitEntry().getTxId();
-            TransactionToApply tx = new TransactionToApply( txRepresentation, txId, cursorTracer );
-            tx.commitment( NO_COMMITMENT, txId );
-            tx.logPosition( transaction.getStartEntry().getStartPosition() );
-            storageEngine.apply( tx, mode );
+            storageEngine.apply( transactionToApply( transaction, cursorTracer ), mode );
             return false;
         }
 
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+import static org.neo4j.internal.helpers.Exceptions.throwIfUnchecked;
+import static org.neo4j.kernel.recovery.DefaultRecoveryService.transactionToApply;
+
+/**
+ * Applies recovered transactions using a number of worker threads. The records changed by each transaction are collected
+ * from its commands, see {@link StorageCommand#visitChangedRecords(StorageCommand.ChangedRecordVisitor)}, and a transaction is
+ * handed to a worker only when no transaction currently being applied changes any of the same records. Transactions that
+ * change each other's records are therefore still applied in log order, while the transaction log is read ahead by the
+ * calling thread.
+ * <p>
+ * Transactions with commands that cannot report their changed records, e.g. schema and token changes, act as a barrier:
+ * all transactions before them are applied before they are applied on the calling thread, and no transaction after them
+ * is applied before they are done.
+ */
+class ParallelRecoveryVisitor implements RecoveryApplier
+{
+    private static final String RECOVERY_WORKER_TAG = "parallelRecoverDatabase";
+    private static final int RECORD_TYPE_SHIFT = 56;
+    private static final long RECORD_ID_MASK = (1L << RECORD_TYPE_SHIFT) - 1;
+
+    private final StorageEngine storageEngine;
+    private final TransactionApplicationMode mode;
+    private final PageCursorTracer cursorTracer;
+    private final PageCacheTracer pageCacheTracer;
+    private final Executor executor;
+    private final int numberOfWorkers;
+    private final RecoveryMonitor monitor;
+    private final long startTimeNanos = System.nanoTime();
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition transactionApplied = lock.newCondition();
+    // Guarded by lock
+    private final MutableLongSet recordsBeingApplied = new LongHashSet();
+    private int transactionsBeingApplied;
+    private Throwable failure;
+
+    // Only accessed by the calling thread
+    private long parallelTransactions;
+    private long orderedTransactions;
+
+    ParallelRecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode, PageCursorTracer cursorTracer, PageCacheTracer pageCacheTracer,
+            Executor executor, int numberOfWorkers, RecoveryMonitor monitor )
+    {
+        this.storageEngine = storageEngine;
+        this.mode = mode;
+        this.cursorTracer = cursorTracer;
+        this.pageCacheTracer = pageCacheTracer;
+        this.executor = executor;
+        this.numberOfWorkers = numberOfWorkers;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
+    {
+        LongSet changedRecords = changedRecords( transaction );
+        if ( changedRecords == null )
+        {
+            awaitAllApplied();
+            storageEngine.apply( transactionToApply( transaction, cursorTracer ), mode );
+            orderedTransactions++;
+            return false;
+        }
+
+        lock.lock();
+        try
+        {
+            while ( failure == null && (transactionsBeingApplied >= numberOfWorkers || changedRecords.anySatisfy( recordsBeingApplied::contains )) )
+            {
+                transactionApplied.await();
+            }
+            throwIfFailed();
+            recordsBeingApplied.addAll( changedRecords );
+            transactionsBeingApplied++;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        try
+        {
+            executor.execute( () -> applyInParallel( transaction, changedRecords ) );
+        }
+        catch ( RuntimeException e )
+        {
+            applied( changedRecords, e );
+            throw e;
+        }
+        parallelTransactions++;
+        return false;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        awaitAllApplied();
+        monitor.parallelRecoveryCompleted( numberOfWorkers, parallelTransactions, orderedTransactions,
+                TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startTimeNanos ) );
+    }
+
+    private void applyInParallel( CommittedTransactionRepresentation transaction, LongSet changedRecords )
+    {
+        Throwable applyFailure = null;
+        try ( PageCursorTracer workerCursorTracer = pageCacheTracer.createPageCursorTracer( RECOVERY_WORKER_TAG ) )
+        {
+            storageEngine.apply( transactionToApply( transaction, workerCursorTracer ), mode );
+        }
+        catch ( Throwable t )
+        {
+            applyFailure = t;
+        }
+        finally
+        {
+            applied( changedRecords, applyFailure );
+        }
+    }
+
+    private void applied( LongSet changedRecords, Throwable applyFailure )
+    {
+        lock.lock();
+        try
+        {
+            recordsBeingApplied.removeAll( changedRecords );
+            transactionsBeingApplied--;
+            if ( applyFailure != null && failure == null )
+            {
+                failure = applyFailure;
+            }
+            transactionApplied.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void awaitAllApplied() throws Exception
+    {
+        lock.lock();
+        try
+        {
+            while ( transactionsBeingApplied > 0 )
+            {
+                transactionApplied.await();
+            }
+            throwIfFailed();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void throwIfFailed() throws Exception
+    {
+        if ( failure != null )
+        {
+            throwIfUnchecked( failure );
+            if ( failure instanceof Exception )
+            {
+                throw (Exception) failure;
+            }
+            throw new Exception( failure );
+        }
+    }
+
+    /**
+     * @return the records changed by the given transaction, or {@code null} if the transaction must be applied in log order.
+     */
+    private static LongSet changedRecords( CommittedTransactionRepresentation transaction )
+    {
+        MutableLongSet changedRecords = new LongHashSet();
+        StorageCommand.ChangedRecordVisitor visitor = ( recordType, id ) -> changedRecords.add( ((long) recordType << RECORD_TYPE_SHIFT) | (id & RECORD_ID_MASK) );
+        for ( StorageCommand command : transaction.getTransactionRepresentation() )
+        {
+            if ( !command.visitChangedRecords( visitor ) )
+            {
+                return null;
+            }
+        }
+        return changedRecords;
+    }
+}
@@ -39,6 +39,19 @@ public interface RecoveryMonitor
         //noop
     }
 
+    /**
+     * Called when recovered transactions have been applied using more than one thread.
+     *
+     * @param numberOfWorkers number of threads applying transactions.
+     * @param parallelTransactions number of transactions applied by those threads.
+     * @param orderedTransactions number of transactions applied in log order, with no other transaction being applied at the same time.
+     * @param applyTimeInMilliseconds time spent reading and applying the transactions.
+     */
+    default void parallelRecoveryCompleted( int numberOfWorkers, long parallelTransactions, long orderedTransactions, long applyTimeInMilliseconds )
+    {
+        //noop
+    }
+
     default void reverseStoreRecoveryCompleted( long lowestRecoveredTxId )
     {
         //noop
@@ -489,6 +489,12 @@ class ExecutingQueryTest
             flushes += increment;
         }
 
+        @Override
+        public long prefetches()
+        {
+            return 0;
+        }
+
         @Override
         public double hitRatio()
         {
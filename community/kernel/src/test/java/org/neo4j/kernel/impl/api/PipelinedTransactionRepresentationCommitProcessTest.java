@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TestableTransactionAppender;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
+import static org.neo4j.test.ThreadTestUtils.awaitThreadState;
+import static org.neo4j.test.ThreadTestUtils.fork;
+
+class PipelinedTransactionRepresentationCommitProcessTest
+{
+    private static final long MILLISECONDS_TO_WAIT = TimeUnit.MINUTES.toMillis( 1 );
+
+    private final TransactionIdStore transactionIdStore = new SimpleTransactionIdStore();
+    private final StorageEngine storageEngine = mock( StorageEngine.class );
+    private TransactionCommitProcess commitProcess = commitProcess( 1 );
+
+    @Test
+    void shouldApplyQueuedUpTransactionsTogetherInTransactionIdOrder() throws Exception
+    {
+        // GIVEN
+        List<List<Long>> appliedChains = new CopyOnWriteArrayList<>();
+        CountDownLatch firstApplyStarted = new CountDownLatch( 1 );
+        CountDownLatch releaseFirstApply = new CountDownLatch( 1 );
+        doAnswer( invocation ->
+        {
+            List<Long> chain = new ArrayList<>();
+            for ( CommandsToApply tx = invocation.getArgument( 0 ); tx != null; tx = tx.next() )
+            {
+                chain.add( tx.transactionId() );
+            }
+            appliedChains.add( chain );
+            firstApplyStarted.countDown();
+            releaseFirstApply.await();
+            return null;
+        } ).when( storageEngine ).apply( any( CommandsToApply.class ), any( TransactionApplicationMode.class ) );
+
+        // WHEN
+        TransactionToApply first = transaction();
+        Thread leader = fork( () -> commitQuietly( first ) );
+        firstApplyStarted.await();
+        TransactionToApply[] queued = new TransactionToApply[3];
+        Thread[] queuedThreads = new Thread[queued.length];
+        for ( int i = 0; i < queued.length; i++ )
+        {
+            TransactionToApply transaction = transaction();
+            queued[i] = transaction;
+            queuedThreads[i] = fork( () -> commitQuietly( transaction ) );
+            awaitThreadState( queuedThreads[i], MILLISECONDS_TO_WAIT, Thread.State.TIMED_WAITING );
+        }
+        releaseFirstApply.countDown();
+        leader.join();
+        for ( Thread thread : queuedThreads )
+        {
+            thread.join();
+        }
+
+        // THEN
+        long firstTxId = TransactionIdStore.BASE_TX_ID + 1;
+        assertThat( appliedChains ).containsExactly( List.of( firstTxId ), List.of( firstTxId + 1, firstTxId + 2, firstTxId + 3 ) );
+        assertThat( first.next() ).isNull();
+        for ( TransactionToApply transaction : queued )
+        {
+            assertThat( transaction.next() ).isNull();
+        }
+        assertThat( transactionIdStore.getLastClosedTransactionId() ).isEqualTo( firstTxId + 3 );
+    }
+
+    @Test
+    void shouldApplyConcurrentlyUpToMaxConcurrentAppliers() throws Exception
+    {
+        // GIVEN
+        commitProcess = commitProcess( 2 );
+        List<List<Long>> appliedChains = new CopyOnWriteArrayList<>();
+        CountDownLatch bothApplying = new CountDownLatch( 2 );
+        doAnswer( invocation ->
+        {
+            appliedChains.add( List.of( invocation.<CommandsToApply>getArgument( 0 ).transactionId() ) );
+            bothApplying.countDown();
+            assertThat( bothApplying.await( MILLISECONDS_TO_WAIT, TimeUnit.MILLISECONDS ) ).isTrue();
+            return null;
+        } ).when( storageEngine ).apply( any( CommandsToApply.class ), any( TransactionApplicationMode.class ) );
+
+        // WHEN
+        Thread first = fork( () -> commitQuietly( transaction() ) );
+        Thread second = fork( () -> commitQuietly( transaction() ) );
+        first.join();
+        second.join();
+
+        // THEN
+        long firstTxId = TransactionIdStore.BASE_TX_ID + 1;
+        assertThat( appliedChains ).containsExactlyInAnyOrder( List.of( firstTxId ), List.of( firstTxId + 1 ) );
+        assertThat( transactionIdStore.getLastClosedTransactionId() ).isEqualTo( firstTxId + 1 );
+    }
+
+    @Test
+    void shouldCloseChainsInTheOrderTheyWereTaken() throws Exception
+    {
+        // GIVEN
+        commitProcess = commitProcess( 2 );
+        long firstTxId = TransactionIdStore.BASE_TX_ID + 1;
+        CountDownLatch firstApplyStarted = new CountDownLatch( 1 );
+        CountDownLatch releaseFirstApply = new CountDownLatch( 1 );
+        doAnswer( invocation ->
+        {
+            if ( invocation.<CommandsToApply>getArgument( 0 ).transactionId() == firstTxId )
+            {
+                firstApplyStarted.countDown();
+                releaseFirstApply.await();
+            }
+            return null;
+        } ).when( storageEngine ).apply( any( CommandsToApply.class ), any( TransactionApplicationMode.class ) );
+        List<Long> closed = new CopyOnWriteArrayList<>();
+
+        // WHEN
+        TransactionToApply first = transaction();
+        first.onClose( closed::add );
+        Thread firstCommitter = fork( () -> commitQuietly( first ) );
+        firstApplyStarted.await();
+        TransactionToApply second = transaction();
+        second.onClose( closed::add );
+        Thread secondCommitter = fork( () -> commitQuietly( second ) );
+        awaitThreadState( secondCommitter, MILLISECONDS_TO_WAIT, Thread.State.WAITING );
+
+        // THEN
+        assertThat( closed ).isEmpty();
+        releaseFirstApply.countDown();
+        firstCommitter.join();
+        secondCommitter.join();
+        assertThat( closed ).containsExactly( firstTxId, firstTxId + 1 );
+    }
+
+    @Test
+    void shouldFailCommitWhenStoreApplyFails() throws Exception
+    {
+        doThrow( new RuntimeException( "Apply failed" ) ).when( storageEngine ).apply( any( CommandsToApply.class ), any( TransactionApplicationMode.class ) );
+
+        TransactionFailureException exception =
+                assertThrows( TransactionFailureException.class, () -> commitProcess.commit( transaction(), CommitEvent.NULL, INTERNAL ) );
+        assertThat( exception.getMessage() ).contains( "Could not apply the transaction to the store" );
+    }
+
+    private TransactionCommitProcess commitProcess( int maxConcurrentAppliers )
+    {
+        return new PipelinedTransactionRepresentationCommitProcess( new TestableTransactionAppender( transactionIdStore ), storageEngine,
+                maxConcurrentAppliers );
+    }
+
+    private void commitQuietly( TransactionToApply transaction )
+    {
+        try
+        {
+            commitProcess.commit( transaction, CommitEvent.NULL, INTERNAL );
+        }
+        catch ( TransactionFailureException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private static TransactionToApply transaction()
+    {
+        TransactionRepresentation transaction = mock( TransactionRepresentation.class );
+        when( transaction.additionalHeader() ).thenReturn( new byte[0] );
+        return new TransactionToApply( transaction, NULL );
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.api.PipelinedTransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.api.ReadOnlyTransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
@@ -57,4 +58,17 @@ class CommunityCommitProcessFactoryTest
 
         assertThat( commitProcess ).isInstanceOf( TransactionRepresentationCommitProcess.class );
     }
+
+    @Test
+    void createPipelinedCommitProcess()
+    {
+        CommunityCommitProcessFactory factory = new CommunityCommitProcessFactory();
+
+        Config config = Config.defaults( GraphDatabaseSettings.pipelined_transaction_apply, true );
+
+        TransactionCommitProcess commitProcess = factory.create( mock( TransactionAppender.class ),
+                mock( StorageEngine.class ), config );
+
+        assertThat( commitProcess ).isInstanceOf( PipelinedTransactionRepresentationCommitProcess.class );
+    }
 }
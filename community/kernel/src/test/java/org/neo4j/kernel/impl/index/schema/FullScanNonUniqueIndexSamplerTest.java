@@ -38,7 +38,9 @@ import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueType;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
 import static org.neo4j.internal.schema.SchemaDescriptor.forLabel;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
@@ -73,6 +75,30 @@ public class FullScanNonUniqueIndexSamplerTest extends NativeIndexTestUtil<Gener
         assertEquals( values.length, sample.indexSize() );
     }
 
+    @Test
+    void shouldRebuildSketchFromScannedValues() throws Exception
+    {
+        // GIVEN
+        Value[] values = generateNumberValues();
+        buildTree( values );
+        IndexSampleSketch sketch = new IndexSampleSketch();
+        sketch.recovered();
+
+        // WHEN
+        IndexSample sample;
+        try ( GBPTree<GenericKey,NativeIndexValue> gbpTree = getTree() )
+        {
+            FullScanNonUniqueIndexSampler<GenericKey,NativeIndexValue> sampler = new FullScanNonUniqueIndexSampler<>( gbpTree, layout, sketch );
+            sample = sampler.sample( NULL );
+        }
+
+        // THEN
+        assertTrue( sketch.canSample() );
+        assertEquals( sample.indexSize(), sketch.sample().indexSize() );
+        // estimated, distinct values may share a register
+        assertThat( sketch.sample().uniqueValues() ).isCloseTo( sample.uniqueValues(), within( 2L ) );
+    }
+
     @Test
     void tracePageCacheAccessOnSampling() throws IOException
     {
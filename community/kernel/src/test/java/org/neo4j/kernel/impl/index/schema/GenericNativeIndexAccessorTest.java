@@ -20,24 +20,52 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.io.File;
+import java.util.concurrent.CountDownLatch;
 
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
+import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
+import org.neo4j.test.Race;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
 import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.annotations.documented.ReporterFactories.noopReporterFactory;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.internal.kernel.api.QueryContext.NULL_CONTEXT;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
+import static org.neo4j.internal.schema.IndexPrototype.uniqueForSchema;
+import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.test.Race.throwing;
 
 @PageCacheExtension
 class GenericNativeIndexAccessorTest
@@ -70,4 +98,158 @@ class GenericNativeIndexAccessorTest
         // then
         assertFalse( fs.fileExists( indexFiles.getBase() ) );
     }
+
+    @Test
+    void shouldKeepIncrementalSampleOverCleanRestart() throws Exception
+    {
+        // given
+        File root = testDirectory.directory( "root" );
+        IndexDirectoryStructure directoryStructure = IndexDirectoryStructure.directoriesByProvider( root ).forProvider( GenericNativeIndexProvider.DESCRIPTOR );
+        IndexDescriptor descriptor = forSchema( SchemaDescriptor.forLabel( 1, 1 ) ).withName( "index" ).materialise( 8 );
+        IndexFiles indexFiles = new IndexFiles.Directory( fs, directoryStructure, descriptor.getId() );
+        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).withIncrementalSampling( true ).build();
+        IndexSample sample;
+        try ( GenericNativeIndexAccessor accessor = accessor( databaseIndexContext, indexFiles, descriptor ) )
+        {
+            try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE, NULL ) )
+            {
+                for ( int i = 0; i < 100; i++ )
+                {
+                    updater.process( IndexEntryUpdate.add( i, descriptor, Values.intValue( i % 10 ) ) );
+                }
+                updater.process( IndexEntryUpdate.remove( 0, descriptor, Values.intValue( 0 ) ) );
+            }
+            // first sample scans the index and rebuilds the sketch
+            sample = sample( accessor );
+            assertEquals( 99, sample.indexSize() );
+            assertEquals( 10, sample.uniqueValues() );
+            assertTrue( accessor.sampleSketch.canSample() );
+            accessor.force( IOLimiter.UNLIMITED, NULL );
+        }
+
+        // when
+        try ( GenericNativeIndexAccessor accessor = accessor( databaseIndexContext, indexFiles, descriptor ) )
+        {
+            // then
+            assertTrue( accessor.sampleSketch.canSample() );
+            assertEquals( sample, sample( accessor ) );
+        }
+    }
+
+    @Test
+    void shouldSkipLookupsOfAbsentValuesInUniqueIndex() throws Exception
+    {
+        // given
+        File root = testDirectory.directory( "root" );
+        IndexDirectoryStructure directoryStructure = IndexDirectoryStructure.directoriesByProvider( root ).forProvider( GenericNativeIndexProvider.DESCRIPTOR );
+        IndexDescriptor descriptor = uniqueForSchema( SchemaDescriptor.forLabel( 1, 1 ) ).withName( "index" ).materialise( 8 );
+        IndexFiles indexFiles = new IndexFiles.Directory( fs, directoryStructure, descriptor.getId() );
+        IndexProvider.Monitor monitor = mock( IndexProvider.Monitor.class );
+        DatabaseIndexContext databaseIndexContext =
+                DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withUniqueLookupFilterSize( kibiBytes( 1 ) ).build();
+        try ( GenericNativeIndexAccessor accessor = accessor( databaseIndexContext, indexFiles, descriptor ) )
+        {
+            try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE, NULL ) )
+            {
+                for ( int i = 0; i < 50; i++ )
+                {
+                    updater.process( IndexEntryUpdate.add( i, descriptor, Values.intValue( i ) ) );
+                }
+            }
+            accessor.force( IOLimiter.UNLIMITED, NULL );
+        }
+
+        // when the filter is rebuilt from the index when opened
+        try ( GenericNativeIndexAccessor accessor = accessor( databaseIndexContext, indexFiles, descriptor ) )
+        {
+            try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE, NULL ) )
+            {
+                updater.process( IndexEntryUpdate.add( 50, descriptor, Values.intValue( 50 ) ) );
+            }
+
+            // then
+            try ( IndexReader reader = accessor.newReader() )
+            {
+                for ( int i = 0; i <= 50; i++ )
+                {
+                    assertEquals( i, exactLookup( reader, descriptor, Values.doubleValue( i ) ) );
+                }
+                for ( int i = 51; i < 100; i++ )
+                {
+                    assertEquals( -1, exactLookup( reader, descriptor, Values.intValue( i ) ) );
+                }
+            }
+            accessor.force( IOLimiter.UNLIMITED, NULL );
+            ArgumentCaptor<Long> skippedLookups = ArgumentCaptor.forClass( Long.class );
+            verify( monitor ).uniqueLookupFilterStatistics( eq( descriptor ), eq( 100L ), skippedLookups.capture(), anyLong() );
+            assertThat( skippedLookups.getValue() ).isGreaterThan( 40L );
+        }
+    }
+
+    @Test
+    void shouldApplyUpdatesFromConcurrentOnlineUpdaters() throws Throwable
+    {
+        // given
+        File root = testDirectory.directory( "root" );
+        IndexDirectoryStructure directoryStructure = IndexDirectoryStructure.directoriesByProvider( root ).forProvider( GenericNativeIndexProvider.DESCRIPTOR );
+        IndexDescriptor descriptor = forSchema( SchemaDescriptor.forLabel( 1, 1 ) ).withName( "index" ).materialise( 8 );
+        IndexFiles indexFiles = new IndexFiles.Directory( fs, directoryStructure, descriptor.getId() );
+        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).withConcurrentWriters( true ).build();
+        int updaters = 4;
+        int updatesPerUpdater = 1_000;
+        try ( GenericNativeIndexAccessor accessor = accessor( databaseIndexContext, indexFiles, descriptor ) )
+        {
+            // when every updater is open at the same time
+            CountDownLatch allOpen = new CountDownLatch( updaters );
+            Race race = new Race();
+            race.addContestants( updaters, updater -> throwing( () ->
+            {
+                try ( IndexUpdater indexUpdater = accessor.newUpdater( IndexUpdateMode.ONLINE, NULL ) )
+                {
+                    allOpen.countDown();
+                    allOpen.await();
+                    for ( int i = 0; i < updatesPerUpdater; i++ )
+                    {
+                        long nodeId = (long) updater * updatesPerUpdater + i;
+                        indexUpdater.process( IndexEntryUpdate.add( nodeId, descriptor, Values.longValue( nodeId ) ) );
+                    }
+                }
+            } ), 1 );
+            race.go();
+
+            // then
+            try ( IndexReader reader = accessor.newReader() )
+            {
+                for ( long nodeId = 0; nodeId < updaters * updatesPerUpdater; nodeId++ )
+                {
+                    assertEquals( nodeId, exactLookup( reader, descriptor, Values.longValue( nodeId ) ) );
+                }
+            }
+            accessor.force( IOLimiter.UNLIMITED, NULL );
+            assertTrue( accessor.consistencyCheck( noopReporterFactory(), NULL ) );
+        }
+    }
+
+    private static long exactLookup( IndexReader reader, IndexDescriptor descriptor, Value value ) throws Exception
+    {
+        SimpleNodeValueClient client = new SimpleNodeValueClient();
+        reader.query( NULL_CONTEXT, client, unconstrained(), NULL, IndexQuery.exact( descriptor.schema().getPropertyId(), value ) );
+        return client.next() ? client.reference : -1;
+    }
+
+    private GenericNativeIndexAccessor accessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexDescriptor descriptor )
+    {
+        IndexSpecificSpaceFillingCurveSettings spatialSettings = mock( IndexSpecificSpaceFillingCurveSettings.class );
+        return new GenericNativeIndexAccessor( databaseIndexContext, indexFiles, new GenericLayout( 1, spatialSettings ), immediate(), descriptor,
+                spatialSettings, mock( SpaceFillingCurveConfiguration.class ) );
+    }
+
+    private static IndexSample sample( GenericNativeIndexAccessor accessor ) throws Exception
+    {
+        try ( IndexReader reader = accessor.newReader();
+              IndexSampler sampler = reader.createSampler() )
+        {
+            return sampler.sampleIndex( NULL );
+        }
+    }
 }
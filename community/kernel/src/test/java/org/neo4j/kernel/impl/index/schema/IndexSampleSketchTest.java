@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexSampleSketchTest
+{
+    @Test
+    void shouldEstimateDistinctValues()
+    {
+        // given
+        IndexSampleSketch sketch = IndexSampleSketch.empty();
+        int distinct = 50_000;
+
+        // when
+        for ( int i = 0; i < distinct * 3; i++ )
+        {
+            sketch.add( values( i % distinct ) );
+        }
+
+        // then
+        IndexSample sample = sketch.sample();
+        assertEquals( distinct * 3, sample.indexSize() );
+        assertEquals( distinct * 3, sample.sampleSize() );
+        assertThat( sample.uniqueValues() ).isCloseTo( distinct, within( (long) (distinct * 0.1) ) );
+    }
+
+    @Test
+    void shouldEstimateFewDistinctValues()
+    {
+        // given
+        IndexSampleSketch sketch = IndexSampleSketch.empty();
+
+        // when
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            sketch.add( values( i % 10 ) );
+        }
+
+        // then
+        assertThat( sketch.sample().uniqueValues() ).isCloseTo( 10L, within( 1L ) );
+    }
+
+    @Test
+    void shouldRequireRebuildWhenRemovalsMakeUpMoreThanHalfOfIndex()
+    {
+        // given
+        IndexSampleSketch sketch = IndexSampleSketch.empty();
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( values( i ) );
+        }
+
+        // when
+        for ( int i = 0; i < 33; i++ )
+        {
+            sketch.remove();
+        }
+
+        // then
+        assertTrue( sketch.canSample() );
+        assertEquals( 67, sketch.sample().indexSize() );
+
+        // and when
+        sketch.remove();
+
+        // then
+        assertFalse( sketch.canSample() );
+    }
+
+    @Test
+    void shouldNotBeAbleToSampleBeforeReadOrRebuilt()
+    {
+        assertFalse( new IndexSampleSketch().canSample() );
+    }
+
+    @Test
+    void shouldWriteAndReadSketch()
+    {
+        // given
+        IndexSampleSketch sketch = IndexSampleSketch.empty();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            sketch.add( values( i % 300 ) );
+        }
+        sketch.remove();
+
+        // when
+        IndexSampleSketch read = writeAndRead( sketch, new IndexSampleSketch() );
+
+        // then
+        assertTrue( read.canSample() );
+        assertEquals( sketch.sample(), read.sample() );
+    }
+
+    @Test
+    void shouldNotReadInvalidSketch()
+    {
+        // given
+        IndexSampleSketch sketch = IndexSampleSketch.empty();
+        sketch.add( values( 1 ) );
+        sketch.recovered();
+
+        // when
+        IndexSampleSketch read = writeAndRead( sketch, new IndexSampleSketch() );
+
+        // then
+        assertFalse( read.canSample() );
+    }
+
+    @Test
+    void shouldNotReadIncompleteSketch()
+    {
+        // given
+        IndexSampleSketch read = new IndexSampleSketch();
+
+        // when
+        read.read( ByteBuffer.wrap( new byte[]{1, 0, 0, 0} ) );
+        assertFalse( read.canSample() );
+        read.read( ByteBuffer.allocate( 0 ) );
+
+        // then
+        assertFalse( read.canSample() );
+    }
+
+    @Test
+    void shouldNotTrustSketchReadAfterRecovery()
+    {
+        // given
+        IndexSampleSketch sketch = IndexSampleSketch.empty();
+        sketch.add( values( 1 ) );
+
+        // when
+        IndexSampleSketch recovered = new IndexSampleSketch();
+        recovered.recovered();
+        writeAndRead( sketch, recovered );
+
+        // then
+        assertFalse( recovered.canSample() );
+
+        // and when the tree is found to be recovered only after the header has been read
+        IndexSampleSketch readBeforeRecovery = writeAndRead( sketch, new IndexSampleSketch() );
+        assertTrue( readBeforeRecovery.canSample() );
+        readBeforeRecovery.recovered();
+
+        // then
+        assertFalse( readBeforeRecovery.canSample() );
+    }
+
+    @Test
+    void shouldIncludeValuesAddedWhileRebuilding()
+    {
+        // given
+        IndexSampleSketch sketch = new IndexSampleSketch();
+        sketch.recovered();
+
+        // when
+        sketch.beginRebuild();
+        IndexSampleSketch scanned = IndexSampleSketch.empty();
+        for ( int i = 0; i < 100; i++ )
+        {
+            scanned.add( values( i % 10 ) );
+        }
+        for ( int i = 10; i < 20; i++ )
+        {
+            sketch.add( values( i ) );
+        }
+        sketch.completeRebuild( scanned );
+
+        // then
+        assertTrue( sketch.canSample() );
+        assertEquals( 100, sketch.sample().indexSize() );
+        assertThat( sketch.sample().uniqueValues() ).isCloseTo( 20L, within( 1L ) );
+    }
+
+    private static IndexSampleSketch writeAndRead( IndexSampleSketch sketch, IndexSampleSketch target )
+    {
+        byte[] data = new byte[1 + 2 * Long.BYTES + IndexSampleSketch.REGISTERS];
+        PageCursor cursor = ByteArrayPageCursor.wrap( data );
+        sketch.write( cursor );
+        target.read( ByteBuffer.wrap( data ) );
+        return target;
+    }
+
+    private static Value[] values( int value )
+    {
+        return new Value[]{Values.intValue( value )};
+    }
+}
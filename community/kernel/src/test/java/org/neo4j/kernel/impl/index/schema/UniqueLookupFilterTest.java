@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexPrototype;
+import org.neo4j.internal.schema.SchemaDescriptor;
+import org.neo4j.kernel.api.index.IndexProgressor;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.io.ByteUnit.kibiBytes;
+
+class UniqueLookupFilterTest
+{
+    @Test
+    void shouldOnlyCreateFilterForUniqueIndexes()
+    {
+        SchemaDescriptor schema = SchemaDescriptor.forLabel( 1, 2 );
+        IndexDescriptor unique = IndexPrototype.uniqueForSchema( schema ).withName( "unique" ).materialise( 1 );
+        IndexDescriptor general = IndexPrototype.forSchema( schema ).withName( "general" ).materialise( 2 );
+
+        assertNotNull( UniqueLookupFilter.forIndex( unique, kibiBytes( 1 ) ) );
+        assertNull( UniqueLookupFilter.forIndex( unique, 0 ) );
+        assertNull( UniqueLookupFilter.forIndex( general, kibiBytes( 1 ) ) );
+    }
+
+    @Test
+    void shouldContainAllAddedValues()
+    {
+        // given
+        UniqueLookupFilter filter = new UniqueLookupFilter( kibiBytes( 1 ) );
+
+        // when
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            filter.add( values( Values.stringValue( "value" + i ) ) );
+        }
+
+        // then
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            assertTrue( filter.mightContain( values( Values.stringValue( "value" + i ) ) ) );
+        }
+    }
+
+    @Test
+    void shouldRejectMostAbsentValues()
+    {
+        // given 16 bits per value
+        UniqueLookupFilter filter = new UniqueLookupFilter( kibiBytes( 2 ) );
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            filter.add( values( Values.longValue( i ) ) );
+        }
+
+        // when
+        int passed = 0;
+        for ( int i = 1_000; i < 11_000; i++ )
+        {
+            if ( filter.mightContain( values( Values.longValue( i ) ) ) )
+            {
+                passed++;
+            }
+        }
+
+        // then
+        assertThat( passed ).isLessThan( 100 );
+    }
+
+    @Test
+    void shouldTreatValuesEqualInIndexAsEqual()
+    {
+        // given
+        UniqueLookupFilter filter = new UniqueLookupFilter( kibiBytes( 1 ) );
+        filter.add( values( Values.intValue( 1 ) ) );
+        filter.add( values( Values.doubleValue( -0.0 ) ) );
+        filter.add( values( Values.intArray( new int[]{1, 2} ) ) );
+        filter.add( values( Values.charValue( 'a' ) ) );
+        filter.add( values( Values.stringValue( "b" ), Values.longValue( 3 ) ) );
+
+        // then
+        assertTrue( filter.mightContain( values( Values.doubleValue( 1.0 ) ) ) );
+        assertTrue( filter.mightContain( values( Values.longValue( 0 ) ) ) );
+        assertTrue( filter.mightContain( values( Values.doubleArray( new double[]{1.0, 2.0} ) ) ) );
+        assertTrue( filter.mightContain( values( Values.utf8Value( "a" ) ) ) );
+        assertTrue( filter.mightContain( values( Values.charValue( 'b' ), Values.floatValue( 3f ) ) ) );
+    }
+
+    @Test
+    void shouldReportLookupStatistics()
+    {
+        // given
+        UniqueLookupFilter filter = new UniqueLookupFilter( kibiBytes( 1 ) );
+        filter.add( values( Values.intValue( 1 ) ) );
+        IndexProgressor progressor = mock( IndexProgressor.class );
+        when( progressor.next() ).thenReturn( false );
+
+        // when
+        assertTrue( filter.mightContain( values( Values.intValue( 1 ) ) ) );
+        assertFalse( filter.mightContain( values( Values.intValue( 2 ) ) ) );
+        IndexProgressor tracking = filter.trackFalsePositive( progressor );
+        assertFalse( tracking.next() );
+        assertFalse( tracking.next() );
+        tracking.close();
+
+        // then
+        IndexDescriptor index = IndexPrototype.uniqueForSchema( SchemaDescriptor.forLabel( 1, 2 ) ).withName( "unique" ).materialise( 1 );
+        IndexProvider.Monitor monitor = mock( IndexProvider.Monitor.class );
+        filter.reportStatistics( monitor, index );
+        verify( monitor ).uniqueLookupFilterStatistics( index, 2, 1, 1 );
+        verify( progressor ).close();
+    }
+
+    private static Value[] values( Value... values )
+    {
+        return values;
+    }
+}
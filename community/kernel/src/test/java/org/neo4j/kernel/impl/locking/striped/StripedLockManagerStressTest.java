@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.striped;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.community.CommunityLockManger;
+import org.neo4j.lock.ResourceTypes;
+import org.neo4j.test.Race;
+import org.neo4j.time.Clocks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.lock.LockTracer.NONE;
+
+/**
+ * Many clients locking a few hot resources in random order and with random modes. Runs the same workload against the striped
+ * and the community lock manager, so that they can be compared: both must keep shared and exclusive locks mutually exclusive,
+ * break every deadlock they run into, and release everything once the clients are closed.
+ */
+class StripedLockManagerStressTest
+{
+    private static final int THREADS = 8;
+    private static final int RESOURCES = 16;
+    private static final int TRANSACTIONS_PER_THREAD = 2_000;
+    private static final int MAX_LOCKS_PER_TRANSACTION = 4;
+
+    private static Stream<Arguments> lockManagers()
+    {
+        return Stream.of(
+                Arguments.of( "striped", (Supplier<Locks>) () -> new StripedLockManager( Config.defaults(), Clocks.systemClock(), ResourceTypes.values() ) ),
+                Arguments.of( "community", (Supplier<Locks>) () -> new CommunityLockManger( Config.defaults(), Clocks.systemClock() ) ) );
+    }
+
+    @ParameterizedTest( name = "{0}" )
+    @MethodSource( "lockManagers" )
+    void shouldKeepLocksMutuallyExclusiveAndBreakDeadlocksUnderContention( String name, Supplier<Locks> lockManager ) throws Throwable
+    {
+        Locks locks = lockManager.get();
+        AtomicIntegerArray sharedHolders = new AtomicIntegerArray( RESOURCES );
+        AtomicIntegerArray exclusiveHolders = new AtomicIntegerArray( RESOURCES );
+        AtomicLong committed = new AtomicLong();
+        AtomicLong deadlocks = new AtomicLong();
+        try
+        {
+            Race race = new Race();
+            race.addContestants( THREADS, () ->
+            {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for ( int tx = 0; tx < TRANSACTIONS_PER_THREAD; tx++ )
+                {
+                    long[] resources = random.longs( 0, RESOURCES ).distinct().limit( 1 + random.nextInt( MAX_LOCKS_PER_TRANSACTION ) ).toArray();
+                    boolean[] exclusive = new boolean[resources.length];
+                    int held = 0;
+                    try ( Locks.Client client = locks.newClient() )
+                    {
+                        try
+                        {
+                            for ( ; held < resources.length; held++ )
+                            {
+                                int resource = (int) resources[held];
+                                exclusive[held] = random.nextBoolean();
+                                if ( exclusive[held] )
+                                {
+                                    client.acquireExclusive( NONE, ResourceTypes.NODE, resource );
+                                    assertThat( exclusiveHolders.incrementAndGet( resource ) ).isEqualTo( 1 );
+                                    assertThat( sharedHolders.get( resource ) ).isZero();
+                                }
+                                else
+                                {
+                                    client.acquireShared( NONE, ResourceTypes.NODE, resource );
+                                    sharedHolders.incrementAndGet( resource );
+                                    assertThat( exclusiveHolders.get( resource ) ).isZero();
+                                }
+                            }
+                            committed.incrementAndGet();
+                        }
+                        catch ( DeadlockDetectedException e )
+                        {
+                            deadlocks.incrementAndGet();
+                        }
+                        finally
+                        {
+                            // Still holding the locks here, they are released when the client is closed
+                            for ( int i = 0; i < held; i++ )
+                            {
+                                (exclusive[i] ? exclusiveHolders : sharedHolders).decrementAndGet( (int) resources[i] );
+                            }
+                        }
+                    }
+                }
+            } );
+            race.go( 5, TimeUnit.MINUTES );
+
+            assertThat( committed.get() + deadlocks.get() ).isEqualTo( (long) THREADS * TRANSACTIONS_PER_THREAD );
+            assertThat( committed.get() ).isPositive();
+            try ( Locks.Client client = locks.newClient() )
+            {
+                for ( int resource = 0; resource < RESOURCES; resource++ )
+                {
+                    assertThat( client.tryExclusiveLock( ResourceTypes.NODE, resource ) ).as( "%s lock on resource %d", name, resource ).isTrue();
+                }
+            }
+        }
+        finally
+        {
+            locks.close();
+        }
+    }
+}
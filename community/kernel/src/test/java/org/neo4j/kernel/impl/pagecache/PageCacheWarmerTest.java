@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_whitelist;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+@EphemeralTestDirectoryExtension
+class PageCacheWarmerTest
+{
+    private static final int PAGE_COUNT = 100;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+
+    private JobScheduler scheduler;
+    private File databaseDirectory;
+    private File storeFile;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        databaseDirectory = testDirectory.directory( "database" );
+        storeFile = new File( databaseDirectory, "store" );
+        try ( PageCache pageCache = createPageCache( PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), immutable.of( CREATE ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( int i = 0; i < PAGE_COUNT; i++ )
+            {
+                cursor.next();
+                cursor.putInt( i );
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        scheduler.close();
+    }
+
+    @Test
+    void shouldReloadProfiledPagesAfterRestart() throws IOException
+    {
+        long[] hotPages = {3, 4, 5, 6, 40, 71, 99};
+        try ( PageCache pageCache = createPageCache( PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            for ( long pageId : hotPages )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK, NULL ) )
+                {
+                    cursor.next();
+                }
+            }
+            PageCacheWarmer warmer = createWarmer( pageCache, Config.defaults() );
+            assertThat( warmer.profile() ).isEqualTo( hotPages.length );
+        }
+
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( PageCache pageCache = createPageCache( tracer );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache, Config.defaults(), tracer );
+            assertThat( residentPages( pagedFile ) ).isEmpty();
+
+            assertThat( warmer.reheat() ).isEqualTo( hotPages.length );
+
+            assertThat( residentPages( pagedFile ) ).containsExactly( 3L, 4L, 5L, 6L, 40L, 71L, 99L );
+            assertThat( tracer.faults() ).isEqualTo( hotPages.length );
+            for ( long pageId : hotPages )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK, NULL ) )
+                {
+                    cursor.next();
+                    assertThat( cursor.getInt() ).isEqualTo( (int) pageId );
+                }
+            }
+            assertThat( tracer.faults() ).isEqualTo( hotPages.length );
+        }
+    }
+
+    @Test
+    void shouldWriteProfileOnStop() throws IOException
+    {
+        try ( PageCache pageCache = createPageCache( PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache, Config.defaults() );
+            warmer.start();
+            for ( long pageId : new long[]{7, 8, 50} )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK, NULL ) )
+                {
+                    cursor.next();
+                }
+            }
+            warmer.stop();
+        }
+
+        try ( PageCache pageCache = createPageCache( PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache, Config.defaults() );
+            warmer.start();
+            warmer.stop();
+            assertThat( residentPages( pagedFile ) ).containsExactly( 7L, 8L, 50L );
+        }
+    }
+
+    @Test
+    void shouldIgnoreCorruptProfiles() throws IOException
+    {
+        File profile = new File( new File( databaseDirectory, PageCacheWarmer.PROFILE_DIRECTORY ), "store" + PageCacheWarmer.PROFILE_SUFFIX );
+        fs.mkdirs( profile.getParentFile() );
+        try ( OutputStream out = fs.openAsOutputStream( profile, false ) )
+        {
+            out.write( new byte[]{1, 2, 3, 4} );
+        }
+
+        try ( PageCache pageCache = createPageCache( PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache, Config.defaults() );
+            assertThat( warmer.reheat() ).isZero();
+            assertThat( residentPages( pagedFile ) ).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldPreloadWhitelistedFilesOnStart() throws IOException
+    {
+        Config config = Config.newBuilder()
+                .set( pagecache_warmup_enabled, true )
+                .set( pagecache_warmup_prefetch, true )
+                .set( pagecache_warmup_prefetch_whitelist, "sto.*" )
+                .build();
+        try ( PageCache pageCache = createPageCache( PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache, config );
+            warmer.start();
+            warmer.stop();
+            assertThat( residentPages( pagedFile ) ).hasSize( PAGE_COUNT );
+        }
+        assertThat( fs.fileExists( new File( databaseDirectory, PageCacheWarmer.PROFILE_DIRECTORY ) ) ).isFalse();
+    }
+
+    @Test
+    void shouldNotPreloadFilesOutsideOfWhitelist() throws IOException
+    {
+        Config config = Config.newBuilder()
+                .set( pagecache_warmup_prefetch, true )
+                .set( pagecache_warmup_prefetch_whitelist, "other" )
+                .build();
+        try ( PageCache pageCache = createPageCache( PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache, config );
+            warmer.start();
+            warmer.stop();
+            assertThat( residentPages( pagedFile ) ).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() throws IOException
+    {
+        Config config = Config.newBuilder()
+                .set( pagecache_warmup_enabled, false )
+                .set( pagecache_warmup_prefetch, true )
+                .build();
+        try ( PageCache pageCache = createPageCache( PageCacheTracer.NULL );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache, config );
+            warmer.start();
+            warmer.stop();
+            assertThat( residentPages( pagedFile ) ).isEmpty();
+        }
+    }
+
+    private PageCacheWarmer createWarmer( PageCache pageCache, Config config )
+    {
+        return createWarmer( pageCache, config, PageCacheTracer.NULL );
+    }
+
+    private PageCacheWarmer createWarmer( PageCache pageCache, Config config, PageCacheTracer tracer )
+    {
+        return new PageCacheWarmer( fs, pageCache, scheduler, databaseDirectory, config, tracer, NullLogProvider.getInstance() );
+    }
+
+    private PageCache createPageCache( PageCacheTracer tracer )
+    {
+        return StandalonePageCacheFactory.createPageCache( fs, scheduler, tracer );
+    }
+
+    private static List<Long> residentPages( PagedFile pagedFile ) throws IOException
+    {
+        List<Long> pages = new ArrayList<>();
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+        {
+            for ( long pageId = 0; cursor.next(); pageId++ )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    pages.add( pageId );
+                }
+            }
+        }
+        return pages;
+    }
+}
@@ -28,9 +28,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.io.File;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.StackWalker.StackFrame;
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -67,7 +70,6 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
-import org.neo4j.kernel.impl.transaction.tracing.LogForceWaitEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.logging.NullLog;
 import org.neo4j.monitoring.DatabaseHealth;
@@ -99,6 +101,8 @@ public class BatchingTransactionAppenderConcurrencyTest
     private static final long MILLISECONDS_TO_WAIT = TimeUnit.MINUTES.toMillis( 1 );
     private static final Predicate<StackTraceElement[]> IN_CORRECT_FORCE_AFTER_APPEND_METHOD =
             stackTrace -> Stream.of( stackTrace ).anyMatch( e -> e.getMethodName().equals( "forceAfterAppend" ) );
+    private static final Predicate<StackTraceElement[]> IN_WAIT_FOR_GROUP_COMMIT =
+            stackTrace -> Stream.of( stackTrace ).anyMatch( e -> e.getMethodName().equals( "waitForGroupCommit" ) );
     private static ExecutorService executor;
 
     @Inject
@@ -219,6 +223,61 @@ public class BatchingTransactionAppenderConcurrencyTest
         assertTrue( channelCommandQueue.isEmpty(), "Command queue: " + channelCommandQueue );
     }
 
+    @Test
+    void shouldAppendAndForceQueuedUpTransactionsAsOneGroup() throws Throwable
+    {
+        EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
+        life.add( new FileSystemLifecycleAdapter( fs ) );
+        LogFiles logFiles = LogFilesBuilder.builder( databaseLayout, fs )
+                .withLogVersionRepository( logVersionRepository )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogEntryReader( new VersionAwareLogEntryReader( new TestCommandReaderFactory() ) )
+                .withStoreId( StoreId.UNKNOWN )
+                .build();
+        life.add( logFiles );
+        Health databaseHealth = new DatabaseHealth( mock( DatabasePanicEventGenerator.class ), NullLog.getInstance() );
+        final BatchingTransactionAppender appender = life.add(
+                new BatchingTransactionAppender( logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth ) );
+        life.start();
+
+        int queuedAppenders = 5;
+        List<Integer> groupSizes = new CopyOnWriteArrayList<>();
+        LogAppendEvent groupRecordingEvent = new LogAppendEvent.Empty()
+        {
+            @Override
+            public void setGroupCommit( int groupSize, long waitTimeNanos )
+            {
+                groupSizes.add( groupSize );
+            }
+        };
+        Thread leader;
+        Thread[] queued = new Thread[queuedAppenders];
+        synchronized ( logFiles.getLogFile() )
+        {
+            // The first appender takes the lead, and then blocks on the log file monitor that we are holding.
+            leader = fork( () -> appendQuietly( appender, groupRecordingEvent ) );
+            awaitThreadState( leader, MILLISECONDS_TO_WAIT, Thread.State.BLOCKED );
+
+            // Everyone else queue up for the next group commit.
+            for ( int i = 0; i < queued.length; i++ )
+            {
+                queued[i] = fork( () -> appendQuietly( appender, groupRecordingEvent ) );
+            }
+            for ( Thread thread : queued )
+            {
+                awaitThreadState( thread, MILLISECONDS_TO_WAIT, IN_WAIT_FOR_GROUP_COMMIT, Thread.State.TIMED_WAITING );
+            }
+        }
+        leader.join();
+        for ( Thread thread : queued )
+        {
+            thread.join();
+        }
+
+        assertThat( groupSizes ).containsExactlyInAnyOrder( 1, 5, 5, 5, 5, 5 );
+        assertThat( transactionIdStore.getLastCommittedTransactionId() ).isEqualTo( TransactionIdStore.BASE_TX_ID + 1 + queuedAppenders );
+    }
+
     /*
      * There was an issue where if multiple concurrent appending threads did append and they moved on
      * to await a force, where the force would fail and the one doing the force would raise a panic...
@@ -249,16 +308,6 @@ public class BatchingTransactionAppenderConcurrencyTest
         // WHEN
         int numberOfAppenders = 10;
         final CountDownLatch trap = new CountDownLatch( numberOfAppenders );
-        final LogAppendEvent beforeForceTrappingEvent = new LogAppendEvent.Empty()
-        {
-            @Override
-            public LogForceWaitEvent beginLogForceWait()
-            {
-                trap.countDown();
-                awaitLatch( trap );
-                return super.beginLogForceWait();
-            }
-        };
         Race race = new Race();
         for ( int i = 0; i < numberOfAppenders; i++ )
         {
@@ -266,9 +315,11 @@ public class BatchingTransactionAppenderConcurrencyTest
             {
                 try
                 {
-                    // Append to the log, the LogAppenderEvent will have all of the appending threads
-                    // do wait for all of the other threads to start the force thing
-                    appender.append( tx(), beforeForceTrappingEvent );
+                    // Have all of the appending threads start appending at the same time, such that they either get
+                    // appended and forced in the same group commit, or queue up behind the failing one.
+                    trap.countDown();
+                    awaitLatch( trap );
+                    appender.append( tx(), logAppendEvent );
                     fail( "No transaction should be considered appended" );
                 }
                 catch ( IOException e )
@@ -314,24 +365,21 @@ public class BatchingTransactionAppenderConcurrencyTest
         Future<Long> failingTransaction = executor.submit( () -> appender.append( tx(), LogAppendEvent.NULL ) );
         panicLatch.await();
 
-        // Try to commit one additional transaction, should fail since database has already panicked
+        // Try to commit one additional transaction, should fail since database has already panicked.
+        // It queues up behind the group commit of the failing transaction, which is still busy panicking.
+        Future<Long> queuedTransaction = executor.submit( () -> appender.append( tx(), LogAppendEvent.NULL ) );
+        awaitQueuedForGroupCommit();
         fs.shouldOOM = false;
+        adversaryLatch.countDown();
         try
         {
-            appender.append( tx(), new LogAppendEvent.Empty()
-            {
-                @Override
-                public LogForceWaitEvent beginLogForceWait()
-                {
-                    adversaryLatch.countDown();
-                    return super.beginLogForceWait();
-                }
-            } );
+            queuedTransaction.get();
             fail( "Should have failed since database should have panicked" );
         }
-        catch ( IOException e )
+        catch ( ExecutionException e )
         {
-            assertTrue( e.getMessage().contains( "The database has encountered a critical error" ) );
+            assertTrue( e.getCause() instanceof IOException );
+            assertTrue( e.getCause().getMessage().contains( "The database has encountered a critical error" ) );
         }
 
         // Check that we actually got an OutOfMemoryError
@@ -369,6 +417,31 @@ public class BatchingTransactionAppenderConcurrencyTest
         }
     }
 
+    private void appendQuietly( BatchingTransactionAppender appender, LogAppendEvent logAppendEvent )
+    {
+        try
+        {
+            appender.append( tx(), logAppendEvent );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private static void awaitQueuedForGroupCommit() throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + MILLISECONDS_TO_WAIT;
+        while ( Thread.getAllStackTraces().values().stream().noneMatch( IN_WAIT_FOR_GROUP_COMMIT ) )
+        {
+            if ( System.currentTimeMillis() > deadline )
+            {
+                fail( "No transaction queued up for group commit" );
+            }
+            Thread.sleep( 10 );
+        }
+    }
+
     private static class OutOfMemoryAwareFileSystem extends EphemeralFileSystemAbstraction
     {
         private volatile boolean shouldOOM;
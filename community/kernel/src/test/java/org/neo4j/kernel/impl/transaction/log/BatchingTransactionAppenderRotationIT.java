@@ -176,6 +176,11 @@ class BatchingTransactionAppenderRotationIT
 
         }
 
+        @Override
+        public void setGroupCommit( int groupSize, long waitTimeNanos )
+        {
+        }
+
         @Override
         public LogRotateEvent beginLogRotate()
         {
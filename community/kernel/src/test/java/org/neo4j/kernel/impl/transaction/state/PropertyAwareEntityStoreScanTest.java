@@ -23,19 +23,30 @@ import org.apache.commons.lang3.mutable.MutableInt;
 import org.eclipse.collections.impl.block.factory.primitive.IntPredicates;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import org.neo4j.internal.kernel.api.PopulationProgress;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.api.index.StoreScan;
 import org.neo4j.kernel.impl.transaction.state.storeview.PropertyAwareEntityStoreScan;
 import org.neo4j.lock.LockService;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.AllNodeScan;
 import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.StubStorageCursors;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.mock;
 
@@ -86,6 +97,88 @@ class PropertyAwareEntityStoreScanTest
         assertEquals( total, read.intValue() );
     }
 
+    @Test
+    void shouldScanAllEntitiesInParallelAndOnlyApplyUpdatesBelowScannedEntities() throws Exception
+    {
+        // given
+        long total = 45_678;
+        for ( long i = 0; i < total; i++ )
+        {
+            cursors.withNode( i );
+        }
+
+        Set<Long> processed = ConcurrentHashMap.newKeySet();
+        final PropertyAwareEntityStoreScan<StorageNodeCursor,RuntimeException> scan =
+                new PropertyAwareEntityStoreScan<StorageNodeCursor,RuntimeException>( cursors, total, IntPredicates.alwaysTrue(),
+                        id -> locks.acquireNodeLock( id, LockService.LockType.READ_LOCK ), PageCursorTracer.NULL )
+                {
+                    @Override
+                    public boolean process( StorageNodeCursor node )
+                    {
+                        assertTrue( processed.add( node.entityReference() ) );
+                        return false;
+                    }
+
+                    @Override
+                    protected StorageNodeCursor allocateCursor( StorageReader storageReader, PageCursorTracer cursorTracer )
+                    {
+                        return storageReader.allocateNodeCursor( cursorTracer );
+                    }
+
+                    @Override
+                    protected BatchedScan<StorageNodeCursor> batchedScan( StorageReader storageReader )
+                    {
+                        AllNodeScan allNodeScan = storageReader.allNodeScan();
+                        return ( cursor, sizeHint ) -> cursor.scanBatch( allNodeScan, sizeHint );
+                    }
+                };
+
+        List<Long> betweenBatches = new ArrayList<>();
+        try ( JobScheduler jobScheduler = new ThreadPoolJobScheduler() )
+        {
+            assertTrue( scan.setParallelism( 4, jobScheduler, PageCacheTracer.NULL, scannedUpTo ->
+            {
+                // then all entities up to this point, and no others, have been scanned
+                assertEquals( Math.min( scannedUpTo + 1, total ), processed.size() );
+                betweenBatches.add( scannedUpTo );
+                return false;
+            } ) );
+
+            // when
+            scan.run();
+        }
+
+        // then
+        assertEquals( total, processed.size() );
+        assertEquals( total, scan.getProgress().getCompleted() );
+        assertFalse( betweenBatches.isEmpty() );
+        assertThat( betweenBatches ).isSorted();
+    }
+
+    @Test
+    void shouldNotRunInParallelWithSingleWorker()
+    {
+        final PropertyAwareEntityStoreScan<StorageNodeCursor,RuntimeException> scan =
+                new PropertyAwareEntityStoreScan<StorageNodeCursor,RuntimeException>( cursors, 0, IntPredicates.alwaysTrue(),
+                        id -> locks.acquireNodeLock( id, LockService.LockType.READ_LOCK ), PageCursorTracer.NULL )
+                {
+                    @Override
+                    public boolean process( StorageNodeCursor node )
+                    {
+                        return false;
+                    }
+
+                    @Override
+                    protected StorageNodeCursor allocateCursor( StorageReader storageReader, PageCursorTracer cursorTracer )
+                    {
+                        return storageReader.allocateNodeCursor( cursorTracer );
+                    }
+                };
+
+        assertFalse( scan.setParallelism( 1, mock( JobScheduler.class ), PageCacheTracer.NULL, scannedUpTo -> false ) );
+        assertFalse( scan.setParallelism( 4, mock( JobScheduler.class ), PageCacheTracer.NULL, scannedUpTo -> false ) );
+    }
+
     private static class PercentageSupplier implements Supplier<Float>
     {
         private StoreScan<?> storeScan;
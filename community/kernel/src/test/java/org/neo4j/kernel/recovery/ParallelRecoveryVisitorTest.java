@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
+import static org.neo4j.test.ThreadTestUtils.awaitThreadState;
+import static org.neo4j.test.ThreadTestUtils.fork;
+
+class ParallelRecoveryVisitorTest
+{
+    private static final long MILLISECONDS_TO_WAIT = TimeUnit.MINUTES.toMillis( 1 );
+    private static final int NUMBER_OF_WORKERS = 4;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final StorageEngine storageEngine = mock( StorageEngine.class );
+    private final RecoveryMonitor monitor = mock( RecoveryMonitor.class );
+    private final List<Long> appliedTransactions = new CopyOnWriteArrayList<>();
+    private final Map<Long,CountDownLatch> blockedTransactions = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldApplyTransactionsChangingDisjointRecordsInParallel() throws Exception
+    {
+        mockStorageEngineApply();
+        CountDownLatch firstTransactionBlocked = blockTransaction( 1 );
+        try ( ParallelRecoveryVisitor visitor = newVisitor() )
+        {
+            visitor.visit( transaction( 1, recordCommand( 1, 2 ) ) );
+            visitor.visit( transaction( 2, recordCommand( 3 ) ) );
+
+            awaitApplied( 2 );
+            assertThat( appliedTransactions ).containsExactly( 2L );
+            firstTransactionBlocked.countDown();
+        }
+        assertThat( appliedTransactions ).containsExactly( 2L, 1L );
+        verify( monitor ).parallelRecoveryCompleted( eq( NUMBER_OF_WORKERS ), eq( 2L ), eq( 0L ), anyLong() );
+    }
+
+    @Test
+    void shouldApplyTransactionsChangingSameRecordsInLogOrder() throws Exception
+    {
+        mockStorageEngineApply();
+        CountDownLatch firstTransactionBlocked = blockTransaction( 1 );
+        try ( ParallelRecoveryVisitor visitor = newVisitor() )
+        {
+            visitor.visit( transaction( 1, recordCommand( 1, 2 ) ) );
+            Thread secondVisit = fork( () -> visit( visitor, transaction( 2, recordCommand( 2, 3 ) ) ) );
+
+            awaitThreadState( secondVisit, MILLISECONDS_TO_WAIT, Thread.State.WAITING );
+            assertThat( appliedTransactions ).isEmpty();
+            firstTransactionBlocked.countDown();
+            secondVisit.join();
+        }
+        assertThat( appliedTransactions ).containsExactly( 1L, 2L );
+    }
+
+    @Test
+    void shouldApplyTransactionsNotReportingChangedRecordsAfterAllEarlierTransactions() throws Exception
+    {
+        mockStorageEngineApply();
+        CountDownLatch firstTransactionBlocked = blockTransaction( 1 );
+        try ( ParallelRecoveryVisitor visitor = newVisitor() )
+        {
+            visitor.visit( transaction( 1, recordCommand( 1 ) ) );
+            Thread orderedVisit = fork( () -> visit( visitor, transaction( 2, recordCommand( 2 ), channel -> {} ) ) );
+
+            awaitThreadState( orderedVisit, MILLISECONDS_TO_WAIT, Thread.State.WAITING );
+            assertThat( appliedTransactions ).isEmpty();
+            firstTransactionBlocked.countDown();
+            orderedVisit.join();
+            visitor.visit( transaction( 3, recordCommand( 2 ) ) );
+        }
+        assertThat( appliedTransactions ).containsExactly( 1L, 2L, 3L );
+        verify( monitor ).parallelRecoveryCompleted( eq( NUMBER_OF_WORKERS ), eq( 2L ), eq( 1L ), anyLong() );
+    }
+
+    @Test
+    void shouldRethrowFailureToApplyTransaction() throws Exception
+    {
+        RuntimeException failure = new RuntimeException( "Failed to apply" );
+        doAnswer( invocation ->
+        {
+            throw failure;
+        } ).when( storageEngine ).apply( any( CommandsToApply.class ), any( TransactionApplicationMode.class ) );
+
+        ParallelRecoveryVisitor visitor = newVisitor();
+        visitor.visit( transaction( 1, recordCommand( 1 ) ) );
+
+        RuntimeException exception = assertThrows( RuntimeException.class, visitor::close );
+        assertSame( failure, exception );
+    }
+
+    private ParallelRecoveryVisitor newVisitor()
+    {
+        return new ParallelRecoveryVisitor( storageEngine, RECOVERY, NULL, PageCacheTracer.NULL, executor, NUMBER_OF_WORKERS, monitor );
+    }
+
+    private void mockStorageEngineApply() throws Exception
+    {
+        doAnswer( invocation ->
+        {
+            CommandsToApply transaction = invocation.getArgument( 0 );
+            CountDownLatch blocked = blockedTransactions.get( transaction.transactionId() );
+            if ( blocked != null )
+            {
+                assertTrue( blocked.await( MILLISECONDS_TO_WAIT, TimeUnit.MILLISECONDS ) );
+            }
+            appliedTransactions.add( transaction.transactionId() );
+            return null;
+        } ).when( storageEngine ).apply( any( CommandsToApply.class ), any( TransactionApplicationMode.class ) );
+    }
+
+    private CountDownLatch blockTransaction( long txId )
+    {
+        CountDownLatch latch = new CountDownLatch( 1 );
+        blockedTransactions.put( txId, latch );
+        return latch;
+    }
+
+    private void awaitApplied( long txId ) throws InterruptedException
+    {
+        long end = System.currentTimeMillis() + MILLISECONDS_TO_WAIT;
+        while ( !appliedTransactions.contains( txId ) && System.currentTimeMillis() < end )
+        {
+            Thread.sleep( 10 );
+        }
+    }
+
+    private static void visit( ParallelRecoveryVisitor visitor, CommittedTransactionRepresentation transaction )
+    {
+        try
+        {
+            visitor.visit( transaction );
+        }
+        catch ( Exception e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private static StorageCommand recordCommand( long... ids )
+    {
+        return new StorageCommand()
+        {
+            @Override
+            public void serialize( WritableChannel channel )
+            {
+            }
+
+            @Override
+            public boolean visitChangedRecords( ChangedRecordVisitor visitor )
+            {
+                for ( long id : ids )
+                {
+                    visitor.changed( 0, id );
+                }
+                return true;
+            }
+        };
+    }
+
+    private static CommittedTransactionRepresentation transaction( long txId, StorageCommand... commands )
+    {
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( List.of( commands ) );
+        LogEntryStart start = new LogEntryStart( 0L, txId - 1, 0, null, LogPosition.UNSPECIFIED );
+        LogEntryCommit commit = new LogEntryCommit( txId, 0L, BASE_TX_CHECKSUM );
+        return new CommittedTransactionRepresentation( start, transaction, commit );
+    }
+}
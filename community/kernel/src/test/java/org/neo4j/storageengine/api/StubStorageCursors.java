@@ -291,7 +291,7 @@ public class StubStorageCursors implements StorageReader
     @Override
     public AllNodeScan allNodeScan()
     {
-        throw new UnsupportedOperationException( "not implemented yet" );
+        return new StubNodeScan();
     }
 
     @Override
@@ -418,6 +418,11 @@ public class StubStorageCursors implements StorageReader
         }
     }
 
+    private static class StubNodeScan implements AllNodeScan
+    {
+        private final AtomicLong nextStart = new AtomicLong();
+    }
+
     private class StubStorageNodeCursor implements StorageNodeCursor
     {
         private long next;
@@ -441,7 +446,16 @@ public class StubStorageCursors implements StorageReader
         @Override
         public boolean scanBatch( AllNodeScan scan, int sizeHint )
         {
-            throw new UnsupportedOperationException();
+            long start = ((StubNodeScan) scan).nextStart.getAndAdd( sizeHint );
+            this.current = null;
+            this.next = NO_ID;
+            if ( nodeData.keySet().stream().noneMatch( id -> id >= start ) )
+            {
+                this.iterator = emptyIterator();
+                return false;
+            }
+            this.iterator = nodeData.keySet().stream().filter( id -> id >= start && id < start + sizeHint ).sorted().iterator();
+            return true;
         }
 
         @Override
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.index.label;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.neo4j.index.internal.gbptree.BulkLoader;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.storageengine.api.EntityTokenUpdate;
+
+import static java.lang.Math.toIntExact;
+import static org.neo4j.internal.index.label.NativeTokenScanWriter.offsetOf;
+import static org.neo4j.internal.index.label.NativeTokenScanWriter.rangeOf;
+import static org.neo4j.io.IOUtils.closeAll;
+import static org.neo4j.util.Preconditions.checkArgument;
+
+/**
+ * Writer used when rebuilding the whole token scan store from a full store scan, building the tree using a {@link BulkLoader}.
+ * <p>
+ * Entity ids comes in ascending order, so the ranges of each token comes in tree order, but ranges of different tokens are interleaved.
+ * The tree is ordered by token first so ranges are kept per token until the scan is completed and then handed to the bulk loader token by token.
+ * To keep memory bounded, only the latest {@link #CHUNK_SIZE} ranges of each token are kept in memory, full chunks are spilled to a temporary file
+ * and read back, in order, when closing this writer.
+ * It cannot handle updates to entities that are already in this token index, same as {@link BulkAppendNativeTokenScanWriter}.
+ */
+class BulkLoadNativeTokenScanWriter implements TokenScanWriter
+{
+    /**
+     * Number of ranges in a chunk, each range is stored as two longs, its id range and its bits.
+     */
+    static final int CHUNK_SIZE = 512;
+    private static final int CHUNK_SIZE_BYTES = CHUNK_SIZE * Long.BYTES * 2;
+
+    private final BulkLoader<TokenScanKey,TokenScanValue> bulkLoader;
+    private final FileSystemAbstraction fs;
+    private final File spillFile;
+    private final MutableIntObjectMap<TokenRanges> tokens = IntObjectMaps.mutable.empty();
+    private final ByteBuffer chunkBuffer = ByteBuffer.allocate( CHUNK_SIZE_BYTES );
+    private StoreChannel spillChannel;
+    private long spillPosition;
+
+    BulkLoadNativeTokenScanWriter( BulkLoader<TokenScanKey,TokenScanValue> bulkLoader, FileSystemAbstraction fs, File spillFile )
+    {
+        this.bulkLoader = bulkLoader;
+        this.fs = fs;
+        this.spillFile = spillFile;
+    }
+
+    @Override
+    public void write( EntityTokenUpdate update ) throws IOException
+    {
+        checkArgument( update.getTokensBefore().length == 0, "Was expecting no tokens before, was %s", Arrays.toString( update.getTokensBefore() ) );
+        long idRange = rangeOf( update.getEntityId() );
+        int previousTokenId = -1;
+        for ( long tokenId : update.getTokensAfter() )
+        {
+            int intTokenId = toIntExact( tokenId );
+            checkArgument( intTokenId > previousTokenId, "Detected unsorted tokens in %s", update );
+            previousTokenId = intTokenId;
+            TokenRanges ranges = tokens.getIfAbsentPut( intTokenId, TokenRanges::new );
+            if ( ranges.currentIdRange != idRange )
+            {
+                checkArgument( idRange > ranges.currentIdRange, "Detected unsorted entity ids in %s", update );
+                ranges.flushCurrent();
+                ranges.currentIdRange = idRange;
+            }
+            ranges.currentBits |= 1L << offsetOf( update.getEntityId() );
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            TokenScanKey key = new TokenScanKey();
+            TokenScanValue value = new TokenScanValue();
+            int[] tokenIds = tokens.keySet().toSortedArray();
+            for ( int tokenId : tokenIds )
+            {
+                TokenRanges ranges = tokens.get( tokenId );
+                ranges.flushCurrent();
+                for ( int i = 0; i < ranges.spilledChunks.size(); i++ )
+                {
+                    readChunk( ranges.spilledChunks.get( i ) );
+                    for ( int entry = 0; entry < CHUNK_SIZE; entry++ )
+                    {
+                        key.set( tokenId, chunkBuffer.getLong() );
+                        value.bits = chunkBuffer.getLong();
+                        bulkLoader.add( key, value );
+                    }
+                }
+                for ( int entry = 0; entry < ranges.size; entry++ )
+                {
+                    key.set( tokenId, ranges.chunk[entry * 2] );
+                    value.bits = ranges.chunk[entry * 2 + 1];
+                    bulkLoader.add( key, value );
+                }
+            }
+        }
+        finally
+        {
+            closeAll( bulkLoader, spillChannel );
+            if ( spillChannel != null )
+            {
+                fs.deleteFile( spillFile );
+            }
+        }
+    }
+
+    private long spillChunk( long[] chunk ) throws IOException
+    {
+        if ( spillChannel == null )
+        {
+            spillChannel = fs.write( spillFile );
+            spillChannel.truncate( 0 );
+        }
+        chunkBuffer.clear();
+        chunkBuffer.asLongBuffer().put( chunk );
+        long position = spillPosition;
+        spillChannel.writeAll( chunkBuffer, position );
+        spillPosition += CHUNK_SIZE_BYTES;
+        return position;
+    }
+
+    private void readChunk( long position ) throws IOException
+    {
+        chunkBuffer.clear();
+        spillChannel.position( position );
+        spillChannel.readAll( chunkBuffer );
+        chunkBuffer.flip();
+    }
+
+    private class TokenRanges
+    {
+        private final long[] chunk = new long[CHUNK_SIZE * 2];
+        private final MutableLongList spilledChunks = new LongArrayList();
+        private int size;
+        private long currentIdRange = -1;
+        private long currentBits;
+
+        void flushCurrent() throws IOException
+        {
+            if ( currentIdRange == -1 )
+            {
+                return;
+            }
+            if ( size == CHUNK_SIZE )
+            {
+                spilledChunks.add( spillChunk( chunk ) );
+                size = 0;
+            }
+            chunk[size * 2] = currentIdRange;
+            chunk[size * 2 + 1] = currentBits;
+            size++;
+            currentIdRange = -1;
+            currentBits = 0;
+        }
+    }
+}
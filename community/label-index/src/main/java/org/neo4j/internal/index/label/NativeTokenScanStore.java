@@ -33,6 +33,7 @@ import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.common.EntityType;
 import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.BulkLoader;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.GBPTreeConsistencyCheckVisitor;
 import org.neo4j.index.internal.gbptree.Header;
@@ -473,7 +474,7 @@ public abstract class NativeTokenScanStore implements TokenScanStore, EntityToke
 
             // Intentionally ignore read-only flag here when rebuilding.
             final PageCursorTracer cursorTracer = cacheTracer.createPageCursorTracer( TOKEN_SCAN_REBUILD_TAG );
-            try ( TokenScanWriter writer = newBulkAppendWriter( cursorTracer ) )
+            try ( TokenScanWriter writer = bulkLoadWriter( cursorTracer ) )
             {
                 numberOfEntities = fullStoreChangeStream.applyTo( writer, cursorTracer );
             }
@@ -485,6 +486,15 @@ public abstract class NativeTokenScanStore implements TokenScanStore, EntityToke
         }
     }
 
+    /**
+     * Writer for building the whole, empty, tree from {@link FullStoreChangeStream} using a {@link BulkLoader}.
+     */
+    private TokenScanWriter bulkLoadWriter( PageCursorTracer cursorTracer ) throws IOException
+    {
+        File spillFile = new File( storeFile.getParentFile(), storeFile.getName() + ".rebuild" );
+        return new BulkLoadNativeTokenScanWriter( index.bulkLoader( new AddMerger( NativeTokenScanWriter.EMPTY ), cursorTracer ), fs, spillFile );
+    }
+
     private NativeTokenScanWriter writer( PageCursorTracer cursorTracer ) throws IOException
     {
         return singleWriter.initialize( index.writer( cursorTracer ) );
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.index.label;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.index.internal.gbptree.BulkLoader;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.storageengine.api.EntityTokenUpdate;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.internal.index.label.BulkLoadNativeTokenScanWriter.CHUNK_SIZE;
+import static org.neo4j.internal.index.label.TokenScanValue.RANGE_SIZE;
+import static org.neo4j.storageengine.api.EntityTokenUpdate.tokenChanges;
+
+@EphemeralTestDirectoryExtension
+class BulkLoadNativeTokenScanWriterTest
+{
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory directory;
+
+    @Test
+    void shouldAddRangesOrderedByTokenOnClose() throws IOException
+    {
+        // given
+        TrackingBulkLoader bulkLoader = new TrackingBulkLoader();
+        try ( BulkLoadNativeTokenScanWriter writer = newWriter( bulkLoader ) )
+        {
+            // when
+            writer.write( EntityTokenUpdate.tokenChanges( 5, EMPTY_LONG_ARRAY, new long[]{1, 2, 3} ) );
+            writer.write( EntityTokenUpdate.tokenChanges( 7, EMPTY_LONG_ARRAY, new long[]{1, 3} ) );
+            writer.write( EntityTokenUpdate.tokenChanges( RANGE_SIZE + 5, EMPTY_LONG_ARRAY, new long[]{1, 2} ) );
+
+            // then
+            bulkLoader.verifyNoMoreAdds();
+        }
+        assertTrue( bulkLoader.closed );
+        bulkLoader.verifyAdded( 1, 0, 0b10100000 );
+        bulkLoader.verifyAdded( 1, 1, 0b100000 );
+        bulkLoader.verifyAdded( 2, 0, 0b100000 );
+        bulkLoader.verifyAdded( 2, 1, 0b100000 );
+        bulkLoader.verifyAdded( 3, 0, 0b10100000 );
+        bulkLoader.verifyNoMoreAdds();
+    }
+
+    @Test
+    void shouldSpillRangesAndReadThemBackInOrder() throws IOException
+    {
+        // given
+        TrackingBulkLoader bulkLoader = new TrackingBulkLoader();
+        int numberOfRanges = CHUNK_SIZE * 3 + 7;
+        try ( BulkLoadNativeTokenScanWriter writer = newWriter( bulkLoader ) )
+        {
+            // when
+            for ( int range = 0; range < numberOfRanges; range++ )
+            {
+                writer.write( EntityTokenUpdate.tokenChanges( range * RANGE_SIZE + range % RANGE_SIZE, EMPTY_LONG_ARRAY, new long[]{4, 9} ) );
+            }
+            assertTrue( fs.fileExists( spillFile() ) );
+        }
+
+        // then
+        for ( int tokenId : new int[]{4, 9} )
+        {
+            for ( int range = 0; range < numberOfRanges; range++ )
+            {
+                bulkLoader.verifyAdded( tokenId, range, 1L << (range % RANGE_SIZE) );
+            }
+        }
+        bulkLoader.verifyNoMoreAdds();
+        assertFalse( fs.fileExists( spillFile() ) );
+    }
+
+    @Test
+    void shouldFailOnUpdatingTryingToRemoveLabelFromNode() throws IOException
+    {
+        // given
+        try ( BulkLoadNativeTokenScanWriter writer = newWriter( new TrackingBulkLoader() ) )
+        {
+            // when/then
+            IllegalArgumentException failure =
+                    assertThrows( IllegalArgumentException.class, () -> writer.write( tokenChanges( 3, new long[]{1, 2}, new long[]{2, 3} ) ) );
+            assertThat( failure.getMessage() ).contains( "Was expecting no tokens before" );
+        }
+    }
+
+    @Test
+    void shouldFailOnUnsortedEntityIds() throws IOException
+    {
+        // given
+        try ( BulkLoadNativeTokenScanWriter writer = newWriter( new TrackingBulkLoader() ) )
+        {
+            writer.write( tokenChanges( RANGE_SIZE * 2, EMPTY_LONG_ARRAY, new long[]{1} ) );
+
+            // when/then
+            IllegalArgumentException failure =
+                    assertThrows( IllegalArgumentException.class, () -> writer.write( tokenChanges( 3, EMPTY_LONG_ARRAY, new long[]{1} ) ) );
+            assertThat( failure.getMessage() ).contains( "Detected unsorted entity ids" );
+        }
+    }
+
+    private BulkLoadNativeTokenScanWriter newWriter( TrackingBulkLoader bulkLoader )
+    {
+        return new BulkLoadNativeTokenScanWriter( bulkLoader, fs, spillFile() );
+    }
+
+    private File spillFile()
+    {
+        return directory.file( "spill" );
+    }
+
+    private static class TrackingBulkLoader implements BulkLoader<TokenScanKey,TokenScanValue>
+    {
+        final List<long[]> added = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public void add( TokenScanKey key, TokenScanValue value )
+        {
+            added.add( new long[]{key.tokenId, key.idRange, value.bits} );
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        void verifyAdded( int tokenId, long idRange, long bits )
+        {
+            long[] entry = added.remove( 0 );
+            assertEquals( tokenId, entry[0], "Wrong token id" );
+            assertEquals( idRange, entry[1], "Wrong id range" );
+            assertEquals( bits, entry[2], "Wrong bits" );
+        }
+
+        void verifyNoMoreAdds()
+        {
+            assertTrue( added.isEmpty(), "Unexpected adds " + added.size() );
+        }
+    }
+}
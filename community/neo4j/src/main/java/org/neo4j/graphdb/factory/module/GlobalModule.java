@@ -377,6 +377,7 @@ public class GlobalModule
         jobScheduler.setParallelism( Group.INDEX_SAMPLING, globalConfig.get( GraphDatabaseSettings.index_sampling_parallelism ) );
         jobScheduler.setParallelism( Group.INDEX_POPULATION, globalConfig.get( GraphDatabaseSettings.index_population_parallelism ) );
         jobScheduler.setParallelism( Group.INDEX_POPULATION_WORK, globalConfig.get( GraphDatabaseSettings.index_population_workers ) );
+        jobScheduler.setParallelism( Group.INDEX_POPULATION_SCAN, globalConfig.get( GraphDatabaseSettings.index_population_workers ) );
         jobScheduler.setParallelism( Group.PAGE_CACHE_PRE_FETCHER, globalConfig.get( GraphDatabaseSettings.pagecache_scan_prefetch ) );
         return jobScheduler;
     }
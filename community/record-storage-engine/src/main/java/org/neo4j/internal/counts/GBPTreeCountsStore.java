@@ -167,7 +167,7 @@ public class GBPTreeCountsStore implements CountsStore
             }
             Lock lock = lock( this.lock.writeLock() );
             long txId = initialCountsBuilder.lastCommittedTxId();
-            try ( CountsAccessor.Updater updater = new CountUpdater( new TreeWriter( tree.writer( cursorTracer ), idSequence, txId ), lock ) )
+            try ( CountsAccessor.Updater updater = new CountUpdater( new TreeWriter( tree.bulkLoader( cursorTracer ), layout, idSequence, txId ), lock ) )
             {
                 initialCountsBuilder.initialize( updater, cursorTracer, memoryTracker );
             }
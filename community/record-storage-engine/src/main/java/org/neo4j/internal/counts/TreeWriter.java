@@ -19,6 +19,15 @@
  */
 package org.neo4j.internal.counts;
 
+import org.apache.commons.lang3.mutable.MutableLong;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.index.internal.gbptree.BulkLoader;
 import org.neo4j.index.internal.gbptree.ValueMerger;
 import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.util.concurrent.OutOfOrderSequence;
@@ -29,21 +38,25 @@ import static org.neo4j.index.internal.gbptree.ValueMerger.MergeResult.REPLACED;
 import static org.neo4j.io.IOUtils.closeAllUnchecked;
 
 /**
- * Writes counts directly into the tree.
+ * Writes counts directly into the empty tree when building the counts store from scratch.
+ * Deltas are summed up in memory, there are not more counts than what the counts builder itself keeps in memory,
+ * and written in tree order using a {@link BulkLoader} when closed.
  */
 class TreeWriter implements CountUpdater.CountWriter
 {
     private static final ValueMerger<CountsKey,CountsValue> MERGER =
             ( existingKey, newKey, existingValue, newValue ) -> newValue.count > 0 ? REPLACED : REMOVED;
 
-    private final Writer<CountsKey,CountsValue> treeWriter;
+    private final BulkLoader<CountsKey,CountsValue> bulkLoader;
+    private final Comparator<CountsKey> comparator;
     private final OutOfOrderSequence idSequence;
     private final long txId;
-    private final CountsValue value = new CountsValue();
+    private final Map<CountsKey,MutableLong> counts = new HashMap<>();
 
-    TreeWriter( Writer<CountsKey,CountsValue> treeWriter, OutOfOrderSequence idSequence, long txId )
+    TreeWriter( BulkLoader<CountsKey,CountsValue> bulkLoader, Comparator<CountsKey> comparator, OutOfOrderSequence idSequence, long txId )
     {
-        this.treeWriter = treeWriter;
+        this.bulkLoader = bulkLoader;
+        this.comparator = comparator;
         this.idSequence = idSequence;
         this.txId = txId;
     }
@@ -51,13 +64,34 @@ class TreeWriter implements CountUpdater.CountWriter
     @Override
     public void write( CountsKey key, long delta )
     {
-        merge( treeWriter, key, value.initialize( delta ) );
+        counts.computeIfAbsent( key, k -> new MutableLong() ).add( delta );
     }
 
     @Override
     public void close()
     {
-        closeAllUnchecked( treeWriter );
+        try
+        {
+            List<CountsKey> keys = new ArrayList<>( counts.keySet() );
+            keys.sort( comparator );
+            CountsValue value = new CountsValue();
+            for ( CountsKey key : keys )
+            {
+                long count = counts.get( key ).longValue();
+                if ( count > 0 )
+                {
+                    bulkLoader.add( key, value.initialize( count ) );
+                }
+                else if ( count < 0 )
+                {
+                    throw new IllegalStateException( "Count for " + key + " got negative: " + count );
+                }
+            }
+        }
+        finally
+        {
+            closeAllUnchecked( bulkLoader );
+        }
         idSequence.set( txId, EMPTY_LONG_ARRAY );
     }
 
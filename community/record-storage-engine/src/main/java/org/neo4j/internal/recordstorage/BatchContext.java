@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import org.neo4j.exceptions.KernelException;
 import org.neo4j.io.IOUtils;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.IdUpdateListener;
@@ -42,6 +43,7 @@ public class BatchContext implements AutoCloseable
     private final WorkSync<EntityTokenUpdateListener,TokenUpdateWork> labelScanStoreSync;
     private final WorkSync<EntityTokenUpdateListener,TokenUpdateWork> relationshipTypeScanStoreSync;
     private final WorkSync<IndexUpdateListener,IndexUpdatesWork> indexUpdatesSync;
+    private final IndexUpdateListener indexUpdateListener;
     private final NodeStore nodeStore;
     private final PropertyStore propertyStore;
     private final StorageEngine storageEngine;
@@ -55,6 +57,10 @@ public class BatchContext implements AutoCloseable
     private List<EntityTokenUpdate> relationshipTypeUpdates;
     private IndexUpdates indexUpdates;
 
+    /**
+     * @param indexUpdatesSync combines the index updates of concurrently applied batches and applies them one combined job at a time,
+     * or {@code null} to apply the index updates of this batch directly to the {@code indexUpdateListener}, concurrently with other batches.
+     */
     public BatchContext( IndexUpdateListener indexUpdateListener,
             WorkSync<EntityTokenUpdateListener,TokenUpdateWork> labelScanStoreSync,
             WorkSync<EntityTokenUpdateListener,TokenUpdateWork> relationshipTypeScanStoreSync,
@@ -66,6 +72,7 @@ public class BatchContext implements AutoCloseable
         this.labelScanStoreSync = labelScanStoreSync;
         this.relationshipTypeScanStoreSync = relationshipTypeScanStoreSync;
         this.indexUpdatesSync = indexUpdatesSync;
+        this.indexUpdateListener = indexUpdateListener;
         this.nodeStore = nodeStore;
         this.propertyStore = propertyStore;
         this.storageEngine = recordStorageEngine;
@@ -113,9 +120,16 @@ public class BatchContext implements AutoCloseable
         {
             try
             {
-                indexUpdatesSync.apply( new IndexUpdatesWork( indexUpdates, cursorTracer ) );
+                if ( indexUpdatesSync != null )
+                {
+                    indexUpdatesSync.apply( new IndexUpdatesWork( indexUpdates, cursorTracer ) );
+                }
+                else
+                {
+                    indexUpdateListener.applyUpdates( indexUpdates, cursorTracer );
+                }
             }
-            catch ( ExecutionException e )
+            catch ( ExecutionException | KernelException e )
             {
                 throw new IOException( "Failed to flush index updates", e );
             }
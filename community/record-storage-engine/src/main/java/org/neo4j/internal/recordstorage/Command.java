@@ -65,6 +65,14 @@ import static org.neo4j.util.Bits.bitFlags;
  */
 public abstract class Command implements StorageCommand
 {
+    // Types of records reported to a ChangedRecordVisitor, property string and array records share a type to keep it simple
+    private static final int NODE_RECORD = 0;
+    private static final int NODE_LABEL_RECORD = 1;
+    private static final int RELATIONSHIP_RECORD = 2;
+    private static final int RELATIONSHIP_GROUP_RECORD = 3;
+    private static final int PROPERTY_RECORD = 4;
+    private static final int PROPERTY_VALUE_RECORD = 5;
+
     private int keyHash;
     private long key;
     private Mode mode;
@@ -136,6 +144,23 @@ public abstract class Command implements StorageCommand
 
     public abstract boolean handle( CommandVisitor handler ) throws IOException;
 
+    static void visitChangedRecord( int recordType, AbstractBaseRecord record, ChangedRecordVisitor visitor )
+    {
+        visitor.changed( recordType, record.getId() );
+        if ( record.hasSecondaryUnitId() )
+        {
+            visitor.changed( recordType, record.getSecondaryUnitId() );
+        }
+    }
+
+    static void visitChangedRecords( int recordType, Iterable<DynamicRecord> records, ChangedRecordVisitor visitor )
+    {
+        for ( DynamicRecord record : records )
+        {
+            visitor.changed( recordType, record.getId() );
+        }
+    }
+
     protected String beforeAndAfterToString( AbstractBaseRecord before, AbstractBaseRecord after )
     {
         return format( "\t-%s%n\t+%s", before, after );
@@ -229,6 +254,16 @@ public abstract class Command implements StorageCommand
             return handler.visitNodeCommand( this );
         }
 
+        @Override
+        public boolean visitChangedRecords( ChangedRecordVisitor visitor )
+        {
+            visitChangedRecord( NODE_RECORD, before, visitor );
+            visitChangedRecord( NODE_RECORD, after, visitor );
+            visitChangedRecords( NODE_LABEL_RECORD, before.getDynamicLabelRecords(), visitor );
+            visitChangedRecords( NODE_LABEL_RECORD, after.getDynamicLabelRecords(), visitor );
+            return true;
+        }
+
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
@@ -275,6 +310,14 @@ public abstract class Command implements StorageCommand
             return handler.visitRelationshipCommand( this );
         }
 
+        @Override
+        public boolean visitChangedRecords( ChangedRecordVisitor visitor )
+        {
+            visitChangedRecord( RELATIONSHIP_RECORD, before, visitor );
+            visitChangedRecord( RELATIONSHIP_RECORD, after, visitor );
+            return true;
+        }
+
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
@@ -324,6 +367,14 @@ public abstract class Command implements StorageCommand
             return handler.visitRelationshipGroupCommand( this );
         }
 
+        @Override
+        public boolean visitChangedRecords( ChangedRecordVisitor visitor )
+        {
+            visitChangedRecord( RELATIONSHIP_GROUP_RECORD, before, visitor );
+            visitChangedRecord( RELATIONSHIP_GROUP_RECORD, after, visitor );
+            return true;
+        }
+
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
@@ -397,6 +448,32 @@ public abstract class Command implements StorageCommand
             return handler.visitPropertyCommand( this );
         }
 
+        @Override
+        public boolean visitChangedRecords( ChangedRecordVisitor visitor )
+        {
+            // The owning entity is reported as well, since applying property changes can involve reading the entity record, e.g. for index updates
+            if ( after.isNodeSet() )
+            {
+                visitor.changed( NODE_RECORD, after.getNodeId() );
+            }
+            else if ( after.isRelSet() )
+            {
+                visitor.changed( RELATIONSHIP_RECORD, after.getRelId() );
+            }
+            else
+            {
+                return false;
+            }
+            visitChangedRecord( PROPERTY_RECORD, before, visitor );
+            visitChangedRecord( PROPERTY_RECORD, after, visitor );
+            for ( PropertyBlock block : after )
+            {
+                visitChangedRecords( PROPERTY_VALUE_RECORD, block.getValueRecords(), visitor );
+            }
+            visitChangedRecords( PROPERTY_VALUE_RECORD, after.getDeletedRecords(), visitor );
+            return true;
+        }
+
         public long getEntityId()
         {
             return after.isNodeSet() ? after.getNodeId() : after.getRelId();
@@ -997,6 +1074,13 @@ public abstract class Command implements StorageCommand
             return handler.visitNodeCountsCommand( this );
         }
 
+        @Override
+        public boolean visitChangedRecords( ChangedRecordVisitor visitor )
+        {
+            // Count deltas are commutative and the counts store accepts them from concurrently applied transactions
+            return true;
+        }
+
         public int labelId()
         {
             return labelId;
@@ -1048,6 +1132,13 @@ public abstract class Command implements StorageCommand
             return handler.visitRelationshipCountsCommand( this );
         }
 
+        @Override
+        public boolean visitChangedRecords( ChangedRecordVisitor visitor )
+        {
+            // Count deltas are commutative and the counts store accepts them from concurrently applied transactions
+            return true;
+        }
+
         public int startLabelId()
         {
             return startLabelId;
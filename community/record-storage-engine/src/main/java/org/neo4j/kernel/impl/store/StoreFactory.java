@@ -36,6 +36,7 @@ import org.neo4j.kernel.impl.store.format.RecordFormats;
 import org.neo4j.kernel.impl.store.format.aligned.AlignedFormatFamily;
 import org.neo4j.logging.LogProvider;
 
+import static org.apache.commons.lang3.SystemUtils.IS_OS_LINUX;
 import static org.eclipse.collections.api.factory.Sets.immutable;
 import static org.neo4j.io.pagecache.PageCacheOpenOptions.DIRECT;
 import static org.neo4j.kernel.impl.store.format.RecordFormatPropertyConfigurator.configureRecordFormat;
@@ -74,7 +75,7 @@ public class StoreFactory
         this.fileSystemAbstraction = fileSystemAbstraction;
         this.recordFormats = recordFormats;
         this.cacheTracer = cacheTracer;
-        this.openOptions = buildOpenOptions( config, recordFormats, openOptions );
+        this.openOptions = buildOpenOptions( config, recordFormats, openOptions, logProvider );
         this.logProvider = logProvider;
         this.pageCache = pageCache;
         configureRecordFormat( recordFormats, config );
@@ -136,7 +137,8 @@ public class StoreFactory
                 cacheTracer, storeTypes, openOptions );
     }
 
-    private static ImmutableSet<OpenOption> buildOpenOptions( Config config, RecordFormats recordFormats, ImmutableSet<OpenOption> openOptions )
+    private static ImmutableSet<OpenOption> buildOpenOptions( Config config, RecordFormats recordFormats, ImmutableSet<OpenOption> openOptions,
+            LogProvider logProvider )
     {
         // we need to modify options only for aligned format and avoid passing direct io option in all other cases
         if ( recordFormats.getFormatFamily() != AlignedFormatFamily.INSTANCE )
@@ -152,6 +154,12 @@ public class StoreFactory
         {
             return openOptions;
         }
+        if ( !IS_OS_LINUX )
+        {
+            logProvider.getLog( StoreFactory.class ).warn( "The " + GraphDatabaseSettings.pagecache_direct_io.name() +
+                    " setting is only supported on Linux. Store files will be accessed through the operating system file cache." );
+            return openOptions;
+        }
         return openOptions.newWith( DIRECT );
     }
 }
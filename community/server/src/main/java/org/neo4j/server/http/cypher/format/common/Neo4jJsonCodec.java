@@ -47,6 +47,7 @@ import org.neo4j.graphdb.spatial.Point;
 import org.neo4j.server.http.cypher.TransactionHandle;
 import org.neo4j.server.http.cypher.TransactionStateChecker;
 import org.neo4j.server.http.cypher.TransitionalTxManagementKernelTransaction;
+import org.neo4j.values.virtual.MapValue;
 
 import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
 import static java.util.Objects.requireNonNull;
@@ -80,6 +81,7 @@ public class Neo4jJsonCodec extends ObjectMapper
     }
 
     private TransactionHandle transactionHandle;
+    private StreamingJsonValueWriter valueWriter;
 
     public Neo4jJsonCodec( TransactionHandle transactionHandle )
     {
@@ -89,13 +91,39 @@ public class Neo4jJsonCodec extends ObjectMapper
 
     public Neo4jJsonCodec()
     {
-        getSerializationConfig().without( FLUSH_AFTER_WRITE_VALUE );
+        // the generator is flushed once per record by the serializer, not after every value
+        disable( FLUSH_AFTER_WRITE_VALUE );
     }
 
     @Override
     public void writeValue( JsonGenerator out, Object value ) throws IOException
     {
-        if ( value instanceof Entity )
+        // the common scalars are written directly, rather than through the generic object mapper
+        if ( value == null )
+        {
+            out.writeNull();
+        }
+        else if ( value instanceof String )
+        {
+            out.writeString( (String) value );
+        }
+        else if ( value instanceof Long )
+        {
+            out.writeNumber( (Long) value );
+        }
+        else if ( value instanceof Integer )
+        {
+            out.writeNumber( (Integer) value );
+        }
+        else if ( value instanceof Double )
+        {
+            out.writeNumber( (Double) value );
+        }
+        else if ( value instanceof Boolean )
+        {
+            out.writeBoolean( (Boolean) value );
+        }
+        else if ( value instanceof Entity )
         {
             var context = transactionHandle.getContext();
             TransactionStateChecker txStateChecker = TransactionStateChecker.create( context );
@@ -255,10 +283,7 @@ public class Neo4jJsonCodec extends ObjectMapper
         {
             if ( !isDeleted )
             {
-                for ( Map.Entry<String,Object> property : entity.getAllProperties().entrySet() )
-                {
-                    out.writeObjectField( property.getKey(), property.getValue() );
-                }
+                writeProperties( out, entity );
             }
         }
         finally
@@ -267,6 +292,31 @@ public class Neo4jJsonCodec extends ObjectMapper
         }
     }
 
+    private void writeProperties( JsonGenerator out, Entity entity ) throws IOException
+    {
+        MapValue properties = StreamingJsonValueWriter.propertyValues( entity );
+        if ( properties != null )
+        {
+            valueWriter( out ).writeFields( properties );
+        }
+        else
+        {
+            for ( Map.Entry<String,Object> property : entity.getAllProperties().entrySet() )
+            {
+                out.writeObjectField( property.getKey(), property.getValue() );
+            }
+        }
+    }
+
+    private StreamingJsonValueWriter valueWriter( JsonGenerator out )
+    {
+        if ( valueWriter == null || valueWriter.generator() != out )
+        {
+            valueWriter = new StreamingJsonValueWriter( out );
+        }
+        return valueWriter;
+    }
+
     private void writeByteArray( JsonGenerator out, byte[] bytes ) throws IOException
     {
         out.writeStartArray();
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import org.neo4j.graphdb.ExecutionPlanDescription;
+import org.neo4j.graphdb.InputPosition;
+import org.neo4j.graphdb.Notification;
+import org.neo4j.graphdb.QueryStatistics;
+import org.neo4j.server.http.cypher.format.api.FailureEvent;
+
+import static org.neo4j.server.rest.domain.JsonHelper.writeValue;
+
+/**
+ * Writes the fields describing a statement or a transaction, rather than the records of a result, as they are written by all the output
+ * formats that describe them in JSON.
+ */
+public final class ResultMetadataWriter
+{
+    private ResultMetadataWriter()
+    {
+    }
+
+    public static void writeStats( JsonGenerator out, QueryStatistics stats ) throws IOException
+    {
+        out.writeObjectFieldStart( "stats" );
+        try
+        {
+            out.writeBooleanField( "contains_updates", stats.containsUpdates() );
+            out.writeNumberField( "nodes_created", stats.getNodesCreated() );
+            out.writeNumberField( "nodes_deleted", stats.getNodesDeleted() );
+            out.writeNumberField( "properties_set", stats.getPropertiesSet() );
+            out.writeNumberField( "relationships_created", stats.getRelationshipsCreated() );
+            out.writeNumberField( "relationship_deleted", stats.getRelationshipsDeleted() );
+            out.writeNumberField( "labels_added", stats.getLabelsAdded() );
+            out.writeNumberField( "labels_removed", stats.getLabelsRemoved() );
+            out.writeNumberField( "indexes_added", stats.getIndexesAdded() );
+            out.writeNumberField( "indexes_removed", stats.getIndexesRemoved() );
+            out.writeNumberField( "constraints_added", stats.getConstraintsAdded() );
+            out.writeNumberField( "constraints_removed", stats.getConstraintsRemoved() );
+            out.writeBooleanField( "contains_system_updates", stats.containsSystemUpdates() );
+            out.writeNumberField( "system_updates", stats.getSystemUpdates() );
+        }
+        finally
+        {
+            out.writeEndObject();
+        }
+    }
+
+    public static void writeRootPlanDescription( JsonGenerator out, ExecutionPlanDescription planDescription ) throws IOException
+    {
+        out.writeObjectFieldStart( "plan" );
+        try
+        {
+            out.writeObjectFieldStart( "root" );
+            try
+            {
+                writePlanDescriptionObjectBody( out, planDescription );
+            }
+            finally
+            {
+                out.writeEndObject();
+            }
+        }
+        finally
+        {
+            out.writeEndObject();
+        }
+    }
+
+    private static void writePlanDescriptionObjectBody( JsonGenerator out, ExecutionPlanDescription planDescription ) throws IOException
+    {
+        out.writeStringField( "operatorType", planDescription.getName() );
+        writePlanArgs( out, planDescription );
+        writePlanIdentifiers( out, planDescription );
+
+        out.writeArrayFieldStart( "children" );
+        try
+        {
+            for ( ExecutionPlanDescription child : planDescription.getChildren() )
+            {
+                out.writeStartObject();
+                try
+                {
+                    writePlanDescriptionObjectBody( out, child );
+                }
+                finally
+                {
+                    out.writeEndObject();
+                }
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+    }
+
+    private static void writePlanArgs( JsonGenerator out, ExecutionPlanDescription planDescription ) throws IOException
+    {
+        for ( Map.Entry<String,Object> entry : planDescription.getArguments().entrySet() )
+        {
+            out.writeFieldName( entry.getKey() );
+            writeValue( out, entry.getValue() );
+        }
+    }
+
+    private static void writePlanIdentifiers( JsonGenerator out, ExecutionPlanDescription planDescription ) throws IOException
+    {
+        out.writeArrayFieldStart( "identifiers" );
+        for ( String id : planDescription.getIdentifiers() )
+        {
+            out.writeString( id );
+        }
+        out.writeEndArray();
+    }
+
+    /**
+     * Writes the {@code notifications} field, unless there are no notifications.
+     */
+    public static void writeNotifications( JsonGenerator out, Iterable<Notification> notifications ) throws IOException
+    {
+        if ( !notifications.iterator().hasNext() )
+        {
+            return;
+        }
+
+        out.writeArrayFieldStart( "notifications" );
+        try
+        {
+            for ( Notification notification : notifications )
+            {
+                out.writeStartObject();
+                try
+                {
+                    out.writeStringField( "code", notification.getCode() );
+                    out.writeStringField( "severity", notification.getSeverity().toString() );
+                    out.writeStringField( "title", notification.getTitle() );
+                    out.writeStringField( "description", notification.getDescription() );
+                    writePosition( out, notification.getPosition() );
+                }
+                finally
+                {
+                    out.writeEndObject();
+                }
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+    }
+
+    private static void writePosition( JsonGenerator out, InputPosition position ) throws IOException
+    {
+        //do not add position if empty
+        if ( position == InputPosition.empty )
+        {
+            return;
+        }
+
+        out.writeObjectFieldStart( "position" );
+        try
+        {
+            out.writeNumberField( "offset", position.getOffset() );
+            out.writeNumberField( "line", position.getLine() );
+            out.writeNumberField( "column", position.getColumn() );
+        }
+        finally
+        {
+            out.writeEndObject();
+        }
+    }
+
+    public static void writeErrors( JsonGenerator out, Iterable<FailureEvent> errors ) throws IOException
+    {
+        out.writeArrayFieldStart( "errors" );
+        try
+        {
+            for ( FailureEvent error : errors )
+            {
+                try
+                {
+                    out.writeStartObject();
+                    out.writeObjectField( "code", error.getStatus().code().serialize() );
+                    out.writeObjectField( "message", error.getMessage() );
+                }
+                finally
+                {
+                    out.writeEndObject();
+                }
+            }
+        }
+        finally
+        {
+            out.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes the {@code transaction} field of an open transaction, with its expiry time if it has one.
+     */
+    public static void writeOpenTransaction( JsonGenerator out, long expirationTimestamp ) throws IOException
+    {
+        out.writeObjectFieldStart( "transaction" );
+        if ( expirationTimestamp >= 0 )
+        {
+            String expires = Instant.ofEpochMilli( expirationTimestamp )
+                    .atZone( ZoneId.of( "GMT" ) )
+                    .format( DateTimeFormatter.RFC_1123_DATE_TIME );
+            out.writeStringField( "expires", expires );
+        }
+        out.writeEndObject();
+    }
+}
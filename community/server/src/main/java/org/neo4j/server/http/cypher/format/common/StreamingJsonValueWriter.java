@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import org.neo4j.graphdb.Entity;
+import org.neo4j.kernel.impl.core.NodeEntity;
+import org.neo4j.kernel.impl.core.RelationshipEntity;
+import org.neo4j.values.AnyValueWriter;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.TextArray;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.NodeValue;
+import org.neo4j.values.virtual.RelationshipValue;
+
+/**
+ * Writes values straight to a {@link JsonGenerator}, in the same format as {@link Neo4jJsonCodec} writes the java objects the values
+ * correspond to, but without going through an {@link com.fasterxml.jackson.databind.ObjectMapper} for every value. Nodes and relationships
+ * are written as their properties, or as their ids when only a reference to them is at hand. Strings that are still UTF-8 encoded are
+ * copied to the output as they are.
+ * <p>
+ * A writer holds the state of the maps and lists it is in the middle of writing, and can be reused for any number of values written to
+ * the same generator.
+ */
+public class StreamingJsonValueWriter implements AnyValueWriter<IOException>
+{
+    private static final byte LIST = 0;
+    private static final byte MAP_KEY = 1;
+    private static final byte MAP_VALUE = 2;
+    private static final byte CHAR_ARRAY = 3;
+
+    private final JsonGenerator out;
+    private final boolean rawUtf8;
+    private byte[] containers = new byte[8];
+    private int depth;
+    private final StringBuilder chars = new StringBuilder();
+
+    public StreamingJsonValueWriter( JsonGenerator out )
+    {
+        this.out = out;
+        // escaping can only be left to the generator if it writes UTF-8 itself
+        this.rawUtf8 = out instanceof UTF8JsonGenerator && out.getCharacterEscapes() == null &&
+                       !out.isEnabled( JsonWriteFeature.ESCAPE_NON_ASCII.mappedFeature() );
+    }
+
+    /**
+     * @return the properties of the given entity as they are read from the store, or {@code null} if they can only be read as java objects.
+     */
+    public static MapValue propertyValues( Entity entity )
+    {
+        if ( entity instanceof NodeEntity )
+        {
+            return ((NodeEntity) entity).getAllPropertyValues();
+        }
+        if ( entity instanceof RelationshipEntity )
+        {
+            return ((RelationshipEntity) entity).getAllPropertyValues();
+        }
+        return null;
+    }
+
+    /**
+     * Write the entries of the given map as fields of the object currently being written by the generator.
+     */
+    public void writeFields( MapValue map ) throws IOException
+    {
+        map.foreach( ( key, value ) ->
+        {
+            out.writeFieldName( key );
+            value.writeTo( this );
+        } );
+    }
+
+    JsonGenerator generator()
+    {
+        return out;
+    }
+
+    @Override
+    public EntityMode entityMode()
+    {
+        return EntityMode.FULL;
+    }
+
+    @Override
+    public void writeNodeReference( long nodeId ) throws IOException
+    {
+        // a node whose properties aren't at hand is written as its id
+        writeInteger( nodeId );
+    }
+
+    @Override
+    public void writeNode( long nodeId, TextArray labels, MapValue properties ) throws IOException
+    {
+        properties.writeTo( this );
+    }
+
+    @Override
+    public void writeRelationshipReference( long relId ) throws IOException
+    {
+        writeInteger( relId );
+    }
+
+    @Override
+    public void writeRelationship( long relId, long startNodeId, long endNodeId, TextValue type, MapValue properties ) throws IOException
+    {
+        properties.writeTo( this );
+    }
+
+    @Override
+    public void beginMap( int size ) throws IOException
+    {
+        out.writeStartObject();
+        push( MAP_KEY );
+    }
+
+    @Override
+    public void endMap() throws IOException
+    {
+        pop();
+        out.writeEndObject();
+        valueWritten();
+    }
+
+    @Override
+    public void beginList( int size ) throws IOException
+    {
+        out.writeStartArray();
+        push( LIST );
+    }
+
+    @Override
+    public void endList() throws IOException
+    {
+        pop();
+        out.writeEndArray();
+        valueWritten();
+    }
+
+    @Override
+    public void writePath( NodeValue[] nodes, RelationshipValue[] relationships ) throws IOException
+    {
+        // nodes and relationships in the order they appear along the path
+        beginList( nodes.length + relationships.length );
+        for ( int i = 0; i < nodes.length; i++ )
+        {
+            nodes[i].writeTo( this );
+            if ( i < relationships.length )
+            {
+                relationships[i].writeTo( this );
+            }
+        }
+        endList();
+    }
+
+    @Override
+    public void writeNull() throws IOException
+    {
+        out.writeNull();
+        valueWritten();
+    }
+
+    @Override
+    public void writeBoolean( boolean value ) throws IOException
+    {
+        out.writeBoolean( value );
+        valueWritten();
+    }
+
+    @Override
+    public void writeInteger( byte value ) throws IOException
+    {
+        out.writeNumber( value );
+        valueWritten();
+    }
+
+    @Override
+    public void writeInteger( short value ) throws IOException
+    {
+        out.writeNumber( value );
+        valueWritten();
+    }
+
+    @Override
+    public void writeInteger( int value ) throws IOException
+    {
+        out.writeNumber( value );
+        valueWritten();
+    }
+
+    @Override
+    public void writeInteger( long value ) throws IOException
+    {
+        out.writeNumber( value );
+        valueWritten();
+    }
+
+    @Override
+    public void writeFloatingPoint( float value ) throws IOException
+    {
+        out.writeNumber( value );
+        valueWritten();
+    }
+
+    @Override
+    public void writeFloatingPoint( double value ) throws IOException
+    {
+        out.writeNumber( value );
+        valueWritten();
+    }
+
+    @Override
+    public void writeString( String value ) throws IOException
+    {
+        switch ( current() )
+        {
+        case MAP_KEY:
+            out.writeFieldName( value );
+            containers[depth - 1] = MAP_VALUE;
+            break;
+        case CHAR_ARRAY:
+            chars.append( value );
+            break;
+        default:
+            out.writeString( value );
+            valueWritten();
+        }
+    }
+
+    @Override
+    public void writeString( char value ) throws IOException
+    {
+        if ( current() == CHAR_ARRAY )
+        {
+            chars.append( value );
+        }
+        else
+        {
+            writeString( String.valueOf( value ) );
+        }
+    }
+
+    @Override
+    public void writeUTF8( byte[] bytes, int offset, int length ) throws IOException
+    {
+        if ( rawUtf8 && current() != MAP_KEY && current() != CHAR_ARRAY )
+        {
+            out.writeUTF8String( bytes, offset, length );
+            valueWritten();
+        }
+        else
+        {
+            AnyValueWriter.super.writeUTF8( bytes, offset, length );
+        }
+    }
+
+    @Override
+    public void beginArray( int size, ArrayType arrayType ) throws IOException
+    {
+        if ( arrayType == ArrayType.CHAR )
+        {
+            // char arrays are written as strings, like jackson does
+            chars.setLength( 0 );
+            push( CHAR_ARRAY );
+        }
+        else
+        {
+            out.writeStartArray();
+            push( LIST );
+        }
+    }
+
+    @Override
+    public void endArray() throws IOException
+    {
+        if ( pop() == CHAR_ARRAY )
+        {
+            out.writeString( chars.toString() );
+        }
+        else
+        {
+            out.writeEndArray();
+        }
+        valueWritten();
+    }
+
+    @Override
+    public void writeByteArray( byte[] value ) throws IOException
+    {
+        out.writeStartArray();
+        for ( byte b : value )
+        {
+            out.writeNumber( b );
+        }
+        out.writeEndArray();
+        valueWritten();
+    }
+
+    @Override
+    public void writePoint( CoordinateReferenceSystem crs, double[] coordinate ) throws IOException
+    {
+        out.writeStartObject();
+        out.writeStringField( "type", "Point" );
+        out.writeFieldName( "coordinates" );
+        out.writeArray( coordinate, 0, coordinate.length );
+        out.writeObjectFieldStart( "crs" );
+        out.writeNumberField( "srid", crs.getCode() );
+        out.writeStringField( "name", crs.getType() );
+        out.writeStringField( "type", "link" );
+        out.writeObjectFieldStart( "properties" );
+        out.writeStringField( "href", crs.getHref() + "ogcwkt/" );
+        out.writeStringField( "type", "ogcwkt" );
+        out.writeEndObject();
+        out.writeEndObject();
+        out.writeEndObject();
+        valueWritten();
+    }
+
+    @Override
+    public void writeDuration( long months, long days, long seconds, int nanos ) throws IOException
+    {
+        writeString( DurationValue.duration( months, days, seconds, nanos ).prettyPrint() );
+    }
+
+    @Override
+    public void writeDate( LocalDate localDate ) throws IOException
+    {
+        writeString( localDate.toString() );
+    }
+
+    @Override
+    public void writeLocalTime( LocalTime localTime ) throws IOException
+    {
+        writeString( localTime.toString() );
+    }
+
+    @Override
+    public void writeTime( OffsetTime offsetTime ) throws IOException
+    {
+        writeString( offsetTime.toString() );
+    }
+
+    @Override
+    public void writeLocalDateTime( LocalDateTime localDateTime ) throws IOException
+    {
+        writeString( localDateTime.toString() );
+    }
+
+    @Override
+    public void writeDateTime( ZonedDateTime zonedDateTime ) throws IOException
+    {
+        writeString( zonedDateTime.toString() );
+    }
+
+    private byte current()
+    {
+        return depth == 0 ? LIST : containers[depth - 1];
+    }
+
+    private void push( byte container )
+    {
+        if ( depth == containers.length )
+        {
+            containers = Arrays.copyOf( containers, depth * 2 );
+        }
+        containers[depth++] = container;
+    }
+
+    private byte pop()
+    {
+        return containers[--depth];
+    }
+
+    private void valueWritten()
+    {
+        if ( depth > 0 && containers[depth - 1] == MAP_VALUE )
+        {
+            containers[depth - 1] = MAP_KEY;
+        }
+    }
+}
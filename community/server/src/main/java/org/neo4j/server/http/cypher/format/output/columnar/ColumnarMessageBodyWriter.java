@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Map;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.neo4j.server.http.cypher.format.api.FailureEvent;
+import org.neo4j.server.http.cypher.format.api.OutputEvent;
+import org.neo4j.server.http.cypher.format.api.OutputEventSource;
+import org.neo4j.server.http.cypher.format.api.RecordEvent;
+import org.neo4j.server.http.cypher.format.api.StatementEndEvent;
+import org.neo4j.server.http.cypher.format.api.StatementStartEvent;
+import org.neo4j.server.http.cypher.format.api.TransactionInfoEvent;
+import org.neo4j.server.http.cypher.format.input.json.InputStatement;
+import org.neo4j.server.http.cypher.format.input.json.JsonMessageBodyReader;
+
+/**
+ * Writes results in the binary columnar format described in {@link ColumnarResultSerializer}, for clients that accept {@link #MEDIA_TYPE}.
+ * The statements are still sent as JSON.
+ */
+@Provider
+// lower source quality, so that JSON is still written to clients that accept any media type
+@Produces( ColumnarMessageBodyWriter.MEDIA_TYPE + ";qs=0.5" )
+public class ColumnarMessageBodyWriter implements MessageBodyWriter<OutputEventSource>
+{
+    public static final String MEDIA_TYPE = "application/vnd.neo4j.columnar";
+
+    @Override
+    public boolean isWriteable( Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType )
+    {
+        return OutputEventSource.class.isAssignableFrom( type );
+    }
+
+    @Override
+    public void writeTo( OutputEventSource outputEventSource, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String,Object> httpHeaders, OutputStream entityStream ) throws WebApplicationException
+    {
+        ColumnarResultSerializer serializer = new ColumnarResultSerializer( entityStream, outputEventSource.getTransactionHandle() );
+
+        outputEventSource.produceEvents( outputEvent -> handleEvent( outputEvent, serializer, outputEventSource.getParameters() ) );
+    }
+
+    private void handleEvent( OutputEvent event, ColumnarResultSerializer serializer, Map<String,Object> parameters )
+    {
+        switch ( event.getType() )
+        {
+        case STATEMENT_START:
+            StatementStartEvent statementStartEvent = (StatementStartEvent) event;
+            InputStatement inputStatement = JsonMessageBodyReader.getInputStatement( parameters, statementStartEvent.getStatement() );
+            serializer.writeStatementStart( statementStartEvent, inputStatement );
+            break;
+        case RECORD:
+            serializer.writeRecord( (RecordEvent) event );
+            break;
+        case STATEMENT_END:
+            serializer.writeStatementEnd( (StatementEndEvent) event );
+            break;
+        case FAILURE:
+            serializer.writeFailure( (FailureEvent) event );
+            break;
+        case TRANSACTION_INFO:
+            serializer.writeTransactionInfo( (TransactionInfoEvent) event );
+            break;
+        default:
+            throw new IllegalStateException( "Unsupported event encountered:"  + event.getType() );
+        }
+    }
+}
@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.graphdb.Notification;
+import org.neo4j.server.http.cypher.TransactionHandle;
+import org.neo4j.server.http.cypher.format.api.ConnectionException;
+import org.neo4j.server.http.cypher.format.api.FailureEvent;
+import org.neo4j.server.http.cypher.format.api.OutputEvent;
+import org.neo4j.server.http.cypher.format.api.OutputEventSource;
+import org.neo4j.server.http.cypher.format.api.RecordEvent;
+import org.neo4j.server.http.cypher.format.api.StatementEndEvent;
+import org.neo4j.server.http.cypher.format.api.StatementStartEvent;
+import org.neo4j.server.http.cypher.format.api.TransactionInfoEvent;
+import org.neo4j.server.http.cypher.format.common.Neo4jJsonCodec;
+import org.neo4j.server.http.cypher.format.input.json.InputStatement;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.neo4j.server.http.cypher.format.api.TransactionNotificationState.OPEN;
+import static org.neo4j.server.http.cypher.format.common.ResultMetadataWriter.writeErrors;
+import static org.neo4j.server.http.cypher.format.common.ResultMetadataWriter.writeNotifications;
+import static org.neo4j.server.http.cypher.format.common.ResultMetadataWriter.writeOpenTransaction;
+import static org.neo4j.server.http.cypher.format.common.ResultMetadataWriter.writeRootPlanDescription;
+import static org.neo4j.server.http.cypher.format.common.ResultMetadataWriter.writeStats;
+
+/**
+ * A stateful serializer that serializes event stream produced by {@link OutputEventSource} into a binary columnar format.
+ * The serialization methods are expected to be invoked in order which corresponds to the legal ordering of the event stream events
+ * as described in {@link OutputEvent}.
+ * <p>
+ * The response starts with the {@link #MAGIC} bytes and the format {@link #VERSION}, followed by frames that each start with a frame type byte.
+ * All numbers are big-endian and strings are an {@code int} byte length followed by UTF-8 bytes.
+ * <ul>
+ *     <li>{@link #STATEMENT_START}: an {@code int} column count, followed by the column names.</li>
+ *     <li>{@link #ROW_GROUP}: an {@code int} row count, followed by one vector per column. A vector is a vector type byte followed by,
+ *     unless the type is {@link #NULL_VECTOR}, a bitmap with a bit set for every row that is not null, followed by the values:
+ *     <ul>
+ *         <li>{@link #LONG_VECTOR} and {@link #DOUBLE_VECTOR}: 8 bytes for every row, zero for null rows.</li>
+ *         <li>{@link #BOOLEAN_VECTOR}: a bitmap with a bit set for every row that is true.</li>
+ *         <li>{@link #STRING_VECTOR}: an {@code int} dictionary size and the dictionary strings, followed by an {@code int} dictionary
+ *         index for every row, zero for null rows.</li>
+ *         <li>{@link #JSON_VECTOR}: a string for every row that is not null, holding the value as it is written in the JSON {@code row} format.
+ *         Used for all other values, and for columns with values of different types within the row group.</li>
+ *     </ul></li>
+ *     <li>{@link #STATEMENT_END}: a string holding a JSON object, with {@code stats} and {@code plan} if they were requested.</li>
+ *     <li>{@link #TRANSACTION_INFO}: the last frame of the response, a string holding a JSON object with {@code notifications}, {@code errors},
+ *     and {@code commit} and {@code transaction} like the JSON format.</li>
+ * </ul>
+ * Rows are buffered and written in row groups of up to {@link #ROW_GROUP_SIZE} rows, and the response is flushed after every row group.
+ * Values that end up in a {@link #JSON_VECTOR} anyway are buffered already encoded, so that the entities among them are read while their
+ * record is current.
+ */
+class ColumnarResultSerializer
+{
+    static final byte[] MAGIC = {'N', 'E', 'O', '4', 'J', 'C', 'O', 'L'};
+    static final byte VERSION = 1;
+
+    static final byte STATEMENT_START = 1;
+    static final byte ROW_GROUP = 2;
+    static final byte STATEMENT_END = 3;
+    static final byte TRANSACTION_INFO = 4;
+
+    static final byte NULL_VECTOR = 0;
+    static final byte LONG_VECTOR = 1;
+    static final byte DOUBLE_VECTOR = 2;
+    static final byte BOOLEAN_VECTOR = 3;
+    static final byte STRING_VECTOR = 4;
+    static final byte JSON_VECTOR = 5;
+
+    static final int ROW_GROUP_SIZE = 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable( JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM );
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream jsonBuffer = new ByteArrayOutputStream();
+    private final JsonGenerator json;
+    private final int rowGroupSize;
+    private final List<Notification> notifications = new ArrayList<>();
+    private final List<FailureEvent> errors = new ArrayList<>();
+
+    private final Map<String,Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryStrings = new ArrayList<>();
+    private final byte[] bitmap;
+    private final int[] dictionaryIndexes;
+
+    private boolean started;
+    private InputStatement inputStatement;
+    private Object[][] columns;
+    private int rows;
+
+    ColumnarResultSerializer( OutputStream output, TransactionHandle transactionHandle )
+    {
+        this( output, transactionHandle, ROW_GROUP_SIZE );
+    }
+
+    ColumnarResultSerializer( OutputStream output, TransactionHandle transactionHandle, int rowGroupSize )
+    {
+        this.out = new DataOutputStream( new BufferedOutputStream( output, BUFFER_SIZE ) );
+        this.rowGroupSize = rowGroupSize;
+        this.bitmap = new byte[bitmapSize( rowGroupSize )];
+        this.dictionaryIndexes = new int[rowGroupSize];
+        this.json = createGenerator( jsonBuffer );
+        this.json.setCodec( new Neo4jJsonCodec( transactionHandle ) );
+        // every value is written as a separate document
+        this.json.setRootValueSeparator( null );
+    }
+
+    private static JsonGenerator createGenerator( OutputStream output )
+    {
+        try
+        {
+            return JSON_FACTORY.createGenerator( output );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( "Failed to create JSON generator", e );
+        }
+    }
+
+    void writeStatementStart( StatementStartEvent statementStartEvent, InputStatement inputStatement )
+    {
+        this.inputStatement = inputStatement;
+        List<String> columnNames = statementStartEvent.getColumns();
+        try
+        {
+            ensureStarted();
+            out.writeByte( STATEMENT_START );
+            out.writeInt( columnNames.size() );
+            for ( String columnName : columnNames )
+            {
+                writeString( columnName );
+            }
+            columns = new Object[columnNames.size()][rowGroupSize];
+            rows = 0;
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    void writeRecord( RecordEvent recordEvent )
+    {
+        List<String> columnNames = recordEvent.getColumns();
+        try
+        {
+            for ( int i = 0; i < columns.length; i++ )
+            {
+                columns[i][rows] = bufferedValue( recordEvent.getValue( columnNames.get( i ) ) );
+            }
+            rows++;
+            if ( rows == rowGroupSize )
+            {
+                writeRowGroup();
+                out.flush();
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    /**
+     * Values other than numbers, booleans and strings are encoded to JSON right away, while the record they are part of is current.
+     * Entities in particular have their properties read in the transaction, which may be terminated by the time the row group is written.
+     */
+    private Object bufferedValue( Object value ) throws IOException
+    {
+        if ( value == null || scalarType( value ) != JSON_VECTOR )
+        {
+            return value;
+        }
+        json.writeObject( value );
+        json.flush();
+        EncodedJson encoded = new EncodedJson( jsonBuffer.toByteArray() );
+        jsonBuffer.reset();
+        return encoded;
+    }
+
+    void writeStatementEnd( StatementEndEvent statementEndEvent )
+    {
+        try
+        {
+            writeRowGroup();
+            json.writeStartObject();
+            if ( inputStatement.includeStats() )
+            {
+                writeStats( json, statementEndEvent.getQueryStatistics() );
+            }
+            if ( statementEndEvent.getQueryExecutionType().requestedExecutionPlanDescription() )
+            {
+                writeRootPlanDescription( json, statementEndEvent.getExecutionPlanDescription() );
+            }
+            json.writeEndObject();
+            closeStatement();
+
+            statementEndEvent.getNotifications().forEach( notifications::add );
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    void writeFailure( FailureEvent failureEvent )
+    {
+        errors.add( failureEvent );
+        if ( columns == null )
+        {
+            return;
+        }
+        try
+        {
+            // the rows produced before the failure are still sent, like in the JSON format
+            writeRowGroup();
+            json.writeStartObject();
+            json.writeEndObject();
+            closeStatement();
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    void writeTransactionInfo( TransactionInfoEvent transactionInfoEvent )
+    {
+        try
+        {
+            ensureStarted();
+            json.writeStartObject();
+            writeNotifications( json, notifications );
+            writeErrors( json, errors );
+            if ( transactionInfoEvent.getCommitUri() != null )
+            {
+                json.writeStringField( "commit", transactionInfoEvent.getCommitUri().toString() );
+            }
+            if ( transactionInfoEvent.getNotification() == OPEN )
+            {
+                writeOpenTransaction( json, transactionInfoEvent.getExpirationTimestamp() );
+            }
+            json.writeEndObject();
+            out.writeByte( TRANSACTION_INFO );
+            writeJson();
+            out.flush();
+        }
+        catch ( IOException e )
+        {
+            throw new ConnectionException( "Failed to write to the connection", e );
+        }
+    }
+
+    private void ensureStarted() throws IOException
+    {
+        if ( !started )
+        {
+            out.write( MAGIC );
+            out.writeByte( VERSION );
+            started = true;
+        }
+    }
+
+    private void closeStatement() throws IOException
+    {
+        out.writeByte( STATEMENT_END );
+        writeJson();
+        columns = null;
+        inputStatement = null;
+    }
+
+    private void writeRowGroup() throws IOException
+    {
+        if ( rows == 0 )
+        {
+            return;
+        }
+        out.writeByte( ROW_GROUP );
+        out.writeInt( rows );
+        for ( Object[] column : columns )
+        {
+            writeVector( column );
+            // release the values of this row group, entities in particular
+            Arrays.fill( column, 0, rows, null );
+        }
+        rows = 0;
+    }
+
+    private void writeVector( Object[] values ) throws IOException
+    {
+        byte vectorType = vectorType( values, rows );
+        out.writeByte( vectorType );
+        if ( vectorType == NULL_VECTOR )
+        {
+            return;
+        }
+        int bitmapSize = bitmapSize( rows );
+        Arrays.fill( bitmap, 0, bitmapSize, (byte) 0 );
+        for ( int i = 0; i < rows; i++ )
+        {
+            if ( values[i] != null )
+            {
+                bitmap[i >>> 3] |= 1 << (i & 7);
+            }
+        }
+        out.write( bitmap, 0, bitmapSize );
+
+        switch ( vectorType )
+        {
+        case LONG_VECTOR:
+            for ( int i = 0; i < rows; i++ )
+            {
+                out.writeLong( values[i] == null ? 0 : ((Number) values[i]).longValue() );
+            }
+            break;
+        case DOUBLE_VECTOR:
+            for ( int i = 0; i < rows; i++ )
+            {
+                out.writeDouble( values[i] == null ? 0 : ((Number) values[i]).doubleValue() );
+            }
+            break;
+        case BOOLEAN_VECTOR:
+            Arrays.fill( bitmap, 0, bitmapSize, (byte) 0 );
+            for ( int i = 0; i < rows; i++ )
+            {
+                if ( values[i] == Boolean.TRUE )
+                {
+                    bitmap[i >>> 3] |= 1 << (i & 7);
+                }
+            }
+            out.write( bitmap, 0, bitmapSize );
+            break;
+        case STRING_VECTOR:
+            writeStringVector( values );
+            break;
+        case JSON_VECTOR:
+            for ( int i = 0; i < rows; i++ )
+            {
+                if ( values[i] instanceof EncodedJson )
+                {
+                    byte[] bytes = ((EncodedJson) values[i]).bytes;
+                    out.writeInt( bytes.length );
+                    out.write( bytes );
+                }
+                else if ( values[i] != null )
+                {
+                    json.writeObject( values[i] );
+                    writeJson();
+                }
+            }
+            break;
+        default:
+            throw new IllegalStateException( "Unsupported vector type: " + vectorType );
+        }
+    }
+
+    private void writeStringVector( Object[] values ) throws IOException
+    {
+        try
+        {
+            for ( int i = 0; i < rows; i++ )
+            {
+                if ( values[i] != null )
+                {
+                    String string = values[i].toString();
+                    Integer index = dictionary.get( string );
+                    if ( index == null )
+                    {
+                        index = dictionaryStrings.size();
+                        dictionary.put( string, index );
+                        dictionaryStrings.add( string );
+                    }
+                    dictionaryIndexes[i] = index;
+                }
+                else
+                {
+                    dictionaryIndexes[i] = 0;
+                }
+            }
+            out.writeInt( dictionaryStrings.size() );
+            for ( String string : dictionaryStrings )
+            {
+                writeString( string );
+            }
+            for ( int i = 0; i < rows; i++ )
+            {
+                out.writeInt( dictionaryIndexes[i] );
+            }
+        }
+        finally
+        {
+            dictionary.clear();
+            dictionaryStrings.clear();
+        }
+    }
+
+    /**
+     * @return the single vector type that holds all the values of a row group, {@link #JSON_VECTOR} if there is none.
+     */
+    private static byte vectorType( Object[] values, int rows )
+    {
+        byte vectorType = NULL_VECTOR;
+        for ( int i = 0; i < rows; i++ )
+        {
+            Object value = values[i];
+            if ( value == null )
+            {
+                continue;
+            }
+            byte valueType = scalarType( value );
+            if ( valueType == JSON_VECTOR )
+            {
+                return JSON_VECTOR;
+            }
+
+            if ( vectorType == NULL_VECTOR )
+            {
+                vectorType = valueType;
+            }
+            else if ( vectorType != valueType )
+            {
+                return JSON_VECTOR;
+            }
+        }
+        return vectorType;
+    }
+
+    /**
+     * @return the vector type of the given non-null value, {@link #JSON_VECTOR} if it is not a number, boolean or string.
+     */
+    private static byte scalarType( Object value )
+    {
+        if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte )
+        {
+            return LONG_VECTOR;
+        }
+        if ( value instanceof Double || value instanceof Float )
+        {
+            return DOUBLE_VECTOR;
+        }
+        if ( value instanceof Boolean )
+        {
+            return BOOLEAN_VECTOR;
+        }
+        if ( value instanceof String || value instanceof Character )
+        {
+            return STRING_VECTOR;
+        }
+        return JSON_VECTOR;
+    }
+
+    private static int bitmapSize( int rows )
+    {
+        return (rows + 7) >>> 3;
+    }
+
+    private void writeString( String string ) throws IOException
+    {
+        byte[] bytes = string.getBytes( UTF_8 );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    /**
+     * Writes the JSON document written to {@link #json} since the last call as a string.
+     */
+    private void writeJson() throws IOException
+    {
+        json.flush();
+        out.writeInt( jsonBuffer.size() );
+        jsonBuffer.writeTo( out );
+        jsonBuffer.reset();
+    }
+
+    /**
+     * A value encoded to JSON when its record arrived.
+     */
+    private static class EncodedJson
+    {
+        private final byte[] bytes;
+
+        EncodedJson( byte[] bytes )
+        {
+            this.bytes = bytes;
+        }
+    }
+}
@@ -26,17 +26,10 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
-import org.neo4j.graphdb.ExecutionPlanDescription;
-import org.neo4j.graphdb.InputPosition;
 import org.neo4j.graphdb.Notification;
-import org.neo4j.graphdb.QueryStatistics;
 import org.neo4j.server.http.cypher.TransactionHandle;
 import org.neo4j.server.http.cypher.TransactionStateChecker;
 import org.neo4j.server.http.cypher.format.api.ConnectionException;
@@ -48,10 +41,13 @@ import org.neo4j.server.http.cypher.format.api.StatementEndEvent;
 import org.neo4j.server.http.cypher.format.api.StatementStartEvent;
 import org.neo4j.server.http.cypher.format.api.TransactionInfoEvent;
 import org.neo4j.server.http.cypher.format.common.Neo4jJsonCodec;
+import org.neo4j.server.http.cypher.format.common.ResultMetadataWriter;
 import org.neo4j.server.http.cypher.format.input.json.InputStatement;
 
 import static org.neo4j.server.http.cypher.format.api.TransactionNotificationState.OPEN;
-import static org.neo4j.server.rest.domain.JsonHelper.writeValue;
+import static org.neo4j.server.http.cypher.format.common.ResultMetadataWriter.writeOpenTransaction;
+import static org.neo4j.server.http.cypher.format.common.ResultMetadataWriter.writeRootPlanDescription;
+import static org.neo4j.server.http.cypher.format.common.ResultMetadataWriter.writeStats;
 
 /**
  * A stateful serializer that serializes event stream produced  by {@link OutputEventSource} into JSON.
@@ -79,8 +75,9 @@ class ExecutionResultSerializer
         this.baseUri = baseUri;
         this.transactionHandle = transactionHandle;
         this.output = output;
-        JSON_FACTORY.setCodec( new Neo4jJsonCodec( transactionHandle ) );
         this.out = createGenerator( output );
+        // each response gets its own codec, the factory is shared between concurrent requests
+        this.out.setCodec( new Neo4jJsonCodec( transactionHandle ) );
     }
 
     private static JsonGenerator createGenerator( OutputStream output )
@@ -170,11 +167,11 @@ class ExecutionResultSerializer
             out.writeEndArray();
             if ( inputStatement.includeStats() )
             {
-                writeStats( statementEndEvent.getQueryStatistics() );
+                writeStats( out, statementEndEvent.getQueryStatistics() );
             }
             if ( statementEndEvent.getQueryExecutionType().requestedExecutionPlanDescription() )
             {
-                writeRootPlanDescription( statementEndEvent.getExecutionPlanDescription() );
+                writeRootPlanDescription( out, statementEndEvent.getExecutionPlanDescription() );
             }
 
             out.writeEndObject(); // </result>
@@ -206,15 +203,7 @@ class ExecutionResultSerializer
             }
             if ( transactionInfoEvent.getNotification() == OPEN )
             {
-                out.writeObjectFieldStart( "transaction" );
-                if ( transactionInfoEvent.getExpirationTimestamp() >= 0 )
-                {
-                    String expires = Instant.ofEpochMilli( transactionInfoEvent.getExpirationTimestamp() )
-                            .atZone( ZoneId.of( "GMT" ) )
-                            .format( DateTimeFormatter.RFC_1123_DATE_TIME );
-                    out.writeStringField( "expires", expires );
-                }
-                out.writeEndObject();
+                writeOpenTransaction( out, transactionInfoEvent.getExpirationTimestamp() );
             }
             out.writeEndObject();
             flush();
@@ -257,31 +246,7 @@ class ExecutionResultSerializer
         try
         {
             ensureResultsFieldClosed();
-
-            out.writeArrayFieldStart( "notifications" );
-            try
-            {
-                for ( Notification notification : notifications )
-                {
-                    out.writeStartObject();
-                    try
-                    {
-                        out.writeStringField( "code", notification.getCode() );
-                        out.writeStringField( "severity", notification.getSeverity().toString() );
-                        out.writeStringField( "title", notification.getTitle() );
-                        out.writeStringField( "description", notification.getDescription() );
-                        writePosition( notification.getPosition() );
-                    }
-                    finally
-                    {
-                        out.writeEndObject();
-                    }
-                }
-            }
-            finally
-            {
-                out.writeEndArray();
-            }
+            ResultMetadataWriter.writeNotifications( out, notifications );
         }
         catch ( IOException e )
         {
@@ -289,150 +254,17 @@ class ExecutionResultSerializer
         }
     }
 
-    private void writePosition( InputPosition position ) throws IOException
-    {
-        //do not add position if empty
-        if ( position == InputPosition.empty )
-        {
-            return;
-        }
-
-        out.writeObjectFieldStart( "position" );
-        try
-        {
-            out.writeNumberField( "offset", position.getOffset() );
-            out.writeNumberField( "line", position.getLine() );
-            out.writeNumberField( "column", position.getColumn() );
-        }
-        finally
-        {
-            out.writeEndObject();
-        }
-    }
-
-    private void writeStats( QueryStatistics stats ) throws IOException
-    {
-        out.writeObjectFieldStart( "stats" );
-        try
-        {
-            out.writeBooleanField( "contains_updates", stats.containsUpdates() );
-            out.writeNumberField( "nodes_created", stats.getNodesCreated() );
-            out.writeNumberField( "nodes_deleted", stats.getNodesDeleted() );
-            out.writeNumberField( "properties_set", stats.getPropertiesSet() );
-            out.writeNumberField( "relationships_created", stats.getRelationshipsCreated() );
-            out.writeNumberField( "relationship_deleted", stats.getRelationshipsDeleted() );
-            out.writeNumberField( "labels_added", stats.getLabelsAdded() );
-            out.writeNumberField( "labels_removed", stats.getLabelsRemoved() );
-            out.writeNumberField( "indexes_added", stats.getIndexesAdded() );
-            out.writeNumberField( "indexes_removed", stats.getIndexesRemoved() );
-            out.writeNumberField( "constraints_added", stats.getConstraintsAdded() );
-            out.writeNumberField( "constraints_removed", stats.getConstraintsRemoved() );
-            out.writeBooleanField( "contains_system_updates", stats.containsSystemUpdates() );
-            out.writeNumberField( "system_updates", stats.getSystemUpdates() );
-        }
-        finally
-        {
-            out.writeEndObject();
-        }
-    }
-
-    private void writeRootPlanDescription( ExecutionPlanDescription planDescription ) throws IOException
-    {
-        out.writeObjectFieldStart( "plan" );
-        try
-        {
-            out.writeObjectFieldStart( "root" );
-            try
-            {
-                writePlanDescriptionObjectBody( planDescription );
-            }
-            finally
-            {
-                out.writeEndObject();
-            }
-        }
-        finally
-        {
-            out.writeEndObject();
-        }
-    }
-
-    private void writePlanDescriptionObjectBody( ExecutionPlanDescription planDescription ) throws IOException
-    {
-        out.writeStringField( "operatorType", planDescription.getName() );
-        writePlanArgs( planDescription );
-        writePlanIdentifiers( planDescription );
-
-        List<ExecutionPlanDescription> children = planDescription.getChildren();
-        out.writeArrayFieldStart( "children" );
-        try
-        {
-            for ( ExecutionPlanDescription child : children )
-            {
-                out.writeStartObject();
-                try
-                {
-                    writePlanDescriptionObjectBody( child );
-                }
-                finally
-                {
-                    out.writeEndObject();
-                }
-            }
-        }
-        finally
-        {
-            out.writeEndArray();
-        }
-    }
-
-    private void writePlanArgs( ExecutionPlanDescription planDescription ) throws IOException
-    {
-        for ( Map.Entry<String,Object> entry : planDescription.getArguments().entrySet() )
-        {
-            String fieldName = entry.getKey();
-            Object fieldValue = entry.getValue();
-
-            out.writeFieldName( fieldName );
-            writeValue( out, fieldValue );
-        }
-    }
-
-    private void writePlanIdentifiers( ExecutionPlanDescription planDescription ) throws IOException
-    {
-        out.writeArrayFieldStart( "identifiers" );
-        for ( String id : planDescription.getIdentifiers() )
-        {
-            out.writeString( id );
-        }
-        out.writeEndArray();
-    }
-
     private void writeErrors()
     {
         try
         {
             ensureDocumentOpen();
-            out.writeArrayFieldStart( "errors" );
             try
             {
-                for ( FailureEvent error : errors )
-                {
-                    try
-                    {
-                        out.writeStartObject();
-                        out.writeObjectField( "code", error.getStatus().code().serialize() );
-                        out.writeObjectField( "message", error.getMessage() );
-                    }
-                    finally
-                    {
-                        out.writeEndObject();
-                    }
-                }
+                ResultMetadataWriter.writeErrors( out, errors );
             }
             finally
             {
-                out.writeEndArray();
                 currentState = State.ERRORS_WRITTEN;
             }
         }
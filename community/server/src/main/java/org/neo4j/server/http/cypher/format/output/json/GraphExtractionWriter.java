@@ -31,29 +31,44 @@ import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Path;
 import org.neo4j.graphdb.Relationship;
-import org.neo4j.internal.helpers.collection.IterableWrapper;
 import org.neo4j.server.http.cypher.TransactionStateChecker;
 import org.neo4j.server.http.cypher.format.api.RecordEvent;
+import org.neo4j.server.http.cypher.format.common.StreamingJsonValueWriter;
+import org.neo4j.values.virtual.MapValue;
 
 class GraphExtractionWriter implements ResultDataContentWriter
 {
+    // Reused for every record of the statement
+    private final Set<Node> nodes = new HashSet<>();
+    private final Set<Relationship> relationships = new HashSet<>();
+    private StreamingJsonValueWriter valueWriter;
+
     @Override
     public void write( JsonGenerator out, RecordEvent recordEvent, TransactionStateChecker txStateChecker )
             throws IOException
     {
-        Set<Node> nodes = new HashSet<>();
-        Set<Relationship> relationships = new HashSet<>();
-        extract( nodes, relationships, map( recordEvent ) );
-
-        out.writeObjectFieldStart( "graph" );
         try
         {
-            writeNodes( out, nodes, txStateChecker );
-            writeRelationships( out, relationships, txStateChecker );
+            for ( String key : recordEvent.getColumns() )
+            {
+                extract( nodes, relationships, recordEvent.getValue( key ) );
+            }
+
+            out.writeObjectFieldStart( "graph" );
+            try
+            {
+                writeNodes( out, nodes, txStateChecker );
+                writeRelationships( out, relationships, txStateChecker );
+            }
+            finally
+            {
+                out.writeEndObject();
+            }
         }
         finally
         {
-            out.writeEndObject();
+            nodes.clear();
+            relationships.clear();
         }
     }
 
@@ -150,10 +165,17 @@ class GraphExtractionWriter implements ResultDataContentWriter
         out.writeObjectFieldStart( "properties" );
         try
         {
-            for ( Map.Entry<String, Object> property : container.getAllProperties().entrySet() )
+            MapValue properties = StreamingJsonValueWriter.propertyValues( container );
+            if ( properties != null )
             {
-                out.writeObjectField( property.getKey(), property.getValue() );
-
+                valueWriter( out ).writeFields( properties );
+            }
+            else
+            {
+                for ( Map.Entry<String,Object> property : container.getAllProperties().entrySet() )
+                {
+                    out.writeObjectField( property.getKey(), property.getValue() );
+                }
             }
         }
         finally
@@ -162,53 +184,53 @@ class GraphExtractionWriter implements ResultDataContentWriter
         }
     }
 
-    private void extract( Set<Node> nodes, Set<Relationship> relationships, Iterable<?> source )
+    private StreamingJsonValueWriter valueWriter( JsonGenerator out )
+    {
+        if ( valueWriter == null )
+        {
+            valueWriter = new StreamingJsonValueWriter( out );
+        }
+        return valueWriter;
+    }
+
+    private void extract( Set<Node> nodes, Set<Relationship> relationships, Object item )
     {
-        for ( Object item : source )
+        if ( item instanceof Node )
+        {
+            nodes.add( (Node) item );
+        }
+        else if ( item instanceof Relationship )
+        {
+            Relationship relationship = (Relationship) item;
+            relationships.add( relationship );
+            nodes.add( relationship.getStartNode() );
+            nodes.add( relationship.getEndNode() );
+        }
+        if ( item instanceof Path )
         {
-            if ( item instanceof Node )
+            Path path = (Path) item;
+            for ( Node node : path.nodes() )
             {
-                nodes.add( (Node) item );
+                nodes.add( node );
             }
-            else if ( item instanceof Relationship )
+            for ( Relationship relationship : path.relationships() )
             {
-                Relationship relationship = (Relationship) item;
                 relationships.add( relationship );
-                nodes.add( relationship.getStartNode() );
-                nodes.add( relationship.getEndNode() );
             }
-            if ( item instanceof Path )
-            {
-                Path path = (Path) item;
-                for ( Node node : path.nodes() )
-                {
-                    nodes.add( node );
-                }
-                for ( Relationship relationship : path.relationships() )
-                {
-                    relationships.add( relationship );
-                }
-            }
-            else if ( item instanceof Map<?, ?> )
-            {
-                extract( nodes, relationships, ((Map<?, ?>) item).values() );
-            }
-            else if ( item instanceof Iterable<?> )
+        }
+        else if ( item instanceof Map<?, ?> )
+        {
+            for ( Object value : ((Map<?, ?>) item).values() )
             {
-                extract( nodes, relationships, (Iterable<?>) item );
+                extract( nodes, relationships, value );
             }
         }
-    }
-
-    private static Iterable<?> map( RecordEvent recordEvent )
-    {
-        return new IterableWrapper<>( recordEvent.getColumns() )
+        else if ( item instanceof Iterable<?> )
         {
-            @Override
-            protected Object underlyingObjectToObject( String key )
+            for ( Object value : (Iterable<?>) item )
             {
-                return recordEvent.getValue( key );
+                extract( nodes, relationships, value );
             }
-        };
+        }
     }
 }
@@ -25,6 +25,7 @@ import org.neo4j.configuration.Config;
 import org.neo4j.server.configuration.ServerSettings;
 import org.neo4j.server.http.cypher.LegacyTransactionService;
 import org.neo4j.server.http.cypher.format.input.json.JsonMessageBodyReader;
+import org.neo4j.server.http.cypher.format.output.columnar.ColumnarMessageBodyWriter;
 import org.neo4j.server.http.cypher.format.output.json.JsonMessageBodyWriter;
 import org.neo4j.server.web.WebServer;
 
@@ -50,7 +51,7 @@ public class LegacyTransactionModule implements ServerModule
 
     private List<Class<?>> jaxRsClasses()
     {
-        return List.of( LegacyTransactionService.class, JsonMessageBodyReader.class, JsonMessageBodyWriter.class );
+        return List.of( LegacyTransactionService.class, JsonMessageBodyReader.class, JsonMessageBodyWriter.class, ColumnarMessageBodyWriter.class );
     }
 
     @Override
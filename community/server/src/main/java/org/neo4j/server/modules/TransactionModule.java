@@ -25,6 +25,7 @@ import org.neo4j.configuration.Config;
 import org.neo4j.server.configuration.ServerSettings;
 import org.neo4j.server.http.cypher.CypherResource;
 import org.neo4j.server.http.cypher.format.input.json.JsonMessageBodyReader;
+import org.neo4j.server.http.cypher.format.output.columnar.ColumnarMessageBodyWriter;
 import org.neo4j.server.http.cypher.format.output.json.JsonMessageBodyWriter;
 import org.neo4j.server.web.WebServer;
 
@@ -61,6 +62,6 @@ public class TransactionModule implements ServerModule
 
     private static List<Class<?>> jaxRsClasses()
     {
-        return List.of( CypherResource.class, JsonMessageBodyReader.class, JsonMessageBodyWriter.class );
+        return List.of( CypherResource.class, JsonMessageBodyReader.class, JsonMessageBodyWriter.class, ColumnarMessageBodyWriter.class );
     }
 }
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.io.NullOutputStream;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.neo4j.resources.HeapAllocation.HEAP_ALLOCATION;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.Cartesian;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.WGS84_3D;
+import static org.neo4j.values.storable.DateTimeValue.datetime;
+import static org.neo4j.values.storable.DateValue.date;
+import static org.neo4j.values.storable.DurationValue.duration;
+import static org.neo4j.values.storable.LocalDateTimeValue.localDateTime;
+import static org.neo4j.values.storable.LocalTimeValue.localTime;
+import static org.neo4j.values.storable.TimeValue.time;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+import static org.neo4j.values.storable.Values.booleanArray;
+import static org.neo4j.values.storable.Values.booleanValue;
+import static org.neo4j.values.storable.Values.byteArray;
+import static org.neo4j.values.storable.Values.charArray;
+import static org.neo4j.values.storable.Values.charValue;
+import static org.neo4j.values.storable.Values.dateArray;
+import static org.neo4j.values.storable.Values.doubleArray;
+import static org.neo4j.values.storable.Values.doubleValue;
+import static org.neo4j.values.storable.Values.floatValue;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.longArray;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.pointArray;
+import static org.neo4j.values.storable.Values.pointValue;
+import static org.neo4j.values.storable.Values.shortValue;
+import static org.neo4j.values.storable.Values.stringArray;
+import static org.neo4j.values.storable.Values.stringValue;
+import static org.neo4j.values.storable.Values.utf8Value;
+
+class StreamingJsonValueWriterTest
+{
+    private static final List<Value> VALUES = List.of(
+            NO_VALUE,
+            booleanValue( true ),
+            shortValue( (short) -3 ),
+            intValue( 42 ),
+            longValue( Long.MAX_VALUE ),
+            floatValue( 1.5f ),
+            doubleValue( 0.1 ),
+            charValue( 'c' ),
+            stringValue( "plain \"quoted\" \\ \n string" ),
+            utf8Value( "Ärligt talat, \"nästan\" alla tecken är ASCII €".getBytes( UTF_8 ) ),
+            byteArray( new byte[]{1, -2, 3} ),
+            longArray( new long[]{1, 2, 3} ),
+            doubleArray( new double[]{1.5, -0.25} ),
+            booleanArray( new boolean[]{true, false} ),
+            charArray( new char[]{'a', 'b', '"'} ),
+            stringArray( "one", "two" ),
+            pointValue( Cartesian, 1.0, 2.5 ),
+            pointValue( WGS84_3D, 12.9, 55.6, 100 ),
+            pointArray( new PointValue[]{pointValue( Cartesian, 1, 2 ), pointValue( Cartesian, 3, 4 )} ),
+            date( 2020, 2, 29 ),
+            localTime( 12, 30, 1, 5 ),
+            time( OffsetTime.of( 23, 59, 0, 0, ZoneOffset.ofHours( 2 ) ) ),
+            localDateTime( LocalDateTime.of( 1999, 12, 31, 23, 59 ) ),
+            datetime( ZonedDateTime.of( 2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC ) ),
+            duration( 14, 3, 3600, 5 ),
+            dateArray( new LocalDate[]{LocalDate.of( 2000, 1, 1 ), LocalDate.of( 2001, 2, 3 )} ) );
+
+    @Test
+    void shouldWriteValuesLikeTheCodecWritesTheirJavaObjects() throws IOException
+    {
+        for ( Value value : VALUES )
+        {
+            String expected = json( generator -> generator.writeObject( value.asObjectCopy() ) );
+            String actual = json( generator -> value.writeTo( new StreamingJsonValueWriter( generator ) ) );
+
+            assertThat( actual ).as( value.toString() ).isEqualTo( expected );
+        }
+    }
+
+    @Test
+    void shouldWriteNestedMapsAndListsLikeTheCodec() throws IOException
+    {
+        MapValueBuilder inner = new MapValueBuilder();
+        inner.add( "list", VirtualValues.list( intValue( 1 ), stringValue( "two" ), NO_VALUE ) );
+        inner.add( "utf8", utf8Value( "tre" ) );
+        MapValueBuilder outer = new MapValueBuilder();
+        outer.add( "inner", inner.build() );
+        outer.add( "empty", MapValue.EMPTY );
+        MapValue map = outer.build();
+
+        Map<String,Object> javaInner = new HashMap<>();
+        javaInner.put( "list", Arrays.asList( 1, "two", null ) );
+        javaInner.put( "utf8", "tre" );
+        Map<String,Object> javaMap = new HashMap<>();
+        javaMap.put( "inner", javaInner );
+        javaMap.put( "empty", Map.of() );
+
+        String expected = json( generator -> generator.writeObject( javaMap ) );
+        String actual = json( generator -> map.writeTo( new StreamingJsonValueWriter( generator ) ) );
+
+        assertThat( actual ).isEqualTo( expected );
+    }
+
+    @Test
+    void shouldWriteEntityReferencesAsTheirIds() throws IOException
+    {
+        String actual = json( generator -> VirtualValues.list( VirtualValues.node( 42 ), VirtualValues.relationship( 7 ) )
+                .writeTo( new StreamingJsonValueWriter( generator ) ) );
+
+        assertThat( actual ).isEqualTo( "[42,7]" );
+    }
+
+    @Test
+    void shouldWritePropertiesWithLessAllocationThanObjectMapper() throws IOException
+    {
+        assumeTrue( HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() ) != -1, "Allocation can't be measured on this JVM" );
+
+        // given the properties of an entity, as read from the store
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "name", utf8Value( "Ärligt talat, nästan alla tecken i den här strängen är ASCII men inte riktigt alla €".getBytes( UTF_8 ) ) );
+        builder.add( "born", longValue( 1964 ) );
+        builder.add( "rating", doubleValue( 4.5 ) );
+        builder.add( "active", booleanValue( true ) );
+        builder.add( "tags", stringArray( "one", "two", "three" ) );
+        MapValue properties = builder.build();
+        int rows = 10_000;
+
+        // then both ways produce the same output
+        assertThat( json( generator -> writeStreaming( generator, properties, 1 ) ) )
+                .isEqualTo( json( generator -> writeWithObjectMapper( generator, properties, 1 ) ) );
+
+        // when
+        long streaming = allocatedWriting( generator -> writeStreaming( generator, properties, rows ) );
+        long objectMapper = allocatedWriting( generator -> writeWithObjectMapper( generator, properties, rows ) );
+
+        // then
+        assertThat( streaming ).as( "allocated by streaming writer, object mapper allocated %d", objectMapper ).isLessThan( objectMapper / 4 );
+    }
+
+    private static void writeStreaming( JsonGenerator generator, MapValue properties, int rows ) throws IOException
+    {
+        StreamingJsonValueWriter writer = new StreamingJsonValueWriter( generator );
+        generator.writeStartArray();
+        for ( int i = 0; i < rows; i++ )
+        {
+            generator.writeStartObject();
+            writer.writeFields( properties );
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * How entity properties used to be written, copied into java objects and then written one by one by an {@link ObjectMapper}.
+     */
+    private static void writeWithObjectMapper( JsonGenerator generator, MapValue properties, int rows ) throws IOException
+    {
+        ObjectMapper mapper = new ObjectMapper();
+        generator.writeStartArray();
+        for ( int i = 0; i < rows; i++ )
+        {
+            Map<String,Object> javaProperties = new HashMap<>();
+            properties.foreach( ( key, value ) -> javaProperties.put( key, ((Value) value).asObjectCopy() ) );
+            generator.writeStartObject();
+            for ( Map.Entry<String,Object> property : javaProperties.entrySet() )
+            {
+                generator.writeFieldName( property.getKey() );
+                mapper.writeValue( generator, property.getValue() );
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static long allocatedWriting( GeneratorConsumer writes ) throws IOException
+    {
+        // warm up, so that only the steady state is measured
+        write( NullOutputStream.NULL_OUTPUT_STREAM, writes );
+        long before = HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() );
+        write( NullOutputStream.NULL_OUTPUT_STREAM, writes );
+        return HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() ) - before;
+    }
+
+    private static String json( GeneratorConsumer writes ) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write( out, writes );
+        return out.toString( UTF_8 );
+    }
+
+    private static void write( OutputStream out, GeneratorConsumer writes ) throws IOException
+    {
+        try ( JsonGenerator generator = new JsonFactory( new Neo4jJsonCodec() ).createGenerator( out ) )
+        {
+            writes.accept( generator );
+        }
+    }
+
+    @FunctionalInterface
+    private interface GeneratorConsumer
+    {
+        void accept( JsonGenerator generator ) throws IOException;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.server.http.cypher.format.output.columnar;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.QueryExecutionType;
+import org.neo4j.graphdb.TransactionTerminatedException;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.api.KernelTransactionImplementation;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.server.http.cypher.TransactionHandle;
+import org.neo4j.server.http.cypher.TransitionalTxManagementKernelTransaction;
+import org.neo4j.server.http.cypher.format.api.FailureEvent;
+import org.neo4j.server.http.cypher.format.api.RecordEvent;
+import org.neo4j.server.http.cypher.format.api.StatementEndEvent;
+import org.neo4j.server.http.cypher.format.api.StatementStartEvent;
+import org.neo4j.server.http.cypher.format.api.TransactionInfoEvent;
+import org.neo4j.server.http.cypher.format.api.TransactionNotificationState;
+import org.neo4j.server.http.cypher.format.input.json.InputStatement;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.BOOLEAN_VECTOR;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.DOUBLE_VECTOR;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.JSON_VECTOR;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.LONG_VECTOR;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.MAGIC;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.NULL_VECTOR;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.ROW_GROUP;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.STATEMENT_END;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.STATEMENT_START;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.STRING_VECTOR;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.TRANSACTION_INFO;
+import static org.neo4j.server.http.cypher.format.output.columnar.ColumnarResultSerializer.VERSION;
+import static org.neo4j.server.rest.domain.JsonHelper.jsonNode;
+
+class ColumnarResultSerializerTest
+{
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final TransactionHandle transactionHandle = mock( TransactionHandle.class );
+    private final InternalTransaction internalTransaction = mock( InternalTransaction.class );
+
+    @BeforeEach
+    void init()
+    {
+        var context = mock( TransitionalTxManagementKernelTransaction.class );
+        when( internalTransaction.kernelTransaction() ).thenReturn( mock( KernelTransactionImplementation.class ) );
+        when( context.getInternalTransaction() ).thenReturn( internalTransaction );
+        when( transactionHandle.getContext() ).thenReturn( context );
+    }
+
+    @Test
+    void shouldWriteColumnsAsTypedVectors() throws Exception
+    {
+        // given
+        ColumnarResultSerializer serializer = new ColumnarResultSerializer( output, transactionHandle );
+        String[] columns = {"long", "double", "boolean", "string", "nothing"};
+
+        // when
+        writeStatementStart( serializer, columns );
+        writeRecord( serializer, columns, 1L, 1.5, true, "a", null );
+        writeRecord( serializer, columns, null, 2.5, false, "ä€", null );
+        writeRecord( serializer, columns, 3L, null, true, "a", null );
+        writeStatementEnd( serializer );
+        writeTransactionInfo( serializer, "commit/uri/1" );
+
+        // then
+        DataInputStream in = input();
+        assertThat( readStatementStart( in ) ).containsExactly( columns );
+
+        assertThat( in.readByte() ).isEqualTo( ROW_GROUP );
+        assertThat( in.readInt() ).isEqualTo( 3 );
+
+        assertThat( in.readByte() ).isEqualTo( LONG_VECTOR );
+        assertThat( in.readByte() ).isEqualTo( (byte) 0b101 );
+        assertThat( new long[]{in.readLong(), in.readLong(), in.readLong()} ).containsExactly( 1, 0, 3 );
+
+        assertThat( in.readByte() ).isEqualTo( DOUBLE_VECTOR );
+        assertThat( in.readByte() ).isEqualTo( (byte) 0b011 );
+        assertThat( new double[]{in.readDouble(), in.readDouble(), in.readDouble()} ).containsExactly( 1.5, 2.5, 0 );
+
+        assertThat( in.readByte() ).isEqualTo( BOOLEAN_VECTOR );
+        assertThat( in.readByte() ).isEqualTo( (byte) 0b111 );
+        assertThat( in.readByte() ).isEqualTo( (byte) 0b101 );
+
+        assertThat( in.readByte() ).isEqualTo( STRING_VECTOR );
+        assertThat( in.readByte() ).isEqualTo( (byte) 0b111 );
+        assertThat( in.readInt() ).isEqualTo( 2 );
+        assertThat( readString( in ) ).isEqualTo( "a" );
+        assertThat( readString( in ) ).isEqualTo( "ä€" );
+        assertThat( new int[]{in.readInt(), in.readInt(), in.readInt()} ).containsExactly( 0, 1, 0 );
+
+        assertThat( in.readByte() ).isEqualTo( NULL_VECTOR );
+
+        assertThat( in.readByte() ).isEqualTo( STATEMENT_END );
+        assertThat( readString( in ) ).isEqualTo( "{}" );
+
+        assertThat( in.readByte() ).isEqualTo( TRANSACTION_INFO );
+        assertThat( readString( in ) ).isEqualTo( "{\"errors\":[],\"commit\":\"commit/uri/1\"}" );
+        assertThat( in.read() ).isEqualTo( -1 );
+    }
+
+    @Test
+    void shouldFallBackToJsonForNestedAndMixedValues() throws Exception
+    {
+        // given
+        ColumnarResultSerializer serializer = new ColumnarResultSerializer( output, transactionHandle );
+        String[] columns = {"map", "mixed"};
+        Map<String,Object> map = new HashMap<>();
+        map.put( "list", Arrays.asList( 1L, "two" ) );
+
+        // when
+        writeStatementStart( serializer, columns );
+        writeRecord( serializer, columns, map, 1L );
+        writeRecord( serializer, columns, null, "one" );
+        writeStatementEnd( serializer );
+        writeTransactionInfo( serializer, null );
+
+        // then
+        DataInputStream in = input();
+        readStatementStart( in );
+        assertThat( in.readByte() ).isEqualTo( ROW_GROUP );
+        assertThat( in.readInt() ).isEqualTo( 2 );
+
+        assertThat( in.readByte() ).isEqualTo( JSON_VECTOR );
+        assertThat( in.readByte() ).isEqualTo( (byte) 0b01 );
+        assertThat( readString( in ) ).isEqualTo( "{\"list\":[1,\"two\"]}" );
+
+        assertThat( in.readByte() ).isEqualTo( JSON_VECTOR );
+        assertThat( in.readByte() ).isEqualTo( (byte) 0b11 );
+        assertThat( readString( in ) ).isEqualTo( "1" );
+        assertThat( readString( in ) ).isEqualTo( "\"one\"" );
+    }
+
+    @Test
+    void shouldWriteRowsInRowGroups() throws Exception
+    {
+        // given
+        ColumnarResultSerializer serializer = new ColumnarResultSerializer( output, transactionHandle, 4 );
+        String[] columns = {"value"};
+
+        // when
+        writeStatementStart( serializer, columns );
+        for ( long i = 0; i < 10; i++ )
+        {
+            writeRecord( serializer, columns, i );
+        }
+        writeStatementEnd( serializer );
+        writeTransactionInfo( serializer, null );
+
+        // then
+        DataInputStream in = input();
+        readStatementStart( in );
+        List<Long> values = new ArrayList<>();
+        List<Integer> rowGroups = new ArrayList<>();
+        byte frame;
+        while ( (frame = in.readByte()) == ROW_GROUP )
+        {
+            int rows = in.readInt();
+            rowGroups.add( rows );
+            assertThat( in.readByte() ).isEqualTo( LONG_VECTOR );
+            in.readByte();
+            for ( int i = 0; i < rows; i++ )
+            {
+                values.add( in.readLong() );
+            }
+        }
+        assertThat( frame ).isEqualTo( STATEMENT_END );
+        assertThat( rowGroups ).containsExactly( 4, 4, 2 );
+        assertThat( values ).containsExactly( 0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L );
+    }
+
+    @Test
+    void shouldSendRowsAndErrorsOnFailure() throws Exception
+    {
+        // given
+        ColumnarResultSerializer serializer = new ColumnarResultSerializer( output, transactionHandle );
+        String[] columns = {"value"};
+
+        // when
+        writeStatementStart( serializer, columns );
+        writeRecord( serializer, columns, "one" );
+        serializer.writeFailure( new FailureEvent( Status.Statement.SyntaxError, "failed" ) );
+        writeTransactionInfo( serializer, null );
+
+        // then
+        DataInputStream in = input();
+        readStatementStart( in );
+        assertThat( in.readByte() ).isEqualTo( ROW_GROUP );
+        assertThat( in.readInt() ).isEqualTo( 1 );
+        assertThat( in.readByte() ).isEqualTo( STRING_VECTOR );
+        in.readByte();
+        assertThat( in.readInt() ).isEqualTo( 1 );
+        assertThat( readString( in ) ).isEqualTo( "one" );
+        assertThat( in.readInt() ).isEqualTo( 0 );
+        assertThat( in.readByte() ).isEqualTo( STATEMENT_END );
+        assertThat( readString( in ) ).isEqualTo( "{}" );
+
+        assertThat( in.readByte() ).isEqualTo( TRANSACTION_INFO );
+        JsonNode info = jsonNode( readString( in ) );
+        assertThat( info.get( "errors" ).get( 0 ).get( "code" ).asText() ).isEqualTo( "Neo.ClientError.Statement.SyntaxError" );
+        assertThat( info.get( "errors" ).get( 0 ).get( "message" ).asText() ).isEqualTo( "failed" );
+    }
+
+    @Test
+    void shouldReadEntitiesWhenTheirRecordArrives() throws Exception
+    {
+        // given
+        ColumnarResultSerializer serializer = new ColumnarResultSerializer( output, transactionHandle );
+        String[] columns = {"node"};
+        Node node = mock( Node.class );
+        when( node.getId() ).thenReturn( 1L );
+        when( node.getAllProperties() ).thenReturn( Map.of( "name", "one" ) );
+        when( internalTransaction.getNodeById( 1L ) ).thenReturn( node );
+
+        // when
+        writeStatementStart( serializer, columns );
+        writeRecord( serializer, columns, node );
+        when( node.getAllProperties() ).thenThrow( new TransactionTerminatedException( Status.Transaction.Terminated ) );
+        serializer.writeFailure( new FailureEvent( Status.Transaction.Terminated, "terminated" ) );
+        writeTransactionInfo( serializer, null );
+
+        // then
+        DataInputStream in = input();
+        readStatementStart( in );
+        assertThat( in.readByte() ).isEqualTo( ROW_GROUP );
+        assertThat( in.readInt() ).isEqualTo( 1 );
+        assertThat( in.readByte() ).isEqualTo( JSON_VECTOR );
+        assertThat( in.readByte() ).isEqualTo( (byte) 0b1 );
+        assertThat( readString( in ) ).isEqualTo( "{\"name\":\"one\"}" );
+        assertThat( in.readByte() ).isEqualTo( STATEMENT_END );
+    }
+
+    @Test
+    void shouldWriteOnlyTransactionInfoWhenThereAreNoStatements() throws Exception
+    {
+        // given
+        ColumnarResultSerializer serializer = new ColumnarResultSerializer( output, transactionHandle );
+
+        // when
+        serializer.writeTransactionInfo( new TransactionInfoEvent( TransactionNotificationState.OPEN, URI.create( "commit/uri/1" ), -1 ) );
+
+        // then
+        DataInputStream in = input();
+        assertThat( in.readByte() ).isEqualTo( TRANSACTION_INFO );
+        assertThat( readString( in ) ).isEqualTo( "{\"errors\":[],\"commit\":\"commit/uri/1\",\"transaction\":{}}" );
+    }
+
+    private DataInputStream input() throws IOException
+    {
+        DataInputStream in = new DataInputStream( new ByteArrayInputStream( output.toByteArray() ) );
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully( magic );
+        assertThat( magic ).isEqualTo( MAGIC );
+        assertThat( in.readByte() ).isEqualTo( VERSION );
+        return in;
+    }
+
+    private static List<String> readStatementStart( DataInputStream in ) throws IOException
+    {
+        assertThat( in.readByte() ).isEqualTo( STATEMENT_START );
+        int columns = in.readInt();
+        List<String> names = new ArrayList<>();
+        for ( int i = 0; i < columns; i++ )
+        {
+            names.add( readString( in ) );
+        }
+        return names;
+    }
+
+    private static String readString( DataInputStream in ) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return new String( bytes, UTF_8 );
+    }
+
+    private static void writeStatementStart( ColumnarResultSerializer serializer, String... columns )
+    {
+        serializer.writeStatementStart( new StatementStartEvent( null, Arrays.asList( columns ) ), new InputStatement( null, null, false, null ) );
+    }
+
+    private static void writeRecord( ColumnarResultSerializer serializer, String[] columns, Object... values )
+    {
+        Map<String,Object> row = new HashMap<>();
+        for ( int i = 0; i < columns.length; i++ )
+        {
+            row.put( columns[i], values[i] );
+        }
+        serializer.writeRecord( new RecordEvent( Arrays.asList( columns ), row::get ) );
+    }
+
+    private static void writeStatementEnd( ColumnarResultSerializer serializer )
+    {
+        serializer.writeStatementEnd( new StatementEndEvent( QueryExecutionType.query( QueryExecutionType.QueryType.READ_ONLY ), null, null,
+                Collections.emptyList() ) );
+    }
+
+    private static void writeTransactionInfo( ColumnarResultSerializer serializer, String commitUri )
+    {
+        serializer.writeTransactionInfo( new TransactionInfoEvent( TransactionNotificationState.NO_TRANSACTION,
+                commitUri == null ? null : URI.create( commitUri ), -1 ) );
+    }
+}
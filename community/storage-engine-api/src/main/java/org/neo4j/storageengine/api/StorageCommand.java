@@ -47,6 +47,28 @@ public interface StorageCommand
      */
     void serialize( WritableChannel channel ) throws IOException;
 
+    /**
+     * Reports the records changed by this command, which lets recovery apply transactions that change disjoint sets of records in parallel.
+     * Commands whose changes cannot be described by the records they touch, e.g. schema and token changes, keep the default
+     * implementation and have their transactions applied in log order with respect to all other transactions.
+     *
+     * @param visitor {@link ChangedRecordVisitor} receiving each changed record.
+     * @return {@code true} if all records changed by this command were reported, otherwise {@code false}.
+     */
+    default boolean visitChangedRecords( ChangedRecordVisitor visitor )
+    {
+        return false;
+    }
+
+    interface ChangedRecordVisitor
+    {
+        /**
+         * @param recordType storage engine specific type of the changed record, ids of different types never refer to the same record.
+         * @param id id of the changed record.
+         */
+        void changed( int recordType, long id );
+    }
+
     interface TokenCommand extends StorageCommand
     {
         /**
@@ -32,7 +32,9 @@ public interface StorageEntityScanCursor<S extends Scan> extends StorageEntityCu
      *
      * The upper bound of the number of found entities, is given by the provided size hint. The provided
      * <code>SCAN</code> can be shared among worker-threads where each thread has a separate cursor. The role of
-     * <code>scan</code> is to make sure we don't get overlapping ranges.
+     * <code>scan</code> is to make sure we don't get overlapping ranges. Batches are handed out in order of entity id, so that
+     * once the first <code>n</code> batches of a scan have been read, all entities below <code>n * sizeHint</code> have been seen,
+     * given that the same size hint is used for all batches.
      *
      * @param scan scan maintains state across threads so that we get exclusive ranges for each batch.
      * @param sizeHint the batch will try to read this number of entities.
@@ -101,6 +101,19 @@ public class AdversarialPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public int touch( long pageId, int count, PageCursorTracer tracer ) throws IOException
+    {
+        adversary.injectFailure( FileNotFoundException.class, IOException.class, SecurityException.class );
+        return delegate.touch( pageId, count, tracer );
+    }
+
+    @Override
+    public void prefetch( long pageId, PageCursorTracer tracer )
+    {
+        delegate.prefetch( pageId, tracer );
+    }
+
     @Override
     public void close()
     {
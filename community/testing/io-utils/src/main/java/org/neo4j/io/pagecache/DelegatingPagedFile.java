@@ -51,6 +51,18 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public int touch( long pageId, int count, PageCursorTracer tracer ) throws IOException
+    {
+        return delegate.touch( pageId, count, tracer );
+    }
+
+    @Override
+    public void prefetch( long pageId, PageCursorTracer tracer )
+    {
+        delegate.prefetch( pageId, tracer );
+    }
+
     @Override
     public int pageSize()
     {
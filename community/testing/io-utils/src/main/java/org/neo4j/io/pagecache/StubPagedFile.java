@@ -86,6 +86,17 @@ public class StubPagedFile implements PagedFile
         return lastPageId;
     }
 
+    @Override
+    public int touch( long pageId, int count, PageCursorTracer tracer )
+    {
+        return (int) Math.max( 0, Math.min( count, lastPageId + 1 - pageId ) );
+    }
+
+    @Override
+    public void prefetch( long pageId, PageCursorTracer tracer )
+    {
+    }
+
     @Override
     public void close()
     {